@@ -5,7 +5,6 @@
  */
 package com.pekinsoft.abams.db;
 
-import java.io.Serializable;
 import java.util.Collection;
 
 /**
@@ -15,9 +14,20 @@ import java.util.Collection;
  * @version 0.1.0
  * @since 0.1.0
  */
-public class Addresses implements Serializable {
+public class Addresses extends EditableEntity {
 
     private static final long serialVersionUID = 1L;
+
+    /*
+     * The numbers of the column fields, as used by getDirtyFields().
+     */
+    public static final int STREET = 0;
+    public static final int APT = 1;
+    public static final int CITY = 2;
+    public static final int STATE_OR_PROVINCE = 3;
+    public static final int POSTAL_CODE = 4;
+    public static final int CUSTOMER = 5;
+
     private Long addressID;
     private String street;
     private String apt;
@@ -57,7 +67,9 @@ public class Addresses implements Serializable {
     }
 
     public void setStreet(String street) {
+        Object old = this.street;
         this.street = street;
+        changed(STREET, "street", old, street);
     }
 
     public String getApt() {
@@ -65,7 +77,9 @@ public class Addresses implements Serializable {
     }
 
     public void setApt(String apt) {
+        Object old = this.apt;
         this.apt = apt;
+        changed(APT, "apt", old, apt);
     }
 
     public String getCity() {
@@ -73,7 +87,9 @@ public class Addresses implements Serializable {
     }
 
     public void setCity(String city) {
+        Object old = this.city;
         this.city = city;
+        changed(CITY, "city", old, city);
     }
 
     public String getStateOrProvince() {
@@ -81,7 +97,9 @@ public class Addresses implements Serializable {
     }
 
     public void setStateOrProvince(String stateOrProvince) {
+        Object old = this.stateOrProvince;
         this.stateOrProvince = stateOrProvince;
+        changed(STATE_OR_PROVINCE, "stateOrProvince", old, stateOrProvince);
     }
 
     public String getPostalCode() {
@@ -89,7 +107,9 @@ public class Addresses implements Serializable {
     }
 
     public void setPostalCode(String postalCode) {
+        Object old = this.postalCode;
         this.postalCode = postalCode;
+        changed(POSTAL_CODE, "postalCode", old, postalCode);
     }
 
     public Customers getCustomerID() {
@@ -97,7 +117,9 @@ public class Addresses implements Serializable {
     }
 
     public void setCustomerID(Customers customerID) {
+        Object old = this.customerID;
         this.customerID = customerID;
+        changed(CUSTOMER, "customerID", old, customerID);
     }
 
     public Collection<Orders> getOrdersCollection() {
@@ -5,7 +5,6 @@
  */
 package com.pekinsoft.abams.db;
 
-import java.io.Serializable;
 import java.util.Collection;
 
 /**
@@ -15,9 +14,18 @@ import java.util.Collection;
  * @version 0.1.0
  * @since 0.1.0
  */
-public class Customers implements Serializable {
+public class Customers extends EditableEntity {
 
     private static final long serialVersionUID = 1L;
+
+    /*
+     * The numbers of the column fields, as used by getDirtyFields().
+     */
+    public static final int LAST_NAME = 0;
+    public static final int FIRST_NAME = 1;
+    public static final int EMAIL = 2;
+    public static final int PHONE = 3;
+
     private Long customerID;
     private String lastName;
     private String firstName;
@@ -55,7 +63,9 @@ public class Customers implements Serializable {
     }
 
     public void setLastName(String lastName) {
+        Object old = this.lastName;
         this.lastName = lastName;
+        changed(LAST_NAME, "lastName", old, lastName);
     }
 
     public String getFirstName() {
@@ -63,7 +73,9 @@ public class Customers implements Serializable {
     }
 
     public void setFirstName(String firstName) {
+        Object old = this.firstName;
         this.firstName = firstName;
+        changed(FIRST_NAME, "firstName", old, firstName);
     }
 
     public String getEmail() {
@@ -71,7 +83,9 @@ public class Customers implements Serializable {
     }
 
     public void setEmail(String email) {
+        Object old = this.email;
         this.email = email;
+        changed(EMAIL, "email", old, email);
     }
 
     public String getPhone() {
@@ -79,7 +93,9 @@ public class Customers implements Serializable {
     }
 
     public void setPhone(String phone) {
+        Object old = this.phone;
         this.phone = phone;
+        changed(PHONE, "phone", old, phone);
     }
 
     public Collection<Addresses> getAddressesCollection() {
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   EditableEntity.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 8:51:09 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         The bit set is updated under the 
+ *                                     record's lock, as records are written
+ *                                     while they are being edited.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db;
+
+import com.pekinsoft.abams.db.api.Editable;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The {@code EditableEntity} class implements the {@link Editable} interface
+ * for the entity classes. Each entity numbers its column fields from zero,
+ * and its setters report changes through
+ * {@link #changed(int, java.lang.String, java.lang.Object, java.lang.Object)},
+ * which sets the field's bit in a single {@code long} and notifies any
+ * property change listeners. Setting a field to the value it already holds is
+ * not a change.
+ * <p>
+ * A new record starts with every field dirty, since none of them has been
+ * written yet. Records read from the database are marked unchanged by their
+ * binder.</p>
+ * <p>
+ * The bit set is only changed while holding the record's lock, as a record 
+ * may be edited on one thread while a write-behind flush clears the fields 
+ * it has written on another.</p>
+ * <p>
+ * The listener support is only created once a listener is added, so records
+ * that nobody listens to carry no more than the bit set.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public abstract class EditableEntity implements Editable, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long dirtyFields = -1L;
+    private transient PropertyChangeSupport changes;
+
+    @Override
+    public synchronized void addPropertyChangeListener(
+            PropertyChangeListener listener) {
+        if (changes == null) {
+            changes = new PropertyChangeSupport(this);
+        }
+        changes.addPropertyChangeListener(listener);
+    }
+
+    @Override
+    public synchronized void removePropertyChangeListener(
+            PropertyChangeListener listener) {
+        if (changes != null) {
+            changes.removePropertyChangeListener(listener);
+        }
+    }
+
+    @Override
+    public synchronized boolean isEdited() {
+        return dirtyFields != 0;
+    }
+
+    @Override
+    public synchronized void setEdited(boolean value) {
+        dirtyFields = value ? -1L : 0;
+    }
+
+    @Override
+    public synchronized long getDirtyFields() {
+        return dirtyFields;
+    }
+
+    @Override
+    public synchronized void clearDirty(long fields) {
+        dirtyFields &= ~fields;
+    }
+
+    @Override
+    public synchronized void markDirty(long fields) {
+        dirtyFields |= fields;
+    }
+
+    /**
+     * Records a change to a field, if the new value differs from the old one,
+     * and fires a property change event for it.
+     *
+     * @param field the number of the field
+     * @param property the name of the property the field backs
+     * @param oldValue the value before the change
+     * @param newValue the value after the change
+     */
+    protected void changed(int field, String property, Object oldValue,
+            Object newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+
+        markDirty(1L << field);
+        PropertyChangeSupport support = changes;
+        if (support != null) {
+            support.firePropertyChange(property, oldValue, newValue);
+        }
+    }
+
+}
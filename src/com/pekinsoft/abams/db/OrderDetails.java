@@ -5,7 +5,6 @@
  */
 package com.pekinsoft.abams.db;
 
-import java.io.Serializable;
 import java.math.BigDecimal;
 
 /**
@@ -15,9 +14,18 @@ import java.math.BigDecimal;
  * @version 0.1.0
  * @since 0.1.0
  */
-public class OrderDetails implements Serializable {
+public class OrderDetails extends EditableEntity {
 
     private static final long serialVersionUID = 1L;
+
+    /*
+     * The numbers of the column fields, as used by getDirtyFields().
+     */
+    public static final int ORDER = 0;
+    public static final int PRODUCT = 1;
+    public static final int QTY = 2;
+    public static final int LINE_TOTAL = 3;
+
     private Long detailID;
     private int qty;
     // @Max(value=?)  @Min(value=?)//if you know range of your decimal fields consider using these annotations to enforce field validation
@@ -52,7 +60,9 @@ public class OrderDetails implements Serializable {
     }
 
     public void setQty(int qty) {
+        Object old = this.qty;
         this.qty = qty;
+        changed(QTY, "qty", old, qty);
     }
 
     public BigDecimal getLineTotal() {
@@ -60,7 +70,9 @@ public class OrderDetails implements Serializable {
     }
 
     public void setLineTotal(BigDecimal lineTotal) {
+        Object old = this.lineTotal;
         this.lineTotal = lineTotal;
+        changed(LINE_TOTAL, "lineTotal", old, lineTotal);
     }
 
     public Orders getOrderID() {
@@ -68,7 +80,9 @@ public class OrderDetails implements Serializable {
     }
 
     public void setOrderID(Orders orderID) {
+        Object old = this.orderID;
         this.orderID = orderID;
+        changed(ORDER, "orderID", old, orderID);
     }
 
     public Products getProductID() {
@@ -76,7 +90,9 @@ public class OrderDetails implements Serializable {
     }
 
     public void setProductID(Products productID) {
+        Object old = this.productID;
         this.productID = productID;
+        changed(PRODUCT, "productID", old, productID);
     }
 
     @Override
@@ -5,7 +5,6 @@
  */
 package com.pekinsoft.abams.db;
 
-import java.io.Serializable;
 import java.util.Collection;
 import java.util.Date;
 
@@ -16,9 +15,20 @@ import java.util.Date;
  * @version 0.1.0
  * @since 0.1.0
  */
-public class Orders implements Serializable {
+public class Orders extends EditableEntity {
 
     private static final long serialVersionUID = 1L;
+
+    /*
+     * The numbers of the column fields, as used by getDirtyFields().
+     */
+    public static final int ORDER_DATE = 0;
+    public static final int PROMISE_DATE = 1;
+    public static final int SHIP_DATE = 2;
+    public static final int BILLING_ADDRESS = 3;
+    public static final int SHIPPING_ADDRESS = 4;
+    public static final int CUSTOMER = 5;
+
     private Long orderID;
     private Date orderDate;
     private Date promiseDate;
@@ -54,7 +64,9 @@ public class Orders implements Serializable {
     }
 
     public void setOrderDate(Date orderDate) {
+        Object old = this.orderDate;
         this.orderDate = orderDate;
+        changed(ORDER_DATE, "orderDate", old, orderDate);
     }
 
     public Date getPromiseDate() {
@@ -62,7 +74,9 @@ public class Orders implements Serializable {
     }
 
     public void setPromiseDate(Date promiseDate) {
+        Object old = this.promiseDate;
         this.promiseDate = promiseDate;
+        changed(PROMISE_DATE, "promiseDate", old, promiseDate);
     }
 
     public Date getShipDate() {
@@ -70,7 +84,9 @@ public class Orders implements Serializable {
     }
 
     public void setShipDate(Date shipDate) {
+        Object old = this.shipDate;
         this.shipDate = shipDate;
+        changed(SHIP_DATE, "shipDate", old, shipDate);
     }
 
     public Addresses getBillingAddressID() {
@@ -78,7 +94,9 @@ public class Orders implements Serializable {
     }
 
     public void setBillingAddressID(Addresses billingAddressID) {
+        Object old = this.billingAddressID;
         this.billingAddressID = billingAddressID;
+        changed(BILLING_ADDRESS, "billingAddressID", old, billingAddressID);
     }
 
     public Addresses getShippingAddressID() {
@@ -86,7 +104,9 @@ public class Orders implements Serializable {
     }
 
     public void setShippingAddressID(Addresses shippingAddressID) {
+        Object old = this.shippingAddressID;
         this.shippingAddressID = shippingAddressID;
+        changed(SHIPPING_ADDRESS, "shippingAddressID", old, shippingAddressID);
     }
 
     public Customers getCustomerID() {
@@ -94,7 +114,9 @@ public class Orders implements Serializable {
     }
 
     public void setCustomerID(Customers customerID) {
+        Object old = this.customerID;
         this.customerID = customerID;
+        changed(CUSTOMER, "customerID", old, customerID);
     }
 
     public Collection<OrderDetails> getOrderDetailsCollection() {
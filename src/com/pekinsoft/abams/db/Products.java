@@ -5,8 +5,10 @@
  */
 package com.pekinsoft.abams.db;
 
-import java.io.Serializable;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.Collection;
 
 /**
@@ -16,9 +18,19 @@ import java.util.Collection;
  * @version 0.1.0
  * @since 0.1.0
  */
-public class Products implements Serializable {
+public class Products extends EditableEntity {
 
     private static final long serialVersionUID = 1L;
+
+    /*
+     * The numbers of the column fields, as used by getDirtyFields().
+     */
+    public static final int PRODUCT_NAME = 0;
+    public static final int DESCRIPTION = 1;
+    public static final int UNIT_PRICE = 2;
+    public static final int DIMENSIONS = 3;
+    public static final int PICTURE = 4;
+
     private Long productID;
     private String productName;
     private String description;
@@ -26,6 +38,8 @@ public class Products implements Serializable {
     private BigDecimal unitPrice;
     private String dimensions;
     private byte[] picture;
+    private boolean pictureLoaded = true;
+    private transient PictureLoader pictureLoader;
     private Collection<OrderDetails> orderDetailsCollection;
 
     public Products () {
@@ -55,7 +69,9 @@ public class Products implements Serializable {
     }
 
     public void setProductName(String productName) {
+        Object old = this.productName;
         this.productName = productName;
+        changed(PRODUCT_NAME, "productName", old, productName);
     }
 
     public String getDescription() {
@@ -63,7 +79,9 @@ public class Products implements Serializable {
     }
 
     public void setDescription(String description) {
+        Object old = this.description;
         this.description = description;
+        changed(DESCRIPTION, "description", old, description);
     }
 
     public BigDecimal getUnitPrice() {
@@ -71,7 +89,9 @@ public class Products implements Serializable {
     }
 
     public void setUnitPrice(BigDecimal unitPrice) {
+        Object old = this.unitPrice;
         this.unitPrice = unitPrice;
+        changed(UNIT_PRICE, "unitPrice", old, unitPrice);
     }
 
     public String getDimensions() {
@@ -79,15 +99,88 @@ public class Products implements Serializable {
     }
 
     public void setDimensions(String dimensions) {
+        Object old = this.dimensions;
         this.dimensions = dimensions;
+        changed(DIMENSIONS, "dimensions", old, dimensions);
     }
 
+    /**
+     * Retrieves the product's picture. If the product was loaded without its
+     * picture, the picture is fetched from the database the first time this
+     * method is called, and kept from then on.
+     * 
+     * @return the picture bytes, or {@code null} if there is no picture
+     * @throws IllegalStateException if the picture could not be fetched
+     */
     public byte[] getPicture() {
+        if (!pictureLoaded && pictureLoader != null) {
+            try {
+                picture = pictureLoader.loadPicture(productID);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Unable to load the picture "
+                        + "for product " + productID, ex);
+            }
+            pictureLoaded = true;
+        }
         return picture;
     }
 
+    /**
+     * Sets the product's picture. If the picture has not been loaded, the
+     * stored picture is unknown, so the field is marked dirty even when the
+     * new picture is {@code null}; otherwise clearing a picture that was
+     * never fetched would not be written.
+     *
+     * @param picture the picture bytes, or {@code null} for no picture
+     */
     public void setPicture(byte[] picture) {
+        Object old = this.picture;
+        boolean wasLoaded = pictureLoaded;
         this.picture = picture;
+        this.pictureLoaded = true;
+        if (!wasLoaded) {
+            markDirty(1L << PICTURE);
+        }
+        changed(PICTURE, "picture", old, picture);
+    }
+
+    /**
+     * Opens the product's picture as a stream. If the picture has not been
+     * loaded yet, it is streamed straight from the database without being
+     * kept in memory, which is preferable for large images that are only
+     * displayed once. The stream must be closed when done.
+     * 
+     * @return a stream over the picture, or {@code null} if there is no picture
+     * @throws SQLException in the event a database error occurs
+     */
+    public InputStream getPictureStream() throws SQLException {
+        if (!pictureLoaded && pictureLoader != null) {
+            return pictureLoader.openPicture(productID);
+        }
+        return picture == null ? null : new ByteArrayInputStream(picture);
+    }
+
+    /**
+     * Determines whether the picture is held in memory, or will have to be
+     * fetched on the first call to {@link #getPicture()}.
+     * 
+     * @return {@code true} if the picture has been loaded
+     */
+    public boolean isPictureLoaded() {
+        return pictureLoaded;
+    }
+
+    /**
+     * Marks the picture as not loaded and sets where to fetch it from when it
+     * is first needed. This is used by the data access object when it lists
+     * products without their pictures.
+     * 
+     * @param pictureLoader the loader to fetch the picture with
+     */
+    public void setPictureLoader(PictureLoader pictureLoader) {
+        this.pictureLoader = pictureLoader;
+        this.picture = null;
+        this.pictureLoaded = false;
     }
 
     public Collection<OrderDetails> getOrderDetailsCollection() {
@@ -123,4 +216,31 @@ public class Products implements Serializable {
         return "com.pekinsoft.abams.db.Products[ productID=" + productID + " ]";
     }
 
+    /**
+     * Fetches a product's picture on demand.
+     */
+    public interface PictureLoader {
+
+        /**
+         * Reads the whole picture of the given product.
+         * 
+         * @param productID the product whose picture is wanted
+         * @return the picture bytes, or {@code null} if there is no picture
+         * @throws SQLException in the event a database error occurs
+         */
+        byte[] loadPicture(Long productID) throws SQLException;
+
+        /**
+         * Opens a stream over the picture of the given product. The stream
+         * holds database resources until it is closed.
+         * 
+         * @param productID the product whose picture is wanted
+         * @return a stream over the picture, or {@code null} if there is no
+         *          picture
+         * @throws SQLException in the event a database error occurs
+         */
+        InputStream openPicture(Long productID) throws SQLException;
+
+    }
+
 }
@@ -19,7 +19,7 @@
  *  Class      :   AbstractDAO.java
  *  Author     :   Sean Carrick
  *  Created    :   Mar 23, 2021 @ 6:46:02 PM
- *  Modified   :   Mar 23, 2021
+ *  Modified   :   Oct 18, 2026
  * 
  *  Purpose:     See class JavaDoc comment.
  * 
@@ -28,23 +28,95 @@
  *  WHEN          BY                   REASON
  *  ------------  -------------------  -----------------------------------------
  *  Mar 23, 2021  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Connections are now borrowed from a
+ *                                     shared ConnectionPool.
+ *  Oct 18, 2026  Sean Carrick         Implemented the JDBC batch engine behind
+ *                                     processBatch, insert, update, save and
+ *                                     delete.
+ *  Oct 18, 2026  Sean Carrick         Added streaming mode, which browses the
+ *                                     table a window of records at a time.
+ *  Oct 18, 2026  Sean Carrick         Implemented the find methods on top of
+ *                                     the column metadata and statement cache.
+ *  Oct 18, 2026  Sean Carrick         Added the shared, read-through entity
+ *                                     cache.
+ *  Oct 18, 2026  Sean Carrick         Tables are now described by an
+ *                                     EntityBinder, which maps rows by index.
+ *  Oct 18, 2026  Sean Carrick         Added set-based selects and the afterLoad
+ *                                     hook, for loading related records.
+ *  Oct 18, 2026  Sean Carrick         Added keyset pagination: findPage, and
+ *                                     a sort field for the streaming cursor.
+ *  Oct 18, 2026  Sean Carrick         Updates now only set the columns whose
+ *                                     fields are dirty.
+ *  Oct 18, 2026  Sean Carrick         Batched writes of the same record are
+ *                                     coalesced, and may be flushed through a
+ *                                     WriteBehindQueue.
+ *  Oct 18, 2026  Sean Carrick         New records may be given their keys by
+ *                                     an IdAllocator before they are written.
+ *  Oct 18, 2026  Sean Carrick         Split the batch engine so that a
+ *                                     UnitOfWork can run several DAOs on one
+ *                                     transaction.
+ *  Oct 18, 2026  Sean Carrick         save(ArrayList) upserts keyed records
+ *                                     using the database's SQL dialect.
+ *  Oct 18, 2026  Sean Carrick         Added findAllByIds, and deletes are
+ *                                     set-based with bucketed IN lists.
+ *  Oct 18, 2026  Sean Carrick         Reads may be served by a LocalReplica.
+ *  Oct 18, 2026  Sean Carrick         Added refresh() to patch the loaded
+ *                                     records with the rows changed since.
+ *  Oct 18, 2026  Sean Carrick         The loaded records are indexed by key,
+ *                                     for findLoaded and moveTo.
+ *  Oct 18, 2026  Sean Carrick         Added secondary indexes over the 
+ *                                     records in memory.
+ *  Oct 18, 2026  Sean Carrick         Dirty fields are taken as they are
+ *                                     written, so edits made during a flush
+ *                                     are not lost.
+ *  Oct 18, 2026  Sean Carrick         refresh() finds deleted rows through a
+ *                                     tombstone table, reads through the
+ *                                     replica, and keeps unsaved edits.
+ *  Oct 18, 2026  Sean Carrick         Added close() to release the logger.
  * *****************************************************************************
  */
 package com.pekinsoft.abams.db.api;
 
+import com.pekinsoft.abams.db.cache.EntityCache;
+import com.pekinsoft.abams.db.pool.CachingConnection;
+import com.pekinsoft.abams.db.pool.ConnectionPool;
+import com.pekinsoft.abams.db.pool.PoolConfig;
 import com.pekinsoft.abams.utils.Logger;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
 import org.jdesktop.application.Application;
 
 /**
  * An {@code AbstractDAO} class is returned by a call to 
  * {@code DAOFactory.getDAO(whichDAO}.
  * 
- * The {@code AbstractDAO} class implements the {@code SupportDAO} interface,
- * but leaves implementing the interface methods up to the extending classes.
+ * The {@code AbstractDAO} class implements the writing methods of the
+ * {@code SupportDAO} interface ({@code insert}, {@code update}, {@code save} 
+ * and {@code delete}) on top of a JDBC batch engine, and the reading methods
+ * ({@code selectAll} and {@code find}) on top of parameterized, cached
+ * statements. To make use of these engines, an extending class only needs to
+ * describe its table with an {@link EntityBinder}, returned by
+ * {@link #getBinder()}.
  * 
  * @see com.pekinsoft.abams.db.api.SupportDAO
  *
@@ -58,13 +130,57 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
     private final String URL = "jdbc:mariadb://50.77.187.14:3306/abams";
     private final String UNAME = "sean";
     private final char[] PWORD = {'5', '9', '2', '*', '-', ':', '1', '5', '3', '4', 'n'};
+    private static ConnectionPool pool;
+    private static EntityCache entityCache;
+    private static volatile IdAllocator idAllocator;
+    private static volatile SqlDialect dialect;
+    private static volatile LocalReplica localReplica;
     protected final Logger log;
     protected final Application app;
     protected ArrayList<T> records;
-    protected final ArrayList<T> editedRecords;
-    protected final ArrayList<T> deletedRecords;
     protected boolean batchProcessing;
     protected int recordPtr;
+    protected int batchSize;
+    protected int maxStatementBytes;
+    protected boolean streaming;
+    protected int windowSize;
+    protected BatchResult<T> lastBatchResult;
+    private List<T> refreshConflicts;
+    private Map<String, String> columnNames;
+    private String sortColumn;
+    private String changeColumn;
+    private Timestamp changeMark;
+    private long refreshOverlap;
+    private final PendingWrites<T> pending;
+    private final RecordIndex<T> recordIndex;
+    private final List<SecondaryIndex<T>> indexes;
+    private volatile WriteBehindQueue writeBehind;
+    
+    /**
+     * The largest number of values sent in a single {@code IN (...)} list by
+     * {@link #selectWhereIn(java.lang.String, java.util.Collection)}.
+     */
+    protected static final int MAX_IN_SIZE = 500;
+    
+    /**
+     * The sizes of the {@code IN (...)} lists sent to the database. A list 
+     * of values is padded up to the next of these sizes by repeating its 
+     * last value, so that only a handful of distinct statements are ever 
+     * prepared for a table and the statement cache keeps hitting.
+     */
+    private static final int[] IN_BUCKETS = {1, 10, 50, 100, 250, MAX_IN_SIZE};
+    
+    /**
+     * The dirty field bit set that stands for every column of a record.
+     */
+    protected static final long ALL_FIELDS = -1L;
+    
+    /**
+     * The name of the tombstone table, in which the key of every row deleted
+     * from a table with a {@link #setChangeColumn(java.lang.String) change
+     * column} is recorded.
+     */
+    public static final String TOMBSTONE_TABLE = "DELETED_ROWS";
     
     private final String CLASS_NAME = AbstractDAO.class.getSimpleName();
 
@@ -73,105 +189,2919 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
         log.enter(CLASS_NAME, CLASS_NAME + " (Constructor)", 
                 new Object[]{batchProcessing, app});
         
-        log.config("Storing parameters to local fields.");
-        this.batchProcessing = batchProcessing;
-        this.app = app;
+        log.config("Storing parameters to local fields.");
+        this.batchProcessing = batchProcessing;
+        this.app = app;
+        
+        log.config("Initializing the ArrayList fields.");
+        this.records = new ArrayList<>();
+        this.pending = new PendingWrites<>(this::getKey);
+        this.recordIndex = new RecordIndex<>(this::getKey);
+        this.indexes = new CopyOnWriteArrayList<>();
+        this.batchSize = 500;
+        this.maxStatementBytes = 4 * 1024 * 1024;
+        this.windowSize = 500;
+        this.refreshOverlap = 5000;
+        this.refreshConflicts = List.of();
+        
+        log.exit(CLASS_NAME, CLASS_NAME + " (Constructor)");
+    }
+    
+    /**
+     * Provides a way of determining if batch processing is enabled for this
+     * data access object.
+     * 
+     * If batch processing is enabled, then all new and edited records are stored
+     * in a list to be processed at a later time. If the application is exited
+     * prior to the batch of entries being processed, then the list is stored to
+     * the disk upon exit. Upon startup of the next run of the application, any
+     * unprocessed batched entries are loaded and the user will be prompted to
+     * process the batch of entries. If the user chooses not to process those 
+     * entries, they will, again, be written to disk upon application exit, until
+     * such time as {@code processBatch()} is called to process the batch of 
+     * entries.
+     * 
+     * @see #setBatchProcessing(boolean) 
+     * 
+     * @return {@code true} if entries are to be processed as a batch;
+     *          {@code false} otherwise
+     */
+    public boolean isBatchProcessing() {
+        log.enter(CLASS_NAME, "isBatchProcessing");
+        log.exit(CLASS_NAME, "isBatchProcessing", batchProcessing);
+        return batchProcessing;
+    }
+    
+    /**
+     * Passing the boolean value {@code true} to this method will turn on the
+     * batch processing for this data access object.
+     * 
+     * @see #isBatchProcessing() 
+     * 
+     * @param batchProcessing 
+     */
+    public void setBatchProcessing(boolean batchProcessing) {
+        log.enter(CLASS_NAME, "setBatchProcessing", batchProcessing);
+        
+        log.debug("Setting the batch processing flag to " + batchProcessing);
+        this.batchProcessing = batchProcessing;
+        
+        log.exit(CLASS_NAME, "setBatchProcessing");
+    }
+    
+    /**
+     * Retrieves a count of the total number of entries in the batch list. This
+     * includes new, edited and deleted records.
+     * <p>
+     * Each record is counted once, however many times it was written since 
+     * the batch was last processed: a record that is saved again replaces its
+     * earlier entry, and a new record that is deleted before it was ever 
+     * inserted is dropped from the batch altogether.</p>
+     * 
+     * @return the number of batched entries
+     */
+    public int getBatchedEntryCount() {
+        log.enter(CLASS_NAME, "getBatchedEntryCount");
+        
+        int count;
+        synchronized (pending) {
+            count = pending.size();
+        }
+        
+        log.exit(CLASS_NAME, "getBatchedEntryCount", count);
+        return count;
+    }
+    
+    /**
+     * Retrieves the maximum number of statements sent to the server in a single
+     * JDBC batch. Larger batches are split into chunks of this size, all of
+     * which are still written inside the same transaction.
+     * 
+     * @see #setBatchSize(int) 
+     * 
+     * @return the batch chunk size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Sets the maximum number of statements sent to the server in a single 
+     * JDBC batch. The default is 500.
+     * 
+     * @param batchSize the batch chunk size
+     * @throws IllegalArgumentException if {@code batchSize} is less than one
+     */
+    public void setBatchSize(int batchSize) {
+        log.enter(CLASS_NAME, "setBatchSize", batchSize);
+        
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+        
+        log.exit(CLASS_NAME, "setBatchSize");
+    }
+    
+    /**
+     * Retrieves the largest size, in bytes, a statement that writes many rows
+     * at once is allowed to grow to. Upserts of more rows than fit are split
+     * across several statements.
+     * 
+     * @return the statement size limit
+     */
+    public int getMaxStatementBytes() {
+        return maxStatementBytes;
+    }
+    
+    /**
+     * Sets the largest size, in bytes, a statement that writes many rows at
+     * once is allowed to grow to. This must stay below the server's packet 
+     * limit, {@code max_allowed_packet} on MariaDB. The default is 4 MB.
+     * 
+     * @param maxStatementBytes the statement size limit
+     * @throws IllegalArgumentException if {@code maxStatementBytes} is less 
+     *          than 1024
+     */
+    public void setMaxStatementBytes(int maxStatementBytes) {
+        if (maxStatementBytes < 1024) {
+            throw new IllegalArgumentException("maxStatementBytes must be at "
+                    + "least 1024");
+        }
+        this.maxStatementBytes = maxStatementBytes;
+    }
+    
+    /**
+     * Retrieves the per-record outcomes of the most recent batch written by
+     * this data access object, whether through {@code processBatch} or one of
+     * the writing methods.
+     * 
+     * @return the last batch result, or {@code null} if nothing has been 
+     *          written yet
+     */
+    public BatchResult<T> getLastBatchResult() {
+        return lastBatchResult;
+    }
+    
+    /**
+     * Calling this method will process the batch of new, edited and deleted
+     * entries that are contained in the lists. Once completed, the number of 
+     * entries processed will be returned. This number may be less than than 
+     * the total number of entries in the batch, as only successfully processed
+     * entries are counted. Therefore, it would be wise to get the batch count 
+     * prior to running this method, so that action may be taken for failed 
+     * entries.
+     * <p>
+     * All of the entries are written in a single transaction, using JDBC
+     * batches of {@link #getBatchSize() batchSize} statements each. If any
+     * entry fails, the whole transaction is rolled back, nothing is counted as
+     * processed, and the entries remain queued. The outcome of each entry is 
+     * available from {@link #getLastBatchResult()} either way.</p>
+     * <p>
+     * If this data access object belongs to a {@link WriteBehindQueue}, the
+     * whole queue is flushed instead, and the count covers the entries of 
+     * every DAO in it.</p>
+     * 
+     * @see #isBatchProcessing() 
+     * @see #setBatchProcessing(boolean) 
+     * @see #getBatchedEntryCount() 
+     * 
+     * @return the number of batched entries <em>successfully</em> processed
+     * @throws SQLException in the event a database error occurs
+     */
+    public int processBatch() throws SQLException {
+        log.enter(CLASS_NAME, "processBatch");
+        
+        WriteBehindQueue queue = writeBehind;
+        int count = queue != null ? queue.flush() 
+                : flushPending(true, true).getSucceededCount();
+        
+        log.exit(CLASS_NAME, "processBatch", count);
+        return count;
+    }
+    
+    /**
+     * Writes the pending entries of this data access object in a single 
+     * transaction, and forgets them once they are committed.
+     * 
+     * @param writes {@code true} to write the pending inserts and updates
+     * @param deletes {@code true} to write the pending deletes
+     * @return the outcome of each entry
+     * @throws SQLException in the event a database error occurs
+     */
+    BatchResult<T> flushPending(boolean writes, boolean deletes) 
+            throws SQLException {
+        synchronized (pending) {
+            BatchResult<T> result = writeBatch(
+                    writes ? pending.getInserts() : List.of(), 
+                    writes ? pending.getUpdates() : List.of(), 
+                    deletes ? pending.getDeletes() : List.of());
+            
+            if (result.isCommitted()) {
+                log.debug("Batch committed; clearing the pending entries.");
+                pending.clear(writes, deletes, AbstractDAO::isEditedAgain);
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Retrieves the write-behind queue this data access object belongs to.
+     * 
+     * @return the queue, or {@code null} if the DAO does not belong to one
+     */
+    public WriteBehindQueue getWriteBehindQueue() {
+        return writeBehind;
+    }
+    
+    void setWriteBehindQueue(WriteBehindQueue writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+    
+    /**
+     * Releases this data access object's logger, which holds a reference to
+     * the shared log file for as long as it is open. The DAO should not be
+     * used once it is closed; anything it logs afterward is dropped. Pending
+     * batched entries are not written, so call {@link #processBatch()} first
+     * if they are wanted.
+     * <p>
+     * A DAO obtained from {@link DAOFactory#getDAO(int, boolean)} belongs to
+     * the caller, which closes it when done. The DAOs kept for an owner by
+     * {@link DAOFactory#getDAO(java.lang.Object, int, boolean)} are closed by
+     * {@link DAOFactory#release(java.lang.Object)}.</p>
+     */
+    public void close() {
+        log.enter(CLASS_NAME, "close");
+        
+        int batched = getBatchedEntryCount();
+        if (batched > 0) {
+            log.warning("Closing with {} batched entries that were never "
+                    + "processed.", batched);
+        }
+        
+        log.exit(CLASS_NAME, "close");
+        log.close();
+    }
+    
+    /**
+     * Lets the write-behind queue, if any, know that an entry was queued.
+     */
+    private void queued() throws SQLException {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            queue.pendingChanged();
+        }
+    }
+    
+    /**
+     * {@inheritDoc }
+     * <p>
+     * If batch processing is enabled, the record is queued until
+     * {@code processBatch} is called, and {@code true} is returned.</p>
+     * <p>
+     * If an {@link #setIdAllocator(com.pekinsoft.abams.db.api.IdAllocator) 
+     * ID allocator} is set and the record has no primary key, it is given one
+     * right away, so records that refer to it may be inserted in the same
+     * batch. If the record is written immediately and the write fails, the 
+     * key is taken back off the record.</p>
+     */
+    @Override
+    public boolean insert(T record) throws SQLException {
+        log.enter(CLASS_NAME, "insert", record);
+        
+        boolean success;
+        if (batchProcessing) {
+            log.debug("Batch processing: queueing the new record.");
+            assignKeys(List.of(record));
+            synchronized (pending) {
+                pending.insert(record);
+            }
+            queued();
+            success = true;
+        } else {
+            success = writeNew(List.of(record), List.of(), List.of())
+                    .getSucceededCount() == 1;
+        }
+        
+        log.exit(CLASS_NAME, "insert", success);
+        return success;
+    }
+    
+    /**
+     * {@inheritDoc }
+     * <p>
+     * If batch processing is enabled, the record is queued until
+     * {@code processBatch} is called, and {@code true} is returned.</p>
+     */
+    @Override
+    public boolean update(T record) throws SQLException {
+        log.enter(CLASS_NAME, "update", record);
+        
+        boolean success;
+        if (batchProcessing) {
+            log.debug("Batch processing: queueing the edited record.");
+            synchronized (pending) {
+                pending.update(record);
+            }
+            queued();
+            success = true;
+        } else {
+            success = writeBatch(List.of(), List.of(record), List.of())
+                    .getSucceededCount() == 1;
+        }
+        
+        log.exit(CLASS_NAME, "update", success);
+        return success;
+    }
+    
+    /**
+     * {@inheritDoc }
+     * <p>
+     * A record without a primary key is inserted; any other record is 
+     * updated.</p>
+     */
+    @Override
+    public boolean save(T record) throws SQLException {
+        log.enter(CLASS_NAME, "save", record);
+        
+        boolean success = isNew(record) ? insert(record) : update(record);
+        
+        log.exit(CLASS_NAME, "save", success);
+        return success;
+    }
+    
+    /**
+     * {@inheritDoc }
+     * <p>
+     * Records without a primary key are inserted; all others are updated. When
+     * batch processing is disabled, the whole list is written in a single
+     * transaction using JDBC batches. The records to insert are given keys
+     * as described for {@link #insert(java.lang.Object)}.</p>
+     * <p>
+     * When batch processing is disabled, records that have a key are 
+     * upserted rather than updated: each is inserted if no row has its key 
+     * yet, and otherwise updated, in statements that write many rows at a 
+     * time where the {@link SqlDialect database} allows it. Records that are
+     * {@link #isStored(java.lang.Object) known to be stored} are updated.</p>
+     */
+    @Override
+    public int save(ArrayList<T> records) throws SQLException {
+        log.enter(CLASS_NAME, "save", records);
+        
+        List<T> inserts = new ArrayList<>();
+        List<T> updates = new ArrayList<>();
+        List<T> upserts = new ArrayList<>();
+        for (T record : records) {
+            if (isNew(record)) {
+                inserts.add(record);
+            } else if (batchProcessing || isStored(record)) {
+                updates.add(record);
+            } else {
+                upserts.add(record);
+            }
+        }
+        
+        int count;
+        if (batchProcessing) {
+            log.debug("Batch processing: queueing " + records.size() 
+                    + " records.");
+            assignKeys(inserts);
+            synchronized (pending) {
+                inserts.forEach(pending::insert);
+                updates.forEach(pending::update);
+            }
+            queued();
+            count = records.size();
+        } else {
+            count = writeNew(inserts, updates, upserts).getSucceededCount();
+        }
+        
+        log.exit(CLASS_NAME, "save", count);
+        return count;
+    }
+    
+    /**
+     * {@inheritDoc }
+     * <p>
+     * If batch processing is enabled, the record is queued until
+     * {@code processBatch} is called, and {@code true} is returned.</p>
+     */
+    @Override
+    public boolean delete(T record) throws SQLException {
+        log.enter(CLASS_NAME, "delete", record);
+        
+        boolean success;
+        if (batchProcessing) {
+            log.debug("Batch processing: queueing the deleted record.");
+            synchronized (pending) {
+                pending.delete(record);
+            }
+            queued();
+            success = true;
+        } else {
+            success = writeBatch(List.of(), List.of(), List.of(record))
+                    .getSucceededCount() == 1;
+        }
+        
+        log.exit(CLASS_NAME, "delete", success);
+        return success;
+    }
+    
+    /**
+     * {@inheritDoc }
+     * <p>
+     * When batch processing is disabled, the whole list is deleted in a single
+     * transaction, with one {@code DELETE ... IN (...)} statement for up to
+     * {@link #MAX_IN_SIZE} records at a time.</p>
+     */
+    @Override
+    public int delete(ArrayList<T> records) throws SQLException {
+        log.enter(CLASS_NAME, "delete", records);
+        
+        int count;
+        if (batchProcessing) {
+            log.debug("Batch processing: queueing " + records.size() 
+                    + " records for deletion.");
+            synchronized (pending) {
+                records.forEach(pending::delete);
+            }
+            queued();
+            count = records.size();
+        } else {
+            count = writeBatch(List.of(), List.of(), records).getSucceededCount();
+        }
+        
+        log.exit(CLASS_NAME, "delete", count);
+        return count;
+    }
+    
+    /**
+     * Writes new records, and any updates that go with them, right away, 
+     * giving the new records keys from the ID allocator first if one is set.
+     * Keys given to records that are then not committed are taken back off
+     * them, so that they are still seen as new.
+     */
+    private BatchResult<T> writeNew(List<T> inserts, List<T> updates, 
+            List<T> upserts) throws SQLException {
+        List<T> assigned = assignKeys(inserts);
+        BatchResult<T> result = null;
+        try {
+            result = write(inserts, updates, upserts, List.of());
+            return result;
+        } finally {
+            if (result == null || !result.isCommitted()) {
+                for (T record : assigned) {
+                    setKey(record, null);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Gives each of the records that has no primary key the next key from the
+     * {@link #getIdAllocator() ID allocator}, if one is set.
+     * 
+     * @param inserts the records about to be inserted
+     * @return the records that were given keys
+     * @throws SQLException in the event a block of keys cannot be reserved
+     */
+    protected List<T> assignKeys(List<T> inserts) throws SQLException {
+        IdAllocator allocator = idAllocator;
+        if (allocator == null) {
+            return List.of();
+        }
+        
+        List<T> assigned = new ArrayList<>();
+        for (T record : inserts) {
+            if (getKey(record) == null) {
+                setKey(record, allocator.next(getTableName(), getKeyColumn()));
+                assigned.add(record);
+            }
+        }
+        return assigned;
+    }
+    
+    /**
+     * Retrieves the ID allocator shared by all of the data access objects.
+     * 
+     * @return the ID allocator, or {@code null} if keys are generated by the
+     *          database
+     */
+    public static IdAllocator getIdAllocator() {
+        return idAllocator;
+    }
+    
+    /**
+     * Sets the ID allocator shared by all of the data access objects. While
+     * one is set, new records are given their keys by it before they are 
+     * written, rather than by the database when they are. By default, none is
+     * set.
+     * 
+     * @param allocator the allocator to use, or {@code null} to let the 
+     *          database generate the keys
+     */
+    public static void setIdAllocator(IdAllocator allocator) {
+        idAllocator = allocator;
+    }
+    
+    /**
+     * Retrieves the binder that describes the table this data access object
+     * reads and writes, and maps its rows to and from records. The remaining
+     * table hooks of this class are all answered from the binder.
+     * 
+     * @return the entity binder
+     */
+    protected abstract EntityBinder<T> getBinder();
+    
+    /**
+     * Retrieves the entity types whose tables the table of this data access
+     * object refers to, as declared by its binder.
+     * 
+     * @return the referenced entity types
+     */
+    protected Set<Class<?>> getReferencedTypes() {
+        return getBinder().getReferencedTypes();
+    }
+    
+    /**
+     * Retrieves the class of the entities this data access object reads and
+     * writes, which is used as part of their key in the entity cache.
+     * 
+     * @return the entity class
+     */
+    protected Class<T> getEntityType() {
+        return getBinder().getType();
+    }
+    
+    /**
+     * Retrieves the name of the table this data access object reads and 
+     * writes.
+     * 
+     * @return the table name
+     */
+    protected String getTableName() {
+        return getBinder().getTableName();
+    }
+    
+    /**
+     * Retrieves the name of the table's primary key column.
+     * 
+     * @return the primary key column name
+     */
+    protected String getKeyColumn() {
+        return getBinder().getKeyColumn();
+    }
+    
+    /**
+     * Retrieves the column metadata of the table: every column, including the
+     * primary key column, mapped to its {@code java.sql.Types} type. The
+     * non-key columns are in the order they are bound by
+     * {@link #bindColumns(java.sql.PreparedStatement, java.lang.Object, int)}.
+     * <p>
+     * These are the only columns that may be searched by the {@code find}
+     * methods.</p>
+     * 
+     * @return the column names and their SQL types
+     */
+    protected Map<String, Integer> getColumnTypes() {
+        return getBinder().getColumnTypes();
+    }
+    
+    /**
+     * Retrieves the names of the table's columns, <em>not</em> including the
+     * primary key column, in the order they are bound by
+     * {@link #bindColumns(java.sql.PreparedStatement, java.lang.Object, int)}.
+     * 
+     * @return the non-key column names
+     */
+    protected String[] getColumns() {
+        List<String> columns = new ArrayList<>(getColumnTypes().keySet());
+        columns.remove(getKeyColumn());
+        return columns.toArray(new String[columns.size()]);
+    }
+    
+    /**
+     * Retrieves the primary key value of the given record.
+     * 
+     * @param record the record
+     * @return the record's primary key, or {@code null} for a new record
+     */
+    protected Long getKey(T record) {
+        return getBinder().getKey(record);
+    }
+    
+    /**
+     * Stores a primary key value generated by the database into the given
+     * record.
+     * 
+     * @param record the record that was inserted
+     * @param key the generated primary key
+     */
+    protected void setKey(T record, Long key) {
+        getBinder().setKey(record, key);
+    }
+    
+    /**
+     * Binds the values of the given record's non-key columns to the given
+     * statement, in the same order as {@link #getColumns()}, beginning at the
+     * given parameter index.
+     * 
+     * @param ps the statement to bind to
+     * @param record the record whose values are bound
+     * @param index the index of the first parameter to bind
+     * @return the index of the next unbound parameter
+     * @throws SQLException in the event a database error occurs
+     */
+    protected int bindColumns(PreparedStatement ps, T record, int index) 
+            throws SQLException {
+        return getBinder().bind(ps, record, index);
+    }
+    
+    /**
+     * Determines whether the given record is new, and therefore needs to be 
+     * inserted rather than updated.
+     * 
+     * @param record the record to check
+     * @return {@code true} if the record has not been stored yet
+     */
+    protected boolean isNew(T record) {
+        return getKey(record) == null;
+    }
+    
+    /**
+     * Determines whether the given record is known to be stored in the table
+     * already, so that saving it is an update rather than an upsert. By 
+     * default nothing is known of a record beyond its key, and this method
+     * returns {@code false}.
+     * 
+     * @param record the record to be saved
+     * @return {@code true} if the record was read from the table
+     */
+    protected boolean isStored(T record) {
+        return false;
+    }
+    
+    /**
+     * Binds a possibly {@code null} value to a statement parameter. Values of
+     * {@code java.util.Date} are bound as timestamps, and byte arrays are bound
+     * as binary data.
+     * 
+     * @param ps the statement to bind to
+     * @param index the parameter index
+     * @param value the value to bind, which may be {@code null}
+     * @param sqlType the {@code java.sql.Types} type of the column
+     * @throws SQLException in the event a database error occurs
+     */
+    protected static void bindValue(PreparedStatement ps, int index, 
+            Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else if (value instanceof byte[]) {
+            ps.setBytes(index, (byte[]) value);
+        } else if (value instanceof java.util.Date 
+                && !(value instanceof java.sql.Date 
+                || value instanceof java.sql.Timestamp)) {
+            ps.setTimestamp(index, 
+                    new Timestamp(((java.util.Date) value).getTime()));
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+    
+    /**
+     * Writes the given records to the database in a single transaction, using
+     * JDBC batches of {@code batchSize} statements. Inserts are written first,
+     * followed by updates and then deletes.
+     * 
+     * @param inserts the records to insert
+     * @param updates the records to update
+     * @param deletes the records to delete
+     * @return the outcome of each record
+     * @throws SQLException in the event the connection or transaction fails;
+     *          failures of individual rows are reported in the result instead
+     */
+    protected BatchResult<T> writeBatch(List<T> inserts, List<T> updates, 
+            List<T> deletes) throws SQLException {
+        return write(inserts, updates, List.of(), deletes);
+    }
+    
+    private BatchResult<T> write(List<T> inserts, List<T> updates, 
+            List<T> upserts, List<T> deletes) throws SQLException {
+        log.enter(CLASS_NAME, "write", new Object[]{inserts.size(), 
+            updates.size(), upserts.size(), deletes.size()});
+        
+        BatchResult<T> result = new BatchResult<>();
+        if (inserts.isEmpty() && updates.isEmpty() && upserts.isEmpty() 
+                && deletes.isEmpty()) {
+            log.debug("Nothing to write.");
+            result.setCommitted(true);
+            lastBatchResult = result;
+            log.exit(CLASS_NAME, "write", result);
+            return result;
+        }
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            
+            boolean ok = true;
+            try {
+                ok = executeBatch(conn, inserts, updates, deletes, result)
+                        && executeUpserts(conn, upserts, result);
+                
+                if (ok) {
+                    log.debug("All batches executed; committing.");
+                    conn.commit();
+                } else {
+                    log.debug("A batched row failed; rolling back.");
+                    conn.rollback();
+                }
+            } catch (SQLException | RuntimeException ex) {
+                ok = false;
+                conn.rollback();
+                throw ex;
+            } finally {
+                List<T> written = new ArrayList<>(updates);
+                written.addAll(upserts);
+                finishBatch(inserts, written, deletes, result, ok);
+            }
+        }
+        
+        log.exit(CLASS_NAME, "write", result);
+        return result;
+    }
+    
+    /**
+     * Executes the statements for the given records on a connection whose 
+     * transaction is managed by the caller, adding the outcome of each record
+     * to the result. Inserts are executed first, followed by updates and then
+     * deletes. Execution stops at the first batch with a failed row.
+     * 
+     * @param conn the connection, with auto-commit turned off
+     * @param inserts the records to insert
+     * @param updates the records to update
+     * @param deletes the records to delete
+     * @param result the result to add the outcomes to
+     * @return {@code true} if every row was written
+     * @throws SQLException in the event the connection fails
+     */
+    boolean executeBatch(Connection conn, List<T> inserts, List<T> updates, 
+            List<T> deletes, BatchResult<T> result) throws SQLException {
+        List<T> keyed = new ArrayList<>();
+        List<T> unkeyed = new ArrayList<>();
+        for (T record : inserts) {
+            takeDirtyFields(record, result);
+            if (getKey(record) == null) {
+                unkeyed.add(record);
+            } else {
+                keyed.add(record);
+            }
+        }
+        
+        boolean ok = executeChunks(conn, BatchResult.Operation.INSERT, 
+                unkeyed, false, ALL_FIELDS, result)
+                && executeChunks(conn, BatchResult.Operation.INSERT, 
+                        keyed, true, ALL_FIELDS, result);
+        
+        for (Map.Entry<Long, List<T>> group 
+                : groupByDirtyFields(updates, BatchResult.Operation.UPDATE, 
+                        result).entrySet()) {
+            ok = ok && executeChunks(conn, BatchResult.Operation.UPDATE, 
+                    group.getValue(), true, group.getKey(), result);
+        }
+        
+        return ok && executeDeletes(conn, deletes, result);
+    }
+    
+    /**
+     * Completes a batch once its transaction has been committed or rolled 
+     * back: records the outcome, marks the fields taken from the records as
+     * changed again if they were rolled back, and drops the records from the
+     * entity cache.
+     * 
+     * @param inserts the records inserted
+     * @param updates the records updated
+     * @param deletes the records deleted
+     * @param result the outcome of each record
+     * @param committed {@code true} if the transaction was committed
+     */
+    void finishBatch(List<T> inserts, List<T> updates, List<T> deletes, 
+            BatchResult<T> result, boolean committed) {
+        result.setCommitted(committed);
+        lastBatchResult = result;
+        if (committed) {
+            LocalReplica replica = localReplica;
+            if (replica != null) {
+                replica.applyCommitted(this, inserts, updates, deletes, 
+                        result);
+            }
+            for (SecondaryIndex<T> index : indexes) {
+                inserts.forEach(index::add);
+                updates.forEach(index::add);
+                deletes.forEach(index::remove);
+            }
+        } else {
+            result.restoreDirtyFields();
+        }
+        invalidate(inserts);
+        invalidate(updates);
+        invalidate(deletes);
+    }
+    
+    /**
+     * Deletes the records by their keys, with one {@code DELETE ... IN (...)}
+     * statement per {@link #MAX_IN_SIZE} keys rather than one statement per
+     * record. Records without a key cannot be stored, and are reported as not
+     * found.
+     * <p>
+     * A set-based delete only reports how many rows it deleted in all. If 
+     * that is every key, each record is reported as deleted; if it is none, 
+     * each is reported as not found; otherwise each is reported as succeeded
+     * with no update count. If a statement fails, its records are deleted 
+     * again one at a time, to find out which of them cannot be; if they all
+     * can, the remaining keys are deleted as before.</p>
+     */
+    private boolean executeDeletes(Connection conn, List<T> deletes, 
+            BatchResult<T> result) throws SQLException {
+        Map<Long, List<T>> byKey = new LinkedHashMap<>();
+        for (T record : deletes) {
+            Long key = getKey(record);
+            if (key == null) {
+                BatchResult.RowOutcome<T> outcome = new BatchResult.RowOutcome<>(
+                        record, BatchResult.Operation.DELETE);
+                outcome.setResult(BatchResult.Status.NOT_FOUND, 0, null);
+                result.add(outcome);
+            } else {
+                byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+            }
+        }
+        
+        List<Long> keys = new ArrayList<>(byKey.keySet());
+        for (int from = 0; from < keys.size(); from += MAX_IN_SIZE) {
+            List<Long> chunk = keys.subList(from, 
+                    Math.min(from + MAX_IN_SIZE, keys.size()));
+            int bucket = inBucket(chunk.size());
+            String sql = "DELETE FROM " + getTableName() + " WHERE " 
+                    + getKeyColumn() + " IN (" + placeholders(bucket) + ")";
+            log.debug("Deleting {} records: {}", chunk.size(), sql);
+            
+            int count;
+            try (PreparedStatement ps = prepareCached(conn, sql)) {
+                for (int i = 0; i < bucket; i++) {
+                    ps.setLong(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+                count = ps.executeUpdate();
+            } catch (SQLException ex) {
+                log.error(ex, "Delete of " + chunk.size() + " records from " 
+                        + getTableName() + " failed; retrying the records "
+                        + "one at a time.");
+                List<T> records = new ArrayList<>();
+                for (Long key : chunk) {
+                    records.addAll(byKey.get(key));
+                }
+                if (!executeChunks(conn, BatchResult.Operation.DELETE, 
+                        records, true, ALL_FIELDS, result)) {
+                    return false;
+                }
+                continue;
+            }
+            
+            BatchResult.Status status = count == 0 
+                    ? BatchResult.Status.NOT_FOUND 
+                    : BatchResult.Status.SUCCEEDED;
+            int rowCount = count == chunk.size() ? 1 
+                    : count == 0 ? 0 : Statement.SUCCESS_NO_INFO;
+            for (Long key : chunk) {
+                for (T record : byKey.get(key)) {
+                    BatchResult.RowOutcome<T> outcome = 
+                            new BatchResult.RowOutcome<>(record, 
+                                    BatchResult.Operation.DELETE);
+                    outcome.setResult(status, rowCount, null);
+                    result.add(outcome);
+                }
+            }
+        }
+        
+        if (changeColumn != null && !keys.isEmpty()) {
+            writeTombstones(conn, keys);
+        }
+        return true;
+    }
+    
+    /**
+     * Records the deleted keys in the {@link #TOMBSTONE_TABLE tombstone 
+     * table}, in the transaction that deletes their rows, so that a 
+     * {@link #refresh()} elsewhere finds the records to remove.
+     */
+    private void writeTombstones(Connection conn, List<Long> keys) 
+            throws SQLException {
+        String sql = "INSERT INTO " + TOMBSTONE_TABLE 
+                + " (TABLE_NAME, ROW_ID, DELETED_AT) VALUES (?, ?, "
+                + "CURRENT_TIMESTAMP)";
+        log.debug("Recording {} deleted keys: {}", keys.size(), sql);
+        
+        try (PreparedStatement ps = prepareCached(conn, sql)) {
+            for (int i = 0; i < keys.size(); i++) {
+                ps.setString(1, getTableName());
+                ps.setLong(2, keys.get(i));
+                ps.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+    
+    /**
+     * Marks the rows of a failed JDBC batch: those the driver reports as 
+     * executed are rolled back, and the others failed with the batch's error.
+     */
+    private static <T> void reportBatchFailure(BatchUpdateException ex, 
+            List<BatchResult.RowOutcome<T>> outcomes) {
+        int[] counts = ex.getUpdateCounts();
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (counts != null && i < counts.length 
+                    && counts[i] != Statement.EXECUTE_FAILED) {
+                outcomes.get(i).setResult(BatchResult.Status.ROLLED_BACK, 
+                        counts[i], null);
+            } else {
+                outcomes.get(i).setResult(BatchResult.Status.FAILED, 
+                        Statement.EXECUTE_FAILED, ex);
+            }
+        }
+    }
+    
+    /**
+     * Inserts each of the given records, or updates it if a row with its key
+     * already exists, grouped by their dirty fields so that existing rows 
+     * only have their changed columns set. How the rows are written depends
+     * on the {@link #getDialect(java.sql.Connection) dialect}.
+     */
+    private boolean executeUpserts(Connection conn, List<T> list, 
+            BatchResult<T> result) throws SQLException {
+        if (list.isEmpty()) {
+            return true;
+        }
+        
+        SqlDialect sqlDialect = getDialect(conn);
+        boolean ok = true;
+        for (Map.Entry<Long, List<T>> group : groupByDirtyFields(list, 
+                BatchResult.Operation.UPSERT, result).entrySet()) {
+            if (!ok) {
+                break;
+            }
+            if (sqlDialect == SqlDialect.GENERIC) {
+                ok = executeUpdateOrInsert(conn, group.getValue(), 
+                        group.getKey(), result);
+            } else if (sqlDialect.isMultiRow()) {
+                ok = executeMultiRowUpserts(conn, sqlDialect, group.getValue(),
+                        group.getKey(), result);
+            } else {
+                ok = executeSingleRowUpserts(conn, sqlDialect, 
+                        group.getValue(), group.getKey(), result);
+            }
+        }
+        return ok;
+    }
+    
+    /**
+     * Upserts the records in as few statements as the parameter limit and 
+     * the {@link #getMaxStatementBytes() statement size limit} allow.
+     */
+    private boolean executeMultiRowUpserts(Connection conn, 
+            SqlDialect sqlDialect, List<T> list, long dirtyFields, 
+            BatchResult<T> result) throws SQLException {
+        String[] columns = getColumns();
+        int maxRows = SqlDialect.MAX_PARAMETERS / (columns.length + 1);
+        
+        int start = 0;
+        while (start < list.size()) {
+            int end = start;
+            long bytes = 0;
+            while (end < list.size() && end - start < maxRows) {
+                long size = estimateSize(list.get(end), columns);
+                if (end > start && bytes + size > maxStatementBytes) {
+                    break;
+                }
+                bytes += size;
+                end++;
+            }
+            
+            if (!executeUpsertStatement(conn, sqlDialect, 
+                    list.subList(start, end), dirtyFields, result)) {
+                return false;
+            }
+            start = end;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Upserts the records with one multi-row statement. A multi-row statement
+     * only reports a count for all of its rows together, so if it fails, its
+     * rows are tried again one at a time to find out which of them failed.
+     */
+    private boolean executeUpsertStatement(Connection conn, 
+            SqlDialect sqlDialect, List<T> chunk, long dirtyFields, 
+            BatchResult<T> result) throws SQLException {
+        String[] columns = getColumns();
+        String[] updated = getBinder().getColumnNames(dirtyFields);
+        String sql = sqlDialect.upsert(getTableName(), getKeyColumn(), 
+                columns, updated, chunk.size());
+        log.debug("Upserting {} rows into {}.", chunk.size(), getTableName());
+        
+        List<BatchResult.RowOutcome<T>> outcomes = new ArrayList<>();
+        for (T record : chunk) {
+            BatchResult.RowOutcome<T> outcome = new BatchResult.RowOutcome<>(
+                    record, BatchResult.Operation.UPSERT);
+            outcomes.add(outcome);
+            result.add(outcome);
+        }
+        
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (T record : chunk) {
+                index = bindUpsert(ps, sqlDialect, record, index, dirtyFields);
+            }
+            
+            try {
+                ps.executeUpdate();
+            } catch (SQLException ex) {
+                log.error(ex, "Upsert of " + chunk.size() + " rows into " 
+                        + getTableName() + " failed; retrying the rows one "
+                        + "at a time.");
+                findFailedUpserts(conn, sqlDialect, chunk, dirtyFields, 
+                        outcomes, ex);
+                return false;
+            }
+        }
+        
+        for (BatchResult.RowOutcome<T> outcome : outcomes) {
+            outcome.setResult(BatchResult.Status.SUCCEEDED, 
+                    Statement.SUCCESS_NO_INFO, null);
+        }
+        return true;
+    }
+    
+    /**
+     * Runs the rows of a failed multi-row upsert one at a time, so each row
+     * that fails on its own is reported with its own error. If none does, 
+     * they all failed together, such as by exceeding the packet limit.
+     */
+    private void findFailedUpserts(Connection conn, SqlDialect sqlDialect, 
+            List<T> chunk, long dirtyFields, 
+            List<BatchResult.RowOutcome<T>> outcomes, SQLException error) 
+            throws SQLException {
+        String sql = sqlDialect.upsert(getTableName(), getKeyColumn(), 
+                getColumns(), getBinder().getColumnNames(dirtyFields), 1);
+        boolean anyFailed = false;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < chunk.size(); i++) {
+                bindUpsert(ps, sqlDialect, chunk.get(i), 1, dirtyFields);
+                try {
+                    outcomes.get(i).setResult(BatchResult.Status.ROLLED_BACK,
+                            ps.executeUpdate(), null);
+                } catch (SQLException ex) {
+                    anyFailed = true;
+                    outcomes.get(i).setResult(BatchResult.Status.FAILED, 
+                            Statement.EXECUTE_FAILED, ex);
+                }
+            }
+        }
+        
+        if (!anyFailed) {
+            for (BatchResult.RowOutcome<T> outcome : outcomes) {
+                outcome.setResult(BatchResult.Status.FAILED, 
+                        Statement.EXECUTE_FAILED, error);
+            }
+        }
+    }
+    
+    /**
+     * Upserts the records with a single-row statement each, sent in JDBC 
+     * batches of {@link #getBatchSize() batchSize} statements.
+     */
+    private boolean executeSingleRowUpserts(Connection conn, 
+            SqlDialect sqlDialect, List<T> list, long dirtyFields, 
+            BatchResult<T> result) throws SQLException {
+        String sql = sqlDialect.upsert(getTableName(), getKeyColumn(), 
+                getColumns(), getBinder().getColumnNames(dirtyFields), 1);
+        log.debug("Upserting {} rows in batches of {}: {}", list.size(), 
+                batchSize, sql);
+        
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int start = 0; start < list.size(); start += batchSize) {
+                List<BatchResult.RowOutcome<T>> outcomes = new ArrayList<>();
+                for (T record : list.subList(start, 
+                        Math.min(start + batchSize, list.size()))) {
+                    bindUpsert(ps, sqlDialect, record, 1, dirtyFields);
+                    ps.addBatch();
+                    
+                    BatchResult.RowOutcome<T> outcome = 
+                            new BatchResult.RowOutcome<>(record, 
+                                    BatchResult.Operation.UPSERT);
+                    outcomes.add(outcome);
+                    result.add(outcome);
+                }
+                
+                try {
+                    int[] counts = ps.executeBatch();
+                    for (int i = 0; i < outcomes.size(); i++) {
+                        outcomes.get(i).setResult(BatchResult.Status.SUCCEEDED,
+                                i < counts.length ? counts[i] 
+                                        : Statement.SUCCESS_NO_INFO, null);
+                    }
+                } catch (BatchUpdateException ex) {
+                    reportBatchFailure(ex, outcomes);
+                    log.error(ex, "Batched UPSERT against " + getTableName() 
+                            + " failed.");
+                    return false;
+                }
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Upserts the records on a database without an upsert statement: the 
+     * records are updated, and those whose rows are not found are inserted.
+     */
+    private boolean executeUpdateOrInsert(Connection conn, List<T> list, 
+            long dirtyFields, BatchResult<T> result) throws SQLException {
+        BatchResult<T> updated = new BatchResult<>();
+        boolean ok = executeChunks(conn, BatchResult.Operation.UPDATE, list, 
+                true, dirtyFields, updated);
+        
+        List<T> missing = new ArrayList<>();
+        for (BatchResult.RowOutcome<T> outcome : updated.getOutcomes()) {
+            if (ok && outcome.getStatus() == BatchResult.Status.NOT_FOUND) {
+                missing.add(outcome.getRecord());
+            } else {
+                result.add(outcome.as(BatchResult.Operation.UPSERT));
+            }
+        }
+        if (missing.isEmpty()) {
+            return ok;
+        }
+        
+        BatchResult<T> inserted = new BatchResult<>();
+        ok = executeChunks(conn, BatchResult.Operation.INSERT, missing, true, 
+                ALL_FIELDS, inserted);
+        for (BatchResult.RowOutcome<T> outcome : inserted.getOutcomes()) {
+            result.add(outcome.as(BatchResult.Operation.UPSERT));
+        }
+        return ok;
+    }
+    
+    /**
+     * Binds one row of an upsert statement, as laid out by the dialect.
+     * 
+     * @return the index of the next parameter
+     */
+    private int bindUpsert(PreparedStatement ps, SqlDialect sqlDialect, 
+            T record, int index, long dirtyFields) throws SQLException {
+        if (sqlDialect.isUpdateBoundSeparately()) {
+            ps.setLong(index++, getKey(record));
+            index = getBinder().bind(ps, record, index, dirtyFields);
+        }
+        ps.setLong(index++, getKey(record));
+        return bindColumns(ps, record, index);
+    }
+    
+    /**
+     * Estimates how many bytes one record adds to a multi-row statement.
+     */
+    private long estimateSize(T record, String[] columns) {
+        long size = 24 + 4L * columns.length;
+        for (String column : columns) {
+            Object value = getBinder().getValue(record, column);
+            if (value == null) {
+                size += 4;
+            } else if (value instanceof CharSequence) {
+                size += 4L * ((CharSequence) value).length();
+            } else if (value instanceof byte[]) {
+                size += 2L * ((byte[]) value).length;
+            } else {
+                size += 24;
+            }
+        }
+        return size;
+    }
+    
+    /**
+     * Sorts the records to update by the fields that have changed in them, so
+     * that each group can be written with one statement that sets only those
+     * columns. Records that are not {@link Editable} are grouped under
+     * {@link #ALL_FIELDS}. Editable records with no changes at all need no 
+     * statement; they are reported as succeeded without being written. The
+     * dirty fields of the others are taken from them.
+     */
+    private Map<Long, List<T>> groupByDirtyFields(List<T> updates, 
+            BatchResult.Operation operation, BatchResult<T> result) {
+        Map<Long, List<T>> groups = new LinkedHashMap<>();
+        for (T record : updates) {
+            long dirty = takeDirtyFields(record, result);
+            if (dirty == 0) {
+                BatchResult.RowOutcome<T> outcome = new BatchResult.RowOutcome<>(
+                        record, operation);
+                outcome.setResult(BatchResult.Status.SUCCEEDED, 0, null);
+                result.add(outcome);
+            } else {
+                groups.computeIfAbsent(dirty, d -> new ArrayList<>())
+                        .add(record);
+            }
+        }
+        return groups;
+    }
+    
+    /**
+     * Retrieves the fields of the given record that need to be written by an
+     * update.
+     * 
+     * @param record the record to be updated
+     * @return the record's {@link Editable#getDirtyFields() dirty fields}, or
+     *          {@link #ALL_FIELDS} if the record does not track them
+     */
+    protected long getDirtyFields(T record) {
+        return record instanceof Editable 
+                ? ((Editable) record).getDirtyFields() : ALL_FIELDS;
+    }
+    
+    /**
+     * Takes the dirty fields of a record that is about to be written: they
+     * are cleared in the record before its values are bound, and recorded 
+     * in the result. A field set again while the write is under way is then
+     * marked once more, and written the next time, rather than being marked
+     * unchanged by the commit. If the batch is rolled back, the fields taken
+     * are marked again.
+     * 
+     * @return the fields to write
+     */
+    private long takeDirtyFields(T record, BatchResult<T> result) {
+        long dirty = getDirtyFields(record);
+        if (dirty != 0 && record instanceof Editable) {
+            ((Editable) record).clearDirty(dirty);
+            result.taken(record, dirty);
+        }
+        return dirty;
+    }
+    
+    /**
+     * Determines whether a record that has just been written was edited 
+     * again while it was being written.
+     */
+    static boolean isEditedAgain(Object record) {
+        return record instanceof Editable && ((Editable) record).isEdited();
+    }
+    
+    /**
+     * Removes the given records from the entity cache, so that they are read
+     * back from the database the next time they are looked up.
+     */
+    private void invalidate(List<T> written) {
+        EntityCache cache = getEntityCache();
+        for (T record : written) {
+            cache.invalidate(getEntityType(), getKey(record));
+        }
+    }
+    
+    /**
+     * Executes one kind of statement for the given records, in chunks of
+     * {@code batchSize}, recording the outcome of each record.
+     * 
+     * @return {@code false} if any row failed, in which case the remaining
+     *          chunks are not executed
+     */
+    private boolean executeChunks(Connection conn, 
+            BatchResult.Operation operation, List<T> list, boolean withKey, 
+            long dirtyFields, BatchResult<T> result) throws SQLException {
+        if (list.isEmpty()) {
+            return true;
+        }
+        
+        String sql = buildSql(operation, withKey, dirtyFields);
+        log.debug("Executing {} rows in batches of {}: {}", list.size(), 
+                batchSize, sql);
+        
+        boolean generatedKeys = operation == BatchResult.Operation.INSERT 
+                && !withKey;
+        try (PreparedStatement ps = generatedKeys 
+                ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : conn.prepareStatement(sql)) {
+            for (int start = 0; start < list.size(); start += batchSize) {
+                List<T> chunk = list.subList(start, 
+                        Math.min(start + batchSize, list.size()));
+                List<BatchResult.RowOutcome<T>> outcomes = new ArrayList<>();
+                
+                for (T record : chunk) {
+                    bindStatement(ps, operation, record, withKey, 
+                            dirtyFields);
+                    ps.addBatch();
+                    
+                    BatchResult.RowOutcome<T> outcome = 
+                            new BatchResult.RowOutcome<>(record, operation);
+                    outcomes.add(outcome);
+                    result.add(outcome);
+                }
+                
+                try {
+                    int[] counts = ps.executeBatch();
+                    for (int i = 0; i < outcomes.size(); i++) {
+                        int count = i < counts.length ? counts[i] 
+                                : Statement.SUCCESS_NO_INFO;
+                        outcomes.get(i).setResult(count == 0 
+                                ? BatchResult.Status.NOT_FOUND 
+                                : BatchResult.Status.SUCCEEDED, count, null);
+                    }
+                } catch (BatchUpdateException ex) {
+                    reportBatchFailure(ex, outcomes);
+                    log.error(ex, "Batched " + operation + " against " 
+                            + getTableName() + " failed.");
+                    return false;
+                }
+                
+                if (generatedKeys) {
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (T record : chunk) {
+                            if (!keys.next()) {
+                                break;
+                            }
+                            setKey(record, keys.getLong(1));
+                        }
+                    }
+                }
+            }
+        }
+        
+        return true;
+    }
+    
+    private String buildSql(BatchResult.Operation operation, boolean withKey,
+            long dirtyFields) {
+        StringBuilder sql = new StringBuilder();
+        
+        switch (operation) {
+            case INSERT:
+                String[] columns = getColumns();
+                sql.append("INSERT INTO ").append(getTableName()).append(" (");
+                if (withKey) {
+                    sql.append(getKeyColumn()).append(", ");
+                }
+                sql.append(String.join(", ", columns)).append(") VALUES (");
+                int params = columns.length + (withKey ? 1 : 0);
+                for (int i = 0; i < params; i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                sql.append(")");
+                break;
+            case UPDATE:
+                String[] changed = getBinder().getColumnNames(dirtyFields);
+                sql.append("UPDATE ").append(getTableName()).append(" SET ");
+                for (int i = 0; i < changed.length; i++) {
+                    sql.append(i == 0 ? "" : ", ").append(changed[i])
+                            .append(" = ?");
+                }
+                sql.append(" WHERE ").append(getKeyColumn()).append(" = ?");
+                break;
+            case DELETE:
+                sql.append("DELETE FROM ").append(getTableName())
+                        .append(" WHERE ").append(getKeyColumn())
+                        .append(" = ?");
+                break;
+        }
+        
+        return sql.toString();
+    }
+    
+    private void bindStatement(PreparedStatement ps, 
+            BatchResult.Operation operation, T record, boolean withKey, 
+            long dirtyFields) throws SQLException {
+        switch (operation) {
+            case INSERT:
+                int index = 1;
+                if (withKey) {
+                    ps.setLong(index++, getKey(record));
+                }
+                bindColumns(ps, record, index);
+                break;
+            case UPDATE:
+                int keyIndex = dirtyFields == ALL_FIELDS 
+                        ? bindColumns(ps, record, 1)
+                        : getBinder().bind(ps, record, 1, dirtyFields);
+                ps.setLong(keyIndex, getKey(record));
+                break;
+            case DELETE:
+                ps.setLong(1, getKey(record));
+                break;
+        }
+    }
+
+    /**
+     * Retrieves a {@code java.sql.Connection} to the underlying database, which
+     * is located on a MariaDB server.
+     * <p>
+     * The connection is borrowed from the connection pool shared by all of the
+     * data access objects, so it <strong>must</strong> be closed once the
+     * caller is done with it, which returns it to the pool.</p>
+     * 
+     * @see #getConnectionPool() 
+     * 
+     * @return a connection to the database
+     * @throws SQLException in the event a database error occurs
+     */
+    protected Connection getConnection() throws SQLException {
+        log.enter(CLASS_NAME, "getConnection");
+        
+        log.config("Borrowing a connection object from the pool to return.");
+        Connection conn = getConnectionPool().getConnection();
+        
+        log.exit(CLASS_NAME, "getConnection", conn);
+        return conn;
+    }
+    
+    /**
+     * Borrows a connection to read from. If the {@link #getLocalReplica() 
+     * local replica} serves this data access object's table, the connection
+     * is to the replica; otherwise, or if the replica cannot be opened, it is
+     * borrowed from the {@link #getConnection() connection pool}. Writes must
+     * always use {@code getConnection}.
+     * 
+     * @return the connection to read from
+     * @throws SQLException in the event a database error occurs
+     */
+    protected Connection getReadConnection() throws SQLException {
+        LocalReplica replica = localReplica;
+        if (replica != null && replica.serves(getEntityType())) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException ex) {
+                log.error(ex, "Unable to read from the local replica; reading"
+                        + " from the server instead.");
+            }
+        }
+        return getConnection();
+    }
+    
+    /**
+     * Retrieves the local replica the data access objects read from.
+     * 
+     * @return the local replica, or {@code null} if every read goes to the 
+     *          server
+     */
+    public static LocalReplica getLocalReplica() {
+        return localReplica;
+    }
+    
+    /**
+     * Sets the local replica the data access objects read the tables it 
+     * serves from. By default, none is set.
+     * 
+     * @param replica the local replica, or {@code null} to read everything
+     *          from the server
+     */
+    public static void setLocalReplica(LocalReplica replica) {
+        localReplica = replica;
+    }
+    
+    /**
+     * Retrieves the connection pool shared by all of the data access objects,
+     * creating it on first use.
+     * <p>
+     * The pool connects to the MariaDB server by default. Any of the
+     * {@code abams.db.*} or {@code abams.pool.*} system properties described
+     * in {@link PoolConfig} override those defaults, which allows the whole
+     * data layer to be run against an embedded database.</p>
+     * 
+     * @return the shared connection pool
+     */
+    public ConnectionPool getConnectionPool() {
+        synchronized (AbstractDAO.class) {
+            if (pool == null) {
+                log.config("Creating the shared connection pool.");
+                PoolConfig config = new PoolConfig(URL, UNAME, PWORD)
+                        .applyOverrides(System.getProperties());
+                pool = new ConnectionPool(config, app);
+            }
+            return pool;
+        }
+    }
+    
+    /**
+     * Replaces the connection pool shared by all of the data access objects.
+     * Any previously installed pool is shut down.
+     * <p>
+     * This is mainly useful for pointing the data layer at an embedded
+     * database for testing.</p>
+     * 
+     * @param newPool the pool to use from now on
+     */
+    public static void setConnectionPool(ConnectionPool newPool) {
+        synchronized (AbstractDAO.class) {
+            if (pool != null && pool != newPool) {
+                pool.shutdown();
+            }
+            pool = newPool;
+            dialect = null;
+        }
+    }
+    
+    /**
+     * Retrieves the SQL dialect of the database, identifying it from the 
+     * given connection the first time it is needed.
+     * 
+     * @param conn a connection to the database
+     * @return the SQL dialect
+     * @throws SQLException in the event the database cannot be identified
+     */
+    protected SqlDialect getDialect(Connection conn) throws SQLException {
+        SqlDialect known = dialect;
+        if (known == null) {
+            known = SqlDialect.of(conn);
+            log.config("Using the " + known + " SQL dialect.");
+            dialect = known;
+        }
+        return known;
+    }
+    
+    /**
+     * Sets the SQL dialect used by all of the data access objects, rather 
+     * than having it identified from the database.
+     * 
+     * @param sqlDialect the dialect, or {@code null} to identify it from the
+     *          database
+     */
+    public static void setDialect(SqlDialect sqlDialect) {
+        dialect = sqlDialect;
+    }
+    
+    /**
+     * Retrieves the entity cache shared by all of the data access objects,
+     * creating it on first use. The cache limits may be overridden with the
+     * {@code abams.cache.*} system properties described in 
+     * {@link EntityCache}.
+     * 
+     * @return the shared entity cache
+     */
+    public EntityCache getEntityCache() {
+        synchronized (AbstractDAO.class) {
+            if (entityCache == null) {
+                log.config("Creating the shared entity cache.");
+                entityCache = EntityCache.fromProperties(
+                        System.getProperties());
+            }
+            return entityCache;
+        }
+    }
+    
+    /**
+     * Replaces the entity cache shared by all of the data access objects.
+     * 
+     * @param newCache the cache to use from now on
+     */
+    public static void setEntityCache(EntityCache newCache) {
+        synchronized (AbstractDAO.class) {
+            entityCache = newCache;
+        }
+    }
+    
+    /**
+     * Determines whether this data access object is in streaming mode.
+     * <p>
+     * In streaming mode, {@code selectAll} does not load the whole table.
+     * Instead, only a window of {@link #getWindowSize() windowSize} records is
+     * held in memory at a time, and the cursor methods ({@code first},
+     * {@code next}, {@code previous} and {@code last}) fetch the adjoining
+     * window from the database whenever the record pointer crosses the edge of
+     * the current one. This allows a table of any size to be browsed with a
+     * constant amount of memory.</p>
+     * <p>
+     * Windows are read with forward-only, read-only result sets whose fetch
+     * size matches the window size, and are found by seeking past the record
+     * at the edge of the current window in the 
+     * {@link #getSortField() sort order}, so no connection is held open 
+     * between moves.</p>
+     * 
+     * @see #setStreaming(boolean) 
+     * 
+     * @return {@code true} if in streaming mode; {@code false} if 
+     *          {@code selectAll} loads every record
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+    
+    /**
+     * Turns streaming mode on or off. The change takes effect the next time
+     * {@code selectAll} is called.
+     * 
+     * @see #isStreaming() 
+     * 
+     * @param streaming {@code true} to browse the table a window at a time
+     */
+    public void setStreaming(boolean streaming) {
+        log.enter(CLASS_NAME, "setStreaming", streaming);
+        
+        this.streaming = streaming;
+        
+        log.exit(CLASS_NAME, "setStreaming");
+    }
+    
+    /**
+     * Retrieves the number of records held in memory at a time in streaming
+     * mode, which is also the JDBC fetch size used when reading them.
+     * 
+     * @return the streaming window size
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+    
+    /**
+     * Sets the number of records held in memory at a time in streaming mode.
+     * The default is 500.
+     * 
+     * @param windowSize the streaming window size
+     * @throws IllegalArgumentException if {@code windowSize} is less than one
+     */
+    public void setWindowSize(int windowSize) {
+        log.enter(CLASS_NAME, "setWindowSize", windowSize);
+        
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be at least 1");
+        }
+        this.windowSize = windowSize;
+        
+        log.exit(CLASS_NAME, "setWindowSize");
+    }
+    
+    /**
+     * Creates a mapper for the rows of the given result set, which resolves
+     * the result set's column indices once and then reads each row by index.
+     * The result set contains the primary key column followed by the columns
+     * returned by {@link #getListColumns()}.
+     * 
+     * @param r the result set to map
+     * @return the mapper for the result set's rows
+     * @throws SQLException in the event a database error occurs
+     */
+    protected EntityBinder.RowMapper<T> rowMapper(ResultSet r) 
+            throws SQLException {
+        return getBinder().mapperFor(r);
+    }
+    
+    /**
+     * Retrieves the names of the non-key columns read when records are 
+     * listed. By default this is every column returned by 
+     * {@link #getColumns()}, but an extending class may leave out large 
+     * columns that it loads on demand instead.
+     * 
+     * @return the non-key column names to list
+     */
+    protected String[] getListColumns() {
+        return getColumns();
+    }
+    
+    /**
+     * Retrieves the comma-separated list of columns selected when reading 
+     * records: the primary key column followed by the 
+     * {@link #getListColumns() list columns}.
+     * 
+     * @return the select list
+     */
+    protected String getSelectList() {
+        return getKeyColumn() + ", " + String.join(", ", getListColumns());
+    }
+    
+    @Override
+    public List<T> findPage(T after, int pageSize) throws SQLException {
+        return findPage(getKeyColumn(), after, pageSize);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The records of the page are passed to {@link #afterLoad(java.util.List)}
+     * but do not replace the records in memory, so the cursor is not moved.
+     * To browse the table a page at a time with the cursor instead, turn on
+     * {@link #setStreaming(boolean) streaming mode} and set the
+     * {@link #setSortField(java.lang.String) sort field}.</p>
+     * 
+     * @throws IllegalArgumentException if the field is not a column of the
+     *          table, or {@code pageSize} is less than one
+     */
+    @Override
+    public List<T> findPage(String sortField, T after, int pageSize) 
+            throws SQLException {
+        log.enter(CLASS_NAME, "findPage", new Object[]{sortField, after, 
+            pageSize});
+        
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        
+        List<T> page = seek(resolveColumn(sortField), after, false, pageSize);
+        afterLoad(page);
+        
+        log.exit(CLASS_NAME, "findPage", page.size());
+        return page;
+    }
+    
+    /**
+     * Retrieves the field the cursor sorts the records by, after which they
+     * are sorted by primary key.
+     * 
+     * @return the sort field, or {@code null} if the records are sorted by 
+     *          primary key alone
+     */
+    public String getSortField() {
+        return sortColumn;
+    }
+    
+    /**
+     * Sets the field the cursor sorts the records by. In streaming mode, each
+     * window is then found by seeking past the record at the edge of the 
+     * current one in this order, just as 
+     * {@link #findPage(java.lang.String, java.lang.Object, int) findPage}
+     * does, so moving the cursor to the next window takes the same time
+     * however far into the table it is. The change takes effect the next 
+     * time {@code selectAll} is called.
+     * 
+     * @param sortField the field to sort by, or {@code null} to sort by 
+     *          primary key alone
+     * @throws IllegalArgumentException if the field is not a column of the
+     *          table
+     */
+    public void setSortField(String sortField) {
+        log.enter(CLASS_NAME, "setSortField", sortField);
+        
+        String column = sortField == null ? null : resolveColumn(sortField);
+        this.sortColumn = column == null || column.equals(getKeyColumn()) 
+                ? null : column;
+        
+        log.exit(CLASS_NAME, "setSortField");
+    }
+    
+    /**
+     * Retrieves the change column of the table.
+     * 
+     * @see #setChangeColumn(java.lang.String) 
+     * 
+     * @return the change column, or {@code null} if the table has none
+     */
+    public String getChangeColumn() {
+        return changeColumn;
+    }
+    
+    /**
+     * Sets the change column of the table: a timestamp column the server sets
+     * to the current time whenever a row is inserted or updated, such as a
+     * MariaDB column declared as 
+     * {@code TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP}.
+     * The change column lets {@link #refresh()} fetch only the rows that 
+     * changed. It need not be one of the columns mapped by the binder.
+     * <p>
+     * Deleted rows leave nothing behind to select, so the key of each row
+     * deleted from a table with a change column is recorded, in the same
+     * transaction, in the {@link #TOMBSTONE_TABLE tombstone table}:</p>
+     * <pre>
+     * CREATE TABLE DELETED_ROWS (
+     *     TABLE_NAME VARCHAR(64) NOT NULL,
+     *     ROW_ID     BIGINT NOT NULL,
+     *     DELETED_AT TIMESTAMP NOT NULL
+     * );
+     * CREATE INDEX DELETED_ROWS_SINCE ON DELETED_ROWS (TABLE_NAME, DELETED_AT);
+     * </pre>
+     * <p>
+     * Every client that deletes from the table must record its deletes 
+     * there, as the data access objects do. Tombstones older than the 
+     * longest time between two refreshes are no longer needed, and may be
+     * purged.</p>
+     * 
+     * @param column the change column, or {@code null} if the table has none
+     * @throws IllegalArgumentException if {@code column} is not a valid
+     *          column name
+     */
+    public void setChangeColumn(String column) {
+        log.enter(CLASS_NAME, "setChangeColumn", column);
+        
+        if (column != null && !column.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid column name: " 
+                    + column);
+        }
+        this.changeColumn = column;
+        this.changeMark = null;
+        
+        log.exit(CLASS_NAME, "setChangeColumn");
+    }
+    
+    /**
+     * Retrieves how far back before the last refresh each refresh looks for
+     * changed rows.
+     * 
+     * @return the refresh overlap, in milliseconds
+     */
+    public long getRefreshOverlap() {
+        return refreshOverlap;
+    }
+    
+    /**
+     * Sets how far back before the last refresh each refresh looks for 
+     * changed rows. A row's change time is set when it is written, but the
+     * row only becomes visible when its transaction commits, so a refresh
+     * must look back at least as long as a transaction may take to commit.
+     * The default is five seconds.
+     * 
+     * @param refreshOverlap the refresh overlap, in milliseconds
+     * @throws IllegalArgumentException if {@code refreshOverlap} is negative
+     */
+    public void setRefreshOverlap(long refreshOverlap) {
+        if (refreshOverlap < 0) {
+            throw new IllegalArgumentException("refreshOverlap cannot be "
+                    + "negative");
+        }
+        this.refreshOverlap = refreshOverlap;
+    }
+    
+    /**
+     * Brings the loaded records up to date with the table, patching them in
+     * place rather than loading them all again.
+     * <p>
+     * Only the rows whose {@link #setChangeColumn(java.lang.String) change 
+     * column} is later than the last load or refresh are selected. Each 
+     * replaces the loaded record with the same key, or is added if there is
+     * none, at its place in the {@link #getSortField() sort order}. Records
+     * whose keys were recorded in the {@link #TOMBSTONE_TABLE tombstone 
+     * table} since then are removed. The rows and tombstones are read through
+     * the {@link #getLocalReplica() local replica} when it serves the table.
+     * The record pointer stays on the same record, unless that record was 
+     * deleted.</p>
+     * <p>
+     * A loaded record with unsaved changes, either waiting in the batch or 
+     * with fields marked dirty, is never replaced or removed, so the user's
+     * edits are not lost. It is kept as it is, and reported by
+     * {@link #getRefreshConflicts()}.</p>
+     * <p>
+     * If the table has no change column, if streaming mode is on, or if 
+     * nothing has been loaded yet, all of the records are loaded again, as
+     * by {@link #selectAll()}, keeping the records with unsaved changes in
+     * the same way unless streaming. They are always loaded before this 
+     * method returns, even by an extending class whose {@code selectAll} 
+     * loads them in the background.</p>
+     * 
+     * @return the number of records replaced, added or removed; or, if all
+     *          of the records were loaded again, the number of records
+     * @throws SQLException in the event a database error occurs
+     */
+    public int refresh() throws SQLException {
+        log.enter(CLASS_NAME, "refresh");
+        
+        LocalReplica replica = localReplica;
+        boolean replicated = replica != null 
+                && replica.serves(getEntityType());
+        List<T> conflicts = new ArrayList<>();
+        if (streaming || changeColumn == null || changeMark == null
+                || (replicated && !replica.tracksChanges(getEntityType(), 
+                        changeColumn))) {
+            log.debug("Incremental refresh not possible; loading all.");
+            if (streaming) {
+                selectAll();
+            } else {
+                Timestamp mark = readChangeMark();
+                ArrayList<T> list = loadAll(null);
+                keepUnsaved(list, conflicts);
+                setRecords(list, mark);
+            }
+            reportConflicts(conflicts);
+            log.exit(CLASS_NAME, "refresh", records.size());
+            return records.size();
+        }
+        
+        Long current = recordPtr >= 0 && recordPtr < records.size() 
+                ? getKey(records.get(recordPtr)) : null;
+        Timestamp since = new Timestamp(changeMark.getTime() - refreshOverlap);
+        String sql = "SELECT " + getSelectList() + " FROM " + getTableName()
+                + " WHERE " + changeColumn + " >= ? ORDER BY " 
+                + getKeyColumn();
+        log.debug("Selecting the rows changed since {}: {}", since, sql);
+        
+        Timestamp mark;
+        List<T> changed = new ArrayList<>();
+        Set<Long> deleted;
+        try (Connection conn = getReadConnection()) {
+            mark = replicated ? replica.getHighWater(getEntityType()) 
+                    : maxChange(conn);
+            try (PreparedStatement ps = prepareCached(conn, sql)) {
+                ps.setTimestamp(1, since);
+                try (ResultSet r = ps.executeQuery()) {
+                    EntityBinder.RowMapper<T> mapper = rowMapper(r);
+                    while (r.next()) {
+                        changed.add(mapper.map(r));
+                    }
+                }
+            }
+            deleted = readTombstones(conn, since);
+        }
+        
+        List<T> replaced = new ArrayList<>();
+        List<T> removed = new ArrayList<>();
+        ArrayList<T> patched = patch(changed, deleted, replaced, removed, 
+                conflicts);
+        
+        afterLoad(changed);
+        EntityCache cache = getEntityCache();
+        for (Long key : deleted) {
+            cache.invalidate(getEntityType(), key);
+        }
+        for (T record : changed) {
+            cache.put(getEntityType(), getKey(record), record);
+        }
+        
+        records = patched;
+        changeMark = mark;
+        recordPtr = current == null ? -1 : positionOf(current);
+        for (SecondaryIndex<T> index : indexes) {
+            replaced.forEach(index::remove);
+            removed.forEach(index::remove);
+            changed.forEach(index::add);
+        }
+        reportConflicts(conflicts);
+        
+        int count = changed.size() + removed.size();
+        log.exit(CLASS_NAME, "refresh", count);
+        return count;
+    }
+    
+    /**
+     * Retrieves the loaded records that the last {@link #refresh()} kept 
+     * rather than replace or remove, because they had unsaved changes while
+     * their rows had been changed or deleted in the table. Saving such a 
+     * record writes the user's edits over the other change; a record whose
+     * row was deleted is reported as not found when it is updated.
+     * 
+     * @return the records kept by the last refresh, which is empty if there
+     *          were none
+     */
+    public List<T> getRefreshConflicts() {
+        return refreshConflicts;
+    }
+    
+    /**
+     * Merges changed records into the loaded ones, in sort order, and takes
+     * out the loaded records whose keys were deleted. Loaded records with 
+     * the key of a changed record are added to {@code replaced}, and those
+     * with a deleted key to {@code removed}. A loaded record with unsaved 
+     * changes is kept instead: it is added to {@code conflicts}, and its
+     * changed row is taken out of {@code changed}.
+     */
+    private ArrayList<T> patch(List<T> changed, Set<Long> deleted, 
+            List<T> replaced, List<T> removed, List<T> conflicts) {
+        Set<Long> kept = new HashSet<>();
+        changed.removeIf(record -> isKept(getKey(record), kept, conflicts));
+        for (Long key : deleted) {
+            isKept(key, kept, conflicts);
+        }
+        
+        Comparator<T> order = recordOrder();
+        changed.sort(order);
+        RecordIndex<T> replacing = new RecordIndex<>(this::getKey);
+        replacing.build(changed);
+        
+        ArrayList<T> patched = new ArrayList<>(records.size() 
+                + changed.size());
+        int next = 0;
+        for (T record : records) {
+            Long key = getKey(record);
+            if (key != null && !kept.contains(key)) {
+                if (replacing.indexOf(key) >= 0) {
+                    replaced.add(record);
+                    continue;
+                } else if (deleted.contains(key)) {
+                    removed.add(record);
+                    continue;
+                }
+            }
+            while (next < changed.size() 
+                    && order.compare(changed.get(next), record) < 0) {
+                patched.add(changed.get(next++));
+            }
+            patched.add(record);
+        }
+        while (next < changed.size()) {
+            patched.add(changed.get(next++));
+        }
+        
+        log.debug("Replaced {} and removed {} records; kept {}.", 
+                replaced.size(), removed.size(), conflicts.size());
+        return patched;
+    }
+    
+    /**
+     * Determines whether the loaded record with the given key has unsaved
+     * changes, and so is kept as it is by a refresh. A kept record is added
+     * to {@code conflicts} the first time it is found.
+     */
+    private boolean isKept(Long key, Set<Long> kept, List<T> conflicts) {
+        if (key == null) {
+            return false;
+        }
+        if (kept.contains(key)) {
+            return true;
+        }
+        int position = positionOf(key);
+        if (position < 0 || !hasUnsavedChanges(records.get(position))) {
+            return false;
+        }
+        kept.add(key);
+        conflicts.add(records.get(position));
+        return true;
+    }
+    
+    /**
+     * Puts the loaded records that have unsaved changes in place of the rows
+     * just read for them, or back at their place in the sort order if their
+     * rows are gone, and adds them to {@code conflicts}.
+     */
+    private void keepUnsaved(ArrayList<T> fresh, List<T> conflicts) {
+        Comparator<T> order = recordOrder();
+        RecordIndex<T> index = null;
+        for (T record : records) {
+            if (getKey(record) == null || !hasUnsavedChanges(record)) {
+                continue;
+            }
+            if (index == null) {
+                index = new RecordIndex<>(this::getKey);
+                index.build(fresh);
+            }
+            
+            int position = index.indexOf(getKey(record));
+            if (position >= 0) {
+                fresh.set(position, record);
+            } else {
+                position = Collections.binarySearch(fresh, record, order);
+                fresh.add(position < 0 ? -position - 1 : position, record);
+                index = null;
+            }
+            conflicts.add(record);
+        }
+    }
+    
+    /**
+     * Determines whether a record holds changes that have not been written
+     * yet: it is waiting in the batch, or has fields marked dirty.
+     */
+    private boolean hasUnsavedChanges(T record) {
+        if (isEditedAgain(record)) {
+            return true;
+        }
+        synchronized (pending) {
+            return pending.contains(record);
+        }
+    }
+    
+    /**
+     * Records the loaded records a refresh kept, and warns about them.
+     */
+    private void reportConflicts(List<T> conflicts) {
+        refreshConflicts = conflicts.isEmpty() ? List.of() 
+                : Collections.unmodifiableList(conflicts);
+        if (!conflicts.isEmpty()) {
+            log.warning(conflicts.size() + " records of " + getTableName() 
+                    + " were changed or deleted in the table while they had"
+                    + " unsaved changes; they were kept as they are.");
+        }
+    }
+    
+    /**
+     * Reads the keys recorded in the {@link #TOMBSTONE_TABLE tombstone 
+     * table} for this table since the given time.
+     */
+    private Set<Long> readTombstones(Connection conn, Timestamp since) 
+            throws SQLException {
+        String sql = "SELECT ROW_ID FROM " + TOMBSTONE_TABLE 
+                + " WHERE TABLE_NAME = ? AND DELETED_AT >= ?";
+        
+        Set<Long> keys = new HashSet<>();
+        try (PreparedStatement ps = prepareCached(conn, sql)) {
+            ps.setString(1, getTableName());
+            ps.setTimestamp(2, since);
+            try (ResultSet r = ps.executeQuery()) {
+                while (r.next()) {
+                    keys.add(r.getLong(1));
+                }
+            }
+        }
+        
+        log.debug("Read {} deleted keys since {}.", keys.size(), since);
+        return keys;
+    }
+    
+    /**
+     * Orders records the way {@code selectAll} does: by the sort field, with
+     * {@code null} values first, and then by key.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<T> recordOrder() {
+        Comparator<T> byKey = Comparator.comparing(this::getKey, 
+                Comparator.nullsFirst(Comparator.<Long>naturalOrder()));
+        if (sortColumn == null) {
+            return byKey;
+        }
+        
+        String column = sortColumn;
+        Comparator<Comparable> values = Comparator.nullsFirst(
+                Comparator.<Comparable>naturalOrder());
+        return Comparator.<T, Comparable>comparing(
+                record -> (Comparable) getBinder().getValue(record, column),
+                values).thenComparing(byKey);
+    }
+    
+    /**
+     * Reads the high water mark of the records about to be loaded: the
+     * latest change time of the table, or of its local replica when the
+     * replica serves the records. An extending class that loads the records
+     * itself reads the mark just before it does, and passes it to
+     * {@link #setRecords(java.util.ArrayList, java.sql.Timestamp)}.
+     * 
+     * @return the change mark, or {@code null} if the table has no 
+     *          {@link #setChangeColumn(java.lang.String) change column}
+     * @throws SQLException in the event a database error occurs
+     */
+    protected Timestamp readChangeMark() throws SQLException {
+        if (changeColumn == null) {
+            return null;
+        }
+        LocalReplica replica = localReplica;
+        if (replica != null && replica.serves(getEntityType())) {
+            return replica.getHighWater(getEntityType());
+        }
+        try (Connection conn = getConnection()) {
+            return maxChange(conn);
+        }
+    }
+    
+    private Timestamp maxChange(Connection conn) throws SQLException {
+        String sql = "SELECT MAX(" + changeColumn + ") FROM " 
+                + getTableName();
+        try (PreparedStatement ps = prepareCached(conn, sql);
+                ResultSet r = ps.executeQuery()) {
+            Timestamp max = r.next() ? r.getTimestamp(1) : null;
+            return max != null ? max : new Timestamp(0);
+        }
+    }
+    
+    /**
+     * Selects all of the records in the table.
+     * <p>
+     * If streaming mode is off, every record is loaded into memory. If it is
+     * on, only the first window of records is loaded, and the rest are 
+     * fetched as the cursor moves. Either way, the record pointer is left
+     * before the first record.</p>
+     * 
+     * @see #isStreaming() 
+     * 
+     * @throws SQLException in the event a database error occurs
+     */
+    @Override
+    public void selectAll() throws SQLException {
+        log.enter(CLASS_NAME, "selectAll");
+        
+        if (streaming) {
+            log.debug("Streaming: loading the first window of records.");
+            records = new ArrayList<>();
+            fetchWindow(WindowDirection.FIRST, null);
+            recordPtr = -1;
+            reindex();
+        } else {
+            Timestamp mark = readChangeMark();
+            setRecords(loadAll(null), mark);
+        }
         
-        log.config("Initializing the ArrayList fields.");
-        this.records = new ArrayList<>();
-        this.editedRecords = new ArrayList<>();
-        this.deletedRecords = new ArrayList<>();
+        log.exit(CLASS_NAME, "selectAll", records.size());
+    }
+    
+    /**
+     * Reads every record of the table, in the cursor's 
+     * {@link #getSortField() sort order} and then by primary key, and passes
+     * them to {@link #afterLoad(java.util.List)}. The records in memory are 
+     * left as they are. This is the query behind {@link #selectAll()}, for
+     * extending classes that load the records some other way, such as in a
+     * background task.
+     * 
+     * @param progress told the number of records read after each record, or
+     *          {@code null}
+     * @return the records read
+     * @throws SQLException in the event a database error occurs
+     */
+    protected ArrayList<T> loadAll(IntConsumer progress) throws SQLException {
+        String sql = "SELECT " + getSelectList() + " FROM " 
+                + getTableName() + " ORDER BY " 
+                + (sortColumn == null ? "" : sortColumn + ", ") 
+                + getKeyColumn();
+        log.debug("Loading all records: " + sql);
         
-        log.exit(CLASS_NAME, CLASS_NAME + " (Constructor)");
+        ArrayList<T> list = new ArrayList<>();
+        try (Connection conn = getReadConnection();
+                PreparedStatement ps = conn.prepareStatement(sql, 
+                        ResultSet.TYPE_FORWARD_ONLY, 
+                        ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(windowSize);
+            try (ResultSet r = ps.executeQuery()) {
+                EntityBinder.RowMapper<T> mapper = rowMapper(r);
+                while (r.next()) {
+                    list.add(mapper.map(r));
+                    if (progress != null) {
+                        progress.accept(list.size());
+                    }
+                }
+            }
+        }
+        afterLoad(list);
+        
+        return list;
     }
     
     /**
-     * Provides a way of determining if batch processing is enabled for this
-     * data access object.
+     * Replaces the records in memory with all of the records of the table,
+     * as read by {@link #loadAll(java.util.function.IntConsumer)}, and 
+     * places the record pointer before the first record. The secondary 
+     * indexes are rebuilt, and the given change mark becomes the point 
+     * from which {@link #refresh()} looks for changes.
      * 
-     * If batch processing is enabled, then all new and edited records are stored
-     * in a list to be processed at a later time. If the application is exited
-     * prior to the batch of entries being processed, then the list is stored to
-     * the disk upon exit. Upon startup of the next run of the application, any
-     * unprocessed batched entries are loaded and the user will be prompted to
-     * process the batch of entries. If the user chooses not to process those 
-     * entries, they will, again, be written to disk upon application exit, until
-     * such time as {@code processBatch()} is called to process the batch of 
-     * entries.
+     * @param list the records read
+     * @param mark the change mark read by {@link #readChangeMark()} just 
+     *          before the records were read
+     */
+    protected void setRecords(ArrayList<T> list, Timestamp mark) {
+        records = list;
+        changeMark = mark;
+        recordPtr = -1;
+        reindex();
+    }
+    
+    @Override
+    public T find(String field, String value) throws SQLException {
+        return findBy(field, value);
+    }
+    
+    @Override
+    public T find(String field, Integer value) throws SQLException {
+        return findBy(field, value);
+    }
+    
+    @Override
+    public T find(String field, Short value) throws SQLException {
+        return findBy(field, value);
+    }
+    
+    @Override
+    public T find(String field, Long value) throws SQLException {
+        return findBy(field, value);
+    }
+    
+    @Override
+    public T find(String field, Float value) throws SQLException {
+        return findBy(field, value);
+    }
+    
+    @Override
+    public T find(String field, Double value) throws SQLException {
+        return findBy(field, value);
+    }
+    
+    @Override
+    public T find(String field, Boolean value) throws SQLException {
+        return findBy(field, value);
+    }
+    
+    /**
+     * Locates the first record, in primary key order, whose specified field
+     * contains the specified value. This is the engine behind all of the
+     * {@code find} methods.
+     * <p>
+     * The field name must be one of the columns described by
+     * {@link #getColumnTypes()}, although its case does not matter. The value
+     * is always bound as a statement parameter, never concatenated into the 
+     * SQL. When the connection is pooled, the statement is taken from the 
+     * connection's statement cache, so repeated searches of the same field 
+     * are only parsed by the server once.</p>
+     * <p>
+     * Searches by primary key are served from the 
+     * {@link #getEntityCache() entity cache} when the record is cached, and
+     * every record found is added to it.</p>
      * 
-     * @see #setBatchProcessing(boolean) 
+     * @param field the table field to search
+     * @param value the value to find, or {@code null} to find a record whose
+     *          field is SQL {@code NULL}
+     * @return a matching record or {@code null} if no match found
+     * @throws IllegalArgumentException if the field is not a column of the
+     *          table
+     * @throws SQLException in the event a database error occurs
+     */
+    protected T findBy(String field, Object value) throws SQLException {
+        log.enter(CLASS_NAME, "findBy", new Object[]{field, value});
+        
+        String column = resolveColumn(field);
+        EntityCache cache = getEntityCache();
+        if (column.equals(getKeyColumn()) && value instanceof Number) {
+            T cached = cache.get(getEntityType(), 
+                    ((Number) value).longValue());
+            if (cached != null) {
+                log.debug("Found the record in the entity cache.");
+                log.exit(CLASS_NAME, "findBy", cached);
+                return cached;
+            }
+        }
+        
+        String sql = "SELECT " + getSelectList() + " FROM " + getTableName()
+                + " WHERE " + column + (value == null ? " IS NULL" : " = ?")
+                + " ORDER BY " + getKeyColumn();
+        log.debug("Finding the record: {}", sql);
+        
+        T record = null;
+        try (Connection conn = getReadConnection();
+                PreparedStatement ps = prepareCached(conn, sql)) {
+            ps.setMaxRows(1);
+            if (value != null) {
+                bindValue(ps, 1, value, getColumnTypes().get(column));
+            }
+            
+            try (ResultSet r = ps.executeQuery()) {
+                if (r.next()) {
+                    record = rowMapper(r).map(r);
+                }
+            }
+        }
+        
+        if (record != null) {
+            afterLoad(Collections.singletonList(record));
+            cache.put(getEntityType(), getKey(record), record);
+        }
+        
+        log.exit(CLASS_NAME, "findBy", record);
+        return record;
+    }
+    
+    /**
+     * Resolves a field name to the name of the table column it refers to, 
+     * ignoring case.
      * 
-     * @return {@code true} if entries are to be processed as a batch;
-     *          {@code false} otherwise
+     * @param field the field name to resolve
+     * @return the column name, as given by {@link #getColumnTypes()}
+     * @throws IllegalArgumentException if the field is not a column of the
+     *          table
      */
-    public boolean isBatchProcessing() {
-        log.enter(CLASS_NAME, "isBatchProcessing");
-        log.exit(CLASS_NAME, "isBatchProcessing", batchProcessing);
-        return batchProcessing;
+    protected String resolveColumn(String field) {
+        if (columnNames == null) {
+            Map<String, String> names = 
+                    new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (String column : getColumnTypes().keySet()) {
+                names.put(column, column);
+            }
+            columnNames = names;
+        }
+        
+        String column = field == null ? null : columnNames.get(field.trim());
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown field for table " 
+                    + getTableName() + ": " + field);
+        }
+        
+        return column;
     }
     
     /**
-     * Passing the boolean value {@code true} to this method will turn on the
-     * batch processing for this data access object.
+     * Prepares the given SQL on the given connection, taking the statement 
+     * from the connection's statement cache if it has one. Either way, the
+     * statement must be closed once the caller is done with it.
      * 
-     * @see #isBatchProcessing() 
+     * @param conn the connection to prepare the statement on
+     * @param sql the SQL of the statement
+     * @return the prepared statement
+     * @throws SQLException in the event a database error occurs
+     */
+    protected static PreparedStatement prepareCached(Connection conn, 
+            String sql) throws SQLException {
+        if (conn instanceof CachingConnection) {
+            return ((CachingConnection) conn).prepareCached(sql);
+        }
+        
+        return conn.prepareStatement(sql);
+    }
+    
+    /**
+     * Selects every record whose specified field contains one of the given
+     * values, in primary key order. This is the set-based counterpart of
+     * {@link #findBy(java.lang.String, java.lang.Object)}, used to load the
+     * records related to a whole page of other records at once, rather than 
+     * one query per reference.
+     * <p>
+     * The values are sent as parameters of an {@code IN (...)} list, split 
+     * into statements of at most {@link #MAX_IN_SIZE} values each, and padded
+     * to one of a few fixed list sizes. Duplicate
+     * and {@code null} values are ignored. Every record selected is added to
+     * the {@link #getEntityCache() entity cache}, and passed to 
+     * {@link #afterLoad(java.util.List)}.</p>
      * 
-     * @param batchProcessing 
+     * @param field the table field to search
+     * @param values the values to find
+     * @return the matching records; empty if there are none
+     * @throws IllegalArgumentException if the field is not a column of the
+     *          table
+     * @throws SQLException in the event a database error occurs
      */
-    public void setBatchProcessing(boolean batchProcessing) {
-        log.enter(CLASS_NAME, "setBatchProcessing", batchProcessing);
+    protected List<T> selectWhereIn(String field, Collection<?> values) 
+            throws SQLException {
+        log.enter(CLASS_NAME, "selectWhereIn", new Object[]{field, values});
         
-        log.debug("Setting the batch processing flag to " + batchProcessing);
-        this.batchProcessing = batchProcessing;
+        String column = resolveColumn(field);
+        List<Object> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        distinct.remove(null);
         
-        log.exit(CLASS_NAME, "setBatchProcessing");
+        List<T> list = new ArrayList<>();
+        if (distinct.isEmpty()) {
+            log.exit(CLASS_NAME, "selectWhereIn", list.size());
+            return list;
+        }
+        
+        int type = getColumnTypes().get(column);
+        try (Connection conn = getReadConnection()) {
+            for (int from = 0; from < distinct.size(); from += MAX_IN_SIZE) {
+                List<Object> chunk = distinct.subList(from, 
+                        Math.min(from + MAX_IN_SIZE, distinct.size()));
+                int bucket = inBucket(chunk.size());
+                String sql = "SELECT " + getSelectList() + " FROM " 
+                        + getTableName() + " WHERE " + column + " IN ("
+                        + placeholders(bucket) + ") ORDER BY " 
+                        + getKeyColumn();
+                log.debug("Selecting {} records: {}", chunk.size(), sql);
+                
+                try (PreparedStatement ps = prepareCached(conn, sql)) {
+                    for (int i = 0; i < bucket; i++) {
+                        bindValue(ps, i + 1, chunk.get(Math.min(i, 
+                                chunk.size() - 1)), type);
+                    }
+                    
+                    try (ResultSet r = ps.executeQuery()) {
+                        EntityBinder.RowMapper<T> mapper = rowMapper(r);
+                        while (r.next()) {
+                            list.add(mapper.map(r));
+                        }
+                    }
+                }
+            }
+        }
+        
+        EntityCache cache = getEntityCache();
+        for (T record : list) {
+            cache.put(getEntityType(), getKey(record), record);
+        }
+        afterLoad(list);
+        
+        log.exit(CLASS_NAME, "selectWhereIn", list.size());
+        return list;
     }
     
     /**
-     * Retrieves a count of the total number of entries in the batch list.
+     * Retrieves the size of the {@code IN (...)} list used to send the given
+     * number of values: the smallest bucket size that holds them all.
      * 
-     * @return the number of batched entries
+     * @param count the number of values, from 1 to {@link #MAX_IN_SIZE}
+     * @return the list size
      */
-    public int getBatchedEntryCount() {
-        log.enter(CLASS_NAME, "getBatchedEntryCount");
+    protected static int inBucket(int count) {
+        for (int bucket : IN_BUCKETS) {
+            if (bucket >= count) {
+                return bucket;
+            }
+        }
+        return MAX_IN_SIZE;
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+    
+    /**
+     * {@inheritDoc }
+     * <p>
+     * Records held in the {@link #getEntityCache() entity cache} are taken 
+     * from it; only the others are selected, with as few
+     * {@code IN (...)} statements as possible.</p>
+     */
+    @Override
+    public List<T> findAllByIds(Collection<Long> ids) throws SQLException {
+        log.enter(CLASS_NAME, "findAllByIds", ids);
+        
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        
+        EntityCache cache = getEntityCache();
+        Map<Long, T> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : distinct) {
+            T cached = cache.get(getEntityType(), id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        log.debug("{} of {} records found in the entity cache.", found.size(),
+                distinct.size());
+        
+        if (!misses.isEmpty()) {
+            for (T record : selectWhereIn(getKeyColumn(), misses)) {
+                found.put(getKey(record), record);
+            }
+        }
+        
+        List<T> list = new ArrayList<>(found.size());
+        for (Long id : distinct) {
+            T record = found.get(id);
+            if (record != null) {
+                list.add(record);
+            }
+        }
         
-        log.exit(CLASS_NAME, "getBatchedEntryCount", editedRecords.size());
-        return editedRecords.size();
+        log.exit(CLASS_NAME, "findAllByIds", list.size());
+        return list;
     }
     
     /**
-     * Calling this method will process the batch of new and edited entries that
-     * are contained in the list. Once completed, the number of entries processed
-     * will be returned. This number may be less than than the total number of
-     * entries in the batch, as only successfully processed entries are counted.
-     * Therefore, it would be wise to get the batch count prior to running this
-     * method, so that action may be taken for failed entries.
+     * Called with every list of records read from the database by 
+     * {@link #selectAll()}, by the cursor as it moves from window to window,
+     * and by the {@code find} methods. The default implementation does 
+     * nothing. An extending class may override this method to complete the
+     * records, for example by loading the records they refer to.
      * 
-     * @see #isBatchProcessing() 
-     * @see #setBatchProcessing(boolean) 
-     * @see #getBatchedEntryCount() 
+     * @param loaded the records just read
+     * @throws SQLException in the event a database error occurs
+     */
+    protected void afterLoad(List<T> loaded) throws SQLException {
+        // Nothing to do by default.
+    }
+    
+    /**
+     * Retrieves the record at the record pointer.
      * 
-     * @return the number of batched entries <em>successfully</em> processed
+     * @return the current record
+     * @throws IndexOutOfBoundsException if the record pointer is before the
+     *          first or after the last record
+     */
+    public T getCurrentRecord() {
+        log.enter(CLASS_NAME, "getCurrentRecord");
+        
+        T record = records.get(recordPtr);
+        
+        log.exit(CLASS_NAME, "getCurrentRecord", record);
+        return record;
+    }
+    
+    /**
+     * Retrieves the record with the given primary key from the records in 
+     * memory, without going to the database. The records are indexed by key
+     * the first time they are searched after being loaded, so each search
+     * takes constant time. In streaming mode, only the current window is 
+     * searched.
+     * 
+     * @param id the primary key of the record
+     * @return the record, or {@code null} if it is not in memory
+     */
+    public T findLoaded(long id) {
+        log.enter(CLASS_NAME, "findLoaded", id);
+        
+        int position = positionOf(id);
+        T record = position < 0 ? null : records.get(position);
+        
+        log.exit(CLASS_NAME, "findLoaded", record);
+        return record;
+    }
+    
+    /**
+     * Moves the record pointer to the record with the given primary key. If
+     * the record is in memory, the pointer is moved in constant time. In 
+     * streaming mode, a record outside the current window is read from the
+     * database, and the window that starts with it is fetched.
+     * 
+     * @param id the primary key of the record
+     * @return {@code true} if move was successful; {@code false} if there is
+     *          no such record
+     */
+    public boolean moveTo(long id) {
+        log.enter(CLASS_NAME, "moveTo", id);
+        
+        int position = positionOf(id);
+        if (position < 0 && streaming) {
+            log.debug("Record {} is not in the window; seeking to it.", id);
+            try {
+                T record = findBy(getKeyColumn(), id);
+                if (record != null) {
+                    List<T> window = windowSize > 1 
+                            ? seek(sortColumn, record, false, windowSize - 1)
+                            : new ArrayList<>();
+                    afterLoad(window);
+                    records = new ArrayList<>(window.size() + 1);
+                    records.add(record);
+                    records.addAll(window);
+                    reindex();
+                    position = 0;
+                }
+            } catch (SQLException ex) {
+                log.error(ex, "Seeking to record " + id + " of " 
+                        + getTableName() + ".");
+            }
+        }
+        
+        boolean success = position >= 0;
+        if (success) {
+            recordPtr = position;
+        }
+        
+        log.exit(CLASS_NAME, "moveTo", success);
+        return success;
+    }
+    
+    /**
+     * Retrieves the number of bytes of memory taken by the index of the 
+     * records in memory by primary key, building it first if need be. The
+     * index holds primitive keys and positions only, in addition to the 
+     * records themselves.
+     * 
+     * @return the size of the key index, in bytes
+     */
+    public long getIndexFootprint() {
+        indexRecords();
+        return recordIndex.getFootprint();
+    }
+    
+    /**
+     * Adds a secondary index over the records in memory, and indexes the 
+     * records already loaded. From then on, the index is rebuilt whenever
+     * records are loaded or refreshed, and records are indexed again or 
+     * removed from it as they are saved or deleted. Records saved are 
+     * indexed whether or not they are among the records loaded, so that 
+     * new records can be found as soon as they are written.
+     * 
+     * @param index the index to add
+     * @throws IllegalArgumentException if {@code index} is {@code null}, or
+     *          if an index of the same name has already been added
+     */
+    public void addIndex(SecondaryIndex<T> index) {
+        log.enter(CLASS_NAME, "addIndex", index);
+        
+        if (index == null) {
+            throw new IllegalArgumentException("index cannot be null");
+        }
+        if (getIndex(index.getName()) != null) {
+            throw new IllegalArgumentException("An index named " 
+                    + index.getName() + " has already been added to " 
+                    + getTableName());
+        }
+        index.rebuild(records);
+        indexes.add(index);
+        
+        log.exit(CLASS_NAME, "addIndex");
+    }
+    
+    /**
+     * Retrieves a secondary index by name.
+     * 
+     * @param name the name of the index
+     * @return the index, or {@code null} if no index of that name was added
+     */
+    public SecondaryIndex<T> getIndex(String name) {
+        for (SecondaryIndex<T> index : indexes) {
+            if (index.getName().equals(name)) {
+                return index;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Removes a secondary index, which is no longer kept up to date.
+     * 
+     * @param name the name of the index
+     * @return {@code true} if the index was removed; {@code false} if no 
+     *          index of that name was added
+     */
+    public boolean removeIndex(String name) {
+        SecondaryIndex<T> index = getIndex(name);
+        return index != null && indexes.remove(index);
+    }
+    
+    /**
+     * Rebuilds the secondary indexes from the records in memory. An 
+     * extending class that replaces the records itself must call this 
+     * method afterwards.
+     */
+    protected void reindex() {
+        for (SecondaryIndex<T> index : indexes) {
+            log.debug("Rebuilding index {} from {} records.", index.getName(),
+                    records.size());
+            index.rebuild(records);
+        }
+    }
+    
+    /**
+     * Looks up the position of a record in memory by its key, indexing the
+     * records first if they have been replaced since they were last indexed.
+     * The record found is checked against the key, so a list changed in place
+     * is indexed again too.
+     */
+    private int positionOf(long id) {
+        indexRecords();
+        
+        int position = recordIndex.indexOf(id);
+        if (position >= 0) {
+            Long key = getKey(records.get(position));
+            if (key == null || key != id) {
+                recordIndex.build(records);
+                position = recordIndex.indexOf(id);
+            }
+        }
+        return position;
+    }
+    
+    private void indexRecords() {
+        if (!recordIndex.isCurrent(records)) {
+            log.debug("Indexing {} records by key.", records.size());
+            recordIndex.build(records);
+        }
+    }
+    
+    /**
+     * Replaces the records in memory with the window of records adjoining the
+     * given record in the given direction, in the cursor's 
+     * {@link #getSortField() sort order}. If the database has no records in
+     * that direction, the current window is left as it is.
+     * 
+     * @param direction which window to fetch
+     * @param boundary the record at the edge of the current window, or 
+     *          {@code null} for {@code FIRST} and {@code LAST}
+     * @return {@code true} if a window was fetched; {@code false} if there
+     *          were no records to fetch
      * @throws SQLException in the event a database error occurs
      */
-    public abstract int processBatch() throws SQLException;
-
+    private boolean fetchWindow(WindowDirection direction, T boundary) 
+            throws SQLException {
+        boolean descending = direction == WindowDirection.PREVIOUS
+                || direction == WindowDirection.LAST;
+        
+        log.debug("Fetching the {} window.", direction);
+        List<T> window = seek(sortColumn, boundary, descending, windowSize);
+        
+        if (window.isEmpty()) {
+            return false;
+        }
+        if (descending) {
+            Collections.reverse(window);
+        }
+        afterLoad(window);
+        records = new ArrayList<>(window);
+        reindex();
+        return true;
+    }
+    
     /**
-     * Retrieves a {@code java.sql.Connection} to the underlying database, which
-     * is located on a MariaDB server.
+     * Reads up to {@code limit} records, starting just past the given 
+     * boundary record, in the order of the given sort column and then the 
+     * primary key, or the reverse of that order if {@code descending}.
+     * <p>
+     * Records whose sort column is {@code NULL} are ordered before all 
+     * others, whichever database is in use. They are read by a separate 
+     * statement from the rest, so that each statement is a plain range seek
+     * that can be answered from an index on the sort column and key.</p>
      * 
-     * @return a connection to the database
+     * @param sortColumn the sort column, or {@code null} to sort by the 
+     *          primary key alone
+     * @param boundary the record to seek past, or {@code null} to start at
+     *          the beginning (or the end, if {@code descending})
+     * @param descending {@code true} to read backwards
+     * @param limit the largest number of records to read
+     * @return the records read, in the order read
      * @throws SQLException in the event a database error occurs
      */
-    protected Connection getConnection() throws SQLException {
-        log.enter(CLASS_NAME, "getConnection");
+    private List<T> seek(String sortColumn, T boundary, boolean descending, 
+            int limit) throws SQLException {
+        String key = getKeyColumn();
+        String order = descending ? " DESC" : "";
+        String past = descending ? " < ?" : " > ?";
+        Long boundaryKey = boundary == null ? null : getKey(boundary);
+        List<T> page = new ArrayList<>(Math.min(limit, windowSize));
+        
+        if (sortColumn == null || sortColumn.equals(key)) {
+            if (boundary == null) {
+                seekRange(null, key + order, limit, page);
+            } else {
+                seekRange(key + past, key + order, limit, page, 
+                        boundaryKey, Types.BIGINT);
+            }
+            return page;
+        }
         
-        log.config("Creating a connection object to return.");
-        Connection conn = DriverManager.getConnection(URL, UNAME, 
-                String.copyValueOf(PWORD));
+        int type = getColumnTypes().get(sortColumn);
+        Object value = boundary == null ? null 
+                : getBinder().getValue(boundary, sortColumn);
+        boolean inNulls = boundary != null && value == null;
+        String nulls = sortColumn + " IS NULL";
+        String nullsOrder = key + order;
+        String values = sortColumn + " IS NOT NULL";
+        String valuesOrder = sortColumn + order + ", " + key + order;
+        String pastValue = "(" + sortColumn + past + " OR (" + sortColumn 
+                + " = ? AND " + key + past + "))";
         
-        log.exit(CLASS_NAME, "getConnection", conn);
-        return conn;
+        if (!descending) {
+            if (boundary == null) {
+                seekRange(nulls, nullsOrder, limit, page);
+            } else if (inNulls) {
+                seekRange(nulls + " AND " + key + past, nullsOrder, limit, 
+                        page, boundaryKey, Types.BIGINT);
+            }
+            if (page.size() < limit) {
+                if (boundary == null || inNulls) {
+                    seekRange(values, valuesOrder, limit - page.size(), page);
+                } else {
+                    seekRange(pastValue, valuesOrder, limit, page, value, type,
+                            value, type, boundaryKey, Types.BIGINT);
+                }
+            }
+        } else {
+            if (boundary == null) {
+                seekRange(values, valuesOrder, limit, page);
+            } else if (!inNulls) {
+                seekRange(pastValue, valuesOrder, limit, page, value, type,
+                        value, type, boundaryKey, Types.BIGINT);
+            }
+            if (page.size() < limit) {
+                if (inNulls) {
+                    seekRange(nulls + " AND " + key + past, nullsOrder, 
+                            limit - page.size(), page, boundaryKey, 
+                            Types.BIGINT);
+                } else {
+                    seekRange(nulls, nullsOrder, limit - page.size(), page);
+                }
+            }
+        }
+        
+        return page;
+    }
+    
+    /**
+     * Runs one range statement of a seek, adding the records
+     * read to the given page. Nothing is read if {@code limit} is not 
+     * positive, as JDBC takes a limit of zero to mean no limit at all.
+     * 
+     * @param where the condition of the range, or {@code null} for none
+     * @param orderBy the {@code ORDER BY} list
+     * @param limit the largest number of records to read
+     * @param page the list to add the records to
+     * @param params pairs of parameter values and their 
+     *          {@code java.sql.Types} types
+     * @throws SQLException in the event a database error occurs
+     */
+    private void seekRange(String where, String orderBy, int limit, 
+            List<T> page, Object... params) throws SQLException {
+        if (limit <= 0) {
+            return;
+        }
+        
+        String sql = "SELECT " + getSelectList() + " FROM " + getTableName()
+                + (where == null ? "" : " WHERE " + where) 
+                + " ORDER BY " + orderBy;
+        log.debug("Seeking up to {} records: {}", limit, sql);
+        
+        try (Connection conn = getReadConnection();
+                PreparedStatement ps = prepareCached(conn, sql)) {
+            ps.setFetchSize(Math.min(limit, windowSize));
+            ps.setMaxRows(limit);
+            for (int i = 0; i < params.length; i += 2) {
+                bindValue(ps, i / 2 + 1, params[i], (Integer) params[i + 1]);
+            }
+            
+            try (ResultSet r = ps.executeQuery()) {
+                EntityBinder.RowMapper<T> mapper = rowMapper(r);
+                while (r.next()) {
+                    page.add(mapper.map(r));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Fetches a window while moving the cursor, reporting any database error
+     * as a failed move.
+     */
+    private boolean moveWindow(WindowDirection direction, T boundary) {
+        try {
+            return fetchWindow(direction, boundary);
+        } catch (SQLException ex) {
+            log.error(ex, "Fetching the " + direction + " window of records "
+                    + "from " + getTableName() + ".");
+            return false;
+        }
     }
     
     /**
@@ -181,12 +3111,18 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
      * to access a record, an {@code IndexOutOfBoundsException} will occur. 
      * Therefore, take care when attempting to access a record after making a
      * call to this method.</p>
+     * <p>
+     * In streaming mode, the first window of records is fetched.</p>
      * 
      * @see #isBeforeFirst() 
      */
     public void beforeFirst() {
         log.enter(CLASS_NAME, "beforeFirst");
         
+        if (streaming) {
+            moveWindow(WindowDirection.FIRST, null);
+        }
+        
         log.debug("Setting curRecNum to -1.");
         recordPtr = -1;
         
@@ -211,9 +3147,9 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
         
         boolean beforeFirst = recordPtr < 0;
         
-        log.debug("\trecordPtr == " + recordPtr + "\n\t" 
-                + "\trecords.size == " + records.size() + "\n\t" 
-                +"isBeforeFirst == " + beforeFirst);
+        log.debug("\trecordPtr == {}\n\t\trecords.size == {}\n\t"
+                + "isBeforeFirst == {}", recordPtr, records.size(), 
+                beforeFirst);
         
         log.exit(CLASS_NAME, "isBeforeFirst", beforeFirst);
         return beforeFirst;
@@ -226,12 +3162,18 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
      * to access a record, an {@code IndexOutOfBoundsException} will occur. 
      * Therefore, take care when attempting to access a record after making a
      * call to this method.</p>
+     * <p>
+     * In streaming mode, the last window of records is fetched.</p>
      * 
      * @see #isAfterLast() 
      */
     public void afterLast() {
         log.enter(CLASS_NAME, "afterLast");
         
+        if (streaming) {
+            moveWindow(WindowDirection.LAST, null);
+        }
+        
         log.debug("Setting curRecNum to records.size() (" + records.size() + ").");
         recordPtr = records.size();
         
@@ -256,9 +3198,8 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
         
         boolean afterLast = recordPtr >= records.size();
         
-        log.debug("\trecordPtr == " + recordPtr + "\n\t" 
-                + "\trecords.size == " + records.size() + "\n\t" 
-                +"isAfterLast == " + afterLast);
+        log.debug("\trecordPtr == {}\n\t\trecords.size == {}\n\t"
+                + "isAfterLast == {}", recordPtr, records.size(), afterLast);
         
         log.exit(CLASS_NAME, "isAfterLast", afterLast);
         return afterLast;
@@ -272,6 +3213,10 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
     public boolean first() {
         log.enter(CLASS_NAME, "first");
         
+        if (streaming) {
+            moveWindow(WindowDirection.FIRST, null);
+        }
+        
         log.debug("Moving to the first record (setting recordPtr = 0).");
         recordPtr = 0;
         
@@ -294,6 +3239,12 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
             log.debug("Moving to the previous record (recordPtr--).");
             recordPtr--;
             success = true;
+        } else if (streaming && !records.isEmpty() 
+                && moveWindow(WindowDirection.PREVIOUS, records.get(0))) {
+            log.debug("Crossed the window edge: moving to the last record of "
+                    + "the previous window.");
+            recordPtr = records.size() - 1;
+            success = true;
         } else {
             log.debug("Already at first record: Cannot move (recordPtr == " 
                     + recordPtr + ").");
@@ -319,6 +3270,13 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
             log.debug("Moving to the next record (recordPtr++).");
             recordPtr++;
             success = true;
+        } else if (streaming && !records.isEmpty() 
+                && moveWindow(WindowDirection.NEXT, 
+                        records.get(records.size() - 1))) {
+            log.debug("Crossed the window edge: moving to the first record of "
+                    + "the next window.");
+            recordPtr = 0;
+            success = true;
         } else {
             log.debug("Already at last record: Cannot move (recordPtr == "
                     + recordPtr + ").");
@@ -337,6 +3295,10 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
     public boolean last() {
         log.enter(CLASS_NAME, "last");
         
+        if (streaming) {
+            moveWindow(WindowDirection.LAST, null);
+        }
+        
         log.debug("Moving to the last record (setting recordPtr = 0).");
         recordPtr = getRecordCount() - 1;
         
@@ -344,6 +3306,13 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
         return true;
     }
     
+    /**
+     * Retrieves the number of records currently held in memory. In streaming
+     * mode, this is the number of records in the current window, not in the
+     * table.
+     * 
+     * @return the number of records in memory
+     */
     public int getRecordCount() {
         log.enter(CLASS_NAME, "getRecordCount");
         
@@ -351,4 +3320,11 @@ public abstract class AbstractDAO<T> implements SupportDAO<T> {
         return records.size();
     }
     
+    /**
+     * The windows that may be fetched while streaming.
+     */
+    private enum WindowDirection {
+        FIRST, PREVIOUS, NEXT, LAST
+    }
+    
 }
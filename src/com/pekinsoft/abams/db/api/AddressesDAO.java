@@ -6,8 +6,9 @@
 package com.pekinsoft.abams.db.api;
 
 import com.pekinsoft.abams.db.Addresses;
-import java.sql.SQLException;
-import java.util.ArrayList;
+import com.pekinsoft.abams.db.Customers;
+import java.sql.Types;
+import java.util.List;
 import org.jdesktop.application.Application;
 
 /**
@@ -19,98 +20,61 @@ import org.jdesktop.application.Application;
  */
 public class AddressesDAO extends AbstractDAO<Addresses> {
 
+    static final EntityBinder<Addresses> BINDER = EntityBinder
+            .builder(Addresses.class, "Addresses")
+            .key("AddressID", Addresses::new, Addresses::getAddressID,
+                    Addresses::setAddressID)
+            .column("Street", Types.VARCHAR, EntityBinder.STRING,
+                    Addresses::getStreet, Addresses::setStreet)
+            .dirtyField(Addresses.STREET)
+            .column("Apt", Types.VARCHAR, EntityBinder.STRING,
+                    Addresses::getApt, Addresses::setApt)
+            .dirtyField(Addresses.APT)
+            .column("City", Types.VARCHAR, EntityBinder.STRING,
+                    Addresses::getCity, Addresses::setCity)
+            .dirtyField(Addresses.CITY)
+            .column("StateOrProvince", Types.VARCHAR, EntityBinder.STRING,
+                    Addresses::getStateOrProvince, 
+                    Addresses::setStateOrProvince)
+            .dirtyField(Addresses.STATE_OR_PROVINCE)
+            .column("PostalCode", Types.VARCHAR, EntityBinder.STRING,
+                    Addresses::getPostalCode, Addresses::setPostalCode)
+            .dirtyField(Addresses.POSTAL_CODE)
+            .<Long>column("CustomerID", Types.BIGINT, EntityBinder.LONG,
+                    a -> a.getCustomerID() == null ? null
+                            : a.getCustomerID().getCustomerID(),
+                    (a, id) -> a.setCustomerID(id == null ? null
+                            : new Customers(id)))
+            .dirtyField(Addresses.CUSTOMER)
+            .references(Customers.class)
+            .build();
+
+    /** The name of the index of addresses by postal code. */
+    public static final String POSTAL_CODE_INDEX = "PostalCode";
+    
     public AddressesDAO (boolean batchProcessing, Application app) {
         super(batchProcessing, app);
+        
+        addIndex(new PrefixIndex<>(POSTAL_CODE_INDEX, 
+                Addresses::getPostalCode, SecondaryIndex.COMPACT));
     }
 
     @Override
-    public int processBatch() throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.processBatch.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean insert(Addresses record) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.insert.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean update(Addresses record) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.update.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean save(Addresses record) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.save.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public int save(ArrayList<Addresses> records) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.save.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean delete(Addresses record) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.delete.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public int delete(ArrayList<Addresses> records) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.delete.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public void selectAll() throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.selectAll.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Addresses find(String field, String value) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Addresses find(String field, Integer value) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Addresses find(String field, Short value) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Addresses find(String field, Long value) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Addresses find(String field, Float value) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Addresses find(String field, Double value) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Addresses find(String field, Boolean value) throws SQLException {
-        // TODO: Implement functionality in AddressesDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected EntityBinder<Addresses> getBinder() {
+        return BINDER;
+    }
+    
+    /**
+     * Finds the addresses in memory whose postal code starts with the given
+     * prefix, ignoring case and spaces, in order of their postal codes.
+     * 
+     * @param prefix the start of the postal code
+     * @param limit the largest number of addresses to return
+     * @return the addresses found; empty if there are none
+     */
+    public List<Addresses> findByPostalCodePrefix(String prefix, int limit) {
+        return ((PrefixIndex<Addresses>) getIndex(POSTAL_CODE_INDEX))
+                .findByPrefix(prefix, limit);
     }
 
 }
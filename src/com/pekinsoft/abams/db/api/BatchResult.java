@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   BatchResult.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 11:02:48 AM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Records the fields taken from each 
+ *                                     record for writing.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code BatchResult} reports what happened to each record when a batch of
+ * inserts, updates and deletes was written to the database by
+ * {@link AbstractDAO#processBatch()} or one of the list-based {@code save} and
+ * {@code delete} methods.
+ * <p>
+ * A batch is written inside a single transaction. If any row fails, the whole
+ * transaction is rolled back: the failing rows are reported as
+ * {@link Status#FAILED} with the error that caused them to fail, and every
+ * other row is reported as {@link Status#ROLLED_BACK}. The pending records are
+ * left queued so the failing records can be corrected and the batch retried.
+ * </p>
+ *
+ * @param <T> the type of record in the batch
+ *
+ * @author Sean Carrick &lt;sean at gs-unitedlabs dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class BatchResult<T> {
+
+    /**
+     * The kind of statement a record was written with.
+     */
+    public enum Operation {
+        INSERT, UPDATE, DELETE,
+        /** Inserted, or updated if a row with the same key existed. */
+        UPSERT
+    }
+
+    /**
+     * What happened to a single record in the batch.
+     */
+    public enum Status {
+        /** The row was written and the transaction committed. */
+        SUCCEEDED,
+        /** The statement ran, but no row matched the record's key. */
+        NOT_FOUND,
+        /** The statement for this row failed. */
+        FAILED,
+        /** The row was not written because another row failed. */
+        ROLLED_BACK
+    }
+
+    private final List<RowOutcome<T>> outcomes;
+    /** The dirty fields cleared from each editable record as it was bound,
+     * by identity. */
+    private final Map<Object, Long> taken;
+    private boolean committed;
+
+    BatchResult() {
+        outcomes = new ArrayList<>();
+        taken = new IdentityHashMap<>();
+    }
+
+    /**
+     * Records the dirty fields cleared from a record because they are being
+     * written.
+     */
+    void taken(Object record, long fields) {
+        taken.merge(record, fields, (a, b) -> a | b);
+    }
+
+    /**
+     * Retrieves the fields of a record that were written, which are all of 
+     * them unless the record's dirty fields were taken.
+     */
+    long getWrittenFields(Object record) {
+        Long fields = taken.get(record);
+        return fields != null ? fields : -1L;
+    }
+
+    /**
+     * Marks the taken fields of each record as changed again, once the 
+     * batch has been rolled back.
+     */
+    void restoreDirtyFields() {
+        for (Map.Entry<Object, Long> entry : taken.entrySet()) {
+            ((Editable) entry.getKey()).markDirty(entry.getValue());
+        }
+    }
+
+    void add(RowOutcome<T> outcome) {
+        outcomes.add(outcome);
+    }
+
+    void setCommitted(boolean committed) {
+        this.committed = committed;
+
+        if (!committed) {
+            for (RowOutcome<T> outcome : outcomes) {
+                if (outcome.status != Status.FAILED) {
+                    outcome.status = Status.ROLLED_BACK;
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines whether the batch was committed to the database.
+     *
+     * @return {@code true} if the transaction was committed; {@code false} if
+     *          it was rolled back
+     */
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * Retrieves the outcome of every record in the batch, in the order the
+     * records were written.
+     *
+     * @return the per-row outcomes
+     */
+    public List<RowOutcome<T>> getOutcomes() {
+        return Collections.unmodifiableList(outcomes);
+    }
+
+    /**
+     * Retrieves a count of the records that were successfully written.
+     *
+     * @return the number of rows with a status of {@code SUCCEEDED}
+     */
+    public int getSucceededCount() {
+        int count = 0;
+        for (RowOutcome<T> outcome : outcomes) {
+            if (outcome.status == Status.SUCCEEDED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the outcomes of the records that were not successfully
+     * written, for whatever reason.
+     *
+     * @return the outcomes of all rows that did not succeed
+     */
+    public List<RowOutcome<T>> getUnsuccessful() {
+        List<RowOutcome<T>> list = new ArrayList<>();
+        for (RowOutcome<T> outcome : outcomes) {
+            if (outcome.status != Status.SUCCEEDED) {
+                list.add(outcome);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult[ rows=" + outcomes.size() + ", succeeded="
+                + getSucceededCount() + ", committed=" + committed + " ]";
+    }
+
+    /**
+     * The outcome of writing a single record.
+     *
+     * @param <T> the type of record
+     */
+    public static class RowOutcome<T> {
+
+        private final T record;
+        private final Operation operation;
+        private Status status;
+        private int updateCount;
+        private SQLException error;
+
+        RowOutcome(T record, Operation operation) {
+            this.record = record;
+            this.operation = operation;
+            this.status = Status.ROLLED_BACK;
+        }
+
+        void setResult(Status status, int updateCount, SQLException error) {
+            this.status = status;
+            this.updateCount = updateCount;
+            this.error = error;
+        }
+
+        /**
+         * Copies this outcome as the outcome of a different operation, for
+         * an operation carried out by way of another.
+         */
+        RowOutcome<T> as(Operation operation) {
+            RowOutcome<T> copy = new RowOutcome<>(record, operation);
+            copy.setResult(status, updateCount, error);
+            return copy;
+        }
+
+        public T getRecord() {
+            return record;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Retrieves the update count the driver reported for this row. This is
+         * {@code java.sql.Statement.SUCCESS_NO_INFO} when the driver does not
+         * report counts for batched statements.
+         *
+         * @return the update count for the row
+         */
+        public int getUpdateCount() {
+            return updateCount;
+        }
+
+        /**
+         * Retrieves the error that caused this row to fail, if any.
+         *
+         * @return the error, or {@code null} if the row did not fail
+         */
+        public SQLException getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return operation + " " + record + " :: " + status;
+        }
+
+    }
+
+}
@@ -28,13 +28,15 @@
  *  WHEN          BY                   REASON
  *  ------------  -------------------  -----------------------------------------
  *  Feb 15, 2021  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Indexed the customers in memory for
+ *                                     lookups without the database.
  * *****************************************************************************
  */
 package com.pekinsoft.abams.db.api;
 
 import com.pekinsoft.abams.db.Customers;
-import java.sql.SQLException;
-import java.util.ArrayList;
+import java.sql.Types;
+import java.util.List;
 import org.jdesktop.application.Application;
 
 /**
@@ -46,98 +48,82 @@ import org.jdesktop.application.Application;
  */
 public class CustomersDAO extends AbstractDAO<Customers> {
 
+    static final EntityBinder<Customers> BINDER = EntityBinder
+            .builder(Customers.class, "Customers")
+            .key("CustomerID", Customers::new, Customers::getCustomerID,
+                    Customers::setCustomerID)
+            .column("LastName", Types.VARCHAR, EntityBinder.STRING,
+                    Customers::getLastName, Customers::setLastName)
+            .dirtyField(Customers.LAST_NAME)
+            .column("FirstName", Types.VARCHAR, EntityBinder.STRING,
+                    Customers::getFirstName, Customers::setFirstName)
+            .dirtyField(Customers.FIRST_NAME)
+            .column("Email", Types.VARCHAR, EntityBinder.STRING,
+                    Customers::getEmail, Customers::setEmail)
+            .dirtyField(Customers.EMAIL)
+            .column("Phone", Types.VARCHAR, EntityBinder.STRING,
+                    Customers::getPhone, Customers::setPhone)
+            .dirtyField(Customers.PHONE)
+            .build();
+
+    /** The name of the index of customers by email address. */
+    public static final String EMAIL_INDEX = "Email";
+    
+    /** The name of the index of customers by phone number. */
+    public static final String PHONE_INDEX = "Phone";
+    
+    /** The name of the index of customers by last name. */
+    public static final String LAST_NAME_INDEX = "LastName";
+    
     public CustomersDAO (boolean batchProcessing, Application app) {
         super(batchProcessing, app);
+        
+        addIndex(new HashIndex<>(EMAIL_INDEX, Customers::getEmail, 
+                SecondaryIndex.CASE_INSENSITIVE));
+        addIndex(new HashIndex<>(PHONE_INDEX, Customers::getPhone, 
+                SecondaryIndex.DIGITS_ONLY));
+        addIndex(new PrefixIndex<>(LAST_NAME_INDEX, Customers::getLastName,
+                SecondaryIndex.CASE_INSENSITIVE));
     }
 
     @Override
-    public int processBatch() throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.processBatch.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean insert(Customers record) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.insert.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean update(Customers record) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.update.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean save(Customers record) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.save.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public int save(ArrayList<Customers> records) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.save.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean delete(Customers record) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.delete.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public int delete(ArrayList<Customers> records) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.delete.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public void selectAll() throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.selectAll.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Customers find(String field, String value) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Customers find(String field, Integer value) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Customers find(String field, Short value) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Customers find(String field, Long value) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Customers find(String field, Float value) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Customers find(String field, Double value) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Customers find(String field, Boolean value) throws SQLException {
-        // TODO: Implement functionality in CustomersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected EntityBinder<Customers> getBinder() {
+        return BINDER;
+    }
+    
+    /**
+     * Finds the customers in memory with the given email address, ignoring 
+     * its case.
+     * 
+     * @param email the email address
+     * @return the customers found; empty if there are none
+     */
+    public List<Customers> findByEmail(String email) {
+        return getIndex(EMAIL_INDEX).find(email);
+    }
+    
+    /**
+     * Finds the customers in memory with the given phone number, ignoring 
+     * everything in it but its digits.
+     * 
+     * @param phone the phone number
+     * @return the customers found; empty if there are none
+     */
+    public List<Customers> findByPhone(String phone) {
+        return getIndex(PHONE_INDEX).find(phone);
+    }
+    
+    /**
+     * Finds the customers in memory whose last name starts with the given 
+     * prefix, ignoring case, in order of their last names.
+     * 
+     * @param prefix the start of the last name
+     * @param limit the largest number of customers to return
+     * @return the customers found; empty if there are none
+     */
+    public List<Customers> findByLastNamePrefix(String prefix, int limit) {
+        return ((PrefixIndex<Customers>) getIndex(LAST_NAME_INDEX))
+                .findByPrefix(prefix, limit);
     }
 
 }
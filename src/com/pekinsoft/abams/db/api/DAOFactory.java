@@ -19,7 +19,7 @@
  *  Class      :   DAOFactory.java
  *  Author     :   Sean Carrick
  *  Created    :   Feb 15, 2021 @ 7:46:19 AM
- *  Modified   :   Feb 15, 2021
+ *  Modified   :   Oct 18, 2026
  * 
  *  Purpose:     See class JavaDoc comment.
  * 
@@ -28,6 +28,14 @@
  *  WHEN          BY                   REASON
  *  ------------  -------------------  -----------------------------------------
  *  Feb 15, 2021  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Reworked into a registry that builds each
+ *                                     DAO once per batch mode and allows other
+ *                                     implementations to be registered.
+ *  Oct 18, 2026  Sean Carrick         Each call builds a DAO of its own, as a
+ *                                     DAO's cursor and modes are not safe to
+ *                                     share; the registry is typed.
+ *  Oct 18, 2026  Sean Carrick         Added DAOs kept per owner, released 
+ *                                     with their loggers by release().
  * *****************************************************************************
  */
 package com.pekinsoft.abams.db.api;
@@ -35,6 +43,11 @@ package com.pekinsoft.abams.db.api;
 import com.pekinsoft.abams.AbAMSApp;
 import com.pekinsoft.abams.utils.Logger;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jdesktop.application.Application;
 
 /**
@@ -64,6 +77,36 @@ import org.jdesktop.application.Application;
  * demand for them is great enough. However, at this time we believe that the
  * databases and servers that we support should be sufficient for the vast 
  * majority of our customers.</p>
+ * <p>
+ * A DAO's records, record pointer, and batch, streaming and sort modes 
+ * belong to the caller that set them, and a DAO is not thread-safe, so DAOs
+ * are not shared between callers. Instead, each owner, such as a screen, 
+ * keeps its own: {@link #getDAO(java.lang.Object, int, boolean)} builds the
+ * owner's DAO the first time it is asked for, and hands back the same one
+ * from then on. When the owner is done, such as when the screen is closed,
+ * {@link #release(java.lang.Object)} closes its DAOs:</p>
+ * <pre>
+ * ProductsDAO products = (ProductsDAO) DAOFactory.getDAO(this, 
+ *         DAOFactory.PRODUCTS_DAO, false);
+ * // ... and when the screen closes:
+ * DAOFactory.release(this);
+ * </pre>
+ * <p>
+ * Each DAO holds a reference to the shared log file through its logger until
+ * it is closed, which is why DAOs must be released rather than simply 
+ * dropped. Everything else that does not change from one instance to the 
+ * next is shared by all of them: each DAO class describes its table with a
+ * single static {@link EntityBinder}, prepared statements are cached by the
+ * pooled connections, and records are shared through the 
+ * {@link com.pekinsoft.abams.db.cache.EntityCache entity cache}.</p>
+ * <p>
+ * A different implementation may be plugged in for any of the DAO 
+ * identifiers by calling
+ * {@link #register(int, com.pekinsoft.abams.db.api.DAOFactory.DAOBuilder)}:
+ * </p>
+ * <pre>
+ * DAOFactory.register(DAOFactory.CUSTOMERS_DAO, CachedCustomersDAO::new);
+ * </pre>
  * 
  * @see AccountTypesDAO
  * @see AccountTypes
@@ -87,49 +130,168 @@ public abstract class DAOFactory {
     private static final Application app = AbAMSApp.getInstance(AbAMSApp.class);
     private static final Logger log = Logger.getLogger(
             DAOFactory.class.getSimpleName(), app);
+    
+    private static final Map<Integer, DAOBuilder> builders = 
+            new ConcurrentHashMap<>();
+    /** The DAOs kept for each owner, by DAO identifier and batch mode. */
+    private static final Map<Object, Map<List<Object>, AbstractDAO<?>>> 
+            owned = new WeakHashMap<>();
+    
+    static {
+        builders.put(ADDRESSES_DAO, AddressesDAO::new);
+        builders.put(CUSTOMERS_DAO, CustomersDAO::new);
+        builders.put(ORDER_DETAILS_DAO, OrderDetailsDAO::new);
+        builders.put(ORDERS_DAO, OrdersDAO::new);
+        builders.put(PRODUCTS_DAO, ProductsDAO::new);
+    }
 
     private DAOFactory() throws SQLException {
         // Preventing initialization.
     }
     
-    public static AbstractDAO getDAO(int whichDAO, boolean batchProcessing) {
-        log.enter(CLASS_NAME, "getDAO", whichDAO);
+    /**
+     * Builds a data access object for the specified table. The object, with
+     * its records, record pointer and modes, belongs to the caller alone,
+     * which must {@link AbstractDAO#close() close} it when done. A caller 
+     * that uses the DAO for as long as it lives should keep one through 
+     * {@link #getDAO(java.lang.Object, int, boolean)} instead.
+     * 
+     * @param whichDAO one of the {@code *_DAO} constants of this class
+     * @param batchProcessing {@code true} for a DAO that batches its writes;
+     *          {@code false} for a DAO that writes immediately
+     * @return the data access object, or {@code null} if {@code whichDAO} is
+     *          not a known DAO identifier
+     */
+    public static AbstractDAO<?> getDAO(int whichDAO, 
+            boolean batchProcessing) {
+        log.enter(CLASS_NAME, "getDAO", new Object[]{whichDAO, 
+            batchProcessing});
+        
+        DAOBuilder builder = builders.get(whichDAO);
+        if (builder == null) {
+            log.debug("Invalid DAO requested: whichDAO == " + whichDAO + ".\n\n"
+                    + "Returning a null DAO object.");
+            log.exit(CLASS_NAME, "getDAO", null);
+            return null;
+        }
         
-        AbstractDAO dao = null;
+        log.debug("Building the DAO for whichDAO == " + whichDAO 
+                + ", batchProcessing == " + batchProcessing + ".");
+        AbstractDAO<?> dao = builder.build(batchProcessing, app);
         
-        log.debug("Executing switch block to see which DAO to return");
-        switch (whichDAO) {
-            case ADDRESSES_DAO:
-                log.debug("ADDRESSES_DAO requested. Returning a new AddressesDAO.");
-                dao = new AddressesDAO(batchProcessing, app);
-                log.exit(CLASS_NAME, "getDAO", dao);
-                return dao;
-            case CUSTOMERS_DAO:
-                log.debug("CUSTOMERS_DAO requested. Returning a new CustomersDAO.");
-                dao = new CustomersDAO(batchProcessing, app);
-                log.exit(CLASS_NAME, "getDAO", dao);
-                return new CustomersDAO(batchProcessing, app);
-            case ORDER_DETAILS_DAO:
-                log.debug("ORDER_DETAILS_DAO requested. Returning a new OrderDetailsDAO.");
-                dao = new OrderDetailsDAO(batchProcessing, app);
-                log.exit(CLASS_NAME, "getDAO", dao);
-                return new OrderDetailsDAO(batchProcessing, app);
-            case ORDERS_DAO:
-                log.debug("ORDERS_DAO requested. Returning a new OrdersDAO.");
-                dao = new OrdersDAO(batchProcessing, app);
-                log.exit(CLASS_NAME, "getDAO", dao);
-                return new OrdersDAO(batchProcessing, app);
-            case PRODUCTS_DAO:
-                log.debug("PRODUCTS_DAO requested. Returning a new ProductsDAO.");
-                dao = new ProductsDAO(batchProcessing, app);
-                log.exit(CLASS_NAME, "getDAO", dao);
-                return new ProductsDAO(batchProcessing, app);
-            default:
-                log.debug("Invalid DAO requested: whichDAO == " + whichDAO + ".\n\n"
-                        + "Returning a null DAO object.");
-                log.exit(CLASS_NAME, "getDAO", dao);
-                return dao;
+        log.exit(CLASS_NAME, "getDAO", dao);
+        return dao;
+    }
+    
+    /**
+     * Retrieves the given owner's data access object for the specified table,
+     * building it the first time the owner asks for it. Every later call 
+     * with the same owner, identifier and batch mode returns the same object,
+     * until the owner is {@link #release(java.lang.Object) released}.
+     * 
+     * @param owner the object the DAO is kept for, such as a screen
+     * @param whichDAO one of the {@code *_DAO} constants of this class
+     * @param batchProcessing {@code true} for a DAO that batches its writes;
+     *          {@code false} for a DAO that writes immediately
+     * @return the owner's data access object, or {@code null} if 
+     *          {@code whichDAO} is not a known DAO identifier
+     * @throws IllegalArgumentException if {@code owner} is {@code null}
+     */
+    public static AbstractDAO<?> getDAO(Object owner, int whichDAO, 
+            boolean batchProcessing) {
+        log.enter(CLASS_NAME, "getDAO", new Object[]{owner, whichDAO, 
+            batchProcessing});
+        
+        if (owner == null) {
+            throw new IllegalArgumentException("owner cannot be null");
+        }
+        
+        List<Object> key = List.of(whichDAO, batchProcessing);
+        AbstractDAO<?> dao;
+        synchronized (owned) {
+            Map<List<Object>, AbstractDAO<?>> daos = owned.computeIfAbsent(
+                    owner, o -> new HashMap<>());
+            dao = daos.get(key);
+            if (dao == null) {
+                dao = getDAO(whichDAO, batchProcessing);
+                if (dao != null) {
+                    daos.put(key, dao);
+                }
+            }
         }
+        
+        log.exit(CLASS_NAME, "getDAO", dao);
+        return dao;
+    }
+    
+    /**
+     * Closes and forgets the data access objects kept for the given owner. 
+     * Their batches are not processed. Asking for one of the owner's DAOs 
+     * afterward builds a new one.
+     * 
+     * @param owner the object the DAOs were kept for
+     * @return the number of DAOs closed
+     */
+    public static int release(Object owner) {
+        log.enter(CLASS_NAME, "release", owner);
+        
+        Map<List<Object>, AbstractDAO<?>> daos;
+        synchronized (owned) {
+            daos = owned.remove(owner);
+        }
+        
+        int count = 0;
+        if (daos != null) {
+            for (AbstractDAO<?> dao : daos.values()) {
+                dao.close();
+                count++;
+            }
+        }
+        
+        log.exit(CLASS_NAME, "release", count);
+        return count;
+    }
+    
+    /**
+     * Registers the builder used to create the data access object for the 
+     * specified identifier. This may replace the builder of one of the 
+     * standard DAOs, or add a new identifier. DAOs already built are not 
+     * affected; every later call to {@link #getDAO(int, boolean)} uses the
+     * new builder.
+     * 
+     * @param whichDAO the DAO identifier
+     * @param builder the builder of the DAO
+     * @throws IllegalArgumentException if {@code builder} is {@code null}
+     */
+    public static void register(int whichDAO, DAOBuilder builder) {
+        log.enter(CLASS_NAME, "register", new Object[]{whichDAO, builder});
+        
+        if (builder == null) {
+            throw new IllegalArgumentException("builder cannot be null");
+        }
+        
+        builders.put(whichDAO, builder);
+        
+        log.exit(CLASS_NAME, "register");
+    }
+    
+    /**
+     * A {@code DAOBuilder} creates a data access object. The constructors of
+     * all of the standard DAOs match this interface, so they may be 
+     * registered as constructor references.
+     */
+    @FunctionalInterface
+    public interface DAOBuilder {
+        
+        /**
+         * Creates a new data access object.
+         * 
+         * @param batchProcessing whether the DAO batches its writes
+         * @param app the application the DAO belongs to
+         * @return the new data access object
+         */
+        AbstractDAO<?> build(boolean batchProcessing, Application app);
+        
     }
 
 }
@@ -19,7 +19,7 @@
  *  Class      :   Editable.java
  *  Author     :   Sean Carrick
  *  Created    :   Feb 15, 2021 @ 5:17:13 PM
- *  Modified   :   Feb 15, 2021
+ *  Modified   :   Oct 18, 2026
  * 
  *  Purpose:     See class JavaDoc comment.
  * 
@@ -28,6 +28,8 @@
  *  WHEN          BY                   REASON
  *  ------------  -------------------  -----------------------------------------
  *  Feb 15, 2021  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Added per-field dirty tracking.
+ *  Oct 18, 2026  Sean Carrick         Added clearDirty and markDirty.
  * *****************************************************************************
  */
 package com.pekinsoft.abams.db.api;
@@ -59,19 +61,59 @@ public interface Editable {
     public void removePropertyChangeListener(PropertyChangeListener listener);
         
     /**
-     * Determines whether the changes to the record are a modification or a new
-     * record entirely.
+     * Determines whether any of the record's fields have been changed since it
+     * was loaded from, or last written to, the database.
      * 
-     * @return {@code true} if a modified record; {@code false} if new
+     * @return {@code true} if a modified record; {@code false} if unchanged
      */
     public boolean isEdited();
     
     /**
-     * Sets whether this record is modified or new.
+     * Marks every field of the record as changed, or none of them. Data 
+     * access objects mark a record as unchanged once they have read or 
+     * written it.
      * 
-     * @param value send {@code true} if a modified record; {@code false} for
-     *          a new one
+     * @param value send {@code true} to mark every field as changed; 
+     *          {@code false} to mark the record as unchanged
      */
     public void setEdited(boolean value);
+    
+    /**
+     * Retrieves the fields of the record that have been changed, as a bit set
+     * in which bit <em>n</em> stands for the field numbered <em>n</em> by the
+     * record's class. Records with up to 64 fields are supported.
+     * 
+     * @return the bit set of changed fields; {@code 0} if unchanged
+     */
+    public long getDirtyFields();
+    
+    /**
+     * Marks the given fields of the record as unchanged, leaving any others
+     * as they are. Data access objects clear the fields they are about to 
+     * write, so that a field changed again while the write is under way 
+     * stays marked, and is written the next time.
+     * 
+     * @param fields the bit set of fields to clear
+     */
+    public void clearDirty(long fields);
+    
+    /**
+     * Marks the given fields of the record as changed, in addition to any
+     * already marked. Data access objects mark the fields they cleared again
+     * if the write is rolled back.
+     * 
+     * @param fields the bit set of fields to mark
+     */
+    public void markDirty(long fields);
+    
+    /**
+     * Determines whether the given field of the record has been changed.
+     * 
+     * @param field the field number, as defined by the record's class
+     * @return {@code true} if the field has been changed
+     */
+    public default boolean isDirty(int field) {
+        return (getDirtyFields() & (1L << field)) != 0;
+    }
 
 }
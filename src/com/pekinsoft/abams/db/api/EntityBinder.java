@@ -0,0 +1,512 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   EntityBinder.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 5:02:36 PM
+ *  Modified   :   Oct 18, 2026
+ * 
+ *  Purpose:     See class JavaDoc comment.
+ * 
+ *  Revision History:
+ * 
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * An {@code EntityBinder} describes how an entity class maps to its table, and
+ * moves values between entities and JDBC statements and result sets using 
+ * that description. Each column is declared exactly once, with its SQL type,
+ * how to read it from a result set and which accessors of the entity it
+ * belongs to:
+ * <pre>
+ * static final EntityBinder&lt;Customers&gt; BINDER = EntityBinder
+ *         .builder(Customers.class, "Customers")
+ *         .key("CustomerID", Customers::new, Customers::getCustomerID,
+ *                 Customers::setCustomerID)
+ *         .column("LastName", Types.VARCHAR, EntityBinder.STRING,
+ *                 Customers::getLastName, Customers::setLastName)
+ *         // ...
+ *         .build();
+ * </pre>
+ * <p>
+ * Reading is done by a {@link RowMapper}, which looks up the index of each
+ * column in the result set's metadata once, when it is created, and then 
+ * reads every row by index. No reflection and no column name lookups take
+ * place per row.</p>
+ *
+ * @param <T> the entity type
+ * 
+ * @author Sean Carrick &lt;sean at gs-unitedlabs dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class EntityBinder<T> {
+    
+    /** Reads a nullable {@code BIGINT} column. */
+    public static final Reader<Long> LONG = (r, i) -> {
+        long value = r.getLong(i);
+        return r.wasNull() ? null : value;
+    };
+    /** Reads a nullable {@code INTEGER} column. */
+    public static final Reader<Integer> INTEGER = (r, i) -> {
+        int value = r.getInt(i);
+        return r.wasNull() ? null : value;
+    };
+    /** Reads a character column. */
+    public static final Reader<String> STRING = ResultSet::getString;
+    /** Reads a {@code DECIMAL} column. */
+    public static final Reader<java.math.BigDecimal> DECIMAL = 
+            ResultSet::getBigDecimal;
+    /** Reads a {@code TIMESTAMP} column. */
+    public static final Reader<java.sql.Timestamp> TIMESTAMP = 
+            ResultSet::getTimestamp;
+    /** Reads a binary column. */
+    public static final Reader<byte[]> BYTES = ResultSet::getBytes;
+    
+    private final Class<T> type;
+    private final String table;
+    private final String keyColumn;
+    private final Function<Long, T> factory;
+    private final Function<T, Long> keyGetter;
+    private final BiConsumer<T, Long> keySetter;
+    private final List<Column<T, ?>> columns;
+    private final Map<String, Integer> columnTypes;
+    private final Map<String, Column<T, ?>> columnsByName;
+    private final Set<Class<?>> referencedTypes;
+    
+    private EntityBinder(Builder<T> builder) {
+        this.type = builder.type;
+        this.table = builder.table;
+        this.keyColumn = builder.keyColumn;
+        this.factory = builder.factory;
+        this.keyGetter = builder.keyGetter;
+        this.keySetter = builder.keySetter;
+        this.columns = Collections.unmodifiableList(
+                new ArrayList<>(builder.columns));
+        
+        Map<String, Integer> types = new LinkedHashMap<>();
+        Map<String, Column<T, ?>> byName = new HashMap<>();
+        types.put(keyColumn, java.sql.Types.BIGINT);
+        for (Column<T, ?> column : columns) {
+            types.put(column.name, column.sqlType);
+            byName.put(column.name, column);
+        }
+        this.columnTypes = Collections.unmodifiableMap(types);
+        this.columnsByName = byName;
+        this.referencedTypes = Collections.unmodifiableSet(
+                new LinkedHashSet<>(builder.referencedTypes));
+    }
+    
+    /**
+     * Starts describing the given entity class and its table.
+     * 
+     * @param <T> the entity type
+     * @param type the entity class
+     * @param table the name of the table
+     * @return a builder for the binder
+     */
+    public static <T> Builder<T> builder(Class<T> type, String table) {
+        return new Builder<>(type, table);
+    }
+    
+    public Class<T> getType() {
+        return type;
+    }
+    
+    public String getTableName() {
+        return table;
+    }
+    
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+    
+    /**
+     * Retrieves the entity types whose tables this table refers to through
+     * its columns. Rows of those tables must be inserted before, and deleted
+     * after, the rows that refer to them.
+     * 
+     * @return the referenced entity types
+     */
+    public Set<Class<?>> getReferencedTypes() {
+        return referencedTypes;
+    }
+    
+    /**
+     * Retrieves every column of the table, starting with the primary key, 
+     * mapped to its {@code java.sql.Types} type.
+     * 
+     * @return the column names and their SQL types
+     */
+    public Map<String, Integer> getColumnTypes() {
+        return columnTypes;
+    }
+    
+    public Long getKey(T record) {
+        return keyGetter.apply(record);
+    }
+    
+    public void setKey(T record, Long key) {
+        keySetter.accept(record, key);
+    }
+    
+    /**
+     * Retrieves the value of one column of the given record, as it would be
+     * bound to a statement.
+     * 
+     * @param record the record to read
+     * @param column the column name, exactly as declared
+     * @return the value of the column, which may be {@code null}
+     * @throws IllegalArgumentException if the column was not declared
+     */
+    public Object getValue(T record, String column) {
+        if (keyColumn.equals(column)) {
+            return getKey(record);
+        }
+        
+        Column<T, ?> declared = columnsByName.get(column);
+        if (declared == null) {
+            throw new IllegalArgumentException("Unknown column for table " 
+                    + table + ": " + column);
+        }
+        return declared.getter.apply(record);
+    }
+    
+    /**
+     * Retrieves the names of the non-key columns written for a record with
+     * the given dirty fields: the columns whose field is dirty, plus any 
+     * column declared without a field number.
+     * 
+     * @see Editable#getDirtyFields() 
+     * 
+     * @param dirtyFields the bit set of dirty fields; {@code -1} for every
+     *          column
+     * @return the column names, in declaration order
+     */
+    public String[] getColumnNames(long dirtyFields) {
+        List<String> names = new ArrayList<>(columns.size());
+        for (Column<T, ?> column : columns) {
+            if (column.isWritten(dirtyFields)) {
+                names.add(column.name);
+            }
+        }
+        return names.toArray(new String[names.size()]);
+    }
+    
+    /**
+     * Binds the values of the given record's non-key columns to the given
+     * statement, in declaration order, beginning at the given parameter 
+     * index.
+     * 
+     * @param ps the statement to bind to
+     * @param record the record whose values are bound
+     * @param index the index of the first parameter to bind
+     * @return the index of the next unbound parameter
+     * @throws SQLException in the event a database error occurs
+     */
+    public int bind(PreparedStatement ps, T record, int index) 
+            throws SQLException {
+        return bind(ps, record, index, -1L);
+    }
+    
+    /**
+     * Binds the values of the columns named by 
+     * {@link #getColumnNames(long)} for the given dirty fields to the given
+     * statement, in declaration order, beginning at the given parameter 
+     * index.
+     * 
+     * @param ps the statement to bind to
+     * @param record the record whose values are bound
+     * @param index the index of the first parameter to bind
+     * @param dirtyFields the bit set of dirty fields; {@code -1} for every
+     *          column
+     * @return the index of the next unbound parameter
+     * @throws SQLException in the event a database error occurs
+     */
+    public int bind(PreparedStatement ps, T record, int index, 
+            long dirtyFields) throws SQLException {
+        for (Column<T, ?> column : columns) {
+            if (column.isWritten(dirtyFields)) {
+                AbstractDAO.bindValue(ps, index++, 
+                        column.getter.apply(record), column.sqlType);
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Creates a mapper for the rows of the given result set. The indices of
+     * the columns are resolved from the result set's metadata now; columns
+     * that the result set does not contain are left unset in the records.
+     * Records that are {@link Editable} are marked as unchanged once they 
+     * have been read.
+     * 
+     * @param r the result set to map
+     * @return a mapper for the result set's rows
+     * @throws SQLException in the event a database error occurs
+     */
+    public RowMapper<T> mapperFor(ResultSet r) throws SQLException {
+        ResultSetMetaData meta = r.getMetaData();
+        Map<String, Integer> labels = 
+                new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = meta.getColumnCount(); i >= 1; i--) {
+            labels.put(meta.getColumnLabel(i), i);
+        }
+        
+        int keyIndex = labels.getOrDefault(keyColumn, 0);
+        int[] indexes = new int[columns.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = labels.getOrDefault(columns.get(i).name, 0);
+        }
+        
+        return new Mapper(keyIndex, indexes);
+    }
+    
+    /**
+     * Reads one column value from a result set, by index.
+     * 
+     * @param <V> the type of value read
+     */
+    @FunctionalInterface
+    public interface Reader<V> {
+        
+        V read(ResultSet r, int index) throws SQLException;
+        
+    }
+    
+    /**
+     * Creates records from the rows of one result set.
+     * 
+     * @param <T> the entity type
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        
+        /**
+         * Creates a record from the current row of the result set.
+         * 
+         * @param r the result set, positioned on the row to read
+         * @return the record for the row
+         * @throws SQLException in the event a database error occurs
+         */
+        T map(ResultSet r) throws SQLException;
+        
+    }
+    
+    /**
+     * A row mapper with the column indices of one result set resolved.
+     */
+    private final class Mapper implements RowMapper<T> {
+        
+        private final int keyIndex;
+        private final int[] indexes;
+        
+        Mapper(int keyIndex, int[] indexes) {
+            this.keyIndex = keyIndex;
+            this.indexes = indexes;
+        }
+        
+        @Override
+        public T map(ResultSet r) throws SQLException {
+            T record = factory.apply(keyIndex > 0 
+                    ? LONG.read(r, keyIndex) : null);
+            for (int i = 0; i < indexes.length; i++) {
+                if (indexes[i] > 0) {
+                    columns.get(i).read(r, indexes[i], record);
+                }
+            }
+            if (record instanceof Editable) {
+                ((Editable) record).setEdited(false);
+            }
+            return record;
+        }
+        
+    }
+    
+    /**
+     * A non-key column and the entity accessors it is read into and bound 
+     * from.
+     */
+    private static final class Column<T, V> {
+        
+        private final String name;
+        private final int sqlType;
+        private final Reader<? extends V> reader;
+        private final Function<? super T, ?> getter;
+        private final BiConsumer<? super T, ? super V> setter;
+        private int field = -1;
+        
+        Column(String name, int sqlType, Reader<? extends V> reader, 
+                Function<? super T, ?> getter, 
+                BiConsumer<? super T, ? super V> setter) {
+            this.name = name;
+            this.sqlType = sqlType;
+            this.reader = reader;
+            this.getter = getter;
+            this.setter = setter;
+        }
+        
+        void read(ResultSet r, int index, T record) throws SQLException {
+            setter.accept(record, reader.read(r, index));
+        }
+        
+        boolean isWritten(long dirtyFields) {
+            return field < 0 || (dirtyFields & (1L << field)) != 0;
+        }
+        
+    }
+    
+    /**
+     * Builds an {@link EntityBinder}.
+     * 
+     * @param <T> the entity type
+     */
+    public static final class Builder<T> {
+        
+        private final Class<T> type;
+        private final String table;
+        private final List<Column<T, ?>> columns = new ArrayList<>();
+        private final Set<Class<?>> referencedTypes = new LinkedHashSet<>();
+        private String keyColumn;
+        private Function<Long, T> factory;
+        private Function<T, Long> keyGetter;
+        private BiConsumer<T, Long> keySetter;
+        
+        private Builder(Class<T> type, String table) {
+            this.type = type;
+            this.table = table;
+        }
+        
+        /**
+         * Declares the {@code BIGINT} primary key column.
+         * 
+         * @param column the name of the key column
+         * @param factory creates a record with the given key
+         * @param getter reads the key of a record
+         * @param setter stores a generated key into a record
+         * @return this builder
+         */
+        public Builder<T> key(String column, Function<Long, T> factory, 
+                Function<T, Long> getter, BiConsumer<T, Long> setter) {
+            this.keyColumn = column;
+            this.factory = factory;
+            this.keyGetter = getter;
+            this.keySetter = setter;
+            return this;
+        }
+        
+        /**
+         * Declares the next non-key column. Columns are bound to statements 
+         * in the order they are declared.
+         * 
+         * @param <V> the type of value read from the column
+         * @param name the name of the column
+         * @param sqlType the {@code java.sql.Types} type of the column
+         * @param reader reads the column from a result set
+         * @param getter reads the value to bind from a record
+         * @param setter stores the value read into a record
+         * @return this builder
+         */
+        public <V> Builder<T> column(String name, int sqlType, 
+                Reader<? extends V> reader, Function<? super T, ?> getter, 
+                BiConsumer<? super T, ? super V> setter) {
+            columns.add(new Column<>(name, sqlType, reader, getter, setter));
+            return this;
+        }
+        
+        /**
+         * Gives the entity's field number of the column declared last, so 
+         * that the column is only written by updates when that field is 
+         * dirty. Columns declared without a field number are always written.
+         * 
+         * @see Editable#getDirtyFields() 
+         * 
+         * @param field the field number, from 0 to 63
+         * @return this builder
+         * @throws IllegalStateException if no column has been declared
+         * @throws IllegalArgumentException if {@code field} is out of range
+         */
+        public Builder<T> dirtyField(int field) {
+            if (columns.isEmpty()) {
+                throw new IllegalStateException("No column declared for " 
+                        + table);
+            }
+            if (field < 0 || field > 63) {
+                throw new IllegalArgumentException("field must be from 0 to "
+                        + "63");
+            }
+            columns.get(columns.size() - 1).field = field;
+            return this;
+        }
+        
+        /**
+         * Declares that the column declared last holds the key of a record of
+         * the given type.
+         * 
+         * @param type the entity type referred to
+         * @return this builder
+         * @throws IllegalStateException if no column has been declared
+         */
+        public Builder<T> references(Class<?> type) {
+            if (columns.isEmpty()) {
+                throw new IllegalStateException("No column declared for " 
+                        + table);
+            }
+            referencedTypes.add(type);
+            return this;
+        }
+        
+        /**
+         * Creates the binder.
+         * 
+         * @return the binder
+         * @throws IllegalStateException if no key column was declared
+         */
+        public EntityBinder<T> build() {
+            if (keyColumn == null) {
+                throw new IllegalStateException("No key column declared for " 
+                        + table);
+            }
+            return new EntityBinder<>(this);
+        }
+        
+    }
+    
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   FetchPlan.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 6:12:48 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A {@code FetchPlan} names the related records that are loaded along with
+ * a list of orders. Each relation in the plan is loaded for the whole list
+ * with a single set-based query, so the number of queries needed to load a
+ * page of orders does not depend on the number of orders in it:
+ * <pre>
+ * OrdersDAO orders = (OrdersDAO) DAOFactory.getDAO(DAOFactory.ORDERS_DAO, false);
+ * orders.setFetchPlan(FetchPlan.of(FetchPlan.Relation.CUSTOMER,
+ *         FetchPlan.Relation.PRODUCTS));
+ * orders.selectAll();
+ * </pre>
+ * <p>
+ * Including {@link Relation#PRODUCTS} also includes
+ * {@link Relation#DETAILS}, since products are only reached through the
+ * order details.</p>
+ * <p>
+ * Fetch plans are immutable, and may be shared freely.</p>
+ *
+ * @see OrdersDAO#setFetchPlan(FetchPlan)
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class FetchPlan {
+
+    /**
+     * The relations of an order that may be loaded with it.
+     */
+    public enum Relation {
+        /** The customer who placed the order. */
+        CUSTOMER,
+        /** The billing and shipping addresses of the order. */
+        ADDRESSES,
+        /** The detail lines of the order. */
+        DETAILS,
+        /** The product of each detail line. Implies {@link #DETAILS}. */
+        PRODUCTS
+    }
+
+    /** The plan that loads none of the related records. */
+    public static final FetchPlan NONE = new FetchPlan(
+            EnumSet.noneOf(Relation.class));
+
+    /** The plan that loads all of the related records. */
+    public static final FetchPlan ALL = new FetchPlan(
+            EnumSet.allOf(Relation.class));
+
+    private final Set<Relation> relations;
+
+    private FetchPlan(EnumSet<Relation> relations) {
+        if (relations.contains(Relation.PRODUCTS)) {
+            relations.add(Relation.DETAILS);
+        }
+        this.relations = Collections.unmodifiableSet(relations);
+    }
+
+    /**
+     * Creates a plan that loads the given relations.
+     *
+     * @param relations the relations to load
+     * @return the fetch plan
+     */
+    public static FetchPlan of(Relation... relations) {
+        EnumSet<Relation> set = EnumSet.noneOf(Relation.class);
+        Collections.addAll(set, relations);
+        return new FetchPlan(set);
+    }
+
+    /**
+     * Creates a plan that loads the relations of this plan, plus the given
+     * relation.
+     *
+     * @param relation the relation to add
+     * @return the new fetch plan
+     */
+    public FetchPlan with(Relation relation) {
+        EnumSet<Relation> set = EnumSet.of(relation);
+        set.addAll(relations);
+        return new FetchPlan(set);
+    }
+
+    /**
+     * Determines whether this plan loads the given relation.
+     *
+     * @param relation the relation to check
+     * @return {@code true} if the relation is loaded
+     */
+    public boolean includes(Relation relation) {
+        return relations.contains(relation);
+    }
+
+    /**
+     * Determines whether this plan loads no related records at all.
+     *
+     * @return {@code true} if nothing is loaded
+     */
+    public boolean isEmpty() {
+        return relations.isEmpty();
+    }
+
+    /**
+     * Retrieves the relations loaded by this plan.
+     *
+     * @return an unmodifiable set of the relations
+     */
+    public Set<Relation> getRelations() {
+        return relations;
+    }
+
+    @Override
+    public String toString() {
+        return "FetchPlan" + relations;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   HashIndex.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 11:54:02 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@code HashIndex} is a {@link SecondaryIndex} that finds records by an 
+ * exact value, such as an email address or phone number, in constant time.
+ *
+ * @param <T> the type of record
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class HashIndex<T> extends SecondaryIndex<T> {
+
+    private final Map<String, List<T>> entries;
+    
+    /**
+     * Creates a hash index.
+     * 
+     * @param name the name the index is known by in its data access object
+     * @param field reads the indexed value from a record
+     * @param normalizer normalizes the values indexed and searched for
+     */
+    public HashIndex(String name, Function<T, String> field, 
+            UnaryOperator<String> normalizer) {
+        super(name, field, normalizer);
+        this.entries = new HashMap<>();
+    }
+
+    @Override
+    protected List<T> get(String key) {
+        return entries.get(key);
+    }
+
+    @Override
+    protected void put(String key, T record) {
+        entries.computeIfAbsent(key, k -> new ArrayList<>(1)).add(record);
+    }
+
+    @Override
+    protected void delete(String key, T record) {
+        List<T> list = entries.get(key);
+        if (list != null && removeFrom(list, record)) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    protected void clear() {
+        entries.clear();
+    }
+
+}
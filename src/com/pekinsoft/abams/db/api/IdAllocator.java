@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   IdAllocator.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 10:02:44 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import com.pekinsoft.abams.db.pool.ConnectionPool;
+import com.pekinsoft.abams.utils.Logger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jdesktop.application.Application;
+
+/**
+ * An {@code IdAllocator} hands out primary keys for new records, so that the
+ * keys are known before the records are written. An order and its details
+ * can then be given their keys up front and inserted in one batch, instead of
+ * inserting the order and reading back its generated key before the details
+ * can refer to it.
+ * <p>
+ * Keys are reserved from the database in blocks, one block per table at a
+ * time, using a sequence table that holds the next free key of each 
+ * table:</p>
+ * <pre>
+ * CREATE TABLE ID_SEQUENCES (
+ *     TABLE_NAME VARCHAR(64) NOT NULL PRIMARY KEY,
+ *     NEXT_ID    BIGINT NOT NULL
+ * );
+ * </pre>
+ * <p>
+ * A table that has no row yet is started after the largest key it already
+ * holds. Once a block is reserved, its keys are handed out from memory 
+ * without locking; only the thread that finds a block used up goes back to
+ * the database for the next one. Keys of a block that is never used up, such
+ * as when the application exits, are simply skipped, so keys are unique but
+ * not without gaps.</p>
+ * <p>
+ * Every client that inserts into a table must take its keys from the 
+ * sequence table, or from an {@code IdAllocator}, once one does.</p>
+ *
+ * @see AbstractDAO#setIdAllocator(com.pekinsoft.abams.db.api.IdAllocator) 
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class IdAllocator {
+
+    /**
+     * The name of the sequence table.
+     */
+    public static final String SEQUENCE_TABLE = "ID_SEQUENCES";
+
+    private static final String CLASS_NAME = IdAllocator.class.getSimpleName();
+
+    private static final String RESERVE_SQL = "UPDATE " + SEQUENCE_TABLE
+            + " SET NEXT_ID = NEXT_ID + ? WHERE TABLE_NAME = ?";
+    private static final String READ_SQL = "SELECT NEXT_ID FROM "
+            + SEQUENCE_TABLE + " WHERE TABLE_NAME = ?";
+
+    private final ConnectionPool pool;
+    private final int blockSize;
+    private final Logger log;
+    private final Map<String, Sequence> sequences;
+
+    /**
+     * Creates an allocator that reserves keys in blocks of the given size.
+     * 
+     * @param pool the pool to borrow connections from
+     * @param blockSize the number of keys reserved at a time
+     * @param app the application, for logging
+     * @throws IllegalArgumentException if {@code pool} is {@code null} or 
+     *          {@code blockSize} is less than one
+     */
+    public IdAllocator(ConnectionPool pool, int blockSize, Application app) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be at least 1");
+        }
+
+        this.pool = pool;
+        this.blockSize = blockSize;
+        this.log = Logger.getLogger(CLASS_NAME, app);
+        this.sequences = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Retrieves the number of keys reserved at a time.
+     * 
+     * @return the block size
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Hands out the next key for the given table.
+     * 
+     * @param table the name of the table
+     * @param keyColumn the table's primary key column, used to start the 
+     *          table's sequence if it has none yet
+     * @return an unused key
+     * @throws SQLException in the event a block of keys cannot be reserved
+     */
+    public long next(String table, String keyColumn) throws SQLException {
+        Sequence sequence = sequences.computeIfAbsent(table.toUpperCase(), 
+                name -> new Sequence(name, keyColumn));
+        return sequence.next();
+    }
+
+    /**
+     * Reserves the next block of keys for a table in a transaction of its 
+     * own.
+     * 
+     * @return the first key of the block
+     */
+    private long reserve(String table, String keyColumn) throws SQLException {
+        log.enter(CLASS_NAME, "reserve", new Object[]{table, blockSize});
+
+        long first;
+        try (Connection conn = pool.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                if (!advance(conn, table)) {
+                    start(conn, table, keyColumn);
+                }
+                first = read(conn, table) - blockSize;
+                conn.commit();
+            } catch (SQLException | RuntimeException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+
+        log.exit(CLASS_NAME, "reserve", first);
+        return first;
+    }
+
+    private boolean advance(Connection conn, String table) 
+            throws SQLException {
+        try (PreparedStatement ps = AbstractDAO.prepareCached(conn, 
+                RESERVE_SQL)) {
+            ps.setLong(1, blockSize);
+            ps.setString(2, table);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * Starts the sequence of a table after the largest key it holds, with 
+     * the first block already reserved. If another client starts it first,
+     * the block is reserved from its row instead.
+     */
+    private void start(Connection conn, String table, String keyColumn) 
+            throws SQLException {
+        log.debug("Starting the key sequence of {}.", table);
+
+        String sql = "INSERT INTO " + SEQUENCE_TABLE + " (TABLE_NAME, NEXT_ID) "
+                + "SELECT ?, COALESCE(MAX(" + keyColumn + "), 0) + 1 + ? FROM "
+                + table;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            ps.setLong(2, blockSize);
+            ps.executeUpdate();
+        } catch (SQLException ex) {
+            if (!advance(conn, table)) {
+                throw ex;
+            }
+        }
+    }
+
+    private long read(Connection conn, String table) throws SQLException {
+        try (PreparedStatement ps = AbstractDAO.prepareCached(conn, 
+                READ_SQL)) {
+            ps.setString(1, table);
+            try (ResultSet r = ps.executeQuery()) {
+                if (!r.next()) {
+                    throw new SQLException("No key sequence for " + table);
+                }
+                return r.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * The keys of one table. The current block is replaced as a whole, so a
+     * thread either takes a key from the block it read or finds the block 
+     * used up.
+     */
+    private final class Sequence {
+
+        private final String table;
+        private final String keyColumn;
+        private volatile Block block;
+
+        Sequence(String table, String keyColumn) {
+            this.table = table;
+            this.keyColumn = keyColumn;
+            this.block = new Block(0, 0);
+        }
+
+        long next() throws SQLException {
+            while (true) {
+                Block current = block;
+                long key = current.next.getAndIncrement();
+                if (key < current.end) {
+                    return key;
+                }
+
+                synchronized (this) {
+                    if (block == current) {
+                        long first = reserve(table, keyColumn);
+                        block = new Block(first, first + blockSize);
+                    }
+                }
+            }
+        }
+
+    }
+
+    private static final class Block {
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+
+    }
+
+}
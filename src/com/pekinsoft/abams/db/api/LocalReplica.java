@@ -0,0 +1,741 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   LocalReplica.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 11:47:52 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         The local copies keep the change column
+ *                                     and record the rows they delete, so a
+ *                                     refresh can read through the replica.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import com.pekinsoft.abams.db.pool.ConnectionPool;
+import com.pekinsoft.abams.db.pool.PoolConfig;
+import com.pekinsoft.abams.utils.Logger;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jdesktop.application.Application;
+
+/**
+ * A {@code LocalReplica} keeps a copy of some of the tables of the database
+ * in an embedded Apache Derby database on the local disk, and serves the 
+ * reads of those tables from it. Lookups then no longer cross the network,
+ * and keep working while the database server cannot be reached.
+ * <pre>
+ * LocalReplica replica = new LocalReplica(dataDir.resolve("replica"), app);
+ * replica.replicate(productsDAO, null);
+ * replica.replicate(customersDAO, "LastModified");
+ * replica.replicate(addressesDAO, "LastModified");
+ * AbstractDAO.setLocalReplica(replica);
+ * replica.start(TimeUnit.MINUTES.toMillis(5));
+ * </pre>
+ * <p>
+ * A table is only read from the replica once it has been copied in full. 
+ * That happens on the first {@link #sync() sync}, and is remembered on disk,
+ * so a later run of the application reads from the replica straight away, 
+ * even if it starts while the server is down.</p>
+ * <p>
+ * Each sync brings the replica up to date with the server:</p>
+ * <ul>
+ * <li>If the table has a change column, a timestamp the server sets whenever
+ * a row is inserted or updated, only the rows changed since the last sync 
+ * are copied. Otherwise every row is copied again.</li>
+ * <li>Rows deleted from the server are found by comparing the keys of the
+ * two tables, which are both read in key order, so only the keys cross the
+ * network.</li>
+ * </ul>
+ * <p>
+ * The local copy of a table with a change column keeps that column, and the
+ * key of each row removed from it is recorded in a local 
+ * {@link AbstractDAO#TOMBSTONE_TABLE tombstone table}, stamped with the
+ * table's high water mark. A data access object served by the replica can
+ * then {@link AbstractDAO#refresh() refresh} its records from the replica
+ * just as it would from the server.</p>
+ * <p>
+ * All writes still go to the server. Once a write through one of the data 
+ * access objects is committed, it is also applied to the replica, so the
+ * application reads back what it wrote without waiting for the next sync.
+ * Writes made by other clients appear at the next sync.</p>
+ * <p>
+ * Derby compares text case-sensitively, so records sorted by a text field 
+ * may come back from the replica in a different order than from the 
+ * server.</p>
+ *
+ * @see AbstractDAO#setLocalReplica(com.pekinsoft.abams.db.api.LocalReplica) 
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class LocalReplica implements AutoCloseable {
+
+    private static final String CLASS_NAME = LocalReplica.class.getSimpleName();
+    
+    private static final String STATE_TABLE = "REPLICA_STATE";
+    
+    private static final int COPY_BATCH_SIZE = 500;
+
+    private final String url;
+    private final ConnectionPool local;
+    private final Logger log;
+    private final Map<Class<?>, Table<?>> tables;
+    private volatile ConnectionPool remote;
+    private ScheduledExecutorService timer;
+
+    /**
+     * Opens the replica in the given directory, creating it if it does not
+     * exist yet.
+     * 
+     * @param directory the directory of the embedded database
+     * @param app the application, for logging
+     * @throws SQLException in the event the embedded database cannot be 
+     *          opened
+     */
+    public LocalReplica(Path directory, Application app) throws SQLException {
+        this.url = "jdbc:derby:" + directory.toAbsolutePath();
+        this.log = Logger.getLogger(CLASS_NAME, app);
+        this.local = new ConnectionPool(new PoolConfig(url + ";create=true", 
+                "", new char[0]), app);
+        this.tables = new ConcurrentHashMap<>();
+        
+        try (Connection conn = local.getConnection()) {
+            if (!exists(conn, STATE_TABLE)) {
+                log.config("Creating the replica state table.");
+                try (Statement s = conn.createStatement()) {
+                    s.executeUpdate("CREATE TABLE " + STATE_TABLE 
+                            + " (TABLE_NAME VARCHAR(128) NOT NULL PRIMARY KEY,"
+                            + " HIGH_WATER TIMESTAMP, SYNCED_AT TIMESTAMP)");
+                }
+            }
+            if (!exists(conn, AbstractDAO.TOMBSTONE_TABLE)) {
+                log.config("Creating the replica tombstone table.");
+                try (Statement s = conn.createStatement()) {
+                    s.executeUpdate("CREATE TABLE " 
+                            + AbstractDAO.TOMBSTONE_TABLE 
+                            + " (TABLE_NAME VARCHAR(128) NOT NULL,"
+                            + " ROW_ID BIGINT NOT NULL,"
+                            + " DELETED_AT TIMESTAMP NOT NULL)");
+                    s.executeUpdate("CREATE INDEX DELETED_ROWS_SINCE ON " 
+                            + AbstractDAO.TOMBSTONE_TABLE 
+                            + " (TABLE_NAME, DELETED_AT)");
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the table of a data access object to the replica, creating its
+     * local copy if it does not exist yet.
+     * 
+     * @param dao the data access object of the table
+     * @param changeColumn the column the server sets to the current time 
+     *          whenever a row is inserted or updated, or {@code null} to use
+     *          the DAO's {@link AbstractDAO#getChangeColumn() change column},
+     *          if any
+     * @throws SQLException in the event the local table cannot be created
+     */
+    public synchronized void replicate(AbstractDAO<?> dao, String changeColumn) 
+            throws SQLException {
+        log.enter(CLASS_NAME, "replicate", new Object[]{dao, changeColumn});
+        
+        if (dao == null) {
+            throw new IllegalArgumentException("dao cannot be null");
+        }
+        if (remote == null) {
+            remote = dao.getConnectionPool();
+        }
+        
+        Table<?> table = new Table<>(dao, changeColumn != null ? changeColumn
+                : dao.getChangeColumn());
+        try (Connection conn = local.getConnection()) {
+            if (!exists(conn, table.name)) {
+                log.debug("Creating the local copy of {}.", table.name);
+                try (Statement s = conn.createStatement()) {
+                    s.executeUpdate(table.createSql());
+                }
+            } else if (table.changeColumn != null 
+                    && !hasColumn(conn, table.name, table.changeColumn)) {
+                log.debug("Adding the change column to the local copy of "
+                        + "{}.", table.name);
+                try (Statement s = conn.createStatement()) {
+                    s.executeUpdate("ALTER TABLE " + table.name 
+                            + " ADD COLUMN " + table.changeColumn 
+                            + " TIMESTAMP");
+                }
+            }
+            
+            try (PreparedStatement ps = conn.prepareStatement("SELECT "
+                    + "HIGH_WATER FROM " + STATE_TABLE 
+                    + " WHERE TABLE_NAME = ?")) {
+                ps.setString(1, table.name);
+                try (ResultSet r = ps.executeQuery()) {
+                    if (r.next()) {
+                        table.highWater = r.getTimestamp(1);
+                        table.ready = true;
+                    }
+                }
+            }
+        }
+        tables.put(dao.getEntityType(), table);
+        
+        log.exit(CLASS_NAME, "replicate", table.ready);
+    }
+
+    /**
+     * Determines whether the reads of the given entity type are served by
+     * this replica: the type's table is replicated and has been copied in
+     * full.
+     * 
+     * @param type the entity type
+     * @return {@code true} if the replica serves the type
+     */
+    public boolean serves(Class<?> type) {
+        Table<?> table = tables.get(type);
+        return table != null && table.ready;
+    }
+
+    /**
+     * Brings every replicated table up to date with the server. A table that
+     * fails to sync keeps serving the data it has.
+     * 
+     * @return {@code true} if every table was synced
+     */
+    public boolean sync() {
+        log.enter(CLASS_NAME, "sync");
+        
+        boolean ok = true;
+        for (Table<?> table : tables.values()) {
+            try {
+                syncTable(table);
+            } catch (SQLException | RuntimeException ex) {
+                ok = false;
+                log.error(ex, "Unable to sync the local copy of " + table.name
+                        + "; it keeps serving the rows it has.");
+            }
+        }
+        
+        log.exit(CLASS_NAME, "sync", ok);
+        return ok;
+    }
+
+    /**
+     * Starts syncing the replica in the background. The first sync starts
+     * right away.
+     * 
+     * @param intervalMillis the time between syncs, in milliseconds
+     * @throws IllegalArgumentException if {@code intervalMillis} is not 
+     *          positive
+     */
+    public synchronized void start(long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("intervalMillis must be "
+                    + "positive");
+        }
+        if (timer != null) {
+            timer.shutdown();
+        }
+        
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "AbAMS-Replica");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleWithFixedDelay(this::sync, 0, intervalMillis, 
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background syncs and shuts the embedded database down. 
+     * Remember to clear the replica from the data access objects first.
+     */
+    @Override
+    public synchronized void close() {
+        log.enter(CLASS_NAME, "close");
+        
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+        local.shutdown();
+        try {
+            DriverManager.getConnection(url + ";shutdown=true").close();
+        } catch (SQLException ex) {
+            // Derby always reports a successful shutdown as an exception.
+            log.debug("Replica shut down: {}", ex.getMessage());
+        }
+        
+        log.exit(CLASS_NAME, "close");
+    }
+
+    /**
+     * Determines whether the local copy of a type's table keeps the given 
+     * change column, and has a high water mark to refresh from.
+     */
+    boolean tracksChanges(Class<?> type, String changeColumn) {
+        Table<?> table = tables.get(type);
+        return table != null && table.changeColumn != null 
+                && table.changeColumn.equalsIgnoreCase(changeColumn)
+                && table.highWater != null;
+    }
+
+    /**
+     * Retrieves the latest change time copied into the local copy of a 
+     * table's rows, or {@code null} if the table has no change column.
+     */
+    Timestamp getHighWater(Class<?> type) {
+        Table<?> table = tables.get(type);
+        return table == null ? null : table.highWater;
+    }
+
+    /**
+     * Borrows a connection to the embedded database.
+     */
+    Connection getConnection() throws SQLException {
+        return local.getConnection();
+    }
+
+    /**
+     * Applies writes that have just been committed to the server to the 
+     * local copy of their table, if it is replicated. Inserted records are
+     * copied whole; updated records only have the fields written copied, 
+     * unless their rows are not in the replica yet. If the replica cannot be
+     * written, the next sync puts it right.
+     */
+    @SuppressWarnings("unchecked")
+    <T> void applyCommitted(AbstractDAO<T> dao, List<T> inserts, 
+            List<T> updates, List<T> deletes, BatchResult<T> result) {
+        Table<T> table = (Table<T>) tables.get(dao.getEntityType());
+        if (table == null || !table.ready) {
+            return;
+        }
+        
+        try (Connection conn = local.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                List<T> whole = new ArrayList<>(inserts);
+                for (T record : updates) {
+                    if (!table.update(conn, record, 
+                            result.getWrittenFields(record))) {
+                        whole.add(record);
+                    }
+                }
+                for (T record : whole) {
+                    table.merge(conn, record);
+                }
+                for (T record : deletes) {
+                    table.delete(conn, dao.getKey(record), table.highWater);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.error(ex, "Unable to apply committed writes to the local copy"
+                    + " of " + table.name + "; the next sync will.");
+        }
+    }
+
+    /**
+     * Copies the rows of a table that changed since the last sync, removes
+     * the rows the server no longer has, and records the sync, all in one 
+     * local transaction.
+     */
+    private void syncTable(Table<?> table) throws SQLException {
+        log.enter(CLASS_NAME, "syncTable", table.name);
+        
+        try (Connection from = remote.getConnection();
+                Connection to = local.getConnection()) {
+            to.setAutoCommit(false);
+            try {
+                Timestamp highWater = copyChanged(table, from, to);
+                int deleted = deleteRemoved(table, from, to, highWater);
+                
+                try (PreparedStatement ps = to.prepareStatement(
+                        SqlDialect.DERBY.upsert(STATE_TABLE, "TABLE_NAME",
+                                new String[]{"HIGH_WATER", "SYNCED_AT"},
+                                new String[]{"HIGH_WATER", "SYNCED_AT"}, 1))) {
+                    Timestamp now = new Timestamp(System.currentTimeMillis());
+                    for (int i = 0; i < 2; i++) {
+                        ps.setString(i * 3 + 1, table.name);
+                        ps.setTimestamp(i * 3 + 2, highWater);
+                        ps.setTimestamp(i * 3 + 3, now);
+                    }
+                    ps.executeUpdate();
+                }
+                
+                to.commit();
+                table.highWater = highWater;
+                table.ready = true;
+                log.debug("Synced {}; {} rows removed.", table.name, deleted);
+            } catch (SQLException | RuntimeException ex) {
+                to.rollback();
+                throw ex;
+            } finally {
+                to.setAutoCommit(true);
+            }
+        }
+        
+        log.exit(CLASS_NAME, "syncTable");
+    }
+
+    /**
+     * Copies the rows changed since the table's high water mark, or every
+     * row if the table has no change column or has never been synced.
+     * Rows changed at the very instant of the mark are copied again, since 
+     * the server may have changed more of them after the last sync read it.
+     * 
+     * @return the new high water mark
+     */
+    private Timestamp copyChanged(Table<?> table, Connection from, 
+            Connection to) throws SQLException {
+        boolean delta = table.changeColumn != null && table.highWater != null;
+        String sql = "SELECT " + table.key + ", " 
+                + String.join(", ", table.columns)
+                + (table.changeColumn != null ? ", " + table.changeColumn : "")
+                + " FROM " + table.name
+                + (delta ? " WHERE " + table.changeColumn + " >= ?" : "")
+                + " ORDER BY " + table.key;
+        log.debug("Copying {} rows: {}", delta ? "changed" : "all", sql);
+        
+        Timestamp highWater = table.highWater;
+        int copied = 0;
+        try (PreparedStatement select = from.prepareStatement(sql, 
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                PreparedStatement merge = to.prepareStatement(
+                        table.syncMergeSql())) {
+            select.setFetchSize(COPY_BATCH_SIZE);
+            if (delta) {
+                select.setTimestamp(1, table.highWater);
+            }
+            
+            try (ResultSet r = select.executeQuery()) {
+                int width = table.columns.length + 1;
+                int copiedWidth = table.changeColumn != null ? width + 1 
+                        : width;
+                Object[] row = new Object[copiedWidth];
+                while (r.next()) {
+                    for (int i = 0; i < copiedWidth; i++) {
+                        row[i] = table.typeOf(i) == Types.BLOB 
+                                ? r.getBytes(i + 1) : r.getObject(i + 1);
+                    }
+                    for (int i = 0; i < copiedWidth; i++) {
+                        AbstractDAO.bindValue(merge, i + 1, row[i], 
+                                table.typeOf(i));
+                        AbstractDAO.bindValue(merge, copiedWidth + i + 1, 
+                                row[i], table.typeOf(i));
+                    }
+                    merge.addBatch();
+                    
+                    if (table.changeColumn != null) {
+                        Timestamp changed = r.getTimestamp(width + 1);
+                        if (changed != null && (highWater == null 
+                                || changed.after(highWater))) {
+                            highWater = changed;
+                        }
+                    }
+                    if (++copied % COPY_BATCH_SIZE == 0) {
+                        merge.executeBatch();
+                    }
+                }
+            }
+            merge.executeBatch();
+        }
+        
+        log.debug("Copied {} rows of {}.", copied, table.name);
+        return highWater;
+    }
+
+    /**
+     * Deletes the local rows whose keys the server no longer has, by walking
+     * the keys of both tables in order side by side, and records their keys
+     * as deleted at the given high water mark.
+     * 
+     * @return the number of rows deleted
+     */
+    private int deleteRemoved(Table<?> table, Connection from, Connection to,
+            Timestamp highWater) throws SQLException {
+        String sql = "SELECT " + table.key + " FROM " + table.name 
+                + " ORDER BY " + table.key;
+        
+        int deleted = 0;
+        try (PreparedStatement remoteKeys = from.prepareStatement(sql, 
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                PreparedStatement localKeys = to.prepareStatement(sql);
+                PreparedStatement delete = to.prepareStatement(
+                        table.deleteSql())) {
+            remoteKeys.setFetchSize(COPY_BATCH_SIZE * 10);
+            try (ResultSet theirs = remoteKeys.executeQuery();
+                    ResultSet ours = localKeys.executeQuery()) {
+                boolean more = theirs.next();
+                while (ours.next()) {
+                    long key = ours.getLong(1);
+                    while (more && theirs.getLong(1) < key) {
+                        more = theirs.next();
+                    }
+                    if (!more || theirs.getLong(1) != key) {
+                        table.tombstone(to, key, highWater);
+                        delete.setLong(1, key);
+                        delete.addBatch();
+                        if (++deleted % COPY_BATCH_SIZE == 0) {
+                            delete.executeBatch();
+                        }
+                    }
+                }
+            }
+            delete.executeBatch();
+        }
+        
+        return deleted;
+    }
+
+    private static boolean exists(Connection conn, String table) 
+            throws SQLException {
+        try (ResultSet r = conn.getMetaData().getTables(null, null, 
+                table.toUpperCase(), new String[]{"TABLE"})) {
+            return r.next();
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, 
+            String column) throws SQLException {
+        try (ResultSet r = conn.getMetaData().getColumns(null, null, 
+                table.toUpperCase(), column.toUpperCase())) {
+            return r.next();
+        }
+    }
+
+    /**
+     * Maps a column's {@code java.sql.Types} type to the Derby type of its
+     * local copy.
+     */
+    private static String localType(int sqlType) {
+        switch (sqlType) {
+            case Types.BIGINT:
+                return "BIGINT";
+            case Types.INTEGER:
+                return "INTEGER";
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return "SMALLINT";
+            case Types.DOUBLE:
+            case Types.FLOAT:
+                return "DOUBLE";
+            case Types.REAL:
+                return "REAL";
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return "DECIMAL(19, 4)";
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return "BOOLEAN";
+            case Types.DATE:
+                return "DATE";
+            case Types.TIME:
+                return "TIME";
+            case Types.TIMESTAMP:
+                return "TIMESTAMP";
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return "BLOB";
+            case Types.LONGVARCHAR:
+            case Types.CLOB:
+                return "CLOB";
+            default:
+                return "VARCHAR(4000)";
+        }
+    }
+
+    /**
+     * The local copy of one table, described by its data access object's 
+     * binder.
+     */
+    private static final class Table<T> {
+
+        final EntityBinder<T> binder;
+        final String name;
+        final String key;
+        final String[] columns;
+        final int[] types;
+        final String changeColumn;
+        volatile boolean ready;
+        volatile Timestamp highWater;
+
+        Table(AbstractDAO<T> dao, String changeColumn) {
+            this.binder = dao.getBinder();
+            this.name = binder.getTableName();
+            this.key = binder.getKeyColumn();
+            this.changeColumn = changeColumn;
+            
+            Map<String, Integer> columnTypes = binder.getColumnTypes();
+            this.columns = new String[columnTypes.size() - 1];
+            this.types = new int[columnTypes.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> column : columnTypes.entrySet()) {
+                if (i > 0) {
+                    columns[i - 1] = column.getKey();
+                }
+                types[i++] = column.getValue();
+            }
+        }
+
+        String createSql() {
+            StringBuilder sql = new StringBuilder("CREATE TABLE ")
+                    .append(name).append(" (").append(key)
+                    .append(" BIGINT NOT NULL PRIMARY KEY");
+            for (int i = 0; i < columns.length; i++) {
+                sql.append(", ").append(columns[i]).append(" ")
+                        .append(localType(types[i + 1]));
+            }
+            if (changeColumn != null) {
+                sql.append(", ").append(changeColumn).append(" TIMESTAMP");
+            }
+            return sql.append(")").toString();
+        }
+
+        /**
+         * Retrieves the type of a column as read by a sync: the key, the
+         * binder's columns, and then the change column, if any.
+         */
+        int typeOf(int index) {
+            return index < types.length ? types[index] : Types.TIMESTAMP;
+        }
+
+        String mergeSql() {
+            return SqlDialect.DERBY.upsert(name, key, columns, columns, 1);
+        }
+
+        /**
+         * Builds the merge used by a sync, which also copies the change
+         * column. The merge of a committed write leaves it alone, as only
+         * the server knows its value; the next sync copies it.
+         */
+        String syncMergeSql() {
+            if (changeColumn == null) {
+                return mergeSql();
+            }
+            String[] copied = Arrays.copyOf(columns, columns.length + 1);
+            copied[columns.length] = changeColumn;
+            return SqlDialect.DERBY.upsert(name, key, copied, copied, 1);
+        }
+
+        String deleteSql() {
+            return "DELETE FROM " + name + " WHERE " + key + " = ?";
+        }
+
+        void merge(Connection conn, T record) throws SQLException {
+            try (PreparedStatement ps = AbstractDAO.prepareCached(conn, 
+                    mergeSql())) {
+                Long id = binder.getKey(record);
+                ps.setLong(1, id);
+                int index = binder.bind(ps, record, 2);
+                ps.setLong(index, id);
+                binder.bind(ps, record, index + 1);
+                ps.executeUpdate();
+            }
+        }
+
+        /**
+         * Copies the dirty fields of a record to its row.
+         * 
+         * @return {@code false} if the record has no row yet
+         */
+        boolean update(Connection conn, T record, long dirtyFields) 
+                throws SQLException {
+            String[] changed = binder.getColumnNames(dirtyFields);
+            if (changed.length == 0) {
+                return true;
+            }
+            
+            String sql = "UPDATE " + name + " SET " 
+                    + String.join(" = ?, ", changed) + " = ? WHERE " + key 
+                    + " = ?";
+            try (PreparedStatement ps = AbstractDAO.prepareCached(conn, sql)) {
+                int index = binder.bind(ps, record, 1, dirtyFields);
+                ps.setLong(index, binder.getKey(record));
+                return ps.executeUpdate() > 0;
+            }
+        }
+
+        void delete(Connection conn, Long id, Timestamp highWater) 
+                throws SQLException {
+            if (id == null) {
+                return;
+            }
+            try (PreparedStatement ps = AbstractDAO.prepareCached(conn, 
+                    deleteSql())) {
+                ps.setLong(1, id);
+                if (ps.executeUpdate() > 0) {
+                    tombstone(conn, id, highWater);
+                }
+            }
+        }
+
+        /**
+         * Records the key of a deleted row in the tombstone table, unless the
+         * table has no change column to refresh from.
+         */
+        void tombstone(Connection conn, long id, Timestamp highWater) 
+                throws SQLException {
+            if (changeColumn == null || highWater == null) {
+                return;
+            }
+            try (PreparedStatement ps = AbstractDAO.prepareCached(conn, 
+                    "INSERT INTO " + AbstractDAO.TOMBSTONE_TABLE 
+                    + " (TABLE_NAME, ROW_ID, DELETED_AT) VALUES (?, ?, ?)")) {
+                ps.setString(1, name);
+                ps.setLong(2, id);
+                ps.setTimestamp(3, highWater);
+                ps.executeUpdate();
+            }
+        }
+
+    }
+
+}
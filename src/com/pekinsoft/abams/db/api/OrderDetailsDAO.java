@@ -6,8 +6,9 @@
 package com.pekinsoft.abams.db.api;
 
 import com.pekinsoft.abams.db.OrderDetails;
-import java.sql.SQLException;
-import java.util.ArrayList;
+import com.pekinsoft.abams.db.Orders;
+import com.pekinsoft.abams.db.Products;
+import java.sql.Types;
 import org.jdesktop.application.Application;
 
 /**
@@ -19,98 +20,40 @@ import org.jdesktop.application.Application;
  */
 public class OrderDetailsDAO extends AbstractDAO<OrderDetails> {
 
+    static final EntityBinder<OrderDetails> BINDER = EntityBinder
+            .builder(OrderDetails.class, "OrderDetails")
+            .key("DetailID", OrderDetails::new, OrderDetails::getDetailID,
+                    OrderDetails::setDetailID)
+            .<Long>column("OrderID", Types.BIGINT, EntityBinder.LONG,
+                    d -> d.getOrderID() == null ? null
+                            : d.getOrderID().getOrderID(),
+                    (d, id) -> d.setOrderID(id == null ? null 
+                            : new Orders(id)))
+            .dirtyField(OrderDetails.ORDER)
+            .references(Orders.class)
+            .<Long>column("ProductID", Types.BIGINT, EntityBinder.LONG,
+                    d -> d.getProductID() == null ? null
+                            : d.getProductID().getProductID(),
+                    (d, id) -> d.setProductID(id == null ? null 
+                            : new Products(id)))
+            .dirtyField(OrderDetails.PRODUCT)
+            .references(Products.class)
+            .<Integer>column("Qty", Types.INTEGER, EntityBinder.INTEGER,
+                    OrderDetails::getQty, 
+                    (d, qty) -> d.setQty(qty == null ? 0 : qty))
+            .dirtyField(OrderDetails.QTY)
+            .column("LineTotal", Types.DECIMAL, EntityBinder.DECIMAL,
+                    OrderDetails::getLineTotal, OrderDetails::setLineTotal)
+            .dirtyField(OrderDetails.LINE_TOTAL)
+            .build();
+
     public OrderDetailsDAO (boolean batchProcessing, Application app) {
         super(batchProcessing, app);
     }
 
     @Override
-    public int processBatch() throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.processBatch.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean insert(OrderDetails record) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.insert.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean update(OrderDetails record) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.update.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean save(OrderDetails record) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.save.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public int save(ArrayList<OrderDetails> records) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.save.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean delete(OrderDetails record) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.delete.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public int delete(ArrayList<OrderDetails> records) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.delete.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public void selectAll() throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.selectAll.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public OrderDetails find(String field, String value) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public OrderDetails find(String field, Integer value) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public OrderDetails find(String field, Short value) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public OrderDetails find(String field, Long value) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public OrderDetails find(String field, Float value) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public OrderDetails find(String field, Double value) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public OrderDetails find(String field, Boolean value) throws SQLException {
-        // TODO: Implement functionality in OrderDetailsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected EntityBinder<OrderDetails> getBinder() {
+        return BINDER;
     }
 
 }
@@ -5,9 +5,20 @@
  */
 package com.pekinsoft.abams.db.api;
 
+import com.pekinsoft.abams.db.Addresses;
+import com.pekinsoft.abams.db.Customers;
+import com.pekinsoft.abams.db.OrderDetails;
 import com.pekinsoft.abams.db.Orders;
+import com.pekinsoft.abams.db.Products;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import org.jdesktop.application.Application;
 
 /**
@@ -19,98 +30,256 @@ import org.jdesktop.application.Application;
  */
 public class OrdersDAO extends AbstractDAO<Orders> {
 
+    static final EntityBinder<Orders> BINDER = EntityBinder
+            .builder(Orders.class, "Orders")
+            .key("OrderID", Orders::new, Orders::getOrderID, 
+                    Orders::setOrderID)
+            .<Date>column("OrderDate", Types.TIMESTAMP, EntityBinder.TIMESTAMP,
+                    Orders::getOrderDate, Orders::setOrderDate)
+            .dirtyField(Orders.ORDER_DATE)
+            .<Date>column("PromiseDate", Types.TIMESTAMP, 
+                    EntityBinder.TIMESTAMP, Orders::getPromiseDate, 
+                    Orders::setPromiseDate)
+            .dirtyField(Orders.PROMISE_DATE)
+            .<Date>column("ShipDate", Types.TIMESTAMP, EntityBinder.TIMESTAMP,
+                    Orders::getShipDate, Orders::setShipDate)
+            .dirtyField(Orders.SHIP_DATE)
+            .<Long>column("BillingAddressID", Types.BIGINT, EntityBinder.LONG,
+                    o -> o.getBillingAddressID() == null ? null
+                            : o.getBillingAddressID().getAddressID(),
+                    (o, id) -> o.setBillingAddressID(id == null ? null
+                            : new Addresses(id)))
+            .dirtyField(Orders.BILLING_ADDRESS)
+            .references(Addresses.class)
+            .<Long>column("ShippingAddressID", Types.BIGINT, EntityBinder.LONG,
+                    o -> o.getShippingAddressID() == null ? null
+                            : o.getShippingAddressID().getAddressID(),
+                    (o, id) -> o.setShippingAddressID(id == null ? null
+                            : new Addresses(id)))
+            .dirtyField(Orders.SHIPPING_ADDRESS)
+            .references(Addresses.class)
+            .<Long>column("CustomerID", Types.BIGINT, EntityBinder.LONG,
+                    o -> o.getCustomerID() == null ? null
+                            : o.getCustomerID().getCustomerID(),
+                    (o, id) -> o.setCustomerID(id == null ? null
+                            : new Customers(id)))
+            .dirtyField(Orders.CUSTOMER)
+            .references(Customers.class)
+            .build();
+
+    private static final String CLASS_NAME = OrdersDAO.class.getSimpleName();
+    
+    private FetchPlan fetchPlan;
+    private CustomersDAO customers;
+    private AddressesDAO addresses;
+    private OrderDetailsDAO details;
+    private ProductsDAO products;
+
     public OrdersDAO (boolean batchProcessing, Application app) {
         super(batchProcessing, app);
+        
+        this.fetchPlan = FetchPlan.NONE;
     }
 
     @Override
-    public int processBatch() throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.processBatch.
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected EntityBinder<Orders> getBinder() {
+        return BINDER;
     }
-
-    @Override
-    public boolean insert(Orders record) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.insert.
-        throw new UnsupportedOperationException("Not supported yet.");
+    
+    /**
+     * Retrieves the plan of the related records loaded with every order read
+     * by this DAO. By default, no related records are loaded, and the 
+     * customer, addresses and products of an order only carry their IDs.
+     * 
+     * @return the fetch plan
+     */
+    public FetchPlan getFetchPlan() {
+        return fetchPlan;
     }
-
-    @Override
-    public boolean update(Orders record) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.update.
-        throw new UnsupportedOperationException("Not supported yet.");
+    
+    /**
+     * Sets the plan of the related records loaded with every order read by
+     * this DAO, whether by {@code selectAll}, by the cursor as it moves from 
+     * window to window, or by the {@code find} methods. The plan takes effect
+     * with the next query.
+     * 
+     * @see #fetch(java.util.List, FetchPlan) 
+     * 
+     * @param fetchPlan the fetch plan, or {@code null} to load no related
+     *          records
+     */
+    public void setFetchPlan(FetchPlan fetchPlan) {
+        log.enter(CLASS_NAME, "setFetchPlan", fetchPlan);
+        
+        this.fetchPlan = fetchPlan == null ? FetchPlan.NONE : fetchPlan;
+        
+        log.exit(CLASS_NAME, "setFetchPlan");
     }
 
     @Override
-    public boolean save(Orders record) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.save.
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected void afterLoad(List<Orders> loaded) throws SQLException {
+        fetch(loaded, fetchPlan);
     }
-
-    @Override
-    public int save(ArrayList<Orders> records) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.save.
-        throw new UnsupportedOperationException("Not supported yet.");
+    
+    /**
+     * Loads the related records named by the fetch plan for all of the given
+     * orders, and wires them into the orders in memory.
+     * <p>
+     * Each relation is loaded with one set-based query for the whole list, 
+     * so a page of orders with all of its relations takes four queries, 
+     * however many orders are on it. Records that are referred to by several
+     * orders, such as a customer with many orders, are loaded once and 
+     * shared. Each order's detail lines are set as its
+     * {@code orderDetailsCollection}, in {@code DetailID} order, and refer
+     * back to the order itself. References to records that no longer exist
+     * are left as they were.</p>
+     * 
+     * @param orders the orders to complete
+     * @param plan the related records to load
+     * @throws SQLException in the event a database error occurs
+     */
+    public void fetch(List<Orders> orders, FetchPlan plan) throws SQLException {
+        log.enter(CLASS_NAME, "fetch", new Object[]{orders.size(), plan});
+        
+        if (orders.isEmpty() || plan == null || plan.isEmpty()) {
+            log.exit(CLASS_NAME, "fetch");
+            return;
+        }
+        
+        if (plan.includes(FetchPlan.Relation.CUSTOMER)) {
+            List<Long> ids = new ArrayList<>(orders.size());
+            for (Orders o : orders) {
+                ids.add(o.getCustomerID() == null ? null 
+                        : o.getCustomerID().getCustomerID());
+            }
+            Map<Long, Customers> byID = byKey(getCustomers()
+                    .selectWhereIn("CustomerID", ids), 
+                    Customers::getCustomerID);
+            for (Orders o : orders) {
+                if (o.getCustomerID() != null) {
+                    o.setCustomerID(byID.getOrDefault(
+                            o.getCustomerID().getCustomerID(), 
+                            o.getCustomerID()));
+                }
+            }
+        }
+        
+        if (plan.includes(FetchPlan.Relation.ADDRESSES)) {
+            List<Long> ids = new ArrayList<>(orders.size() * 2);
+            for (Orders o : orders) {
+                ids.add(o.getBillingAddressID() == null ? null 
+                        : o.getBillingAddressID().getAddressID());
+                ids.add(o.getShippingAddressID() == null ? null 
+                        : o.getShippingAddressID().getAddressID());
+            }
+            Map<Long, Addresses> byID = byKey(getAddresses()
+                    .selectWhereIn("AddressID", ids), 
+                    Addresses::getAddressID);
+            for (Orders o : orders) {
+                if (o.getBillingAddressID() != null) {
+                    o.setBillingAddressID(byID.getOrDefault(
+                            o.getBillingAddressID().getAddressID(),
+                            o.getBillingAddressID()));
+                }
+                if (o.getShippingAddressID() != null) {
+                    o.setShippingAddressID(byID.getOrDefault(
+                            o.getShippingAddressID().getAddressID(),
+                            o.getShippingAddressID()));
+                }
+            }
+        }
+        
+        if (plan.includes(FetchPlan.Relation.DETAILS)) {
+            Map<Long, Orders> ordersByID = byKey(orders, Orders::getOrderID);
+            Map<Long, Collection<OrderDetails>> linesByOrder = new HashMap<>();
+            for (Orders o : orders) {
+                linesByOrder.put(o.getOrderID(), new ArrayList<>());
+            }
+            
+            List<OrderDetails> lines = getDetails().selectWhereIn("OrderID", 
+                    ordersByID.keySet());
+            for (OrderDetails d : lines) {
+                Orders o = ordersByID.get(d.getOrderID().getOrderID());
+                d.setOrderID(o);
+                linesByOrder.get(o.getOrderID()).add(d);
+            }
+            for (Orders o : orders) {
+                o.setOrderDetailsCollection(linesByOrder.get(o.getOrderID()));
+            }
+            
+            if (plan.includes(FetchPlan.Relation.PRODUCTS)) {
+                List<Long> ids = new ArrayList<>(lines.size());
+                for (OrderDetails d : lines) {
+                    ids.add(d.getProductID() == null ? null 
+                            : d.getProductID().getProductID());
+                }
+                Map<Long, Products> byID = byKey(getProducts()
+                        .selectWhereIn("ProductID", ids), 
+                        Products::getProductID);
+                for (OrderDetails d : lines) {
+                    if (d.getProductID() != null) {
+                        d.setProductID(byID.getOrDefault(
+                                d.getProductID().getProductID(), 
+                                d.getProductID()));
+                    }
+                }
+            }
+        }
+        
+        log.exit(CLASS_NAME, "fetch");
     }
-
-    @Override
-    public boolean delete(Orders record) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.delete.
-        throw new UnsupportedOperationException("Not supported yet.");
+    
+    private static <E> Map<Long, E> byKey(List<E> list, 
+            Function<E, Long> key) {
+        Map<Long, E> map = new HashMap<>(list.size() * 2);
+        for (E e : list) {
+            map.put(key.apply(e), e);
+        }
+        return map;
     }
-
+    
+    /**
+     * {@inheritDoc }
+     * <p>
+     * The DAOs this one used to fetch related records are closed as well.</p>
+     */
     @Override
-    public int delete(ArrayList<Orders> records) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.delete.
-        throw new UnsupportedOperationException("Not supported yet.");
+    public void close() {
+        for (AbstractDAO<?> related : new AbstractDAO<?>[]{customers, 
+                addresses, details, products}) {
+            if (related != null) {
+                related.close();
+            }
+        }
+        super.close();
     }
-
-    @Override
-    public void selectAll() throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.selectAll.
-        throw new UnsupportedOperationException("Not supported yet.");
+    
+    private CustomersDAO getCustomers() {
+        if (customers == null) {
+            customers = new CustomersDAO(false, app);
+        }
+        return customers;
     }
-
-    @Override
-    public Orders find(String field, String value) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
+    
+    private AddressesDAO getAddresses() {
+        if (addresses == null) {
+            addresses = new AddressesDAO(false, app);
+        }
+        return addresses;
     }
-
-    @Override
-    public Orders find(String field, Integer value) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Orders find(String field, Short value) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
+    
+    private OrderDetailsDAO getDetails() {
+        if (details == null) {
+            details = new OrderDetailsDAO(false, app);
+        }
+        return details;
     }
-
-    @Override
-    public Orders find(String field, Long value) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Orders find(String field, Float value) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Orders find(String field, Double value) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public Orders find(String field, Boolean value) throws SQLException {
-        // TODO: Implement functionality in OrdersDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
+    
+    private ProductsDAO getProducts() {
+        if (products == null) {
+            products = new ProductsDAO(false, app);
+        }
+        return products;
     }
 
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   PendingWrites.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 9:24:37 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Records edited while being written 
+ *                                     stay queued.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@code PendingWrites} holds the inserts, updates and deletes a data access
+ * object has queued while batch processing is enabled. Every record has at
+ * most one pending write: queueing the same record again replaces its earlier
+ * write rather than adding another one.
+ * <ul>
+ * <li>Updating a record that is waiting to be inserted leaves it an insert, 
+ * which writes the record as it is when the batch is processed.</li>
+ * <li>Updating a record that is already waiting to be updated replaces the
+ * earlier update.</li>
+ * <li>Deleting a record that is waiting to be inserted drops the insert, and 
+ * nothing is written at all.</li>
+ * <li>Deleting a record drops any update waiting for it, and updating a 
+ * record drops any delete waiting for it.</li>
+ * </ul>
+ * <p>
+ * Records are matched by their primary key. Records that do not have one yet
+ * are matched by identity, as the entities consider all such records equal.
+ * The writes keep the order in which each record was first queued.</p>
+ * <p>
+ * This class is not thread-safe; {@link AbstractDAO} guards it with its own
+ * lock.</p>
+ *
+ * @param <T> the type of record
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+final class PendingWrites<T> {
+
+    private final Function<T, Long> keyOf;
+    private final Map<Object, T> inserts;
+    private final Map<Object, T> updates;
+    private final Map<Object, T> deletes;
+
+    PendingWrites(Function<T, Long> keyOf) {
+        this.keyOf = keyOf;
+        this.inserts = new LinkedHashMap<>();
+        this.updates = new LinkedHashMap<>();
+        this.deletes = new LinkedHashMap<>();
+    }
+
+    void insert(T record) {
+        Object key = keyFor(record);
+        deletes.remove(key);
+        updates.remove(key);
+        inserts.put(key, record);
+    }
+
+    void update(T record) {
+        Object key = keyFor(record);
+        if (inserts.containsKey(key)) {
+            inserts.put(key, record);
+            return;
+        }
+
+        deletes.remove(key);
+        T earlier = updates.put(key, record);
+        if (earlier != null && earlier != record) {
+            mergeDirtyFields(earlier, record);
+        }
+    }
+
+    void delete(T record) {
+        Object key = keyFor(record);
+        updates.remove(key);
+        if (inserts.remove(key) == null) {
+            deletes.put(key, record);
+        }
+    }
+
+    int size() {
+        return inserts.size() + updates.size() + deletes.size();
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Determines whether a write is pending for the given record, or for
+     * another instance of it with the same key.
+     */
+    boolean contains(T record) {
+        Object key = keyFor(record);
+        return inserts.containsKey(key) || updates.containsKey(key) 
+                || deletes.containsKey(key);
+    }
+
+    List<T> getInserts() {
+        return new ArrayList<>(inserts.values());
+    }
+
+    List<T> getUpdates() {
+        return new ArrayList<>(updates.values());
+    }
+
+    List<T> getDeletes() {
+        return new ArrayList<>(deletes.values());
+    }
+
+    /**
+     * Forgets the writes that have been processed. Records that were edited
+     * again while they were being written stay queued as updates, or as
+     * inserts if they still have no key.
+     *
+     * @param writes {@code true} to forget the inserts and updates
+     * @param deleted {@code true} to forget the deletes
+     * @param edited tells whether a written record has been edited since
+     */
+    void clear(boolean writes, boolean deleted, Predicate<T> edited) {
+        if (writes) {
+            List<T> requeue = new ArrayList<>();
+            for (T record : inserts.values()) {
+                if (edited.test(record)) {
+                    requeue.add(record);
+                }
+            }
+            for (T record : updates.values()) {
+                if (edited.test(record)) {
+                    requeue.add(record);
+                }
+            }
+            inserts.clear();
+            updates.clear();
+            for (T record : requeue) {
+                Object key = keyFor(record);
+                (key instanceof Long ? updates : inserts).put(key, record);
+            }
+        }
+        if (deleted) {
+            deletes.clear();
+        }
+    }
+
+    private Object keyFor(T record) {
+        Long key = keyOf.apply(record);
+        return key != null ? key : new Identity(record);
+    }
+
+    /**
+     * When a different instance of a record replaces one that was waiting to
+     * be updated, the fields changed in the earlier instance must still be
+     * written. If the later instance does not have them all marked, all of
+     * its fields are written.
+     */
+    private static void mergeDirtyFields(Object earlier, Object later) {
+        if (earlier instanceof Editable && later instanceof Editable) {
+            long missed = ((Editable) earlier).getDirtyFields()
+                    & ~((Editable) later).getDirtyFields();
+            if (missed != 0) {
+                ((Editable) later).setEdited(true);
+            }
+        }
+    }
+
+    /**
+     * Matches a record without a primary key by identity.
+     */
+    private static final class Identity {
+
+        private final Object record;
+
+        Identity(Object record) {
+            this.record = record;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Identity 
+                    && ((Identity) other).record == record;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(record);
+        }
+
+    }
+
+}
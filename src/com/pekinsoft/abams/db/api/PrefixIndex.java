@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   PrefixIndex.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 11:56:47 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@code PrefixIndex} is a {@link SecondaryIndex} that keeps its values 
+ * sorted, so that it can also find the records whose value starts with a 
+ * prefix, such as a few letters of a last name typed ahead. A prefix search
+ * takes time logarithmic in the number of values, plus the number of records
+ * returned.
+ *
+ * @param <T> the type of record
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class PrefixIndex<T> extends SecondaryIndex<T> {
+
+    private final NavigableMap<String, List<T>> entries;
+    
+    /**
+     * Creates a prefix index.
+     * 
+     * @param name the name the index is known by in its data access object
+     * @param field reads the indexed value from a record
+     * @param normalizer normalizes the values indexed and searched for
+     */
+    public PrefixIndex(String name, Function<T, String> field, 
+            UnaryOperator<String> normalizer) {
+        super(name, field, normalizer);
+        this.entries = new TreeMap<>();
+    }
+    
+    /**
+     * Finds the records whose value starts with the given prefix, once both
+     * are normalized, in order of their values.
+     * 
+     * @param prefix the prefix to find
+     * @param limit the largest number of records to return
+     * @return the records found; empty if there are none
+     * @throws IllegalArgumentException if {@code limit} is negative
+     */
+    public synchronized List<T> findByPrefix(String prefix, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit cannot be negative");
+        }
+        
+        List<T> found = new ArrayList<>(Math.min(limit, 16));
+        String key = normalize(prefix);
+        if (key == null) {
+            return found;
+        }
+        
+        for (Map.Entry<String, List<T>> entry 
+                : entries.tailMap(key, true).entrySet()) {
+            if (!entry.getKey().startsWith(key)) {
+                break;
+            }
+            for (T record : entry.getValue()) {
+                if (found.size() == limit) {
+                    return found;
+                }
+                found.add(record);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    protected List<T> get(String key) {
+        return entries.get(key);
+    }
+
+    @Override
+    protected void put(String key, T record) {
+        entries.computeIfAbsent(key, k -> new ArrayList<>(1)).add(record);
+    }
+
+    @Override
+    protected void delete(String key, T record) {
+        List<T> list = entries.get(key);
+        if (list != null && removeFrom(list, record)) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    protected void clear() {
+        entries.clear();
+    }
+
+}
@@ -19,7 +19,7 @@
  *  Class      :   ProductsDAO.java
  *  Author     :   Sean Carrick
  *  Created    :   Mar 20, 2021 @ 6:46:02 PM
- *  Modified   :   Mar 23, 2021
+ *  Modified   :   Oct 18, 2026
  * 
  *  Purpose:     See class JavaDoc comment.
  * 
@@ -31,15 +31,29 @@
  *  Mar 23, 2021  Sean Carrick         Modified class to implement the interface
  *                                     SupportDAO and class AbstractDAO abstract
  *                                     methods.
+ *  Oct 18, 2026  Sean Carrick         The table is now described by an
+ *                                     EntityBinder.
+ *  Oct 18, 2026  Sean Carrick         The load task reads the products in 
+ *                                     the cursor's sort order.
+ *  Oct 18, 2026  Sean Carrick         The load task sets the change mark, so
+ *                                     products can be refreshed.
  * *****************************************************************************
  */
 package com.pekinsoft.abams.db.api;
 
 import com.pekinsoft.abams.db.Products;
 import com.pekinsoft.abams.utils.MessageBox;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
 import org.jdesktop.application.Application;
 import org.jdesktop.application.Task;
@@ -57,110 +71,247 @@ import org.jdesktop.application.Task;
  */
 public class ProductsDAO extends AbstractDAO<Products> {
     
-    private static final String TABLE = "products";
+    private static final String TABLE = "Products";
+    static final EntityBinder<Products> BINDER = EntityBinder
+            .builder(Products.class, TABLE)
+            .key("ProductID", Products::new, Products::getProductID,
+                    Products::setProductID)
+            .column("ProductName", Types.VARCHAR, EntityBinder.STRING,
+                    Products::getProductName, Products::setProductName)
+            .dirtyField(Products.PRODUCT_NAME)
+            .column("Description", Types.VARCHAR, EntityBinder.STRING,
+                    Products::getDescription, Products::setDescription)
+            .dirtyField(Products.DESCRIPTION)
+            .column("UnitPrice", Types.DECIMAL, EntityBinder.DECIMAL,
+                    Products::getUnitPrice, Products::setUnitPrice)
+            .dirtyField(Products.UNIT_PRICE)
+            .column("Dimensions", Types.VARCHAR, EntityBinder.STRING,
+                    Products::getDimensions, Products::setDimensions)
+            .dirtyField(Products.DIMENSIONS)
+            .column("Picture", Types.BLOB, EntityBinder.BYTES,
+                    Products::getPicture, Products::setPicture)
+            .dirtyField(Products.PICTURE)
+            .build();
+    private static final String[] LIST_COLUMNS = {
+        "ProductName", "Description", "UnitPrice", "Dimensions"
+    };
     private static final String CLASS_NAME = ProductsDAO.class.getSimpleName();
     
+    private final Products.PictureLoader pictureLoader;
+    private boolean lazyPictures;
+
     public ProductsDAO (boolean batchProcessing, Application app) {
         super(batchProcessing, app);
+        
+        this.pictureLoader = new BlobPictureLoader();
+        this.lazyPictures = true;
     }
-
-    @Override
-    public int processBatch() throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.processBatch.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
-
-    @Override
-    public boolean insert(Products record) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.insert.
-        throw new UnsupportedOperationException("Not supported yet.");
+    
+    /**
+     * Determines whether product pictures are left out when products are 
+     * listed.
+     * <p>
+     * When lazy pictures are on (the default), listing queries do not read the
+     * {@code Picture} column at all. Each product's picture is fetched by its
+     * {@code ProductID} the first time {@code Products.getPicture()} is called,
+     * or may be streamed straight from the database through
+     * {@code Products.getPictureStream()}. Views that do not show pictures
+     * therefore never pay for transferring or holding them.</p>
+     * 
+     * @return {@code true} if pictures are loaded on demand
+     */
+    public boolean isLazyPictures() {
+        return lazyPictures;
     }
-
-    @Override
-    public boolean update(Products record) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.update.
-        throw new UnsupportedOperationException("Not supported yet.");
+    
+    /**
+     * Turns lazy picture loading on or off. The change takes effect with the
+     * next query.
+     * 
+     * @see #isLazyPictures() 
+     * 
+     * @param lazyPictures {@code true} to load pictures on demand
+     */
+    public void setLazyPictures(boolean lazyPictures) {
+        log.enter(CLASS_NAME, "setLazyPictures", lazyPictures);
+        
+        this.lazyPictures = lazyPictures;
+        
+        log.exit(CLASS_NAME, "setLazyPictures");
     }
 
     @Override
-    public boolean save(Products record) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.save.
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected EntityBinder<Products> getBinder() {
+        return BINDER;
     }
 
     @Override
-    public int save(ArrayList<Products> records) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.save.
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected String[] getListColumns() {
+        return lazyPictures ? LIST_COLUMNS.clone() : getColumns();
     }
 
+    /**
+     * {@inheritDoc }
+     * <p>
+     * A product whose picture has not been loaded was read from the table 
+     * without it. Saving it is an update, so that the picture does not have
+     * to be fetched just to be written back by an upsert.</p>
+     */
     @Override
-    public boolean delete(Products record) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.delete.
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected boolean isStored(Products record) {
+        return !record.isPictureLoaded();
     }
-
+    
+    /**
+     * Creates a mapper for the rows of the given result set. When pictures
+     * are loaded lazily, the mapper gives each product the picture loader in
+     * place of its picture.
+     * 
+     * @param r the result set to map
+     * @return the mapper for the result set's rows
+     * @throws SQLException in the event a database error occurs
+     */
     @Override
-    public int delete(ArrayList<Products> records) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.delete.
-        throw new UnsupportedOperationException("Not supported yet.");
+    protected EntityBinder.RowMapper<Products> rowMapper(ResultSet r) 
+            throws SQLException {
+        EntityBinder.RowMapper<Products> mapper = super.rowMapper(r);
+        if (!lazyPictures) {
+            return mapper;
+        }
+        
+        return row -> {
+            Products p = mapper.map(row);
+            p.setPictureLoader(pictureLoader);
+            return p;
+        };
     }
 
     @Override
     public void selectAll() throws SQLException {
         log.enter(CLASS_NAME, "selectAllAsList");
         
-        log.debug("Executing SelectAllAsListTask to retrieve the table records.");
-        Task selectAll = new SelectAllAsListTask();
+        if (isStreaming()) {
+            log.debug("Streaming: loading the first window of records.");
+            super.selectAll();
+        } else {
+            log.debug("Executing SelectAllAsListTask to retrieve the table "
+                    + "records.");
+            Task selectAll = new SelectAllAsListTask();
+            app.getContext().getTaskService().execute(selectAll);
+        }
         
         log.exit(CLASS_NAME, "selectAllAsList", records);
     }
 
-    @Override
-    public Products find(String field, String value) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
+    /**
+     * Fetches product pictures by {@code ProductID} when they were left out of
+     * a listing query.
+     */
+    private class BlobPictureLoader implements Products.PictureLoader {
 
-    @Override
-    public Products find(String field, Integer value) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
+        private static final String SQL = "SELECT Picture FROM " + TABLE 
+                + " WHERE ProductID = ?";
 
-    @Override
-    public Products find(String field, Short value) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
+        @Override
+        public byte[] loadPicture(Long productID) throws SQLException {
+            log.enter(CLASS_NAME, "loadPicture", productID);
+            
+            byte[] picture = null;
+            try (Connection conn = getReadConnection();
+                    PreparedStatement ps = conn.prepareStatement(SQL)) {
+                ps.setLong(1, productID);
+                try (ResultSet r = ps.executeQuery()) {
+                    if (r.next()) {
+                        picture = r.getBytes(1);
+                    }
+                }
+            }
+            
+            log.exit(CLASS_NAME, "loadPicture", picture == null ? 0 
+                    : picture.length);
+            return picture;
+        }
 
-    @Override
-    public Products find(String field, Long value) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
+        @Override
+        public InputStream openPicture(Long productID) throws SQLException {
+            log.enter(CLASS_NAME, "openPicture", productID);
+            
+            Connection conn = getReadConnection();
+            PreparedStatement ps = null;
+            ResultSet r = null;
+            try {
+                ps = conn.prepareStatement(SQL);
+                ps.setLong(1, productID);
+                r = ps.executeQuery();
+                
+                Blob blob = r.next() ? r.getBlob(1) : null;
+                if (blob == null) {
+                    closeAll(r, ps, conn);
+                    log.exit(CLASS_NAME, "openPicture", null);
+                    return null;
+                }
+                
+                InputStream in = new BlobInputStream(blob, r, ps, conn);
+                log.exit(CLASS_NAME, "openPicture", in);
+                return in;
+            } catch (SQLException | RuntimeException ex) {
+                closeAll(r, ps, conn);
+                throw ex;
+            }
+        }
 
-    @Override
-    public Products find(String field, Float value) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
     }
+    
+    /**
+     * Streams a {@code java.sql.Blob} and releases the blob, result set,
+     * statement and connection behind it when closed.
+     */
+    private static class BlobInputStream extends FilterInputStream {
 
-    @Override
-    public Products find(String field, Double value) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
-    }
+        private final Blob blob;
+        private final AutoCloseable[] resources;
 
-    @Override
-    public Products find(String field, Boolean value) throws SQLException {
-        // TODO: Implement functionality in ProductsDAO.find.
-        throw new UnsupportedOperationException("Not supported yet.");
+        BlobInputStream(Blob blob, AutoCloseable... resources) 
+                throws SQLException {
+            super(blob.getBinaryStream());
+            this.blob = blob;
+            this.resources = resources;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                try {
+                    blob.free();
+                } catch (SQLException ex) {
+                    // The blob is released with its result set anyway.
+                }
+                closeAll(resources);
+            }
+        }
+
+    }
+    
+    private static void closeAll(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception ex) {
+                    // Closing is best effort; the connection goes back to the
+                    // pool regardless.
+                }
+            }
+        }
     }
     
     private class SelectAllAsListTask extends Task<ArrayList<Products>, Void> {
         
         private String className;
+        private int total;
+        private Timestamp mark;
         
         public SelectAllAsListTask() {
             super(app);
@@ -172,53 +323,33 @@ public class ProductsDAO extends AbstractDAO<Products> {
         protected ArrayList<Products> doInBackground() throws Exception {
             log.enter(className, "doInBackground");
             
-            log.config("Creating a java.sql.Statement object for executing SQL "
-                    + "statements against the server.");
-            Statement s = getConnection().createStatement();
+            ArrayList<Products> list;
             
-            log.config("Creating our local ArrayList object for the records.");
-            ArrayList<Products> list = new ArrayList<>();
-            
-            log.debug("Getting the count of existing records for the progressbar.");
-            ResultSet r = s.executeQuery("SELECT COUNT(*) FROM Products");
-            int count = 0;
-            if (r != null) {   // Which it shouldn't, even if no records.
-                count = r.getInt(1);    // Get the record count from the 1st col.
+            log.config("Borrowing a connection and creating a java.sql.Statement "
+                    + "object for executing SQL statements against the server.");
+            try (Connection conn = getReadConnection();
+                    Statement s = conn.createStatement()) {
+                log.debug("Getting the count of existing records for the "
+                        + "progressbar.");
+                int count = 0;
+                try (ResultSet r = s.executeQuery("SELECT COUNT(*) FROM Products")) {
+                    if (r.next()) {
+                        count = r.getInt(1);    // Get the record count from the 1st col.
+                    }
+                }
+                log.debug("Total records in Products: {}", count);
+                total = count;
             }
-            log.debug("Total records in Products: " + count);
+
+            mark = readChangeMark();
             
             log.config("Performing select of all records.");
-            r = s.executeQuery("SELECT * FROM Products");
-            if (r != null) {
-                r.beforeFirst();
-                
-                setMessage("Retrieving all records from the Products table...");
-                int current = 0;
-                setProgress(current, 0, count);
-                
-                log.debug("Looping through all records...");
-                while (r.next()) {
-                    Products p = new Products();
-                    p.setProductID(r.getLong("ProductID"));
-                    p.setProductName(r.getString("ProductName"));
-                    p.setDescription(r.getString("Description"));
-                    p.setUnitPrice(r.getBigDecimal("UnitPrice"));
-                    p.setDimensions(r.getString("Dimensions"));
-                    p.setPicture(r.getBytes("Picture"));
-                    
-                    log.debug("Adding product #" + current + " to list: " 
-                            + p.toString());
-                    list.add(p);
-                    current++;
-                }
-                
-                setMessage("Closing connections...");
-                r.close();
-                if (s != null) s.close();
-            }
+            setMessage("Retrieving all records from the Products table...");
+            setProgress(0, 0, total);
+            list = loadAll(current -> setProgress(current, 0, total));
             
             log.exit(className, "doInBackground", list);
-            return (list.isEmpty()) ? null : list;
+            return list;
         }
         
         @Override
@@ -227,7 +358,7 @@ public class ProductsDAO extends AbstractDAO<Products> {
             setMessage("All Products retrieved.");
             
             log.config("Setting the freshly created list to the records field.");
-            records = list;
+            setRecords(list, mark);
             
             log.exit(className, "succeeded");
         }
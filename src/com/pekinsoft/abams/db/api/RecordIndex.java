@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   RecordIndex.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 11:42:05 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@code RecordIndex} maps the primary keys of a list of records to their
+ * positions in the list. The keys are kept as primitive {@code long}s in an
+ * open-addressing table with linear probing, so an index takes two arrays
+ * and no object per record: 12 bytes per slot, with the table kept no more
+ * than half full. A million records take 2<sup>21</sup> slots, or 24 MB.
+ * <p>
+ * An index describes the list it was last {@link #build(java.util.List)
+ * built} from, and must be built again once that list changes. Records
+ * without a key are left out, and of records sharing a key only the first is
+ * indexed.</p>
+ * <p>
+ * This class is not thread-safe; {@link AbstractDAO} only uses it from the
+ * thread that moves its cursor.</p>
+ *
+ * @param <T> the type of record
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+final class RecordIndex<T> {
+
+    /** The smallest number of slots the table is given. */
+    private static final int MIN_CAPACITY = 16;
+
+    private final Function<T, Long> keyOf;
+    private List<T> indexed;
+    private int indexedSize;
+    private long[] keys;
+    /** The position of the record with the key in the same slot, plus one;
+     * zero marks an empty slot. */
+    private int[] positions;
+    private int shift;
+    private int size;
+
+    RecordIndex(Function<T, Long> keyOf) {
+        this.keyOf = keyOf;
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Determines whether this index describes the given list as it is now.
+     */
+    boolean isCurrent(List<T> records) {
+        return records == indexed && records.size() == indexedSize;
+    }
+
+    /**
+     * Indexes the given list, replacing whatever was indexed before. The
+     * arrays are reused when they are large enough for the list.
+     */
+    void build(List<T> records) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < records.size() * 2 && capacity < 1 << 30) {
+            capacity <<= 1;
+        }
+        if (capacity > keys.length || capacity * 4 < keys.length) {
+            allocate(capacity);
+        } else {
+            Arrays.fill(positions, 0);
+        }
+        size = 0;
+
+        for (int i = 0; i < records.size(); i++) {
+            Long key = keyOf.apply(records.get(i));
+            if (key != null) {
+                put(key, i);
+            }
+        }
+        indexed = records;
+        indexedSize = records.size();
+    }
+
+    /**
+     * Retrieves the position in the indexed list of the record with the
+     * given key.
+     *
+     * @return the position, or -1 if no record has the key
+     */
+    int indexOf(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int position = positions[slot];
+            if (position == 0) {
+                return -1;
+            }
+            if (keys[slot] == key) {
+                return position - 1;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of records indexed.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of bytes taken by the index's arrays, including
+     * their headers.
+     */
+    long getFootprint() {
+        return 16L + 8L * keys.length + 16L + 4L * positions.length;
+    }
+
+    private void put(long key, int position) {
+        int mask = keys.length - 1;
+        int slot = slot(key);
+        while (positions[slot] != 0) {
+            if (keys[slot] == key) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        positions[slot] = position + 1;
+        size++;
+    }
+
+    /**
+     * Spreads the key over the table by Fibonacci hashing: the high bits of
+     * the key times the golden ratio, which differ even for sequential keys.
+     */
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        positions = new int[capacity];
+        shift = Long.numberOfLeadingZeros(capacity - 1);
+    }
+
+}
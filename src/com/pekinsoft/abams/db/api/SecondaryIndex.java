@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   SecondaryIndex.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 11:51:36 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@code SecondaryIndex} finds records held in memory by the value of one
+ * of their fields, without going to the database. Indexes are added to a
+ * data access object with {@link AbstractDAO#addIndex(SecondaryIndex)}, which
+ * keeps them up to date: they are rebuilt whenever records are loaded, and
+ * each record is indexed again or removed as it is saved or deleted.
+ * <p>
+ * Values are normalized before they are indexed, and so are the values 
+ * searched for, so that, for example, an email address can be found 
+ * whatever its case. Records whose normalized value is {@code null} or empty
+ * are not indexed. Several records may share a value.</p>
+ * <p>
+ * The subclasses decide how the values are stored, and so which searches 
+ * they support beyond an exact match: see {@link HashIndex} and 
+ * {@link PrefixIndex}. All of the methods are thread-safe, as records may be
+ * saved on one thread while they are searched on another.</p>
+ *
+ * @param <T> the type of record
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public abstract class SecondaryIndex<T> {
+
+    /** Normalizes a value by trimming it and ignoring its case. */
+    public static final UnaryOperator<String> CASE_INSENSITIVE = value ->
+            value.trim().toLowerCase(Locale.ROOT);
+    
+    /** Normalizes a value by keeping only its digits, as for phone numbers. */
+    public static final UnaryOperator<String> DIGITS_ONLY = value -> 
+            value.replaceAll("[^0-9]", "");
+    
+    /** 
+     * Normalizes a value by dropping its spaces and ignoring its case, as for
+     * postal codes.
+     */
+    public static final UnaryOperator<String> COMPACT = value ->
+            value.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+    
+    private final String name;
+    private final Function<T, String> field;
+    private final UnaryOperator<String> normalizer;
+    /** The value each record is indexed under, by identity, so that a record
+     * can be found again after its value has been changed. */
+    private final Map<T, String> indexed;
+    
+    /**
+     * Creates an index.
+     * 
+     * @param name the name the index is known by in its data access object
+     * @param field reads the indexed value from a record
+     * @param normalizer normalizes the values indexed and searched for
+     */
+    protected SecondaryIndex(String name, Function<T, String> field, 
+            UnaryOperator<String> normalizer) {
+        if (name == null || field == null || normalizer == null) {
+            throw new IllegalArgumentException("name, field and normalizer "
+                    + "are required");
+        }
+        this.name = name;
+        this.field = field;
+        this.normalizer = normalizer;
+        this.indexed = new IdentityHashMap<>();
+    }
+    
+    /**
+     * Retrieves the name of the index.
+     * 
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Retrieves the number of records indexed.
+     * 
+     * @return the record count
+     */
+    public synchronized int size() {
+        return indexed.size();
+    }
+    
+    /**
+     * Finds the records whose value is the given value, once both are 
+     * normalized.
+     * 
+     * @param value the value to find
+     * @return the records found, in the order they were indexed; empty if 
+     *          there are none
+     */
+    public synchronized List<T> find(String value) {
+        String key = normalize(value);
+        List<T> found = key == null ? null : get(key);
+        return found == null ? new ArrayList<>() : new ArrayList<>(found);
+    }
+    
+    /**
+     * Indexes a record under its current value, replacing any entry it had
+     * under an earlier value.
+     * 
+     * @param record the record to index
+     */
+    public synchronized void add(T record) {
+        String key = normalize(field.apply(record));
+        String old = indexed.get(record);
+        if (old != null && old.equals(key)) {
+            return;
+        }
+        
+        unlink(record, old);
+        if (key == null) {
+            indexed.remove(record);
+        } else {
+            indexed.put(record, key);
+            put(key, record);
+        }
+    }
+    
+    /**
+     * Removes a record from the index.
+     * 
+     * @param record the record to remove
+     */
+    public synchronized void remove(T record) {
+        unlink(record, indexed.remove(record));
+    }
+    
+    /**
+     * Replaces the contents of the index with the given records.
+     * 
+     * @param records the records to index
+     */
+    public synchronized void rebuild(Collection<T> records) {
+        indexed.clear();
+        clear();
+        for (T record : records) {
+            add(record);
+        }
+    }
+    
+    /**
+     * Normalizes a value, as it is indexed and searched for.
+     * 
+     * @param value the value
+     * @return the normalized value, or {@code null} if the value is 
+     *          {@code null} or normalizes to an empty string
+     */
+    protected String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String key = normalizer.apply(value);
+        return key.isEmpty() ? null : key;
+    }
+    
+    /**
+     * Retrieves the records indexed under a normalized value. Called with 
+     * the index locked.
+     * 
+     * @param key the normalized value
+     * @return the records, or {@code null} if there are none
+     */
+    protected abstract List<T> get(String key);
+    
+    /**
+     * Adds a record under a normalized value. Called with the index locked.
+     * 
+     * @param key the normalized value
+     * @param record the record
+     */
+    protected abstract void put(String key, T record);
+    
+    /**
+     * Removes a record from under a normalized value. Called with the index
+     * locked.
+     * 
+     * @param key the normalized value
+     * @param record the record
+     */
+    protected abstract void delete(String key, T record);
+    
+    /**
+     * Removes every value and record. Called with the index locked.
+     */
+    protected abstract void clear();
+    
+    /**
+     * Removes a record from a list of records by identity, as the entities 
+     * consider all records without a key equal.
+     * 
+     * @param list the list to remove the record from
+     * @param record the record to remove
+     * @return {@code true} if the list is now empty
+     */
+    protected static <T> boolean removeFrom(List<T> list, T record) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == record) {
+                list.remove(i);
+                break;
+            }
+        }
+        return list.isEmpty();
+    }
+    
+    private void unlink(T record, String key) {
+        if (key != null) {
+            delete(key, record);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[ " + name + ", " + size() 
+                + " records ]";
+    }
+
+}
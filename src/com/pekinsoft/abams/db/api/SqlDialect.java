@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   SqlDialect.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 10:58:26 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         H2 merges only set the updated columns
+ *                                     of rows that already exist.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The {@code SqlDialect} enumeration covers the statements whose syntax 
+ * differs between the database systems we run on. At this time, that is only
+ * the upsert: a statement that inserts a row, or updates it if a row with the
+ * same key already exists.
+ * <p>
+ * Each upsert statement binds its parameters row by row. For every row, the
+ * key comes first, followed by all of the columns in binder order. For a 
+ * dialect that {@link #isUpdateBoundSeparately() binds its update 
+ * separately}, each row instead binds the key and the updated columns, and 
+ * then the key and all of the columns.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public enum SqlDialect {
+
+    /**
+     * MariaDB and MySQL, using {@code INSERT ... ON DUPLICATE KEY UPDATE}
+     * with many rows per statement.
+     */
+    MARIADB {
+        @Override
+        public String upsert(String table, String key, String[] columns, 
+                String[] updated, int rows) {
+            StringBuilder sql = insertInto(new StringBuilder("INSERT INTO "), 
+                    table, key, columns, rows);
+            sql.append(" ON DUPLICATE KEY UPDATE ");
+            if (updated.length == 0) {
+                sql.append(key).append(" = ").append(key);
+            }
+            for (int i = 0; i < updated.length; i++) {
+                sql.append(i == 0 ? "" : ", ").append(updated[i])
+                        .append(" = VALUES(").append(updated[i]).append(")");
+            }
+            return sql.toString();
+        }
+    },
+    
+    /**
+     * H2 2.x, using a standard {@code MERGE} with many rows per statement,
+     * whose source is a {@code VALUES} list. Only the updated columns are 
+     * written to a row that already exists.
+     */
+    H2 {
+        @Override
+        public String upsert(String table, String key, String[] columns, 
+                String[] updated, int rows) {
+            StringBuilder sql = new StringBuilder("MERGE INTO ").append(table)
+                    .append(" T USING (VALUES ");
+            appendRows(sql, columns.length + 1, rows);
+            sql.append(") S (").append(key);
+            for (String column : columns) {
+                sql.append(", ").append(column);
+            }
+            sql.append(") ON T.").append(key).append(" = S.").append(key);
+            if (updated.length > 0) {
+                sql.append(" WHEN MATCHED THEN UPDATE SET ");
+                for (int i = 0; i < updated.length; i++) {
+                    sql.append(i == 0 ? "" : ", ").append(updated[i])
+                            .append(" = S.").append(updated[i]);
+                }
+            }
+            sql.append(" WHEN NOT MATCHED THEN INSERT (").append(key);
+            for (String column : columns) {
+                sql.append(", ").append(column);
+            }
+            sql.append(") VALUES (S.").append(key);
+            for (String column : columns) {
+                sql.append(", S.").append(column);
+            }
+            return sql.append(")").toString();
+        }
+    },
+    
+    /**
+     * Apache Derby, using a standard {@code MERGE} of a single row, which is
+     * all Derby accepts as the source of a merge.
+     */
+    DERBY {
+        @Override
+        public boolean isMultiRow() {
+            return false;
+        }
+        
+        @Override
+        public boolean isUpdateBoundSeparately() {
+            return true;
+        }
+        
+        @Override
+        public String upsert(String table, String key, String[] columns, 
+                String[] updated, int rows) {
+            StringBuilder sql = new StringBuilder("MERGE INTO ").append(table)
+                    .append(" USING SYSIBM.SYSDUMMY1 ON ").append(key)
+                    .append(" = ?");
+            if (updated.length > 0) {
+                sql.append(" WHEN MATCHED THEN UPDATE SET ");
+                for (int i = 0; i < updated.length; i++) {
+                    sql.append(i == 0 ? "" : ", ").append(updated[i])
+                            .append(" = ?");
+                }
+            }
+            sql.append(" WHEN NOT MATCHED THEN ");
+            return insertInto(sql.append("INSERT "), null, key, columns, 1)
+                    .toString();
+        }
+    },
+    
+    /**
+     * Any other database. There is no upsert statement; records are updated,
+     * and those that are not found are then inserted.
+     */
+    GENERIC {
+        @Override
+        public boolean isMultiRow() {
+            return false;
+        }
+        
+        @Override
+        public String upsert(String table, String key, String[] columns, 
+                String[] updated, int rows) {
+            return null;
+        }
+    };
+
+    /**
+     * The most parameters a single statement may bind.
+     */
+    public static final int MAX_PARAMETERS = 65535;
+
+    /**
+     * Determines the dialect of the database a connection is open to.
+     * 
+     * @param conn the connection
+     * @return the dialect, which is {@link #GENERIC} if the database is not
+     *          one we have a dialect for
+     * @throws SQLException in the event the database cannot be identified
+     */
+    public static SqlDialect of(Connection conn) throws SQLException {
+        String product = conn.getMetaData().getDatabaseProductName()
+                .toLowerCase();
+        if (product.contains("mariadb") || product.contains("mysql")) {
+            return MARIADB;
+        } else if (product.contains("h2")) {
+            return H2;
+        } else if (product.contains("derby")) {
+            return DERBY;
+        }
+        return GENERIC;
+    }
+
+    /**
+     * Determines whether an upsert statement of this dialect may write more
+     * than one row.
+     * 
+     * @return {@code true} if the statement may write many rows
+     */
+    public boolean isMultiRow() {
+        return true;
+    }
+
+    /**
+     * Determines whether the parameters of the update half of this dialect's
+     * upsert are bound separately from those of the insert half.
+     * 
+     * @return {@code true} if the update is bound separately
+     */
+    public boolean isUpdateBoundSeparately() {
+        return false;
+    }
+
+    /**
+     * Builds an upsert statement.
+     * 
+     * @param table the table name
+     * @param key the primary key column
+     * @param columns all of the other columns, in binder order
+     * @param updated the columns to set when the row already exists
+     * @param rows the number of rows the statement writes; always one for a
+     *          dialect that is not {@link #isMultiRow() multi-row}
+     * @return the SQL of the statement, or {@code null} if the dialect has 
+     *          no upsert
+     */
+    public abstract String upsert(String table, String key, String[] columns,
+            String[] updated, int rows);
+
+    private static StringBuilder insertInto(StringBuilder sql, String table, 
+            String key, String[] columns, int rows) {
+        if (table != null) {
+            sql.append(table).append(" ");
+        }
+        sql.append("(").append(key);
+        for (String column : columns) {
+            sql.append(", ").append(column);
+        }
+        sql.append(") VALUES ");
+        appendRows(sql, columns.length + 1, rows);
+        return sql;
+    }
+
+    private static void appendRows(StringBuilder sql, int params, int rows) {
+        for (int r = 0; r < rows; r++) {
+            sql.append(r == 0 ? "(" : ", (");
+            for (int p = 0; p < params; p++) {
+                sql.append(p == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+        }
+    }
+
+}
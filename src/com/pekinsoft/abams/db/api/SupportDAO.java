@@ -19,7 +19,7 @@
  *  Class      :   SupportDAO.java
  *  Author     :   Sean Carrick
  *  Created    :   Mar 23, 2021 @ 6:50:20 PM
- *  Modified   :   Mar 23, 2021
+ *  Modified   :   Oct 18, 2026
  * 
  *  Purpose:     See class JavaDoc comment.
  * 
@@ -28,6 +28,8 @@
  *  WHEN          BY                   REASON
  *  ------------  -------------------  -----------------------------------------
  *  Mar 23, 2021  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Added keyset pagination with findPage.
+ *  Oct 18, 2026  Sean Carrick         Added findAllByIds.
  * *****************************************************************************
  */
 package com.pekinsoft.abams.db.api;
@@ -35,6 +37,8 @@ package com.pekinsoft.abams.db.api;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  *
@@ -116,6 +120,43 @@ public interface SupportDAO<T> {
      */
     public void selectAll() throws SQLException;
     
+    /**
+     * Retrieves the page of records that follows the given record in primary
+     * key order.
+     * <p>
+     * Pages are found by seeking past the last record of the previous page,
+     * rather than by skipping an offset, so every page takes the same time to
+     * retrieve, however deep into the table it lies.</p>
+     * 
+     * @param after the last record of the previous page, or {@code null} for
+     *          the first page
+     * @param pageSize the largest number of records to retrieve
+     * @return the records of the page; empty if there are no more records
+     * @throws SQLException in the event a database error occurs
+     */
+    public List<T> findPage(T after, int pageSize) throws SQLException;
+    
+    /**
+     * Retrieves the page of records that follows the given record when the
+     * table is sorted by the specified field. Records with equal values in
+     * the field are sorted by primary key, and records with no value in the
+     * field come first.
+     * <p>
+     * Pages are found by seeking past the last record of the previous page,
+     * rather than by skipping an offset, so every page takes the same time to
+     * retrieve, however deep into the table it lies. The field should be
+     * indexed together with the primary key for that to hold.</p>
+     * 
+     * @param sortField the table field to sort by
+     * @param after the last record of the previous page, or {@code null} for
+     *          the first page
+     * @param pageSize the largest number of records to retrieve
+     * @return the records of the page; empty if there are no more records
+     * @throws SQLException in the event a database error occurs
+     */
+    public List<T> findPage(String sortField, T after, int pageSize) 
+            throws SQLException;
+    
     /**
      * Locates a record whose specified field contains the specified 
      * {@code java.lang.String} value.
@@ -193,4 +234,14 @@ public interface SupportDAO<T> {
      */
     public T find(String field, Boolean value) throws SQLException;
     
+    /**
+     * Finds the records with the given primary keys, in the order the keys
+     * are given. Keys that have no record, and repeated keys, are skipped.
+     * 
+     * @param ids the primary keys of the records to find
+     * @return the records found; empty if there are none
+     * @throws SQLException in the event a database error occurs
+     */
+    public List<T> findAllByIds(Collection<Long> ids) throws SQLException;
+    
 }
@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   UnitOfWork.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 10:31:15 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import com.pekinsoft.abams.utils.Logger;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jdesktop.application.Application;
+
+/**
+ * A {@code UnitOfWork} collects the inserts, updates and deletes of several 
+ * data access objects and writes them all in one transaction, on one 
+ * connection, when it is committed. An order, its addresses and its details
+ * are then either all written or none of them are:
+ * <pre>
+ * try (UnitOfWork work = new UnitOfWork(app)) {
+ *     work.save(addressesDAO, shipTo);
+ *     work.save(ordersDAO, order);
+ *     for (OrderDetails detail : details) {
+ *         work.save(orderDetailsDAO, detail);
+ *     }
+ *     work.commit();
+ * }
+ * </pre>
+ * <p>
+ * Nothing is sent to the database until {@link #commit()} is called. The
+ * writes of each DAO are then sent in JDBC batches, with the inserts and 
+ * updates of the tables that are referred to before those of the tables that
+ * refer to them, and the deletes in the reverse order. The order follows the
+ * {@link EntityBinder#getReferencedTypes() references} declared by the DAOs'
+ * binders, not the order the writes were made in. A record written more than
+ * once is only written once, as it was last written.</p>
+ * <p>
+ * If the commit fails, nothing is written and the writes are kept, so they
+ * may be corrected and committed again. Closing the unit of work without
+ * committing it discards them. A {@code UnitOfWork} is meant to be used by
+ * one thread.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    private static final String CLASS_NAME = UnitOfWork.class.getSimpleName();
+
+    private final Logger log;
+    private final Map<AbstractDAO<?>, Work<?>> work;
+    private boolean closed;
+
+    public UnitOfWork(Application app) {
+        log = Logger.getLogger(CLASS_NAME, app);
+        work = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds a new record to be inserted. If an
+     * {@link AbstractDAO#getIdAllocator() ID allocator} is set, the record is
+     * given its key right away.
+     * 
+     * @param <T> the type of record
+     * @param dao the data access object of the record's table
+     * @param record the record to insert
+     * @throws SQLException in the event a key cannot be allocated
+     */
+    public <T> void insert(AbstractDAO<T> dao, T record) throws SQLException {
+        dao.assignKeys(List.of(record));
+        workOf(dao).pending.insert(record);
+    }
+
+    /**
+     * Adds a record to be updated.
+     * 
+     * @param <T> the type of record
+     * @param dao the data access object of the record's table
+     * @param record the record to update
+     */
+    public <T> void update(AbstractDAO<T> dao, T record) {
+        workOf(dao).pending.update(record);
+    }
+
+    /**
+     * Adds a record to be inserted if it has no primary key, or updated if 
+     * it does.
+     * 
+     * @param <T> the type of record
+     * @param dao the data access object of the record's table
+     * @param record the record to save
+     * @throws SQLException in the event a key cannot be allocated
+     */
+    public <T> void save(AbstractDAO<T> dao, T record) throws SQLException {
+        if (dao.isNew(record)) {
+            insert(dao, record);
+        } else {
+            update(dao, record);
+        }
+    }
+
+    /**
+     * Adds a record to be deleted.
+     * 
+     * @param <T> the type of record
+     * @param dao the data access object of the record's table
+     * @param record the record to delete
+     */
+    public <T> void delete(AbstractDAO<T> dao, T record) {
+        workOf(dao).pending.delete(record);
+    }
+
+    /**
+     * Retrieves the number of writes waiting to be committed.
+     * 
+     * @return the pending write count
+     */
+    public int getPendingCount() {
+        int count = 0;
+        for (Work<?> w : work.values()) {
+            count += w.pending.size();
+        }
+        return count;
+    }
+
+    /**
+     * Writes all of the pending writes in a single transaction.
+     * 
+     * @return {@code true} if the transaction was committed; {@code false} if
+     *          a row failed and it was rolled back, in which case the 
+     *          {@link #getResult(com.pekinsoft.abams.db.api.AbstractDAO) 
+     *          results} tell which
+     * @throws SQLException in the event the connection or transaction fails
+     * @throws IllegalStateException if the unit of work is closed
+     */
+    public boolean commit() throws SQLException {
+        log.enter(CLASS_NAME, "commit");
+        
+        if (closed) {
+            throw new IllegalStateException("The unit of work is closed");
+        }
+        List<Work<?>> ordered = dependencyOrder();
+        if (ordered.isEmpty()) {
+            log.exit(CLASS_NAME, "commit", true);
+            return true;
+        }
+        
+        log.debug("Committing {} writes across {} tables.", getPendingCount(),
+                ordered.size());
+        boolean ok = true;
+        try (Connection conn = ordered.get(0).dao.getConnection()) {
+            conn.setAutoCommit(false);
+            for (Work<?> w : ordered) {
+                w.begin();
+            }
+            
+            try {
+                for (int i = 0; ok && i < ordered.size(); i++) {
+                    ok = ordered.get(i).executeWrites(conn);
+                }
+                for (int i = ordered.size() - 1; ok && i >= 0; i--) {
+                    ok = ordered.get(i).executeDeletes(conn);
+                }
+                
+                if (ok) {
+                    conn.commit();
+                } else {
+                    log.debug("A row failed; rolling back the unit of work.");
+                    conn.rollback();
+                }
+            } catch (SQLException | RuntimeException ex) {
+                ok = false;
+                conn.rollback();
+                throw ex;
+            } finally {
+                for (Work<?> w : ordered) {
+                    w.finish(ok);
+                }
+            }
+        }
+        
+        log.exit(CLASS_NAME, "commit", ok);
+        return ok;
+    }
+
+    /**
+     * Retrieves the outcome of the last commit for the records of one data 
+     * access object.
+     * 
+     * @param <T> the type of record
+     * @param dao the data access object
+     * @return the result, or {@code null} if nothing of that DAO's has been
+     *          committed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> BatchResult<T> getResult(AbstractDAO<T> dao) {
+        Work<T> w = (Work<T>) work.get(dao);
+        return w == null ? null : w.result;
+    }
+
+    /**
+     * Closes the unit of work, discarding any writes that were not committed,
+     * and releases its logger.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            if (getPendingCount() > 0) {
+                log.debug("Discarding {} uncommitted writes.", 
+                        getPendingCount());
+            }
+            closed = true;
+            log.close();
+        }
+        work.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Work<T> workOf(AbstractDAO<T> dao) {
+        if (closed) {
+            throw new IllegalStateException("The unit of work is closed");
+        }
+        if (dao == null) {
+            throw new IllegalArgumentException("dao cannot be null");
+        }
+        return (Work<T>) work.computeIfAbsent(dao, d -> new Work<>(dao));
+    }
+
+    /**
+     * Orders the DAOs with pending writes so that each comes after the DAOs
+     * of the types it refers to. DAOs that do not depend on one another keep
+     * the order they were first used in, as do any that refer to each other
+     * in a cycle.
+     */
+    private List<Work<?>> dependencyOrder() {
+        List<Work<?>> remaining = new ArrayList<>();
+        for (Work<?> w : work.values()) {
+            if (!w.pending.isEmpty()) {
+                remaining.add(w);
+            }
+        }
+        
+        List<Work<?>> ordered = new ArrayList<>(remaining.size());
+        while (!remaining.isEmpty()) {
+            Work<?> next = null;
+            for (Work<?> candidate : remaining) {
+                if (!refersToAny(candidate, remaining)) {
+                    next = candidate;
+                    break;
+                }
+            }
+            if (next == null) {
+                next = remaining.get(0);
+            }
+            remaining.remove(next);
+            ordered.add(next);
+        }
+        return ordered;
+    }
+
+    private static boolean refersToAny(Work<?> candidate, List<Work<?>> others) {
+        for (Work<?> other : others) {
+            if (other != candidate && candidate.dao.getReferencedTypes()
+                    .contains(other.dao.getEntityType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The pending writes of one data access object, and the outcome of
+     * committing them.
+     */
+    private static final class Work<T> {
+
+        private final AbstractDAO<T> dao;
+        private final PendingWrites<T> pending;
+        private List<T> inserts;
+        private List<T> updates;
+        private List<T> deletes;
+        private BatchResult<T> result;
+
+        Work(AbstractDAO<T> dao) {
+            this.dao = dao;
+            this.pending = new PendingWrites<>(dao::getKey);
+        }
+
+        void begin() {
+            inserts = pending.getInserts();
+            updates = pending.getUpdates();
+            deletes = pending.getDeletes();
+            result = new BatchResult<>();
+        }
+
+        boolean executeWrites(Connection conn) throws SQLException {
+            return dao.executeBatch(conn, inserts, updates, List.of(), result);
+        }
+
+        boolean executeDeletes(Connection conn) throws SQLException {
+            return dao.executeBatch(conn, List.of(), List.of(), deletes, 
+                    result);
+        }
+
+        void finish(boolean committed) {
+            dao.finishBatch(inserts, updates, deletes, result, committed);
+            if (committed) {
+                pending.clear(true, true, AbstractDAO::isEditedAgain);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   WriteBehindQueue.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 9:38:02 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Timed flushes run on the event dispatch
+ *                                     thread.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import com.pekinsoft.abams.utils.Logger;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.swing.Timer;
+import org.jdesktop.application.Application;
+
+/**
+ * A {@code WriteBehindQueue} collects the writes of one or more data access
+ * objects and sends them to the database together, so that a data entry form
+ * that saves its record after every change costs one round trip per flush
+ * rather than one per save. Each registered DAO batches its writes, and 
+ * repeated writes of the same record are coalesced into one (see 
+ * {@link AbstractDAO#getBatchedEntryCount()}).
+ * <p>
+ * The queue is flushed:</p>
+ * <ul>
+ * <li>when the number of pending writes reaches the 
+ * {@link #setMaxPending(int) maximum};</li>
+ * <li>every {@link #setFlushInterval(long) flush interval}, if one is set;</li>
+ * <li>when {@link #flush()} is called, or {@code processBatch} is called on 
+ * any of the registered DAOs; and</li>
+ * <li>when the queue is {@link #close() closed}.</li>
+ * </ul>
+ * <p>
+ * The DAOs must be registered parents first. A flush writes the inserts and
+ * updates of each DAO in the order they were registered, then the deletes in
+ * the reverse order, so that an order is inserted before its details, and its
+ * details are deleted before the order is:</p>
+ * <pre>
+ * WriteBehindQueue queue = new WriteBehindQueue(app);
+ * queue.register(customersDAO);
+ * queue.register(ordersDAO);
+ * queue.register(orderDetailsDAO);
+ * queue.setFlushInterval(5000);
+ * </pre>
+ * <p>
+ * Each DAO's writes are committed in a transaction of their own. If one of 
+ * them fails, the flush stops there, so no details are written for orders
+ * that were not, and the writes that were not committed stay queued for the
+ * next flush.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class WriteBehindQueue implements AutoCloseable {
+
+    private static final String CLASS_NAME = 
+            WriteBehindQueue.class.getSimpleName();
+
+    private final Logger log;
+    private final List<AbstractDAO<?>> daos;
+    private volatile int maxPending;
+    private long flushInterval;
+    private Timer timer;
+
+    public WriteBehindQueue(Application app) {
+        log = Logger.getLogger(CLASS_NAME, app);
+        daos = new CopyOnWriteArrayList<>();
+        maxPending = 500;
+    }
+
+    /**
+     * Registers a data access object with this queue, and turns on its batch
+     * processing. DAOs must be registered after the DAOs of the tables they
+     * refer to.
+     * 
+     * @param dao the data access object
+     * @throws IllegalArgumentException if {@code dao} is {@code null} or 
+     *          already belongs to a queue
+     */
+    public synchronized void register(AbstractDAO<?> dao) {
+        log.enter(CLASS_NAME, "register", dao);
+        
+        if (dao == null) {
+            throw new IllegalArgumentException("dao cannot be null");
+        }
+        if (dao.getWriteBehindQueue() != null) {
+            throw new IllegalArgumentException("dao already belongs to a "
+                    + "write-behind queue");
+        }
+        
+        dao.setWriteBehindQueue(this);
+        dao.setBatchProcessing(true);
+        daos.add(dao);
+        
+        log.exit(CLASS_NAME, "register");
+    }
+
+    /**
+     * Retrieves the number of writes pending in all of the registered DAOs.
+     * 
+     * @return the pending write count
+     */
+    public int getPendingCount() {
+        int count = 0;
+        for (AbstractDAO<?> dao : daos) {
+            count += dao.getBatchedEntryCount();
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the number of pending writes at which the queue is flushed.
+     * 
+     * @return the maximum number of pending writes
+     */
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * Sets the number of pending writes at which the queue is flushed. The
+     * default is 500.
+     * 
+     * @param maxPending the maximum number of pending writes
+     * @throws IllegalArgumentException if {@code maxPending} is less than one
+     */
+    public void setMaxPending(int maxPending) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("maxPending must be at least 1");
+        }
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Retrieves the time between timed flushes.
+     * 
+     * @return the flush interval in milliseconds, or zero if the queue is 
+     *          only flushed on size or on request
+     */
+    public synchronized long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Sets the time between timed flushes. Timed flushes run on the event
+     * dispatch thread, which is where the records are edited, so a record is
+     * never written while it is being changed. A timed flush that fails is
+     * logged, and its writes stay queued.
+     * 
+     * @param flushInterval the flush interval in milliseconds, or zero to 
+     *          turn timed flushes off
+     * @throws IllegalArgumentException if {@code flushInterval} is negative
+     */
+    public synchronized void setFlushInterval(long flushInterval) {
+        log.enter(CLASS_NAME, "setFlushInterval", flushInterval);
+        
+        if (flushInterval < 0) {
+            throw new IllegalArgumentException("flushInterval cannot be "
+                    + "negative");
+        }
+        this.flushInterval = flushInterval;
+        
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+        if (flushInterval > 0) {
+            int delay = (int) Math.min(flushInterval, Integer.MAX_VALUE);
+            timer = new Timer(delay, e -> timedFlush());
+            timer.start();
+        }
+        
+        log.exit(CLASS_NAME, "setFlushInterval");
+    }
+
+    /**
+     * Writes the pending writes of all of the registered DAOs: the inserts
+     * and updates in registration order, then the deletes in the reverse
+     * order. The flush stops at the first DAO whose writes are not committed;
+     * that DAO's {@link AbstractDAO#getLastBatchResult() last batch result}
+     * tells why.
+     * 
+     * @return the number of writes committed
+     * @throws SQLException in the event a database error occurs
+     */
+    public synchronized int flush() throws SQLException {
+        log.enter(CLASS_NAME, "flush");
+        
+        int count = 0;
+        boolean ok = true;
+        for (int i = 0; ok && i < daos.size(); i++) {
+            BatchResult<?> result = daos.get(i).flushPending(true, false);
+            count += result.getSucceededCount();
+            ok = result.isCommitted();
+        }
+        for (int i = daos.size() - 1; ok && i >= 0; i--) {
+            BatchResult<?> result = daos.get(i).flushPending(false, true);
+            count += result.getSucceededCount();
+            ok = result.isCommitted();
+        }
+        
+        if (!ok) {
+            log.warning("A write-behind flush was rolled back; the remaining "
+                    + "writes stay queued.");
+        }
+        
+        log.exit(CLASS_NAME, "flush", count);
+        return count;
+    }
+
+    /**
+     * Stops the timed flushes and flushes the queue one last time. The
+     * registered DAOs keep batching their writes.
+     * 
+     * @throws SQLException in the event a database error occurs
+     */
+    @Override
+    public void close() throws SQLException {
+        log.enter(CLASS_NAME, "close");
+        
+        synchronized (this) {
+            if (timer != null) {
+                timer.stop();
+                timer = null;
+            }
+            flushInterval = 0;
+        }
+        flush();
+        
+        log.exit(CLASS_NAME, "close");
+    }
+
+    /**
+     * Called by a registered DAO after it has queued a write, to flush the
+     * queue once it is full.
+     */
+    void pendingChanged() throws SQLException {
+        if (getPendingCount() >= maxPending) {
+            log.debug("The write-behind queue is full; flushing.");
+            flush();
+        }
+    }
+
+    private void timedFlush() {
+        try {
+            if (getPendingCount() > 0) {
+                flush();
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.error(ex, "Timed write-behind flush failed.");
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   CacheStats.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 2:58:44 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.cache;
+
+/**
+ * A {@code CacheStats} object is a point-in-time snapshot of the size and
+ * counters of an {@link EntityCache}, as returned by 
+ * {@link EntityCache#getStats()}.
+ * <p>
+ * A low {@link #getHitRatio() hit ratio} combined with a high number of
+ * {@link #getEvictionCount() evictions} means the cache is too small for the
+ * working set; a high number of {@link #getExpirationCount() expirations} 
+ * means the time to live is too short.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class CacheStats {
+
+    private final int size;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final long invalidationCount;
+
+    CacheStats(int size, long hitCount, long missCount, long evictionCount,
+            long expirationCount, long invalidationCount) {
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.invalidationCount = invalidationCount;
+    }
+
+    /**
+     * Retrieves the number of entities currently cached.
+     *
+     * @return the cache size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of lookups served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Retrieves the number of lookups that had to go to the database.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Retrieves the fraction of lookups served from the cache.
+     *
+     * @return the hit ratio, from 0.0 to 1.0
+     */
+    public double getHitRatio() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0.0 : hitCount / (double) lookups;
+    }
+
+    /**
+     * Retrieves the number of entities removed to keep the cache within its
+     * maximum size.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Retrieves the number of entities removed because they outlived the
+     * time to live.
+     *
+     * @return the expiration count
+     */
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * Retrieves the number of entities removed because they were saved or
+     * deleted.
+     *
+     * @return the invalidation count
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats[ size=" + size + ", hits=" + hitCount
+                + ", misses=" + missCount + ", evictions=" + evictionCount
+                + ", expirations=" + expirationCount + ", invalidations="
+                + invalidationCount
+                + String.format(", hitRatio=%.3f ]", getHitRatio());
+    }
+
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   EntityCache.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 2:41:18 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@code EntityCache} holds entities that have been read from the database,
+ * keyed by their type and primary key, so that looking the same record up 
+ * again does not need a round trip to the server.
+ * <p>
+ * A single cache is shared by all of the data access objects, so an entity
+ * read through one {@code DAOFactory.getDAO} call is found by every other one.
+ * Entities are evicted when they have been in the cache longer than the 
+ * {@link #getTimeToLive() time to live}, or, once the cache holds
+ * {@link #getMaxSize() maxSize} entities, in least recently used order. The
+ * data access objects {@link #invalidate(java.lang.Class, java.lang.Long) 
+ * invalidate} an entity whenever it is saved or deleted.</p>
+ * <p>
+ * The size and time to live may be overridden with the 
+ * {@code abams.cache.maxSize} and {@code abams.cache.ttl} system properties.
+ * A maximum size of zero turns the cache off.</p>
+ *
+ * @see CacheStats
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class EntityCache {
+
+    /** Property key for overriding the maximum number of cached entities. */
+    public static final String MAX_SIZE_KEY = "abams.cache.maxSize";
+    /** Property key for overriding the time to live, in milliseconds. */
+    public static final String TTL_KEY = "abams.cache.ttl";
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * Creates a cache holding up to 10,000 entities for up to 5 minutes each.
+     */
+    public EntityCache() {
+        this(10_000, TimeUnit.MINUTES.toMillis(5));
+    }
+
+    /**
+     * Creates a cache with the given limits.
+     *
+     * @param maxSize the maximum number of entities to hold, or zero to cache
+     *          nothing
+     * @param timeToLive how long, in milliseconds, an entity may be served
+     *          from the cache after it was read
+     * @throws IllegalArgumentException if either limit is negative
+     */
+    public EntityCache(int maxSize, long timeToLive) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize cannot be negative");
+        }
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("timeToLive cannot be negative");
+        }
+
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Creates a cache with the default limits, overridden by any of the
+     * {@code abams.cache.*} keys found in the given properties.
+     *
+     * @param props the properties to read overrides from
+     * @return the new cache
+     * @throws IllegalArgumentException if a property cannot be parsed
+     */
+    public static EntityCache fromProperties(Properties props) {
+        EntityCache defaults = new EntityCache();
+        try {
+            int size = props.getProperty(MAX_SIZE_KEY) == null
+                    ? defaults.maxSize
+                    : Integer.parseInt(props.getProperty(MAX_SIZE_KEY));
+            long ttl = props.getProperty(TTL_KEY) == null
+                    ? defaults.timeToLive
+                    : Long.parseLong(props.getProperty(TTL_KEY));
+            return new EntityCache(size, ttl);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid entity cache "
+                    + "setting: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Retrieves the maximum number of entities this cache holds.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Retrieves how long, in milliseconds, an entity is served from this cache
+     * after it was read.
+     *
+     * @return the time to live in milliseconds
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Retrieves the cached entity of the given type with the given primary
+     * key.
+     *
+     * @param <T> the entity type
+     * @param type the class of the entity
+     * @param id the primary key of the entity
+     * @return the cached entity, or {@code null} if it is not cached or has
+     *          expired
+     */
+    public synchronized <T> T get(Class<T> type, Long id) {
+        if (maxSize == 0 || id == null) {
+            return null;
+        }
+
+        Key key = new Key(type, id);
+        Entry entry = entries.get(key);
+        if (entry != null && isExpired(entry, System.nanoTime())) {
+            entries.remove(key);
+            expirations++;
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return type.cast(entry.entity);
+    }
+
+    /**
+     * Stores an entity in the cache, replacing any entity already cached
+     * under the same type and primary key.
+     *
+     * @param <T> the entity type
+     * @param type the class of the entity
+     * @param id the primary key of the entity
+     * @param entity the entity to cache
+     */
+    public synchronized <T> void put(Class<T> type, Long id, T entity) {
+        if (maxSize == 0 || id == null || entity == null) {
+            return;
+        }
+
+        entries.put(new Key(type, id), new Entry(entity, System.nanoTime()));
+        evict();
+    }
+
+    /**
+     * Removes the entity of the given type with the given primary key from
+     * the cache, so that the next lookup reads it from the database.
+     *
+     * @param type the class of the entity
+     * @param id the primary key of the entity
+     */
+    public synchronized void invalidate(Class<?> type, Long id) {
+        if (id != null && entries.remove(new Key(type, id)) != null) {
+            invalidations++;
+        }
+    }
+
+    /**
+     * Removes every entity of the given type from the cache.
+     *
+     * @param type the class of the entities to remove
+     */
+    public synchronized void invalidateAll(Class<?> type) {
+        Iterator<Key> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().type == type) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Removes every entity from the cache.
+     */
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    /**
+     * Retrieves a snapshot of the current size and counters of this cache.
+     *
+     * @return the cache statistics
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(entries.size(), hits, misses, evictions,
+                expirations, invalidations);
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.loadedAt > TimeUnit.MILLISECONDS.toNanos(timeToLive);
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            if (isExpired(eldest, now)) {
+                it.remove();
+                expirations++;
+            } else if (entries.size() > maxSize) {
+                it.remove();
+                evictions++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * The type and primary key an entity is cached under.
+     */
+    private static final class Key {
+
+        private final Class<?> type;
+        private final Long id;
+
+        Key(Class<?> type, Long id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return type == other.type && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id);
+        }
+
+    }
+
+    /**
+     * A cached entity and when it was read.
+     */
+    private static final class Entry {
+
+        private final Object entity;
+        private final long loadedAt;
+
+        Entry(Object entity, long loadedAt) {
+            this.entity = entity;
+            this.loadedAt = loadedAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,964 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   CatalogImporter.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 7:20:52 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.io;
+
+import com.pekinsoft.abams.db.Products;
+import com.pekinsoft.abams.db.api.BatchResult;
+import com.pekinsoft.abams.db.api.ProductsDAO;
+import com.pekinsoft.abams.utils.Logger;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.jdesktop.application.Application;
+
+/**
+ * The {@code CatalogImporter} bulk loads a supplier's product catalog from a
+ * CSV file into the {@code Products} table. It is built for files of several
+ * gigabytes:
+ * <ul>
+ * <li>The file is memory-mapped, and split on line boundaries into segments
+ * that are parsed in parallel, one thread per core by default.</li>
+ * <li>Fields are parsed straight from the mapped bytes into a reusable
+ * buffer. The only objects created per row are the {@code Products} record
+ * and the values it holds.</li>
+ * <li>Parsed records are handed over in chunks through a bounded queue, so
+ * parsing never runs more than a few chunks ahead of the database, and
+ * written by a small number of writer threads with batched JDBC inserts,
+ * one transaction per chunk.</li>
+ * <li>Rows that cannot be parsed, or that the database refuses, are written
+ * to a reject file along with the reason, and the import carries on.</li>
+ * <li>Progress is saved to a checkpoint file as chunks are committed. If the
+ * import is interrupted, importing the same, unchanged file again resumes
+ * where it left off. Rows committed just before the interruption may be
+ * imported a second time.</li>
+ * <li>Throughput is reported in rows per second to an optional listener and
+ * to the log, at a fixed interval.</li>
+ * </ul>
+ * <p>
+ * The first line of the file must be a header naming the columns. The
+ * {@code ProductName} and {@code UnitPrice} columns are required;
+ * {@code ProductID}, {@code Description} and {@code Dimensions} are optional,
+ * and any other columns are ignored. Column names are not case-sensitive.
+ * Rows without a {@code ProductID} are given a generated key. Fields may be
+ * quoted, with embedded commas and doubled quotes, but may not span lines.
+ * The file must be encoded in UTF-8.</p>
+ * <pre>
+ * CatalogImporter importer = new CatalogImporter(app);
+ * importer.setProgressListener(p -&gt; statusBar.setText(p.toString()));
+ * ImportProgress result = importer.importFile(Paths.get("catalog.csv"));
+ * </pre>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class CatalogImporter {
+
+    private static final String CLASS_NAME =
+            CatalogImporter.class.getSimpleName();
+
+    /** The largest segment of the file mapped and parsed as one task. */
+    private static final long MAX_SEGMENT = 64L * 1024 * 1024;
+    /** The smallest segment worth giving a task of its own. */
+    private static final long MIN_SEGMENT = 1024L * 1024;
+
+    private static final String[] COLUMNS = {
+        "ProductID", "ProductName", "Description", "UnitPrice", "Dimensions"
+    };
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int PRICE = 3;
+    private static final int DIMENSIONS = 4;
+
+    private final Application app;
+    private final Logger log;
+    private int threads;
+    private int writerThreads;
+    private int batchSize;
+    private long reportInterval;
+    private Consumer<ImportProgress> progressListener;
+    private Path checkpointFile;
+    private Path rejectFile;
+
+    public CatalogImporter(Application app) {
+        this.app = app;
+        this.log = Logger.getLogger(CLASS_NAME, app);
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.writerThreads = 2;
+        this.batchSize = 1000;
+        this.reportInterval = 2000;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads that parse the file. The default is the
+     * number of processors.
+     *
+     * @param threads the number of parsing threads
+     * @throws IllegalArgumentException if {@code threads} is less than one
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.threads = threads;
+    }
+
+    public int getWriterThreads() {
+        return writerThreads;
+    }
+
+    /**
+     * Sets the number of threads that write records to the database, each
+     * on a connection of its own. The default is 2.
+     *
+     * @param writerThreads the number of writing threads
+     * @throws IllegalArgumentException if {@code writerThreads} is less than
+     *          one
+     */
+    public void setWriterThreads(int writerThreads) {
+        if (writerThreads < 1) {
+            throw new IllegalArgumentException("writerThreads must be at "
+                    + "least 1");
+        }
+        this.writerThreads = writerThreads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of records written in each JDBC batch and transaction.
+     * The default is 1000.
+     *
+     * @param batchSize the number of records per batch
+     * @throws IllegalArgumentException if {@code batchSize} is less than one
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public long getReportInterval() {
+        return reportInterval;
+    }
+
+    /**
+     * Sets how often, in milliseconds, progress is reported and the
+     * checkpoint is saved. The default is 2000.
+     *
+     * @param reportInterval the reporting interval
+     * @throws IllegalArgumentException if {@code reportInterval} is less
+     *          than one
+     */
+    public void setReportInterval(long reportInterval) {
+        if (reportInterval < 1) {
+            throw new IllegalArgumentException("reportInterval must be at "
+                    + "least 1");
+        }
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Sets the listener that receives the progress of an import at every
+     * reporting interval, and once more when it finishes. The listener is
+     * called on a background thread.
+     *
+     * @param progressListener the listener, or {@code null} for none
+     */
+    public void setProgressListener(Consumer<ImportProgress> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Sets the file the import's checkpoint is kept in. By default, it is
+     * the imported file's name followed by {@code .checkpoint}.
+     *
+     * @param checkpointFile the checkpoint file, or {@code null} for the
+     *          default
+     */
+    public void setCheckpointFile(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Sets the file rejected rows are written to. By default, it is the
+     * imported file's name followed by {@code .rejects.csv}. Each line of
+     * the reject file holds the byte offset of the rejected row in the
+     * imported file, the reason it was rejected, and the row itself.
+     *
+     * @param rejectFile the reject file, or {@code null} for the default
+     */
+    public void setRejectFile(Path rejectFile) {
+        this.rejectFile = rejectFile;
+    }
+
+    /**
+     * Imports the given catalog file, resuming an earlier, interrupted import
+     * of it if its checkpoint is found. This method blocks until the import
+     * is finished, and should therefore not be called on the event dispatch
+     * thread.
+     * <p>
+     * If the import fails, the checkpoint is left in place so that it may be
+     * resumed. Once it succeeds, the checkpoint is removed.</p>
+     *
+     * @param csv the catalog file
+     * @return the final progress of the import
+     * @throws IOException if the file cannot be read, has no usable header,
+     *          or the checkpoint or reject file cannot be written
+     * @throws SQLException if the database fails other than by refusing
+     *          individual rows
+     */
+    public ImportProgress importFile(Path csv) throws IOException,
+            SQLException {
+        log.enter(CLASS_NAME, "importFile", csv);
+
+        ImportProgress result;
+        try (FileChannel channel = FileChannel.open(csv,
+                StandardOpenOption.READ)) {
+            result = new Run(csv, channel).execute();
+        }
+
+        log.exit(CLASS_NAME, "importFile", result);
+        return result;
+    }
+
+    /**
+     * Finds the start of the first line that begins at or after the given
+     * offset.
+     */
+    private static long nextLineStart(FileChannel channel, long offset,
+            long size) throws IOException {
+        if (offset <= 0) {
+            return 0;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long pos = offset - 1;
+        while (pos < size) {
+            buf.clear();
+            int n = channel.read(buf, pos);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * The state of one import of one file.
+     */
+    private final class Run {
+
+        private final Path csv;
+        private final FileChannel channel;
+        private final int[] fieldIndex = new int[COLUMNS.length];
+        private int fieldCount;
+        private final ImportCheckpoint checkpoint;
+        private final BlockingQueue<Chunk> queue;
+        private final OutputStream rejects;
+        private final LongAdder read = new LongAdder();
+        private final LongAdder imported = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final AtomicReference<Throwable> failure =
+                new AtomicReference<>();
+        private final long started;
+        private volatile boolean parsingDone;
+
+        Run(Path csv, FileChannel channel) throws IOException {
+            this.csv = csv;
+            this.channel = channel;
+            this.queue = new ArrayBlockingQueue<>(writerThreads * 2);
+            this.started = System.currentTimeMillis();
+
+            long size = channel.size();
+            long headerEnd = nextLineStart(channel, 1, size);
+            readHeader(headerEnd);
+
+            Path cpFile = checkpointFile != null ? checkpointFile
+                    : csv.resolveSibling(csv.getFileName() + ".checkpoint");
+            long modified = Files.getLastModifiedTime(csv).toMillis();
+            ImportCheckpoint resumed = ImportCheckpoint.load(cpFile, csv,
+                    size, modified);
+            if (resumed != null) {
+                log.info("Resuming the import of {}: {} of {} bytes already "
+                        + "committed.", csv, resumed.getBytesCommitted(),
+                        resumed.getBytesTotal());
+                checkpoint = resumed;
+            } else {
+                checkpoint = plan(cpFile, headerEnd, size, modified);
+            }
+
+            Path rejectPath = rejectFile != null ? rejectFile
+                    : csv.resolveSibling(csv.getFileName() + ".rejects.csv");
+            if (resumed != null) {
+                rejects = new BufferedOutputStream(Files.newOutputStream(
+                        rejectPath, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND));
+            } else {
+                rejects = new BufferedOutputStream(Files.newOutputStream(
+                        rejectPath));
+                rejects.write("Offset,Reason,Row\n".getBytes(
+                        StandardCharsets.UTF_8));
+            }
+        }
+
+        /**
+         * Maps the header's column names to the fields of a product.
+         */
+        private void readHeader(long headerEnd) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate((int) headerEnd);
+            while (header.hasRemaining()
+                    && channel.read(header, header.position()) > 0) {
+                // Keep reading until the whole header is in.
+            }
+
+            int start = 0;
+            int end = header.position();
+            if (end >= 3 && header.get(0) == (byte) 0xEF
+                    && header.get(1) == (byte) 0xBB
+                    && header.get(2) == (byte) 0xBF) {
+                start = 3;
+            }
+            while (end > start && (header.get(end - 1) == '\n'
+                    || header.get(end - 1) == '\r')) {
+                end--;
+            }
+
+            LineParser line = new LineParser();
+            if (end <= start || !line.parse(header, start, end)) {
+                throw new IOException(csv + " does not begin with a valid "
+                        + "header line.");
+            }
+
+            fieldCount = line.count;
+            Arrays.fill(fieldIndex, -1);
+            for (int f = 0; f < line.count; f++) {
+                String name = line.text(f).trim();
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    if (COLUMNS[c].equalsIgnoreCase(name)) {
+                        fieldIndex[c] = f;
+                    }
+                }
+            }
+
+            if (fieldIndex[NAME] < 0 || fieldIndex[PRICE] < 0) {
+                throw new IOException(csv + " is missing the required "
+                        + COLUMNS[NAME] + " or " + COLUMNS[PRICE]
+                        + " column.");
+            }
+        }
+
+        /**
+         * Splits the rows of the file into segments that start on line
+         * boundaries.
+         */
+        private ImportCheckpoint plan(Path cpFile, long headerEnd, long size,
+                long modified) throws IOException {
+            long body = size - headerEnd;
+            int count = (int) Math.max((body + MAX_SEGMENT - 1) / MAX_SEGMENT,
+                    Math.min(threads, (body + MIN_SEGMENT - 1) / MIN_SEGMENT));
+            count = Math.max(count, 1);
+
+            List<Long> bounds = new ArrayList<>();
+            bounds.add(headerEnd);
+            for (int i = 1; i < count; i++) {
+                long bound = nextLineStart(channel,
+                        headerEnd + body * i / count, size);
+                if (bound > bounds.get(bounds.size() - 1)) {
+                    bounds.add(bound);
+                }
+            }
+            if (size > bounds.get(bounds.size() - 1) || bounds.size() == 1) {
+                bounds.add(size);
+            }
+
+            int segments = bounds.size() - 1;
+            long[] starts = new long[segments];
+            long[] ends = new long[segments];
+            for (int i = 0; i < segments; i++) {
+                starts[i] = bounds.get(i);
+                ends[i] = bounds.get(i + 1);
+            }
+
+            log.debug("Split {} bytes of rows into {} segments.", body,
+                    segments);
+            return new ImportCheckpoint(cpFile, csv, size, modified, starts,
+                    ends, starts.clone());
+        }
+
+        ImportProgress execute() throws IOException, SQLException {
+            ExecutorService parsers = Executors.newFixedThreadPool(threads,
+                    daemonThreads("AbAMS-import-parser-"));
+            ScheduledExecutorService reporter =
+                    Executors.newSingleThreadScheduledExecutor(
+                            daemonThreads("AbAMS-import-reporter-"));
+            List<Thread> writers = new ArrayList<>();
+            try {
+                reporter.scheduleAtFixedRate(() -> report(false),
+                        reportInterval, reportInterval, TimeUnit.MILLISECONDS);
+
+                ThreadFactory writerThreadFactory =
+                        daemonThreads("AbAMS-import-writer-");
+                for (int i = 0; i < writerThreads; i++) {
+                    Thread writer = writerThreadFactory.newThread(this::write);
+                    writers.add(writer);
+                    writer.start();
+                }
+
+                List<Future<Void>> parsed = new ArrayList<>();
+                for (int i = 0; i < checkpoint.getSegmentCount(); i++) {
+                    int segment = i;
+                    parsed.add(parsers.submit(() -> {
+                        parse(segment);
+                        return null;
+                    }));
+                }
+                for (Future<Void> future : parsed) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException ex) {
+                        fail(ex.getCause());
+                    }
+                }
+
+                parsingDone = true;
+                for (Thread writer : writers) {
+                    writer.join();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fail(ex);
+            } finally {
+                parsers.shutdownNow();
+                reporter.shutdownNow();
+                synchronized (rejects) {
+                    rejects.close();
+                }
+            }
+
+            Throwable thrown = failure.get();
+            if (thrown == null) {
+                checkpoint.delete();
+            } else {
+                checkpoint.save();
+            }
+            ImportProgress result = report(thrown == null);
+
+            if (thrown instanceof SQLException) {
+                throw (SQLException) thrown;
+            } else if (thrown instanceof InterruptedException) {
+                throw new InterruptedIOException("The import of " + csv
+                        + " was interrupted.");
+            } else if (thrown instanceof IOException) {
+                throw (IOException) thrown;
+            } else if (thrown instanceof RuntimeException) {
+                throw (RuntimeException) thrown;
+            } else if (thrown != null) {
+                throw new IOException("The import of " + csv + " failed.",
+                        thrown);
+            }
+
+            return result;
+        }
+
+        /**
+         * Records the first failure of the import, which stops every parser
+         * and writer.
+         */
+        private void fail(Throwable thrown) {
+            if (failure.compareAndSet(null, thrown)) {
+                log.error(thrown instanceof Exception ? (Exception) thrown
+                        : new Exception(thrown), "Importing " + csv + ".");
+            }
+        }
+
+        /**
+         * Parses one segment of the file into chunks of records and queues
+         * them for the writers. The final chunk of the segment is queued
+         * even if it is empty, so that the checkpoint learns the segment is
+         * complete.
+         */
+        private void parse(int segment) throws IOException,
+                InterruptedException {
+            long from = checkpoint.getCommitted(segment);
+            long end = checkpoint.getEnd(segment);
+            if (from >= end) {
+                return;
+            }
+
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, from,
+                    end - from);
+            int length = (int) (end - from);
+            LineParser line = new LineParser();
+            long seq = 0;
+            Chunk chunk = new Chunk(segment, seq++, batchSize);
+
+            int pos = 0;
+            while (pos < length && failure.get() == null) {
+                int lineEnd = pos;
+                while (lineEnd < length && buf.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int next = lineEnd < length ? lineEnd + 1 : lineEnd;
+                if (lineEnd > pos && buf.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+
+                if (lineEnd > pos) {
+                    read.increment();
+                    try {
+                        if (!line.parse(buf, pos, lineEnd)) {
+                            throw new RejectedRow("Unbalanced quotes");
+                        }
+                        Products product = toProduct(line);
+                        chunk.add(product, from + pos, lineEnd - pos);
+                    } catch (RejectedRow ex) {
+                        byte[] row = new byte[lineEnd - pos];
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = buf.get(pos + i);
+                        }
+                        reject(from + pos, ex.getMessage(), row);
+                    }
+                }
+                pos = next;
+
+                if (chunk.size() >= batchSize) {
+                    chunk.end = from + pos;
+                    put(chunk);
+                    chunk = new Chunk(segment, seq++, batchSize);
+                }
+            }
+
+            if (failure.get() == null) {
+                chunk.end = from + pos;
+                put(chunk);
+            }
+        }
+
+        private void put(Chunk chunk) throws InterruptedException {
+            while (failure.get() == null
+                    && !queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                // The writers are behind; wait for room in the queue.
+            }
+        }
+
+        private Products toProduct(LineParser line) throws RejectedRow {
+            if (line.count != fieldCount) {
+                throw new RejectedRow("Expected " + fieldCount
+                        + " fields, found " + line.count);
+            }
+
+            Products product = new Products(line.longValue(fieldIndex[ID]));
+            product.setProductName(line.text(fieldIndex[NAME]));
+            product.setDescription(line.text(fieldIndex[DESCRIPTION]));
+            product.setUnitPrice(line.decimal(fieldIndex[PRICE]));
+            product.setDimensions(line.text(fieldIndex[DIMENSIONS]));
+
+            if (product.getProductName() == null) {
+                throw new RejectedRow("Missing " + COLUMNS[NAME]);
+            }
+            if (product.getUnitPrice() == null) {
+                throw new RejectedRow("Missing " + COLUMNS[PRICE]);
+            }
+            return product;
+        }
+
+        /**
+         * Takes chunks from the queue and writes them to the database until
+         * parsing is done and the queue is empty, or the import fails.
+         */
+        private void write() {
+            ProductsDAO dao = new ProductsDAO(false, app);
+            dao.setBatchSize(batchSize);
+
+            try {
+                while (failure.get() == null) {
+                    Chunk chunk = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (chunk == null) {
+                        if (parsingDone && queue.isEmpty()) {
+                            return;
+                        }
+                        continue;
+                    }
+
+                    if (chunk.size() > 0) {
+                        write(dao, chunk);
+                    }
+                    checkpoint.completed(chunk.segment, chunk.seq, chunk.end);
+                }
+            } catch (SQLException | IOException | RuntimeException ex) {
+                fail(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fail(ex);
+            } finally {
+                dao.close();
+            }
+        }
+
+        /**
+         * Writes one chunk in a single transaction. If the database refuses
+         * any of its rows, the transaction is rolled back and the rows are
+         * written one at a time instead, so that only the refused rows are
+         * rejected.
+         */
+        private void write(ProductsDAO dao, Chunk chunk) throws SQLException,
+                IOException {
+            int count = dao.save(chunk.records);
+            if (dao.getLastBatchResult().isCommitted()) {
+                imported.add(count);
+                return;
+            }
+
+            log.debug("A row of a chunk of segment {} was refused; writing "
+                    + "the chunk a row at a time.", chunk.segment);
+            for (int i = 0; i < chunk.size(); i++) {
+                Products product = chunk.records.get(i);
+                product.setProductID(chunk.ids.get(i));
+                if (dao.insert(product)) {
+                    imported.increment();
+                } else {
+                    List<BatchResult.RowOutcome<Products>> failed =
+                            dao.getLastBatchResult().getUnsuccessful();
+                    SQLException error = failed.isEmpty() ? null
+                            : failed.get(0).getError();
+                    reject(chunk.offsets[i], error == null
+                            ? "Refused by the database" : error.getMessage(),
+                            readRow(chunk.offsets[i], chunk.lengths[i]));
+                }
+            }
+        }
+
+        private byte[] readRow(long offset, int length) throws IOException {
+            ByteBuffer row = ByteBuffer.allocate(length);
+            while (row.hasRemaining()
+                    && channel.read(row, offset + row.position()) > 0) {
+                // Keep reading until the whole row is in.
+            }
+            return row.array();
+        }
+
+        private void reject(long offset, String reason, byte[] row)
+                throws IOException {
+            rejected.increment();
+            String prefix = offset + ",\"" + (reason == null ? ""
+                    : reason.replace("\"", "\"\"").replace('\n', ' ')) + "\",";
+            synchronized (rejects) {
+                rejects.write(prefix.getBytes(StandardCharsets.UTF_8));
+                rejects.write(row);
+                rejects.write('\n');
+            }
+        }
+
+        /**
+         * Saves the checkpoint and reports the current progress to the
+         * listener and the log.
+         */
+        private ImportProgress report(boolean finished) {
+            ImportProgress progress = new ImportProgress(read.sum(),
+                    imported.sum(), rejected.sum(),
+                    checkpoint.getBytesCommitted(), checkpoint.getBytesTotal(),
+                    System.currentTimeMillis() - started, finished);
+
+            try {
+                if (!finished && failure.get() == null) {
+                    checkpoint.save();
+                }
+                synchronized (rejects) {
+                    rejects.flush();
+                }
+            } catch (IOException ex) {
+                log.error(ex, "Saving the checkpoint of the import of " + csv
+                        + ".");
+            }
+
+            log.info("Import of {}: {}", csv.getFileName(), progress);
+            if (progressListener != null) {
+                try {
+                    progressListener.accept(progress);
+                } catch (RuntimeException ex) {
+                    log.error(ex, "Reporting the progress of the import of "
+                            + csv + ".");
+                }
+            }
+
+            return progress;
+        }
+
+    }
+
+    /**
+     * A run of parsed records from one segment, with where each came from in
+     * the file.
+     */
+    private static final class Chunk {
+
+        private final int segment;
+        private final long seq;
+        private final ArrayList<Products> records;
+        private final List<Long> ids;
+        private final long[] offsets;
+        private final int[] lengths;
+        private long end;
+
+        Chunk(int segment, long seq, int capacity) {
+            this.segment = segment;
+            this.seq = seq;
+            this.records = new ArrayList<>(capacity);
+            this.ids = new ArrayList<>(capacity);
+            this.offsets = new long[capacity];
+            this.lengths = new int[capacity];
+        }
+
+        void add(Products product, long offset, int length) {
+            offsets[records.size()] = offset;
+            lengths[records.size()] = length;
+            ids.add(product.getProductID());
+            records.add(product);
+        }
+
+        int size() {
+            return records.size();
+        }
+
+    }
+
+    /**
+     * Splits one CSV line into fields. The unquoted bytes of every field are
+     * copied into a single buffer that is reused from line to line, and
+     * values are converted from that buffer directly.
+     */
+    private static final class LineParser {
+
+        private byte[] bytes = new byte[1024];
+        private char[] chars = new char[64];
+        private int[] starts = new int[16];
+        private int[] lengths = new int[16];
+        private int count;
+
+        /**
+         * Parses the line held in {@code buf} from {@code from} up to, but
+         * not including, {@code to}.
+         *
+         * @return {@code false} if a quoted field is not closed properly
+         */
+        boolean parse(ByteBuffer buf, int from, int to) {
+            count = 0;
+            int used = 0;
+            int i = from;
+            while (true) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    lengths = Arrays.copyOf(lengths, count * 2);
+                }
+                int start = used;
+
+                if (i < to && buf.get(i) == '"') {
+                    i++;
+                    boolean closed = false;
+                    while (i < to) {
+                        byte b = buf.get(i++);
+                        if (b != '"') {
+                            used = append(used, b);
+                        } else if (i < to && buf.get(i) == '"') {
+                            used = append(used, b);
+                            i++;
+                        } else {
+                            closed = true;
+                            break;
+                        }
+                    }
+                    if (!closed || (i < to && buf.get(i) != ',')) {
+                        return false;
+                    }
+                } else {
+                    while (i < to && buf.get(i) != ',') {
+                        used = append(used, buf.get(i++));
+                    }
+                }
+
+                starts[count] = start;
+                lengths[count] = used - start;
+                count++;
+
+                if (i >= to) {
+                    return true;
+                }
+                i++;    // Skip the comma.
+            }
+        }
+
+        private int append(int used, byte b) {
+            if (used == bytes.length) {
+                bytes = Arrays.copyOf(bytes, used * 2);
+            }
+            bytes[used] = b;
+            return used + 1;
+        }
+
+        /**
+         * Retrieves a field as text.
+         *
+         * @return the text, or {@code null} if the field is empty or absent
+         */
+        String text(int field) {
+            if (field < 0 || field >= count || lengths[field] == 0) {
+                return null;
+            }
+            return new String(bytes, starts[field], lengths[field],
+                    StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Copies a field's bytes, less surrounding blanks, into the character
+         * buffer.
+         *
+         * @return the number of characters copied
+         */
+        private int trimmed(int field) {
+            if (field < 0 || field >= count) {
+                return 0;
+            }
+            int start = starts[field];
+            int end = start + lengths[field];
+            while (start < end && bytes[start] <= ' ') {
+                start++;
+            }
+            while (end > start && bytes[end - 1] <= ' ') {
+                end--;
+            }
+            if (end - start > chars.length) {
+                chars = new char[end - start];
+            }
+            for (int i = start; i < end; i++) {
+                chars[i - start] = (char) (bytes[i] & 0xFF);
+            }
+            return end - start;
+        }
+
+        Long longValue(int field) throws RejectedRow {
+            int n = trimmed(field);
+            if (n == 0) {
+                return null;
+            }
+
+            long value = 0;
+            for (int i = 0; i < n; i++) {
+                char c = chars[i];
+                if (c < '0' || c > '9' || value > (Long.MAX_VALUE - 9) / 10) {
+                    throw new RejectedRow("Invalid " + COLUMNS[ID]);
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        BigDecimal decimal(int field) throws RejectedRow {
+            int n = trimmed(field);
+            if (n == 0) {
+                return null;
+            }
+
+            try {
+                return new BigDecimal(chars, 0, n);
+            } catch (NumberFormatException ex) {
+                throw new RejectedRow("Invalid " + COLUMNS[PRICE]);
+            }
+        }
+
+    }
+
+    /**
+     * Thrown when a row cannot be turned into a product. The message is the
+     * reason written to the reject file.
+     */
+    private static final class RejectedRow extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        RejectedRow(String reason) {
+            super(reason, null, false, false);
+        }
+
+    }
+
+}
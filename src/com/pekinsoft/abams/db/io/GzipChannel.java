@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   GzipChannel.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 8:02:19 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A {@code GzipChannel} compresses everything written to it into the gzip
+ * format, and writes the result to another channel. Unlike a
+ * {@code GZIPOutputStream}, it compresses straight from the caller's buffers
+ * into a direct buffer of its own, so no bytes are copied onto the heap.
+ * <p>
+ * Closing the channel finishes the gzip stream and closes the channel it
+ * writes to.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+final class GzipChannel implements WritableByteChannel {
+
+    private static final byte[] HEADER = {
+        0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private final WritableByteChannel out;
+    private final Deflater deflater;
+    private final CRC32 crc;
+    private final ByteBuffer buf;
+    private long size;
+    private boolean open;
+
+    GzipChannel(WritableByteChannel out, int bufferSize) throws IOException {
+        this.out = out;
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        this.crc = new CRC32();
+        this.buf = ByteBuffer.allocateDirect(bufferSize);
+        this.open = true;
+
+        buf.put(HEADER);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+
+        int count = src.remaining();
+        crc.update(src.duplicate());
+        deflater.setInput(src);
+        while (!deflater.needsInput()) {
+            if (!buf.hasRemaining()) {
+                drain();
+            }
+            deflater.deflate(buf);
+        }
+        size += count;
+
+        return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+
+        try {
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (!buf.hasRemaining()) {
+                    drain();
+                }
+                deflater.deflate(buf);
+            }
+
+            if (buf.remaining() < 8) {
+                drain();
+            }
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt((int) crc.getValue());
+            buf.putInt((int) size);
+            drain();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+        buf.clear();
+    }
+
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   ImportCheckpoint.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 7:04:15 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Pending ranges are held in a list, not
+ *                                     a generic array.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * An {@code ImportCheckpoint} records how far each segment of a file being
+ * imported has been committed to the database, so that an interrupted import
+ * can be resumed where it left off.
+ * <p>
+ * A segment's chunks may be committed out of order by the writer threads. The
+ * committed offset of a segment only advances past a chunk once every chunk
+ * before it has been committed as well, so everything before the committed
+ * offset is known to be in the database. Rows after it may or may not be, and
+ * are imported again on resume.</p>
+ * <p>
+ * The checkpoint is stored as a properties file, written to a temporary file
+ * and moved into place so that a crash never leaves half of one behind.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+final class ImportCheckpoint {
+
+    private final Path file;
+    private final String source;
+    private final long fileSize;
+    private final long lastModified;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] committed;
+    private final long[] nextSeq;
+    private final List<TreeMap<Long, Long>> pending;
+    private boolean dirty;
+
+    @SuppressWarnings("unchecked")
+    ImportCheckpoint(Path file, Path source, long fileSize, long lastModified,
+            long[] starts, long[] ends, long[] committed) {
+        this.file = file;
+        this.source = source.toAbsolutePath().toString();
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.starts = starts;
+        this.ends = ends;
+        this.committed = committed;
+        this.nextSeq = new long[starts.length];
+        this.pending = new ArrayList<>(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            pending.add(new TreeMap<>());
+        }
+    }
+
+    /**
+     * Loads the checkpoint stored for the given source file, if there is one
+     * and the file has not changed since it was written.
+     *
+     * @param file the checkpoint file
+     * @param source the file being imported
+     * @param fileSize the current size of the source file
+     * @param lastModified the current modification time of the source file
+     * @return the checkpoint, or {@code null} if the import must start over
+     * @throws IOException if the checkpoint file cannot be read
+     */
+    static ImportCheckpoint load(Path file, Path source, long fileSize,
+            long lastModified) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        }
+
+        if (!source.toAbsolutePath().toString().equals(
+                props.getProperty("source"))
+                || fileSize != Long.parseLong(props.getProperty("size", "-1"))
+                || lastModified != Long.parseLong(
+                        props.getProperty("modified", "-1"))) {
+            return null;
+        }
+
+        int count = Integer.parseInt(props.getProperty("segments", "0"));
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        long[] committed = new long[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = Long.parseLong(props.getProperty(i + ".start"));
+            ends[i] = Long.parseLong(props.getProperty(i + ".end"));
+            committed[i] = Long.parseLong(props.getProperty(i + ".committed"));
+        }
+
+        return new ImportCheckpoint(file, source, fileSize, lastModified,
+                starts, ends, committed);
+    }
+
+    int getSegmentCount() {
+        return starts.length;
+    }
+
+    long getEnd(int segment) {
+        return ends[segment];
+    }
+
+    synchronized long getCommitted(int segment) {
+        return committed[segment];
+    }
+
+    /**
+     * Records that a chunk of a segment has been written, advancing the
+     * segment's committed offset over every chunk that is now contiguous.
+     *
+     * @param segment the segment of the chunk
+     * @param seq the chunk's sequence number within its segment, from zero
+     * @param end the offset just past the chunk's last line
+     */
+    synchronized void completed(int segment, long seq, long end) {
+        pending.get(segment).put(seq, end);
+        Long next;
+        while ((next = pending.get(segment).remove(nextSeq[segment])) != null) {
+            committed[segment] = next;
+            nextSeq[segment]++;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Retrieves the number of bytes of the file that have been committed.
+     *
+     * @return the committed byte count, excluding the header line
+     */
+    synchronized long getBytesCommitted() {
+        long total = 0;
+        for (int i = 0; i < starts.length; i++) {
+            total += committed[i] - starts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Retrieves the number of bytes of the file that hold rows.
+     *
+     * @return the byte count, excluding the header line
+     */
+    long getBytesTotal() {
+        long total = 0;
+        for (int i = 0; i < starts.length; i++) {
+            total += ends[i] - starts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Writes the checkpoint, if it has changed since it was last written.
+     *
+     * @throws IOException if the checkpoint cannot be written
+     */
+    synchronized void save() throws IOException {
+        if (!dirty && Files.exists(file)) {
+            return;
+        }
+
+        Properties props = new Properties();
+        props.setProperty("source", source);
+        props.setProperty("size", String.valueOf(fileSize));
+        props.setProperty("modified", String.valueOf(lastModified));
+        props.setProperty("segments", String.valueOf(starts.length));
+        for (int i = 0; i < starts.length; i++) {
+            props.setProperty(i + ".start", String.valueOf(starts[i]));
+            props.setProperty(i + ".end", String.valueOf(ends[i]));
+            props.setProperty(i + ".committed", String.valueOf(committed[i]));
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            props.store(out, "AbAMS import checkpoint");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        dirty = false;
+    }
+
+    /**
+     * Removes the checkpoint once the import has completed.
+     *
+     * @throws IOException if the checkpoint cannot be removed
+     */
+    synchronized void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+}
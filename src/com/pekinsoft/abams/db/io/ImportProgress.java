@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   ImportProgress.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 7:11:40 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.io;
+
+/**
+ * An {@code ImportProgress} is a snapshot of the progress of a
+ * {@link CatalogImporter catalog import}. The counts cover the current run
+ * only; rows committed by an earlier, interrupted run of the same file are
+ * included in the committed bytes but not in the row counts.
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ImportProgress {
+
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final long bytesCommitted;
+    private final long bytesTotal;
+    private final long elapsedMillis;
+    private final boolean finished;
+
+    ImportProgress(long rowsRead, long rowsImported, long rowsRejected,
+            long bytesCommitted, long bytesTotal, long elapsedMillis,
+            boolean finished) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.bytesCommitted = bytesCommitted;
+        this.bytesTotal = bytesTotal;
+        this.elapsedMillis = elapsedMillis;
+        this.finished = finished;
+    }
+
+    /**
+     * Retrieves the number of rows parsed so far, whether or not they were
+     * accepted.
+     *
+     * @return the rows read
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Retrieves the number of rows written to the database so far.
+     *
+     * @return the rows imported
+     */
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    /**
+     * Retrieves the number of rows written to the reject file so far.
+     *
+     * @return the rows rejected
+     */
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    /**
+     * Retrieves the number of bytes of rows known to be committed, including
+     * those committed by earlier runs.
+     *
+     * @return the committed byte count
+     */
+    public long getBytesCommitted() {
+        return bytesCommitted;
+    }
+
+    /**
+     * Retrieves the number of bytes of rows in the file.
+     *
+     * @return the total byte count
+     */
+    public long getBytesTotal() {
+        return bytesTotal;
+    }
+
+    /**
+     * Retrieves the fraction of the file committed so far.
+     *
+     * @return a value from 0.0 to 1.0
+     */
+    public double getFractionDone() {
+        return bytesTotal == 0 ? 1.0 : (double) bytesCommitted / bytesTotal;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Retrieves the average number of rows imported per second so far.
+     *
+     * @return the import throughput
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : rowsImported * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Determines whether this is the final snapshot of a finished import.
+     *
+     * @return {@code true} if the import is finished
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImportProgress[ read=%d, imported=%d, "
+                + "rejected=%d, %.1f%%, %.0f rows/s%s ]", rowsRead,
+                rowsImported, rowsRejected, getFractionDone() * 100,
+                getRowsPerSecond(), finished ? ", finished" : "");
+    }
+
+}
@@ -0,0 +1,567 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   OrderExporter.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 8:15:37 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.io;
+
+import com.pekinsoft.abams.db.api.OrdersDAO;
+import com.pekinsoft.abams.db.pool.ConnectionPool;
+import com.pekinsoft.abams.utils.Logger;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import org.jdesktop.application.Application;
+
+/**
+ * The {@code OrderExporter} writes the {@code Orders} table, joined with
+ * {@code OrderDetails} and {@code Products}, to a file with one line per
+ * order detail, for use by accounting.
+ * <p>
+ * The export is streamed: rows are read through a single forward-only,
+ * read-only cursor and encoded straight into a reusable direct
+ * {@code ByteBuffer}, which is written to a {@code FileChannel} whenever it
+ * fills, optionally through gzip compression. No records are created and
+ * nothing is kept per row, so the memory used is the same however many rows
+ * are exported.</p>
+ * <p>
+ * Two formats are supported. {@link Format#CSV} writes a header line
+ * followed by comma-separated values, with text always quoted.
+ * {@link Format#JSON_LINES} writes one JSON object per line. In both, dates
+ * are written as {@code yyyy-MM-ddTHH:mm:ss} and SQL {@code NULL} as an empty
+ * field or {@code null}.</p>
+ * <p>
+ * The file is written under a temporary name and only moved into place once
+ * the export succeeds, so a failed nightly run never leaves a partial
+ * extract behind.</p>
+ * <pre>
+ * OrderExporter exporter = new OrderExporter(app);
+ * exporter.setFormat(OrderExporter.Format.JSON_LINES);
+ * exporter.setCompressed(true);
+ * exporter.export(Paths.get("orders.jsonl.gz"), yesterday, today);
+ * </pre>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class OrderExporter {
+
+    private static final String CLASS_NAME =
+            OrderExporter.class.getSimpleName();
+
+    /**
+     * The formats an export may be written in.
+     */
+    public enum Format {
+        /** Comma-separated values, with a header line. */
+        CSV,
+        /** One JSON object per line. */
+        JSON_LINES
+    }
+
+    private static final String SQL = "SELECT o.OrderID, o.OrderDate, "
+            + "o.PromiseDate, o.ShipDate, o.CustomerID, o.BillingAddressID, "
+            + "o.ShippingAddressID, d.DetailID, d.ProductID, p.ProductName, "
+            + "d.Qty, p.UnitPrice, d.LineTotal "
+            + "FROM Orders o "
+            + "JOIN OrderDetails d ON d.OrderID = o.OrderID "
+            + "LEFT JOIN Products p ON p.ProductID = d.ProductID";
+
+    /** The fields of each line, in the order they are selected. */
+    private static final String[] FIELDS = {
+        "orderID", "orderDate", "promiseDate", "shipDate", "customerID",
+        "billingAddressID", "shippingAddressID", "detailID", "productID",
+        "productName", "qty", "unitPrice", "lineTotal"
+    };
+
+    private enum Kind {
+        LONG, TIMESTAMP, TEXT, INTEGER, DECIMAL
+    }
+
+    private static final Kind[] KINDS = {
+        Kind.LONG, Kind.TIMESTAMP, Kind.TIMESTAMP, Kind.TIMESTAMP, Kind.LONG,
+        Kind.LONG, Kind.LONG, Kind.LONG, Kind.LONG, Kind.TEXT, Kind.INTEGER,
+        Kind.DECIMAL, Kind.DECIMAL
+    };
+
+    private final Application app;
+    private final Logger log;
+    private Format format;
+    private boolean compressed;
+    private int fetchSize;
+    private int bufferSize;
+
+    public OrderExporter(Application app) {
+        this.app = app;
+        this.log = Logger.getLogger(CLASS_NAME, app);
+        this.format = Format.CSV;
+        this.fetchSize = 1000;
+        this.bufferSize = 64 * 1024;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the format of the export. The default is {@link Format#CSV}.
+     *
+     * @param format the export format
+     * @throws IllegalArgumentException if {@code format} is {@code null}
+     */
+    public void setFormat(Format format) {
+        if (format == null) {
+            throw new IllegalArgumentException("format cannot be null");
+        }
+        this.format = format;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Sets whether the export is compressed with gzip. The default is
+     * {@code false}.
+     *
+     * @param compressed {@code true} to write a gzip file
+     */
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets the number of rows the JDBC driver fetches from the server at a
+     * time. The default is 1000.
+     *
+     * @param fetchSize the fetch size
+     * @throws IllegalArgumentException if {@code fetchSize} is less than one
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize must be at least 1");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Sets the size, in bytes, of the direct buffers rows are encoded into
+     * and compressed into. The default is 64 KB.
+     *
+     * @param bufferSize the buffer size
+     * @throws IllegalArgumentException if {@code bufferSize} is less than
+     *          1 KB
+     */
+    public void setBufferSize(int bufferSize) {
+        if (bufferSize < 1024) {
+            throw new IllegalArgumentException("bufferSize must be at least "
+                    + "1024");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Exports every order detail to the given file.
+     *
+     * @param target the file to write
+     * @return the number of rows exported
+     * @throws IOException if the file cannot be written
+     * @throws SQLException in the event a database error occurs
+     */
+    public long export(Path target) throws IOException, SQLException {
+        return export(target, null, null);
+    }
+
+    /**
+     * Exports the details of the orders placed in the given period to the
+     * given file, in order and detail ID order.
+     *
+     * @param target the file to write
+     * @param from the first order date to export, or {@code null} for no
+     *          lower bound
+     * @param until the order date to stop before, or {@code null} for no
+     *          upper bound
+     * @return the number of rows exported
+     * @throws IOException if the file cannot be written
+     * @throws SQLException in the event a database error occurs
+     */
+    public long export(Path target, Date from, Date until) throws IOException,
+            SQLException {
+        log.enter(CLASS_NAME, "export", new Object[]{target, from, until});
+
+        StringBuilder sql = new StringBuilder(SQL);
+        if (from != null || until != null) {
+            sql.append(" WHERE ");
+            if (from != null) {
+                sql.append("o.OrderDate >= ?");
+            }
+            if (until != null) {
+                sql.append(from != null ? " AND " : "")
+                        .append("o.OrderDate < ?");
+            }
+        }
+        sql.append(" ORDER BY o.OrderID, d.DetailID");
+        log.debug("Exporting: {}", sql);
+
+        long started = System.currentTimeMillis();
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        long rows = 0;
+        boolean done = false;
+        OrdersDAO orders = new OrdersDAO(false, app);
+        ConnectionPool pool = orders.getConnectionPool();
+        orders.close();
+        try (Connection conn = pool.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            // Some drivers only stream a cursor inside a transaction.
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(fetchSize);
+                int index = 1;
+                if (from != null) {
+                    ps.setTimestamp(index++, new Timestamp(from.getTime()));
+                }
+                if (until != null) {
+                    ps.setTimestamp(index, new Timestamp(until.getTime()));
+                }
+
+                try (ResultSet r = ps.executeQuery();
+                        RowEncoder out = new RowEncoder(open(part))) {
+                    rows = format == Format.CSV ? writeCsv(r, out)
+                            : writeJsonLines(r, out);
+                }
+                done = true;
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(autoCommit);
+            }
+        } finally {
+            if (done) {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(part);
+            }
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        log.info("Exported {} rows to {} in {} ms ({} rows/s).", rows, target,
+                elapsed, rows * 1000 / elapsed);
+
+        log.exit(CLASS_NAME, "export", rows);
+        return rows;
+    }
+
+    private WritableByteChannel open(Path part) throws IOException {
+        FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (!compressed) {
+            return channel;
+        }
+
+        try {
+            return new GzipChannel(channel, bufferSize);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private long writeCsv(ResultSet r, RowEncoder out) throws SQLException,
+            IOException {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (i > 0) {
+                out.put(',');
+            }
+            out.putAscii(FIELDS[i]);
+        }
+        out.put('\n');
+
+        long rows = 0;
+        while (r.next()) {
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (i > 0) {
+                    out.put(',');
+                }
+                writeValue(r, i, out, false);
+            }
+            out.put('\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private long writeJsonLines(ResultSet r, RowEncoder out)
+            throws SQLException, IOException {
+        long rows = 0;
+        while (r.next()) {
+            out.put('{');
+            for (int i = 0; i < FIELDS.length; i++) {
+                out.putAscii(i == 0 ? "\"" : ",\"");
+                out.putAscii(FIELDS[i]);
+                out.putAscii("\":");
+                writeValue(r, i, out, true);
+            }
+            out.putAscii("}\n");
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Encodes one column of the current row. {@code NULL} is written as
+     * nothing in CSV and as {@code null} in JSON.
+     */
+    private static void writeValue(ResultSet r, int i, RowEncoder out,
+            boolean json) throws SQLException, IOException {
+        int column = i + 1;
+        switch (KINDS[i]) {
+            case LONG: {
+                long value = r.getLong(column);
+                if (r.wasNull()) {
+                    out.putNull(json);
+                } else {
+                    out.putLong(value);
+                }
+                break;
+            }
+            case INTEGER: {
+                int value = r.getInt(column);
+                if (r.wasNull()) {
+                    out.putNull(json);
+                } else {
+                    out.putLong(value);
+                }
+                break;
+            }
+            case DECIMAL: {
+                BigDecimal value = r.getBigDecimal(column);
+                if (value == null) {
+                    out.putNull(json);
+                } else {
+                    out.putAscii(value.toPlainString());
+                }
+                break;
+            }
+            case TIMESTAMP: {
+                Timestamp value = r.getTimestamp(column);
+                if (value == null) {
+                    out.putNull(json);
+                } else {
+                    out.put('"');
+                    out.putDateTime(value.toLocalDateTime());
+                    out.put('"');
+                }
+                break;
+            }
+            default: {
+                String value = r.getString(column);
+                if (value == null) {
+                    out.putNull(json);
+                } else {
+                    out.putQuoted(value, json);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Encodes text straight into a direct buffer, which is written to a
+     * channel whenever it fills.
+     */
+    private final class RowEncoder implements AutoCloseable {
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer buf;
+
+        RowEncoder(WritableByteChannel channel) {
+            this.channel = channel;
+            this.buf = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        void put(char ascii) throws IOException {
+            if (!buf.hasRemaining()) {
+                flush();
+            }
+            buf.put((byte) ascii);
+        }
+
+        void putAscii(String text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                put(text.charAt(i));
+            }
+        }
+
+        void putNull(boolean json) throws IOException {
+            if (json) {
+                putAscii("null");
+            }
+        }
+
+        void putLong(long value) throws IOException {
+            if (buf.remaining() < 20) {
+                flush();
+            }
+            if (value < 0) {
+                buf.put((byte) '-');
+            } else {
+                value = -value;
+            }
+            // Work with the negative value, which also covers Long.MIN_VALUE.
+            long divisor = -1;
+            while (divisor > Long.MIN_VALUE / 10 && value <= divisor * 10) {
+                divisor *= 10;
+            }
+            while (divisor != 0) {
+                buf.put((byte) ('0' + value / divisor));
+                value %= divisor;
+                divisor /= 10;
+            }
+        }
+
+        void putDateTime(LocalDateTime value) throws IOException {
+            putPadded(value.getYear(), 4);
+            put('-');
+            putPadded(value.getMonthValue(), 2);
+            put('-');
+            putPadded(value.getDayOfMonth(), 2);
+            put('T');
+            putPadded(value.getHour(), 2);
+            put(':');
+            putPadded(value.getMinute(), 2);
+            put(':');
+            putPadded(value.getSecond(), 2);
+        }
+
+        private void putPadded(int value, int width) throws IOException {
+            for (int scale = (int) Math.pow(10, width - 1); scale > 1
+                    && value < scale; scale /= 10) {
+                put('0');
+            }
+            putLong(value);
+        }
+
+        /**
+         * Writes text as a quoted CSV field or JSON string, encoding it as
+         * UTF-8 and escaping it as it goes.
+         */
+        void putQuoted(String text, boolean json) throws IOException {
+            put('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    putAscii(json ? "\\\"" : "\"\"");
+                } else if (json && c == '\\') {
+                    putAscii("\\\\");
+                } else if (json && c < 0x20) {
+                    putAscii(c == '\n' ? "\\n" : c == '\r' ? "\\r"
+                            : c == '\t' ? "\\t" : String.format("\\u%04x",
+                                    (int) c));
+                } else if (c < 0x80) {
+                    put(c);
+                } else {
+                    int code = c;
+                    if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                            && Character.isLowSurrogate(text.charAt(i + 1))) {
+                        code = Character.toCodePoint(c, text.charAt(++i));
+                    } else if (Character.isSurrogate(c)) {
+                        code = '?';
+                    }
+                    putUtf8(code);
+                }
+            }
+            put('"');
+        }
+
+        private void putUtf8(int code) throws IOException {
+            if (buf.remaining() < 4) {
+                flush();
+            }
+            if (code < 0x80) {
+                buf.put((byte) code);
+            } else if (code < 0x800) {
+                buf.put((byte) (0xC0 | (code >> 6)));
+                buf.put((byte) (0x80 | (code & 0x3F)));
+            } else if (code < 0x10000) {
+                buf.put((byte) (0xE0 | (code >> 12)));
+                buf.put((byte) (0x80 | ((code >> 6) & 0x3F)));
+                buf.put((byte) (0x80 | (code & 0x3F)));
+            } else {
+                buf.put((byte) (0xF0 | (code >> 18)));
+                buf.put((byte) (0x80 | ((code >> 12) & 0x3F)));
+                buf.put((byte) (0x80 | ((code >> 6) & 0x3F)));
+                buf.put((byte) (0x80 | (code & 0x3F)));
+            }
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            buf.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   CachingConnection.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 1:15:32 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.pool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * A {@code CachingConnection} is a {@code java.sql.Connection} that can keep
+ * prepared statements open across borrows. Every connection handed out by a
+ * {@link ConnectionPool} implements this interface.
+ * <p>
+ * A statement obtained from {@link #prepareCached(java.lang.String)} is
+ * prepared on the server only the first time its SQL is seen on the
+ * underlying physical connection. Closing it does not close it, but hands it
+ * back to the cache with its parameters cleared, so it should be used with
+ * try-with-resources just like any other statement:</p>
+ * <pre>
+ * try (PreparedStatement ps = conn.prepareCached(sql)) {
+ *     ps.setLong(1, id);
+ *     // ...
+ * }
+ * </pre>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public interface CachingConnection extends Connection {
+
+    /**
+     * Retrieves a prepared statement for the given SQL from this connection's
+     * statement cache, preparing it if it is not cached yet. If the cached
+     * statement is already in use, an ordinary, uncached statement is
+     * returned instead.
+     *
+     * @param sql the SQL of the statement
+     * @return a prepared statement for the SQL
+     * @throws SQLException in the event a database error occurs
+     */
+    PreparedStatement prepareCached(String sql) throws SQLException;
+
+}
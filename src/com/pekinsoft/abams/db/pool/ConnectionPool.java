@@ -0,0 +1,402 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   ConnectionPool.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 9:25:03 AM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Added statement cache hit and miss
+ *                                     counters.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.pool;
+
+import com.pekinsoft.abams.utils.Logger;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jdesktop.application.Application;
+
+/**
+ * The {@code ConnectionPool} class keeps a bounded set of open JDBC connections
+ * to the database so that each query does not have to pay for a new TCP
+ * connection and server login.
+ * <p>
+ * Connections are borrowed with {@link #getConnection()} and handed back by
+ * simply closing them, so existing code that closes its connections needs no
+ * changes:</p>
+ * <pre>
+ * try (Connection conn = pool.getConnection();
+ *         Statement s = conn.createStatement()) {
+ *     // ... use the connection ...
+ * }   // The connection goes back to the pool here.
+ * </pre>
+ * <p>
+ * The pool provides the following behavior, all of which is tuned through the
+ * {@link PoolConfig} given to the constructor:</p>
+ * <ul>
+ * <li><strong>Bounded size</strong>: no more than {@code maxPoolSize}
+ * connections are ever open. When all are borrowed, callers wait up to
+ * {@code borrowTimeout} milliseconds before an
+ * {@code SQLTransientConnectionException} is thrown.</li>
+ * <li><strong>Validation on borrow</strong>: a connection that has sat idle
+ * longer than {@code validationInterval} is checked with
+ * {@code Connection.isValid} before it is handed out. Broken connections are
+ * discarded and replaced.</li>
+ * <li><strong>Idle eviction</strong>: a background housekeeper closes
+ * connections that have been idle longer than {@code idleTimeout}, down to
+ * {@code minIdle}, and retires connections older than
+ * {@code maxLifetime}.</li>
+ * <li><strong>Leak detection</strong>: connections borrowed longer than
+ * {@code leakDetectionThreshold} are logged as warnings, along with the stack
+ * trace of the code that borrowed them.</li>
+ * <li><strong>Statement caching</strong>: each physical connection keeps up
+ * to {@code statementCacheSize} prepared statements open for reuse through
+ * {@link CachingConnection#prepareCached(java.lang.String)}.</li>
+ * <li><strong>Metrics</strong>: active, idle and waiting counts, borrow wait
+ * times and statement cache hits are available from
+ * {@link #getMetrics()}.</li>
+ * </ul>
+ *
+ * @see PoolConfig
+ * @see PoolMetrics
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class ConnectionPool {
+
+    private static final String CLASS_NAME = ConnectionPool.class.getSimpleName();
+
+    private final PoolConfig config;
+    private final Logger log;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle;
+    private final Set<PooledConnection> active;
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a new {@code ConnectionPool} with the given settings. No
+     * connections are opened until the first one is borrowed.
+     * <p>
+     * The {@code app} is only used to find where log files are written. It may
+     * be {@code null} when the pool is used outside of the application, such
+     * as against an embedded database in a test harness, in which case leak
+     * reports are written to {@code System.err}.</p>
+     *
+     * @param config the settings for the pool
+     * @param app the application in which the pool is running, or
+     *          {@code null}
+     */
+    public ConnectionPool(PoolConfig config, Application app) {
+        if (config == null) {
+            throw new IllegalArgumentException("config cannot be null");
+        }
+
+        this.config = config;
+        this.log = (app == null) ? null : Logger.getLogger(CLASS_NAME, app);
+        this.permits = new Semaphore(config.getMaxPoolSize(), true);
+        this.idle = new ConcurrentLinkedDeque<>();
+        this.active = ConcurrentHashMap.newKeySet();
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "AbAMS-ConnectionPool-Housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                config.getHousekeepingInterval(),
+                config.getHousekeepingInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retrieves the settings this pool was created with.
+     *
+     * @return the pool configuration
+     */
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none are idle
+     * and the pool is not yet full. The connection must be closed when the
+     * caller is done with it, which returns it to the pool.
+     *
+     * @return a connection to the database
+     * @throws SQLTransientConnectionException if no connection became
+     *          available within the configured borrow timeout
+     * @throws SQLException if the pool has been shut down or a new connection
+     *          could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("The connection pool has been shut down.");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeout(),
+                    TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTransientConnectionException("Timed out after "
+                        + config.getBorrowTimeout() + "ms waiting for a "
+                        + "database connection: " + getMetrics());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while "
+                    + "waiting for a database connection.", ex);
+        }
+
+        try {
+            PooledConnection pc = takeIdle();
+            if (pc == null) {
+                pc = create();
+            }
+
+            active.add(pc);
+            recordWait(System.nanoTime() - start);
+            return pc.borrow(config.getLeakDetectionThreshold() > 0);
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Retrieves a snapshot of the pool's current state and counters.
+     *
+     * @return the pool metrics
+     */
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(active.size(), idle.size(),
+                permits.getQueueLength(), borrowCount.get(), timeoutCount.get(),
+                leakCount.get(), createdCount.get(), destroyedCount.get(),
+                totalWaitNanos.get(), maxWaitNanos.get(),
+                statementCacheHits.get(), statementCacheMisses.get());
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper. Connections that
+     * are still borrowed are closed as they are returned. Once shut down, the
+     * pool cannot hand out any more connections.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            destroy(pc);
+        }
+    }
+
+    /**
+     * Returns a connection to the pool. Called by the connection proxy when
+     * the borrower closes it.
+     *
+     * @param pc the connection being returned
+     */
+    void release(PooledConnection pc) {
+        active.remove(pc);
+
+        try {
+            if (shutdown || isExpired(pc) || !reset(pc)) {
+                destroy(pc);
+            } else {
+                pc.returned();
+                idle.offerFirst(pc);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Takes the most recently returned idle connection that is still usable,
+     * discarding any that have expired or fail validation along the way.
+     *
+     * @return a usable idle connection, or {@code null} if there are none
+     */
+    private PooledConnection takeIdle() {
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            if (isExpired(pc)) {
+                destroy(pc);
+            } else if (System.currentTimeMillis() - pc.getLastReturnedAt()
+                    > config.getValidationInterval() && !isValid(pc)) {
+                destroy(pc);
+            } else {
+                return pc;
+            }
+        }
+        return null;
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(config.getUrl(),
+                config.getUser(), String.valueOf(config.getPassword()));
+        createdCount.incrementAndGet();
+        return new PooledConnection(this, physical, 
+                config.getStatementCacheSize());
+    }
+
+    private void destroy(PooledConnection pc) {
+        destroyedCount.incrementAndGet();
+        pc.closeQuietly();
+    }
+
+    private boolean isExpired(PooledConnection pc) {
+        return config.getMaxLifetime() > 0
+                && System.currentTimeMillis() - pc.getCreatedAt()
+                > config.getMaxLifetime();
+    }
+
+    private boolean isValid(PooledConnection pc) {
+        try {
+            return pc.getPhysical().isValid(config.getValidationTimeout());
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Puts a returned connection back into the state a new borrower expects:
+     * any open transaction is rolled back and auto-commit is turned back on.
+     *
+     * @param pc the connection to reset
+     * @return {@code true} if the connection may be reused; {@code false} if
+     *          it is broken and should be discarded
+     */
+    private boolean reset(PooledConnection pc) {
+        Connection conn = pc.getPhysical();
+        try {
+            if (conn.isClosed()) {
+                return false;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            if (conn.isReadOnly()) {
+                conn.setReadOnly(false);
+            }
+            conn.clearWarnings();
+            return true;
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    void recordStatementCacheHit() {
+        statementCacheHits.incrementAndGet();
+    }
+
+    void recordStatementCacheMiss() {
+        statementCacheMisses.incrementAndGet();
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Run periodically by the housekeeper thread to evict idle and expired
+     * connections and to report connections that appear to have leaked.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext()) {
+            PooledConnection pc = it.next();
+            boolean stale = config.getIdleTimeout() > 0
+                    && now - pc.getLastReturnedAt() > config.getIdleTimeout()
+                    && idle.size() > config.getMinIdle();
+            if ((stale || isExpired(pc)) && idle.remove(pc)) {
+                destroy(pc);
+            }
+        }
+
+        long threshold = config.getLeakDetectionThreshold();
+        if (threshold > 0) {
+            for (PooledConnection pc : active) {
+                long borrowedAt = pc.getBorrowedAt();
+                if (!pc.isLeakReported() && borrowedAt > 0
+                        && now - borrowedAt > threshold) {
+                    pc.setLeakReported(true);
+                    leakCount.incrementAndGet();
+                    reportLeak(pc, now - borrowedAt);
+                }
+            }
+        }
+    }
+
+    private void reportLeak(PooledConnection pc, long heldMillis) {
+        StringWriter trace = new StringWriter();
+        if (pc.getBorrowStack() != null) {
+            pc.getBorrowStack().printStackTrace(new PrintWriter(trace));
+        }
+
+        String msg = "Possible connection leak: a connection has been borrowed "
+                + "for " + heldMillis + "ms without being closed.\n" + trace;
+        if (log != null) {
+            log.warning(msg);
+        } else {
+            System.err.println(msg);
+        }
+    }
+
+}
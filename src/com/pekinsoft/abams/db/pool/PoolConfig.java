@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   PoolConfig.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 9:12:40 AM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Added the statement cache size.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.pool;
+
+import java.util.Properties;
+
+/**
+ * The {@code PoolConfig} class holds the settings used by a
+ * {@link ConnectionPool}: where to connect, how many connections may be open at
+ * once and how long connections are allowed to sit idle, be borrowed or be
+ * waited on.
+ * <p>
+ * Every setting has a sensible default, so only the JDBC URL and credentials
+ * need to be provided. Any setting may also be overridden from a set of
+ * {@code java.util.Properties} (typically the system properties) by calling
+ * {@link #applyOverrides(java.util.Properties)}. This allows the pool to be
+ * pointed at an embedded database for testing without changing any code:</p>
+ * <pre>
+ * java -Dabams.db.url=jdbc:derby:memory:abams;create=true \
+ *      -Dabams.db.user=app -Dabams.db.password= -jar AbAMS.jar
+ * </pre>
+ *
+ * @see ConnectionPool
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class PoolConfig {
+
+    /** Property key for overriding the JDBC URL. */
+    public static final String URL_KEY = "abams.db.url";
+    /** Property key for overriding the database user name. */
+    public static final String USER_KEY = "abams.db.user";
+    /** Property key for overriding the database password. */
+    public static final String PASSWORD_KEY = "abams.db.password";
+    /** Property key for overriding the maximum pool size. */
+    public static final String MAX_SIZE_KEY = "abams.pool.maxSize";
+    /** Property key for overriding the minimum number of idle connections. */
+    public static final String MIN_IDLE_KEY = "abams.pool.minIdle";
+    /** Property key for overriding the borrow timeout, in milliseconds. */
+    public static final String BORROW_TIMEOUT_KEY = "abams.pool.borrowTimeout";
+    /** Property key for overriding the idle timeout, in milliseconds. */
+    public static final String IDLE_TIMEOUT_KEY = "abams.pool.idleTimeout";
+    /** Property key for overriding the leak detection threshold, in
+     * milliseconds. */
+    public static final String LEAK_THRESHOLD_KEY = "abams.pool.leakThreshold";
+
+    private String url;
+    private String user;
+    private char[] password;
+    private int maxPoolSize = 10;
+    private int minIdle = 2;
+    private long borrowTimeout = 30_000L;
+    private long idleTimeout = 600_000L;
+    private long maxLifetime = 1_800_000L;
+    private int validationTimeout = 5;
+    private long validationInterval = 500L;
+    private long leakDetectionThreshold = 60_000L;
+    private long housekeepingInterval = 30_000L;
+    private int statementCacheSize = 64;
+
+    /**
+     * Creates a {@code PoolConfig} for the given database, with all of the
+     * pool settings at their default values.
+     *
+     * @param url the JDBC URL of the database
+     * @param user the user name to connect with
+     * @param password the password to connect with
+     */
+    public PoolConfig(String url, String user, char[] password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    /**
+     * Overrides the settings of this configuration with any of the
+     * {@code abams.db.*} and {@code abams.pool.*} keys found in the given
+     * properties. Keys that are not present leave the current setting as is.
+     *
+     * @param props the properties to read overrides from
+     * @return this configuration, for chaining
+     * @throws IllegalArgumentException if a numeric property cannot be parsed
+     */
+    public PoolConfig applyOverrides(Properties props) {
+        if (props.getProperty(URL_KEY) != null) {
+            url = props.getProperty(URL_KEY);
+        }
+        if (props.getProperty(USER_KEY) != null) {
+            user = props.getProperty(USER_KEY);
+        }
+        if (props.getProperty(PASSWORD_KEY) != null) {
+            password = props.getProperty(PASSWORD_KEY).toCharArray();
+        }
+
+        try {
+            if (props.getProperty(MAX_SIZE_KEY) != null) {
+                setMaxPoolSize(Integer.parseInt(props.getProperty(MAX_SIZE_KEY)));
+            }
+            if (props.getProperty(MIN_IDLE_KEY) != null) {
+                setMinIdle(Integer.parseInt(props.getProperty(MIN_IDLE_KEY)));
+            }
+            if (props.getProperty(BORROW_TIMEOUT_KEY) != null) {
+                setBorrowTimeout(Long.parseLong(
+                        props.getProperty(BORROW_TIMEOUT_KEY)));
+            }
+            if (props.getProperty(IDLE_TIMEOUT_KEY) != null) {
+                setIdleTimeout(Long.parseLong(
+                        props.getProperty(IDLE_TIMEOUT_KEY)));
+            }
+            if (props.getProperty(LEAK_THRESHOLD_KEY) != null) {
+                setLeakDetectionThreshold(Long.parseLong(
+                        props.getProperty(LEAK_THRESHOLD_KEY)));
+            }
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid connection pool "
+                    + "setting: " + ex.getMessage(), ex);
+        }
+
+        return this;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    char[] getPassword() {
+        return password;
+    }
+
+    /**
+     * Retrieves the maximum number of physical connections the pool may hold,
+     * whether borrowed or idle. Defaults to 10.
+     *
+     * @return the maximum pool size
+     */
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        if (maxPoolSize < 1) {
+            throw new IllegalArgumentException("maxPoolSize must be at least 1");
+        }
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * Retrieves the number of idle connections the pool tries to keep open
+     * when idle connections are evicted. Defaults to 2.
+     *
+     * @return the minimum idle connection count
+     */
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        if (minIdle < 0) {
+            throw new IllegalArgumentException("minIdle cannot be negative");
+        }
+        this.minIdle = minIdle;
+    }
+
+    /**
+     * Retrieves how long, in milliseconds, a caller will wait for a connection
+     * when all connections are borrowed. Defaults to 30 seconds.
+     *
+     * @return the borrow timeout in milliseconds
+     */
+    public long getBorrowTimeout() {
+        return borrowTimeout;
+    }
+
+    public void setBorrowTimeout(long borrowTimeout) {
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    /**
+     * Retrieves how long, in milliseconds, a connection may sit idle in the
+     * pool before it is closed. Defaults to 10 minutes.
+     *
+     * @return the idle timeout in milliseconds
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Retrieves the maximum age, in milliseconds, of a physical connection.
+     * This should be kept below the server's {@code wait_timeout}. Defaults to
+     * 30 minutes.
+     *
+     * @return the maximum connection lifetime in milliseconds
+     */
+    public long getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    public void setMaxLifetime(long maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    /**
+     * Retrieves the number of seconds {@code Connection.isValid} is given to
+     * answer when a connection is validated on borrow. Defaults to 5.
+     *
+     * @return the validation timeout in seconds
+     */
+    public int getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(int validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    /**
+     * Retrieves how long, in milliseconds, a connection must have been idle
+     * before it is validated on borrow. Connections returned more recently
+     * than this are handed out without a round trip. Defaults to 500.
+     *
+     * @return the validation interval in milliseconds
+     */
+    public long getValidationInterval() {
+        return validationInterval;
+    }
+
+    public void setValidationInterval(long validationInterval) {
+        this.validationInterval = validationInterval;
+    }
+
+    /**
+     * Retrieves how long, in milliseconds, a connection may be borrowed before
+     * it is reported as a possible leak, along with the stack trace of the
+     * code that borrowed it. A value of zero turns leak detection off.
+     * Defaults to 60 seconds.
+     *
+     * @return the leak detection threshold in milliseconds
+     */
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    /**
+     * Retrieves how often, in milliseconds, the pool's housekeeper evicts idle
+     * connections and checks for leaks. Defaults to 30 seconds.
+     *
+     * @return the housekeeping interval in milliseconds
+     */
+    public long getHousekeepingInterval() {
+        return housekeepingInterval;
+    }
+
+    public void setHousekeepingInterval(long housekeepingInterval) {
+        this.housekeepingInterval = housekeepingInterval;
+    }
+
+    /**
+     * Retrieves the number of prepared statements each physical connection
+     * keeps open for reuse. A value of zero turns statement caching off.
+     * Defaults to 64.
+     *
+     * @return the statement cache size per connection
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConfig[ url=" + url + ", user=" + user + ", maxPoolSize="
+                + maxPoolSize + ", minIdle=" + minIdle + " ]";
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   PoolMetrics.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 10:05:27 AM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Added statement cache hits and misses.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.pool;
+
+/**
+ * A {@code PoolMetrics} object is a point-in-time snapshot of the state and
+ * counters of a {@link ConnectionPool}, as returned by
+ * {@link ConnectionPool#getMetrics()}.
+ * <p>
+ * These figures are what should be used to size the pool: if
+ * {@link #getPendingThreads() pending threads} or the
+ * {@link #getAverageWaitMillis() average wait} climb under order-entry load,
+ * the pool is too small; if most connections sit
+ * {@link #getIdleConnections() idle}, it is too large.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class PoolMetrics {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int pendingThreads;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long leakCount;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    PoolMetrics(int activeConnections, int idleConnections, int pendingThreads,
+            long borrowCount, long timeoutCount, long leakCount,
+            long createdCount, long destroyedCount, long totalWaitNanos,
+            long maxWaitNanos, long statementCacheHits,
+            long statementCacheMisses) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.pendingThreads = pendingThreads;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.leakCount = leakCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    /**
+     * Retrieves the number of connections currently borrowed.
+     *
+     * @return the active connection count
+     */
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    /**
+     * Retrieves the number of open connections waiting in the pool.
+     *
+     * @return the idle connection count
+     */
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /**
+     * Retrieves the total number of open physical connections.
+     *
+     * @return active plus idle connections
+     */
+    public int getTotalConnections() {
+        return activeConnections + idleConnections;
+    }
+
+    /**
+     * Retrieves an estimate of the number of threads currently waiting for a
+     * connection to become available.
+     *
+     * @return the number of waiting threads
+     */
+    public int getPendingThreads() {
+        return pendingThreads;
+    }
+
+    /**
+     * Retrieves the number of successful borrows since the pool was created.
+     *
+     * @return the borrow count
+     */
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    /**
+     * Retrieves the number of borrow attempts that gave up waiting.
+     *
+     * @return the timeout count
+     */
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    /**
+     * Retrieves the number of connections reported as possible leaks.
+     *
+     * @return the leak count
+     */
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    /**
+     * Retrieves the number of physical connections opened since the pool was
+     * created.
+     *
+     * @return the created connection count
+     */
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * Retrieves the number of physical connections closed because they were
+     * evicted, expired or found to be broken.
+     *
+     * @return the destroyed connection count
+     */
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    /**
+     * Retrieves the average time, in milliseconds, callers waited to borrow a
+     * connection.
+     *
+     * @return the average borrow wait in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        return borrowCount == 0 ? 0.0
+                : (totalWaitNanos / (double) borrowCount) / 1_000_000.0;
+    }
+
+    /**
+     * Retrieves the longest time, in milliseconds, any caller waited to borrow
+     * a connection.
+     *
+     * @return the maximum borrow wait in milliseconds
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+
+    /**
+     * Retrieves the number of times a cached prepared statement was reused.
+     *
+     * @return the statement cache hit count
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    /**
+     * Retrieves the number of times a statement had to be prepared because it
+     * was not in the cache.
+     *
+     * @return the statement cache miss count
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics[ active=" + activeConnections + ", idle="
+                + idleConnections + ", pending=" + pendingThreads
+                + ", borrows=" + borrowCount + ", timeouts=" + timeoutCount
+                + ", leaks=" + leakCount + ", created=" + createdCount
+                + ", destroyed=" + destroyedCount
+                + ", stmtHits=" + statementCacheHits
+                + ", stmtMisses=" + statementCacheMisses
+                + String.format(", avgWait=%.3fms, maxWait=%.3fms ]",
+                        getAverageWaitMillis(), getMaxWaitMillis());
+    }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   PooledConnection.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 9:40:11 AM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Added the per-connection statement cache.
+ *  Oct 18, 2026  Sean Carrick         Statements report the proxy as their
+ *                                     connection and are released with it.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@code PooledConnection} wraps one physical connection owned by a
+ * {@link ConnectionPool}, along with the bookkeeping the pool needs to evict,
+ * validate and leak-check it.
+ * <p>
+ * Callers never see this class. Each time the connection is borrowed, a new
+ * {@link CachingConnection} proxy is handed out whose {@code close()} method
+ * returns the physical connection to the pool instead of closing it. Once a
+ * proxy has been closed, any further use of it throws an
+ * {@code SQLException}, so a stale reference can never reach a connection that
+ * has since been lent to someone else.</p>
+ * <p>
+ * The statements created through a proxy are wrapped as well, so that their
+ * {@code getConnection()} method returns the proxy rather than the physical
+ * connection. When the proxy is closed, any of its statements that are still
+ * open are closed, and its cached statements are returned to the cache.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+final class PooledConnection {
+
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statementCache;
+    private final long createdAt;
+    private volatile long lastReturnedAt;
+    private volatile long borrowedAt;
+    private volatile Throwable borrowStack;
+    private volatile boolean leakReported;
+
+    PooledConnection(ConnectionPool pool, Connection physical, 
+            int statementCacheSize) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = new StatementCache(pool, physical, 
+                statementCacheSize);
+        this.createdAt = System.currentTimeMillis();
+        this.lastReturnedAt = createdAt;
+    }
+
+    Connection getPhysical() {
+        return physical;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getLastReturnedAt() {
+        return lastReturnedAt;
+    }
+
+    long getBorrowedAt() {
+        return borrowedAt;
+    }
+
+    Throwable getBorrowStack() {
+        return borrowStack;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void setLeakReported(boolean leakReported) {
+        this.leakReported = leakReported;
+    }
+
+    /**
+     * Marks this connection as borrowed and creates the proxy handed to the
+     * caller.
+     *
+     * @param captureStack whether to record the borrower's stack trace for
+     *          leak reports
+     * @return a new proxy over the physical connection
+     */
+    Connection borrow(boolean captureStack) {
+        borrowedAt = System.currentTimeMillis();
+        borrowStack = captureStack
+                ? new Throwable("Connection borrowed here") : null;
+        leakReported = false;
+
+        return (Connection) Proxy.newProxyInstance(
+                CachingConnection.class.getClassLoader(),
+                new Class<?>[]{CachingConnection.class},
+                new Handler());
+    }
+
+    /**
+     * Marks this connection as idle again. Called by the pool once the
+     * connection is back in the idle queue.
+     */
+    void returned() {
+        lastReturnedAt = System.currentTimeMillis();
+        borrowedAt = 0L;
+        borrowStack = null;
+    }
+
+    /**
+     * Closes the cached statements and the physical connection, ignoring any
+     * error, as the connection is being discarded anyway.
+     */
+    void closeQuietly() {
+        statementCache.closeAll();
+        try {
+            physical.close();
+        } catch (SQLException ex) {
+            // Nothing useful can be done about a connection that will not close.
+        }
+    }
+
+    /**
+     * Intercepts calls on the proxy handed to a borrower.
+     */
+    private final class Handler implements InvocationHandler {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final Set<Statement> open = Collections.newSetFromMap(
+                new IdentityHashMap<>());
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        closeStatements();
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + physical.toString();
+                default:
+                    if (closed.get()) {
+                        throw new SQLException("Connection has already been "
+                                + "returned to the pool.", "08003");
+                    }
+            }
+
+            if (method.getName().equals("prepareCached")) {
+                PreparedStatement cached = statementCache.get(
+                        (String) args[0], (Connection) proxy);
+                if (cached != null) {
+                    return cached;
+                }
+                return track(physical.prepareStatement((String) args[0]), 
+                        PreparedStatement.class, proxy);
+            }
+
+            Object result;
+            try {
+                result = method.invoke(physical, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            
+            if (result instanceof Statement) {
+                return track((Statement) result, method.getReturnType(), 
+                        proxy);
+            }
+            return result;
+        }
+
+        /**
+         * Wraps a statement created through the proxy, and remembers it until
+         * it is closed.
+         */
+        private Object track(Statement statement, Class<?> type, 
+                Object owner) {
+            synchronized (open) {
+                open.add(statement);
+            }
+            return Proxy.newProxyInstance(type.getClassLoader(), 
+                    new Class<?>[]{type}, 
+                    new StatementHandler(statement, owner, open));
+        }
+
+        /**
+         * Closes the statements the borrower left open, and returns its cached
+         * statements to the cache.
+         */
+        private void closeStatements() {
+            statementCache.releaseAll();
+            
+            List<Statement> left;
+            synchronized (open) {
+                left = new ArrayList<>(open);
+                open.clear();
+            }
+            for (Statement statement : left) {
+                try {
+                    statement.close();
+                } catch (SQLException ex) {
+                    // The borrower is done with the statement either way.
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Intercepts calls on a statement created through a borrower's proxy.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final Object owner;
+        private final Set<Statement> open;
+
+        StatementHandler(Statement statement, Object owner, 
+                Set<Statement> open) {
+            this.statement = statement;
+            this.owner = owner;
+            this.open = open;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    if (statement.isClosed()) {
+                        break;
+                    }
+                    return owner;
+                case "close":
+                    synchronized (open) {
+                        open.remove(statement);
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+
+    }
+
+}
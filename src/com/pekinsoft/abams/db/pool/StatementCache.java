@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   StatementCache.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 1:22:05 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         Statement settings are reset on return,
+ *                                     and each loan gets its own proxy.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A {@code StatementCache} holds the prepared statements of a single physical
+ * connection, keyed by their SQL, evicting the least recently used statement
+ * once it is full.
+ * <p>
+ * Each time a statement is lent out, it is wrapped in a new proxy whose
+ * {@code close()} method returns the statement to the cache, with its 
+ * parameters and batch cleared and its maximum row count, fetch size and
+ * query timeout set back to what they were when it was prepared. Once a
+ * proxy has been closed, or the connection it was lent through has been
+ * returned to the pool, any further use of it throws an 
+ * {@code SQLException}. The real statements are only closed when they are
+ * evicted or the physical connection is discarded.</p>
+ *
+ * @see CachingConnection
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+final class StatementCache {
+
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry> statements;
+
+    StatementCache(ConnectionPool pool, Connection physical, int maxSize) {
+        this.pool = pool;
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Lends out the cached statement for the given SQL, preparing and caching
+     * it if needed.
+     *
+     * @param sql the SQL of the statement
+     * @param owner the connection the statement is lent through, which the
+     *          statement returns from {@code getConnection()}
+     * @return the statement proxy, or {@code null} if the cached statement is
+     *          in use or caching is turned off
+     * @throws SQLException in the event a database error occurs
+     */
+    synchronized PreparedStatement get(String sql, Connection owner) 
+            throws SQLException {
+        if (maxSize <= 0) {
+            return null;
+        }
+
+        Entry entry = statements.get(sql);
+        if (entry != null && entry.statement.isClosed()) {
+            statements.remove(sql);
+            entry = null;
+        }
+
+        if (entry == null) {
+            pool.recordStatementCacheMiss();
+            PreparedStatement ps = physical.prepareStatement(sql);
+            try {
+                entry = new Entry(ps);
+            } catch (SQLException ex) {
+                closeQuietly(ps);
+                throw ex;
+            }
+            statements.put(sql, entry);
+            evict();
+        } else if (entry.lease != null) {
+            return null;
+        } else {
+            pool.recordStatementCacheHit();
+        }
+
+        return entry.lend(owner);
+    }
+
+    /**
+     * Returns every statement that is still lent out to the cache. Called 
+     * when the connection they were lent through is returned to the pool, so
+     * that a statement its borrower never closed does not stay in use.
+     */
+    synchronized void releaseAll() {
+        for (Entry entry : new ArrayList<>(statements.values())) {
+            if (entry.lease != null) {
+                giveBack(entry);
+            }
+        }
+    }
+
+    /**
+     * Closes every cached statement. Called when the physical connection is
+     * being discarded.
+     */
+    synchronized void closeAll() {
+        for (Entry entry : statements.values()) {
+            entry.lease = null;
+            closeQuietly(entry.statement);
+        }
+        statements.clear();
+    }
+
+    private void evict() {
+        Iterator<Entry> it = statements.values().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next();
+            if (eldest.lease == null) {
+                it.remove();
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private synchronized void giveBack(Entry entry) {
+        entry.lease = null;
+        try {
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+            entry.statement.setMaxRows(entry.maxRows);
+            entry.statement.setFetchSize(entry.fetchSize);
+            entry.statement.setQueryTimeout(entry.queryTimeout);
+        } catch (SQLException ex) {
+            statements.values().remove(entry);
+            closeQuietly(entry.statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ex) {
+            // The statement is being discarded either way.
+        }
+    }
+
+    /**
+     * A cached statement, with the settings it was prepared with.
+     */
+    private final class Entry {
+
+        private final PreparedStatement statement;
+        private final int maxRows;
+        private final int fetchSize;
+        private final int queryTimeout;
+        /** The loan of the statement that is in progress, if any. */
+        private volatile Lease lease;
+
+        Entry(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.maxRows = statement.getMaxRows();
+            this.fetchSize = statement.getFetchSize();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        PreparedStatement lend(Connection owner) {
+            lease = new Lease(this, owner);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, lease);
+        }
+
+    }
+
+    /**
+     * Intercepts calls on the proxy handed out for one loan of a cached 
+     * statement. The loan is over once the entry has moved on to another.
+     */
+    private final class Lease implements InvocationHandler {
+
+        private final Entry entry;
+        private final Connection owner;
+
+        Lease(Entry entry, Connection owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (StatementCache.this) {
+                        if (entry.lease == this) {
+                            giveBack(entry);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return entry.lease != this || entry.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (entry.lease != this) {
+                        throw new SQLException("Statement has already been "
+                                + "closed.");
+                    }
+            }
+
+            if (method.getName().equals("getConnection")) {
+                return owner;
+            }
+
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+
+    }
+
+}
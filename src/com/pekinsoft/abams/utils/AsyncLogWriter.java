@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   AsyncLogWriter.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 3:34:51 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ *  Oct 18, 2026  Sean Carrick         The drain thread survives runtime 
+ *                                     exceptions thrown by a target.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code AsyncLogWriter} takes the writing of log messages off of the
+ * threads that log them. A {@link Logger} hands each message to the shared
+ * writer, which places it in a bounded, lock-free ring buffer and returns
+ * immediately. A single background thread drains the buffer and writes the
+ * messages to their files in batches.
+ * <p>
+ * The writer is configured with the following system properties:</p>
+ * <table>
+ * <caption>Asynchronous Logging Settings</caption>
+ * <tr><th>Property</th><th>Meaning</th><th>Default</th></tr>
+ * <tr><td>{@code abams.log.async}</td>
+ * <td>{@code false} to write every message synchronously, as before</td>
+ * <td>{@code true}</td></tr>
+ * <tr><td>{@code abams.log.bufferSize}</td>
+ * <td>the number of messages the ring buffer holds, rounded up to a power of
+ * two</td><td>8192</td></tr>
+ * <tr><td>{@code abams.log.flush}</td>
+ * <td>the {@link FlushPolicy flush policy}</td><td>{@code BATCH}</td></tr>
+ * <tr><td>{@code abams.log.flushInterval}</td>
+ * <td>the milliseconds between flushes under the {@code INTERVAL} policy</td>
+ * <td>1000</td></tr>
+ * <tr><td>{@code abams.log.overflow}</td>
+ * <td>the {@link OverflowPolicy overflow policy}</td><td>{@code BLOCK}</td>
+ * </tr>
+ * </table>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+final class AsyncLogWriter {
+
+    /**
+     * When the background thread flushes the files it has written to.
+     */
+    enum FlushPolicy {
+        /** After every message, which is the slowest but safest policy. */
+        IMMEDIATE,
+        /** Whenever the buffer has been drained. */
+        BATCH,
+        /** At most once every {@code abams.log.flushInterval} milliseconds. */
+        INTERVAL
+    }
+
+    /**
+     * What a logging thread does when the ring buffer is full.
+     */
+    enum OverflowPolicy {
+        /** Waits for the background thread to make room. */
+        BLOCK,
+        /** Discards the message and counts it as dropped. */
+        DROP
+    }
+
+    private static AsyncLogWriter shared;
+    private static boolean initialized;
+
+    private final AtomicReferenceArray<Event> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final FlushPolicy flushPolicy;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final Thread thread;
+    private final Map<Writer, Boolean> dirty = new IdentityHashMap<>();
+
+    private volatile long head;
+    private volatile boolean sleeping;
+    private volatile boolean flushRequested;
+    private long lastFlush = System.nanoTime();
+
+    private AsyncLogWriter(int capacity, FlushPolicy flushPolicy,
+            long flushInterval, OverflowPolicy overflowPolicy) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.flushPolicy = flushPolicy;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        this.overflowPolicy = overflowPolicy;
+
+        this.thread = new Thread(this::drain, "AbAMS-log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::awaitDrained,
+                "AbAMS-log-shutdown"));
+    }
+
+    /**
+     * Retrieves the writer shared by all of the loggers, starting it on first
+     * use.
+     *
+     * @return the shared writer, or {@code null} if asynchronous logging is
+     *          turned off
+     */
+    static synchronized AsyncLogWriter getShared() {
+        if (!initialized) {
+            initialized = true;
+            if (Boolean.parseBoolean(System.getProperty("abams.log.async",
+                    "true"))) {
+                shared = new AsyncLogWriter(
+                        Integer.getInteger("abams.log.bufferSize", 8192),
+                        FlushPolicy.valueOf(System.getProperty(
+                                "abams.log.flush", "BATCH")),
+                        Long.getLong("abams.log.flushInterval", 1000L),
+                        OverflowPolicy.valueOf(System.getProperty(
+                                "abams.log.overflow", "BLOCK")));
+            }
+        }
+
+        return shared;
+    }
+
+    /**
+     * Queues a message to be written to the given file.
+     *
+     * @param target the file to write the message to
+     * @param text the message
+     */
+    void append(Writer target, String text) {
+        publish(new Event(target, text, false));
+    }
+
+    /**
+     * Queues the closing of the given file, after every message already
+     * queued for it has been written.
+     *
+     * @param target the file to close
+     */
+    void close(Writer target) {
+        publish(new Event(target, null, true));
+    }
+
+    /**
+     * Retrieves the number of messages discarded because the ring buffer was
+     * full.
+     *
+     * @return the dropped message count
+     */
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void publish(Event event) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head > mask) {
+                if (overflowPolicy == OverflowPolicy.DROP && !event.close) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                LockSupport.unpark(thread);
+                LockSupport.parkNanos(50_000L);
+                claimed = -1;
+            }
+        } while (claimed < 0 || !tail.compareAndSet(claimed, claimed + 1));
+
+        slots.set((int) claimed & mask, event);
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            long next = head;
+            Event event = slots.get((int) next & mask);
+            if (event == null) {
+                if (next == tail.get()) {
+                    boolean requested = flushRequested;
+                    flushDirty(flushPolicy != FlushPolicy.INTERVAL 
+                            || requested);
+                    if (requested) {
+                        flushRequested = false;
+                    }
+                    sleeping = true;
+                    if (next == tail.get()) {
+                        LockSupport.parkNanos(flushPolicy 
+                                == FlushPolicy.INTERVAL ? flushIntervalNanos
+                                : TimeUnit.SECONDS.toNanos(1));
+                    }
+                    sleeping = false;
+                } else {
+                    // A producer has claimed the slot but not filled it yet.
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+
+            slots.set((int) next & mask, null);
+            head = next + 1;
+            write(event);
+        }
+    }
+
+    private void write(Event event) {
+        try {
+            if (event.close) {
+                dirty.remove(event.target);
+                event.target.flush();
+                event.target.close();
+            } else {
+                event.target.write(event.text);
+                if (flushPolicy == FlushPolicy.IMMEDIATE) {
+                    event.target.flush();
+                } else {
+                    dirty.put(event.target, Boolean.TRUE);
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Whatever a target throws, the drain thread must live on: every
+            //+ logger waits on it once the ring is full.
+            dirty.remove(event.target);
+            System.err.println("Log entry not written: " + ex);
+        }
+    }
+
+    private void flushDirty(boolean force) {
+        long now = System.nanoTime();
+        if (!force && now - lastFlush < flushIntervalNanos) {
+            return;
+        }
+        lastFlush = now;
+
+        for (Writer target : dirty.keySet()) {
+            try {
+                target.flush();
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("Log not flushed: " + ex);
+            }
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Waits, for up to two seconds, for the background thread to write out
+     * and flush whatever is still queued when the JVM exits.
+     */
+    private void awaitDrained() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        flushRequested = true;
+        while ((flushRequested || head != tail.get())
+                && System.nanoTime() < deadline) {
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(1_000_000L);
+        }
+    }
+
+    /**
+     * A message, or a request to close a file, waiting in the ring buffer.
+     */
+    private static final class Event {
+
+        private final Writer target;
+        private final String text;
+        private final boolean close;
+
+        Event(Writer target, String text, boolean close) {
+            this.target = target;
+            this.text = text;
+            this.close = close;
+        }
+
+    }
+
+}
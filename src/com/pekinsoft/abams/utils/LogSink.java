@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   LogSink.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 4:27:13 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A {@code LogSink} is the single open file behind every {@link Logger} that
+ * writes to the same log. Sinks are shared and reference counted: 
+ * {@link #acquire(java.lang.String, boolean)} opens the file only for the first
+ * logger that asks for it, and {@link #close()} only closes it when the last
+ * logger has let go of it.
+ * <p>
+ * A sink also rolls its file over once it grows past a maximum size or a new
+ * day (or hour) begins. The old file is renamed with a time stamp and then
+ * compressed with gzip in the background, and only the newest archives are
+ * kept. Rolling is configured with the following system properties:</p>
+ * <table>
+ * <caption>Log Rolling Settings</caption>
+ * <tr><th>Property</th><th>Meaning</th><th>Default</th></tr>
+ * <tr><td>{@code abams.log.maxFileSize}</td>
+ * <td>the size, in bytes, at which a log is rolled over, or zero for no
+ * limit</td><td>10 MB</td></tr>
+ * <tr><td>{@code abams.log.rollPeriod}</td>
+ * <td>{@code DAILY}, {@code HOURLY} or {@code NEVER}</td>
+ * <td>{@code DAILY}</td></tr>
+ * <tr><td>{@code abams.log.maxArchives}</td>
+ * <td>the number of compressed archives kept for each log</td>
+ * <td>10</td></tr>
+ * </table>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+final class LogSink extends Writer {
+
+    private static final Map<String, LogSink> sinks = new HashMap<>();
+    private static final ExecutorService compressor = 
+            Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "AbAMS-log-compressor");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static final long MAX_FILE_SIZE = Long.getLong(
+            "abams.log.maxFileSize", 10L * 1024 * 1024);
+    private static final String ROLL_PERIOD = System.getProperty(
+            "abams.log.rollPeriod", "DAILY");
+    private static final int MAX_ARCHIVES = Integer.getInteger(
+            "abams.log.maxArchives", 10);
+
+    private final File file;
+    private FileWriter out;
+    private long size;
+    private long nextRollAt;
+    private int references;
+
+    private LogSink(File file, boolean append) throws IOException {
+        this.file = file;
+        open(append);
+    }
+
+    /**
+     * Retrieves the sink for the given log file, opening the file if no other
+     * logger is writing to it. Each call must be matched by a call to
+     * {@link #close()}.
+     *
+     * @param path the path of the log file
+     * @param append whether to keep the existing contents of the file, if
+     *          this is the first logger to open it
+     * @return the shared sink for the file
+     * @throws IOException in the event the file cannot be opened
+     */
+    static synchronized LogSink acquire(String path, boolean append)
+            throws IOException {
+        String key = new File(path).getAbsolutePath();
+        LogSink sink = sinks.get(key);
+        if (sink == null) {
+            sink = new LogSink(new File(key), append);
+            sinks.put(key, sink);
+        }
+
+        synchronized (sink) {
+            sink.references++;
+        }
+        return sink;
+    }
+
+    @Override
+    public synchronized void write(char[] cbuf, int off, int len)
+            throws IOException {
+        if (out == null) {
+            throw new IOException("Log closed: " + file);
+        }
+        if (isRollDue(len)) {
+            roll();
+        }
+
+        out.write(cbuf, off, len);
+        size += len;
+    }
+
+    @Override
+    public synchronized void write(String str, int off, int len)
+            throws IOException {
+        if (out == null) {
+            throw new IOException("Log closed: " + file);
+        }
+        if (isRollDue(len)) {
+            roll();
+        }
+
+        out.write(str, off, len);
+        size += len;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Releases this logger's reference to the sink, closing the file if it
+     * was the last one.
+     *
+     * @throws IOException in the event the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (LogSink.class) {
+            synchronized (this) {
+                if (out == null) {
+                    return;
+                }
+                if (--references > 0) {
+                    out.flush();
+                    return;
+                }
+
+                sinks.remove(file.getAbsolutePath());
+                out.close();
+                out = null;
+            }
+        }
+    }
+
+    private void open(boolean append) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+
+        out = new FileWriter(file, append);
+        size = append ? file.length() : 0L;
+
+        LocalDateTime now = LocalDateTime.now();
+        switch (ROLL_PERIOD) {
+            case "HOURLY":
+                nextRollAt = toMillis(now.truncatedTo(ChronoUnit.HOURS)
+                        .plusHours(1));
+                break;
+            case "NEVER":
+                nextRollAt = Long.MAX_VALUE;
+                break;
+            default:
+                nextRollAt = toMillis(LocalDate.now().plusDays(1)
+                        .atStartOfDay());
+                break;
+        }
+    }
+
+    private boolean isRollDue(int len) {
+        return (MAX_FILE_SIZE > 0 && size > 0 && size + len > MAX_FILE_SIZE)
+                || System.currentTimeMillis() >= nextRollAt;
+    }
+
+    private void roll() throws IOException {
+        out.close();
+
+        String name = file.getName();
+        String base = name.endsWith(".log") 
+                ? name.substring(0, name.length() - 4) : name;
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS")
+                .format(new Date());
+        File archive = new File(file.getParentFile(), 
+                base + "-" + stamp + ".log");
+
+        if (file.renameTo(archive)) {
+            compressor.execute(() -> compress(archive, base));
+        }
+
+        open(false);
+    }
+
+    /**
+     * Compresses a rolled over log and deletes the oldest archives of the log
+     * beyond the number to keep. Runs on the compressor thread.
+     */
+    private static void compress(File archive, String base) {
+        File gz = new File(archive.getPath() + ".gz");
+        try (InputStream in = new FileInputStream(archive);
+                OutputStream zip = new GZIPOutputStream(
+                        new FileOutputStream(gz))) {
+            byte[] buf = new byte[8192];
+            int read;
+            while ((read = in.read(buf)) > 0) {
+                zip.write(buf, 0, read);
+            }
+        } catch (IOException ex) {
+            System.err.println("Log archive not compressed: " 
+                    + ex.getMessage());
+            gz.delete();
+            return;
+        }
+        archive.delete();
+
+        File[] archives = archive.getParentFile().listFiles((dir, name) 
+                -> name.startsWith(base + "-") && name.endsWith(".log.gz"));
+        if (archives != null && archives.length > MAX_ARCHIVES) {
+            // The time stamps in the names sort in the order they were rolled.
+            Arrays.sort(archives);
+            for (int i = 0; i < archives.length - MAX_ARCHIVES; i++) {
+                archives[i].delete();
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+}
@@ -20,7 +20,7 @@
  *  Class      :   Logger.java
  *  Author     :   Sean Carrick
  *  Created    :   Mar 8, 2020 @ 12:42:02 PM
- *  Modified   :   Mar 8, 2020
+ *  Modified   :   Oct 18, 2026
  *  
  *  Purpose:
  *  
@@ -32,6 +32,13 @@
  *  Mar 21, 2020 Sean Carrick        Added the parameter `modules` to the 
  *                                   `critical` function, so that installed
  *                                   modules may be added to the error log.
+ *  Oct 18, 2026 Sean Carrick        Messages are now written by the shared
+ *                                   AsyncLogWriter, off of the calling thread.
+ *  Oct 18, 2026 Sean Carrick        Added level guards to every message, and
+ *                                   Supplier and template overloads.
+ *  Oct 18, 2026 Sean Carrick        Loggers for the same class now share one
+ *                                   rolling LogSink instead of each opening
+ *                                   (and truncating) its own FileWriter.
  * *****************************************************************************
  */
 package com.pekinsoft.abams.utils;
@@ -42,6 +49,7 @@ import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.function.Supplier;
 import org.jdesktop.application.Application;
 
 /**
@@ -143,11 +151,12 @@ public class Logger {
 
     //<editor-fold defaultstate="collapsed" desc="Private Member Fields">
     private static Logger logger;  // The logger for the application.
-    private FileWriter log; // The file to which messages will be written.
+    private LogSink log;    // The file to which messages will be written.
     private FileWriter err; // The file to which errors will be written.
     private boolean append; // Whether or not to append to existing file.
     private int level;      // Level at which to log messages.
     private Application app;    // The application in which we are running.
+    private final AsyncLogWriter writer; // Background writer, if enabled.
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Constructor(s)">
@@ -187,6 +196,10 @@ public class Logger {
         //+ initialized to nothing (null), it will prevent some design-time 
         //+ errors from showing up.
 
+        // Unless asynchronous logging has been turned off, messages are handed
+        //+ to the shared background writer instead of being written here.
+        this.writer = AsyncLogWriter.getShared();
+
         // Set our logging level to the appropriate level.
         boolean debugging = false;
 
@@ -229,10 +242,11 @@ public class Logger {
         errorPath = errPath;
 
         // In order to ACTUALLY initialize our log field, we will need to
-        //+ enclose it in a try...catch() block. We will also need to do this
-        //+ anytime we use the log field.
+        //+ enclose it in a try...catch() block. Every logger for the same class
+        //+ shares one open file, which is only truncated (when not appending)
+        //+ by the first of them to open it.
         try {
-            this.log = new FileWriter(logFilePath);
+            this.log = LogSink.acquire(logFilePath, append);
         } catch (IOException ex) {
             // We are going to simply show a message box to the user explaining
             //+ that logging setup failed and then we will turn off logging.
@@ -278,18 +292,35 @@ public class Logger {
     public void config(String msg) {
         // We need to try to log the message, however, we will only do so if 
         //+ logging is not turned off and level is set to config or higher.
-        if (this.level != OFF && this.level >= CONFIG || this.level == DEBUG) {
+        if (isEnabled(CONFIG)) {
             // We're good to log the message to the log file.
-            try {
-                log.write(StringUtils.wrapAt("CONFIG: " + msg, 80) + "\n");
+            write(StringUtils.wrapAt("CONFIG: " + msg, 80) + "\n");
+        }
+    }
 
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+    /**
+     * Logs a configuration message that is only built if it is going to be
+     * written.
+     *
+     * @param msgSupplier Supplies the message to log.
+     */
+    public void config(Supplier<String> msgSupplier) {
+        if (isEnabled(CONFIG)) {
+            config(msgSupplier.get());
+        }
+    }
+
+    /**
+     * Logs a configuration message built from a template.
+     *
+     * @see #debug(java.lang.String, java.lang.Object...)
+     *
+     * @param template The message template.
+     * @param args The values to place in the template.
+     */
+    public void config(String template, Object... args) {
+        if (isEnabled(CONFIG)) {
+            config(format(template, args));
         }
     }
 
@@ -328,6 +359,18 @@ public class Logger {
         // We need to try to close the log, however, we will only do so if 
         //+ logging is not turned off.
         if (this.level != OFF) {
+            // When writing asynchronously, the log is closed once every
+            //+ message already queued for it has been written.
+            //+ Closing the log only closes the file once every other logger
+            //+ sharing it has been closed as well.
+            if (log == null) {
+                return;
+            } else if (writer != null) {
+                writer.close(log);
+                log = null;
+                return;
+            }
+            
             // We're good to log the message to the log file.
             try {
                 log.flush(); // First, flush it to be sure all data is written.
@@ -337,6 +380,7 @@ public class Logger {
                 String ttl = "I/O Error: Entry Not Written";
                 MessageBox.showError(ex, ttl);
             }
+            log = null;
         }
     }
 
@@ -478,8 +522,10 @@ public class Logger {
             err.write(src.toString());
 //                err.write(MSG_FTR);
 
-            // Now, flush the buffer to be sure the data was written.
+            // Now, flush the buffer to be sure the data was written, and close
+            //+ the file, since each report is written to a file of its own.
             err.flush();
+            err.close();
             src = new StringBuilder();
             src.append(MSG_HDR);
             src.append("See error log: ");
@@ -489,10 +535,7 @@ public class Logger {
             src.append(timeStamp);
             src.append(".err\n\n");
 
-            log.write(src.toString());
-
-            // Flush the log.
-            log.flush();
+            write(src.toString());
         } catch (IOException e) {
             // Let the user know that the message was not written.
             String ttl = "I/O Error: Entry Not Written";
@@ -511,124 +554,118 @@ public class Logger {
         // We need to try to log the message, however, we will only do so if 
         //+ logging is not turned off and the level is set to debugging or
         //+ higher.
-        if (this.level != OFF && this.level >= DEBUG) {
+        if (isDebugEnabled()) {
             // We're good to log the message to the log file.
-            try {
-                log.write(StringUtils.wrapAt("DEBUG: " + msg, 80) + "\n");
+            write(StringUtils.wrapAt("DEBUG: " + msg, 80) + "\n");
+        }
+    }
 
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+    /**
+     * Logs a debugging message that is only built if it is going to be
+     * written. This avoids the cost of building messages that the current
+     * logging level would discard:
+     * <pre>
+     * log.debug(() -&gt; "Loaded " + list.size() + " records: " + list);
+     * </pre>
+     *
+     * @param msgSupplier Supplies the message to log.
+     */
+    public void debug(Supplier<String> msgSupplier) {
+        if (isDebugEnabled()) {
+            debug(msgSupplier.get());
+        }
+    }
+
+    /**
+     * Logs a debugging message built from a template, in which each
+     * {@code {}} is replaced by the next argument. The message is only 
+     * built if it is going to be written.
+     *
+     * @param template The message template.
+     * @param args The values to place in the template.
+     */
+    public void debug(String template, Object... args) {
+        if (isDebugEnabled()) {
+            debug(format(template, args));
         }
     }
 
     /**
-     * As long as the {@code Logger} is not {@code OFF}, then an entry message
-     * to a method with no parameters will be written to the file, regardless of
-     * logging level.
+     * As long as the {@code Logger} is logging at the {@code DEBUG} level, an
+     * entry message to a method with no parameters will be written to the
+     * file.
      *
      * @param sourceClass The class the method being entered belongs to.
      * @param sourceMethod The name of the method being entered.
      */
     public void enter(String sourceClass, String sourceMethod) {
-        // We need to try to log the message, however, we will only do so if 
-        //+ logging is not turned off.
-        if (this.level != OFF) {
+        // Tracing is logged at the debugging level, so the message is only
+        //+ built if it is going to be written.
+        if (isDebugEnabled()) {
             // We're good to log the message to the log file.
-            try {
-                log.write(MSG_HDR);
-                log.write(" -> " + LocalDateTime.now().toString() + "\n");
-                log.write(StringUtils.wrapAt("Entering: " + sourceClass + "."
-                        + sourceMethod, 80) + "\n");
-
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+            write(MSG_HDR
+                    + " -> " + LocalDateTime.now().toString() + "\n"
+                    + StringUtils.wrapAt("Entering: " + sourceClass + "."
+                            + sourceMethod, 80) + "\n");
         }
     }
 
     /**
-     * As long as the {@code Logger} is not {@code OFF}, then an entry message
-     * to a method with one parameter will be written to the file, regardless of
-     * logging level.
+     * As long as the {@code Logger} is logging at the {@code DEBUG} level, an
+     * entry message to a method with one parameter will be written to the
+     * file. The parameter is not converted to a string otherwise.
      *
      * @param sourceClass The class the method being entered belongs to.
      * @param sourceMethod The name of the method being entered.
      * @param param The parameter being passed to the method.
      */
     public void enter(String sourceClass, String sourceMethod, Object param) {
-        // We need to build our source before we write to the file.
-        String src = sourceClass + "." + sourceMethod + "( " + param + " )";
+        // Tracing is logged at the debugging level, so the message is only
+        //+ built if it is going to be written.
+        if (isDebugEnabled()) {
+            // We need to build our source before we write to the file.
+            String src = sourceClass + "." + sourceMethod + "( " + param + " )";
 
-        // We need to try to log the message, however, we will only do so if 
-        //+ logging is not turned off.
-        if (this.level != OFF) {
             // We're good to log the message to the log file.
-            try {
-                log.write(MSG_HDR);
-                log.write(" -> " + LocalDateTime.now().toString() + "\n");
-                log.write(StringUtils.wrapAt("Entering: " + src, 80) + "\n");
-
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+            write(MSG_HDR
+                    + " -> " + LocalDateTime.now().toString() + "\n"
+                    + StringUtils.wrapAt("Entering: " + src, 80) + "\n");
         }
     }
 
     /**
-     * As long as the {@code Logger} is not {@code OFF}, then an entry message
-     * to a method with multiple parameters will be written to the file,
-     * regardless of logging level.
+     * As long as the {@code Logger} is logging at the {@code DEBUG} level, an
+     * entry message to a method with multiple parameters will be written to
+     * the file. The parameters are not converted to strings otherwise.
      *
      * @param sourceClass The class the method being entered belongs to.
      * @param sourceMethod The name of the method being entered.
      * @param params An array of the parameters passed to the method.
      */
     public void enter(String sourceClass, String sourceMethod, Object[] params) {
-        // We need to build our source before we write to the file.
-        String src = sourceClass + "." + sourceMethod + "( ";
-        String pars = "";
-
-        for (int idx = 0; idx < params.length; idx++) {
-            pars += params[idx];
-            if (idx < params.length) {
-                pars += "\n" + " ".repeat(src.length());
-            } else {
-                pars += " )";
+        // Tracing is logged at the debugging level, so the message is only
+        //+ built if it is going to be written.
+        if (isDebugEnabled()) {
+            // We need to build our source before we write to the file.
+            String src = sourceClass + "." + sourceMethod + "( ";
+            String pars = "";
+
+            for (int idx = 0; idx < params.length; idx++) {
+                pars += params[idx];
+                if (idx < params.length) {
+                    pars += "\n" + " ".repeat(src.length());
+                } else {
+                    pars += " )";
+                }
             }
-        }
 
-        // Add our params to the source.
-        src += pars;
+            // Add our params to the source.
+            src += pars;
 
-        // We need to try to log the message, however, we will only do so if 
-        //+ logging is not turned off.
-        if (this.level != OFF) {
             // We're good to log the message to the log file.
-            try {
-                log.write(MSG_HDR);
-                log.write(" -> " + LocalDateTime.now().toString() + "\n");
-                log.write(StringUtils.wrapAt("Entering: " + src, 80) + "\n");
-
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+            write(MSG_HDR
+                    + " -> " + LocalDateTime.now().toString() + "\n"
+                    + StringUtils.wrapAt("Entering: " + src, 80) + "\n");
         }
     }
 
@@ -698,86 +735,59 @@ public class Logger {
         //+ logging is not turned off.
         if (this.level != OFF) {
             // We're good to log the message to the log file.
-            try {
-                log.write(MSG_HDR);
-                log.write(src);
-                log.write(MSG_FTR);
-
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException e) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(e, ttl);
-            }
+            write(MSG_HDR
+                    + src
+                    + MSG_FTR);
         }
     }
 
     /**
-     * As long as {@code Logging} is not {@code OFF}, then a message will be
-     * written to the log file whenever control passes back out of the method
-     * that has no return value, nor parameters.
+     * As long as the {@code Logger} is logging at the {@code DEBUG} level, a
+     * message will be written to the log file whenever control passes back out
+     * of the method that has no return value, nor parameters.
      *
      * @param sourceClass The class to which the method being exited belongs.
      * @param sourceMethod The method being exited.
      */
     public void exit(String sourceClass, String sourceMethod) {
-        // We need to try to log the message, however, we will only do so if 
-        //+ logging is not turned off.
-        if (this.level != OFF) {
+        // Tracing is logged at the debugging level, so the message is only
+        //+ built if it is going to be written.
+        if (isDebugEnabled()) {
             // We're good to log the message to the log file.
-            try {
-                log.write(StringUtils.wrapAt("Exiting: " + sourceClass + "."
-                        + sourceMethod, 80));
-                log.write("\n -> " + LocalDateTime.now().toString());
-                log.write(MSG_FTR);
-
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+            write(StringUtils.wrapAt("Exiting: " + sourceClass + "."
+                    + sourceMethod, 80)
+                    + "\n -> " + LocalDateTime.now().toString()
+                    + MSG_FTR);
         }
     }
 
     /**
-     * As long as {@code Logging} is not {@code OFF}, then a message will be
-     * written to the log file whenever control passes back out of the method
-     * that has a return value, but no parameters.
+     * As long as the {@code Logger} is logging at the {@code DEBUG} level, a
+     * message will be written to the log file whenever control passes back out
+     * of the method that has a return value, but no parameters.
      *
      * @param sourceClass The class to which the method being exited belongs.
      * @param sourceMethod The name of the method being exited.
      * @param returnValue The name of the return variable.
      */
     public void exit(String sourceClass, String sourceMethod, Object returnValue) {
-        // We need to build up our string to print.
-        String src = sourceClass + "." + sourceMethod + " :: " + returnValue;
+        // Tracing is logged at the debugging level, so the message is only
+        //+ built if it is going to be written.
+        if (isDebugEnabled()) {
+            // We need to build up our string to print.
+            String src = sourceClass + "." + sourceMethod + " :: " + returnValue;
 
-        // We need to try to log the message, however, we will only do so if 
-        //+ logging is not turned off.
-        if (this.level != OFF) {
             // We're good to log the message to the log file.
-            try {
-                log.write(StringUtils.wrapAt("Exiting: " + src, 80));
-                log.write("\n -> " + LocalDateTime.now().toString());
-                log.write(MSG_FTR);
-
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+            write(StringUtils.wrapAt("Exiting: " + src, 80)
+                    + "\n -> " + LocalDateTime.now().toString()
+                    + MSG_FTR);
         }
     }
 
     /**
-     * As long as {@code Logging} is not {@code OFF}, then a message will be
-     * written to the log file whenever control passes back out of the method
-     * that has a return value and a single parameter.
+     * As long as the {@code Logger} is logging at the {@code DEBUG} level, a
+     * message will be written to the log file whenever control passes back out
+     * of the method that has a return value and a single parameter.
      *
      * @param sourceClass The class to which the method being exited belongs.
      * @param sourceMethod The name of the method being exited.
@@ -786,63 +796,45 @@ public class Logger {
      */
     public void exit(String sourceClass, String sourceMethod, Object param,
             Object returnValue) {
-        // We need to build up our string to print.
-        String src = sourceClass + "." + sourceMethod + "(" + param;
-        src += ") :: " + returnValue;
+        // Tracing is logged at the debugging level, so the message is only
+        //+ built if it is going to be written.
+        if (isDebugEnabled()) {
+            // We need to build up our string to print.
+            String src = sourceClass + "." + sourceMethod + "(" + param;
+            src += ") :: " + returnValue;
 
-        // We need to try to log the message, however, we will only do so if 
-        //+ logging is not turned off.
-        if (this.level != OFF) {
             // We're good to log the message to the log file.
-            try {
-                log.write(StringUtils.wrapAt("Exiting: " + src, 80));
-                log.write("\n -> " + LocalDateTime.now().toString());
-                log.write(MSG_FTR);
-
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+            write(StringUtils.wrapAt("Exiting: " + src, 80)
+                    + "\n -> " + LocalDateTime.now().toString()
+                    + MSG_FTR);
         }
     }
 
     public void exit(String sourceClass, String sourceMethod, Object[] params,
             Object returnValue) {
-        // We need to build our source before we write to the file.
-        String src = sourceClass + "." + sourceMethod + "( ";
-        String pars = "";
-
-        for (int idx = 0; idx < params.length; idx++) {
-            pars += params[idx];
-            if (idx < params.length) {
-                pars += "\n" + " ".repeat(src.length());
-            } else {
-                pars += " )";
+        // Tracing is logged at the debugging level, so the message is only
+        //+ built if it is going to be written.
+        if (isDebugEnabled()) {
+            // We need to build our source before we write to the file.
+            String src = sourceClass + "." + sourceMethod + "( ";
+            String pars = "";
+
+            for (int idx = 0; idx < params.length; idx++) {
+                pars += params[idx];
+                if (idx < params.length) {
+                    pars += "\n" + " ".repeat(src.length());
+                } else {
+                    pars += " )";
+                }
             }
-        }
 
-        // Add our params to the source.
-        src += pars + " :: " + returnValue;
+            // Add our params to the source.
+            src += pars + " :: " + returnValue;
 
-        // We need to try to log the message, however, we will only do so if 
-        //+ logging is not turned off.
-        if (this.level != OFF) {
             // We're good to log the message to the log file.
-            try {
-                log.write(StringUtils.wrapAt("Exiting: " + src, 80));
-                log.write("\n -> " + LocalDateTime.now().toString());
-                log.write(MSG_FTR);
-
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+            write(StringUtils.wrapAt("Exiting: " + src, 80)
+                    + "\n -> " + LocalDateTime.now().toString()
+                    + MSG_FTR);
         }
     }
 
@@ -859,6 +851,44 @@ public class Logger {
         return this.level;
     }
 
+    /**
+     * Determines whether messages of the given level are currently being
+     * written to the log. Messages are written when the {@code Logger} is not
+     * {@code OFF} and their level is at or above the logging level.
+     *
+     * @param msgLevel The level of the message, such as {@code DEBUG}.
+     * @return {@code true} if such messages are written.
+     */
+    public boolean isEnabled(int msgLevel) {
+        return this.level != OFF && msgLevel >= this.level;
+    }
+
+    /**
+     * Determines whether debugging messages, including method entry and exit
+     * messages, are currently being written to the log. Use this to guard
+     * any work that is only done to produce debugging output:
+     * <pre>
+     * if (log.isDebugEnabled()) {
+     *     log.debug("Adding product #" + current + " to list: " + p);
+     * }
+     * </pre>
+     *
+     * @return {@code true} if debugging messages are written.
+     */
+    public boolean isDebugEnabled() {
+        return isEnabled(DEBUG);
+    }
+
+    /**
+     * Determines whether configuration messages are currently being written
+     * to the log.
+     *
+     * @return {@code true} if configuration messages are written.
+     */
+    public boolean isConfigEnabled() {
+        return isEnabled(CONFIG);
+    }
+
     /**
      * Logs a non-critical error to the log file, typically, when it is thrown
      * and just before the program handles it. This should only be used for
@@ -903,18 +933,9 @@ public class Logger {
         //+ logging is not turned off.
         if (this.level != OFF) {
             // We're good to log the message to the log file.
-            try {
-                log.write(MSG_HDR);
-                log.write(src);
-                log.write(MSG_FTR);
-
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException e) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(e, ttl);
-            }
+            write(MSG_HDR
+                    + src
+                    + MSG_FTR);
         }
     }
 
@@ -929,21 +950,51 @@ public class Logger {
     public void info(String msg) {
         // We need to try to log the message, however, we will only do so if 
         //+ logging is not turned off and the level is set to info or higher.
-        if (this.level != OFF && this.level >= INFO || this.level == DEBUG) {
+        if (isEnabled(INFO)) {
             // We're good to log the message to the log file.
-            try {
-                log.write(StringUtils.wrapAt("INFO: " + msg, 80) + "\n");
+            write(StringUtils.wrapAt("INFO: " + msg, 80) + "\n");
+        }
+    }
 
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+    /**
+     * Logs a informational message that is only built if it is going to be
+     * written.
+     *
+     * @param msgSupplier Supplies the message to log.
+     */
+    public void info(Supplier<String> msgSupplier) {
+        if (isEnabled(INFO)) {
+            info(msgSupplier.get());
         }
     }
 
+    /**
+     * Logs a informational message built from a template.
+     *
+     * @see #debug(java.lang.String, java.lang.Object...)
+     *
+     * @param template The message template.
+     * @param args The values to place in the template.
+     */
+    public void info(String template, Object... args) {
+        if (isEnabled(INFO)) {
+            info(format(template, args));
+        }
+    }
+
+    /**
+     * Retrieves the number of messages, from all loggers, that were discarded
+     * because the asynchronous writer could not keep up. This is always zero
+     * unless the {@code abams.log.overflow} system property is set to
+     * {@code DROP}.
+     *
+     * @return the number of dropped messages
+     */
+    public static long getDroppedMessageCount() {
+        AsyncLogWriter shared = AsyncLogWriter.getShared();
+        return shared == null ? 0L : shared.getDroppedCount();
+    }
+
     public void setLevel(int logLevel) throws InvalidLoggingLevelException {
         // Validate the data before we set it to our field.
         switch (logLevel) {
@@ -978,18 +1029,90 @@ public class Logger {
     public void warning(String msg) {
         // We need to try to log the message, however, we will only do so if 
         //+ logging is not turned off and the level is set to warning or higher.
-        if (this.level != OFF && this.level >= WARN || this.level == DEBUG) {
+        if (isEnabled(WARN)) {
             // We're good to log the message to the log file.
-            try {
-                log.write(StringUtils.wrapAt("WARNING: " + msg, 80) + "\n");
+            write(StringUtils.wrapAt("WARNING: " + msg, 80) + "\n");
+        }
+    }
 
-                // Now, flush the buffer to be sure the data was written.
-                log.flush();
-            } catch (IOException ex) {
-                // Let the user know that the message was not written.
-                String ttl = "I/O Error: Entry Not Written";
-                MessageBox.showError(ex, ttl);
-            }
+    /**
+     * Logs a warning message that is only built if it is going to be
+     * written.
+     *
+     * @param msgSupplier Supplies the message to log.
+     */
+    public void warning(Supplier<String> msgSupplier) {
+        if (isEnabled(WARN)) {
+            warning(msgSupplier.get());
+        }
+    }
+
+    /**
+     * Logs a warning message built from a template.
+     *
+     * @see #debug(java.lang.String, java.lang.Object...)
+     *
+     * @param template The message template.
+     * @param args The values to place in the template.
+     */
+    public void warning(String template, Object... args) {
+        if (isEnabled(WARN)) {
+            warning(format(template, args));
+        }
+    }
+
+    /**
+     * Replaces each {@code {}} in the template with the next argument.
+     *
+     * @param template The message template.
+     * @param args The values to place in the template.
+     * @return The message.
+     */
+    private static String format(String template, Object[] args) {
+        if (args == null || args.length == 0) {
+            return template;
+        }
+
+        StringBuilder msg = new StringBuilder(template.length() + 16 * args.length);
+        int start = 0;
+        int arg = 0;
+        int at;
+        while (arg < args.length && (at = template.indexOf("{}", start)) >= 0) {
+            msg.append(template, start, at).append(args[arg++]);
+            start = at + 2;
+        }
+        msg.append(template, start, template.length());
+
+        return msg.toString();
+    }
+
+    /**
+     * Writes a complete log entry. Unless asynchronous logging has been turned
+     * off, the entry is queued for the background writer and this method 
+     * returns immediately; otherwise, it is written and flushed before this
+     * method returns.
+     *
+     * @param text The log entry to write.
+     */
+    private void write(String text) {
+        if (log == null) {
+            return;
+        }
+
+        if (writer != null) {
+            writer.append(log, text);
+            return;
+        }
+
+        try {
+            log.write(text);
+
+            // Now, flush the buffer to be sure the data was written.
+            log.flush();
+        } catch (IOException ex) {
+            // Let the user know that the message was not written.
+            String ttl = "I/O Error: Entry Not Written";
+            MessageBox.showError(ex, ttl);
         }
     }
 
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   BatchRollbackTest.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 9:57:26 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import com.pekinsoft.abams.db.Products;
+import com.pekinsoft.abams.db.pool.ConnectionPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that a batch which fails part way is rolled back as a whole, and
+ * that its records are left with the fields they were written with marked
+ * dirty again, so that processing the batch once more writes them.
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class BatchRollbackTest {
+
+    private static final long DESCRIPTION = 1L << Products.DESCRIPTION;
+    private static final long PRODUCT_NAME = 1L << Products.PRODUCT_NAME;
+
+    private ConnectionPool pool;
+    private ProductsDAO dao;
+
+    @Before
+    public void setUp() throws Exception {
+        pool = TestDatabase.install(TestDatabase.h2Url(null),
+                TestDatabase.PRODUCTS,
+                "INSERT INTO Products (ProductID, ProductName) VALUES "
+                + "(1, 'One'), (2, 'Two')");
+        dao = new ProductsDAO(true, TestDatabase.app());
+        dao.refresh();
+    }
+
+    @After
+    public void tearDown() {
+        dao.close();
+        TestDatabase.uninstall();
+    }
+
+    @Test
+    public void rollbackRestoresDirtyFields() throws Exception {
+        Products good = dao.findLoaded(1);
+        Products bad = dao.findLoaded(2);
+        assertEquals(0, good.getDirtyFields());
+        good.setDescription("Better");
+        bad.setProductName(null);
+        dao.update(good);
+        dao.update(bad);
+
+        assertEquals(0, dao.processBatch());
+
+        assertFalse(dao.getLastBatchResult().isCommitted());
+        assertEquals(DESCRIPTION, good.getDirtyFields());
+        assertEquals(PRODUCT_NAME, bad.getDirtyFields());
+        assertEquals(2, dao.getBatchedEntryCount());
+        assertEquals(0, TestDatabase.queryLong(pool, "SELECT COUNT(*) FROM "
+                + "Products WHERE Description IS NOT NULL"));
+    }
+
+    @Test
+    public void batchIsWrittenOnceTheFailureIsFixed() throws Exception {
+        Products good = dao.findLoaded(1);
+        Products bad = dao.findLoaded(2);
+        good.setDescription("Better");
+        bad.setProductName(null);
+        dao.update(good);
+        dao.update(bad);
+        dao.processBatch();
+
+        bad.setProductName("Two again");
+        dao.update(bad);
+
+        assertEquals(2, dao.processBatch());
+        assertTrue(dao.getLastBatchResult().isCommitted());
+        assertEquals(0, good.getDirtyFields());
+        assertEquals(0, bad.getDirtyFields());
+        assertEquals(0, dao.getBatchedEntryCount());
+        assertEquals(1, TestDatabase.queryLong(pool, "SELECT COUNT(*) FROM "
+                + "Products WHERE ProductID = 1 "
+                + "AND Description = 'Better'"));
+    }
+
+}
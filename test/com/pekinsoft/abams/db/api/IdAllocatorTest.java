@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   IdAllocatorTest.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 10:21:37 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import com.pekinsoft.abams.db.pool.ConnectionPool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link IdAllocator}s reserving blocks of keys from the same 
+ * sequence table, from many threads at once, never hand out a key twice.
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class IdAllocatorTest {
+
+    private static final int THREADS = 8;
+    private static final int KEYS_PER_THREAD = 250;
+    private static final int BLOCK_SIZE = 16;
+
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        pool = TestDatabase.install(TestDatabase.h2Url(null),
+                TestDatabase.PRODUCTS, TestDatabase.SEQUENCES,
+                "INSERT INTO Products (ProductID, ProductName) "
+                + "VALUES (41, 'Existing')");
+    }
+
+    @After
+    public void tearDown() {
+        TestDatabase.uninstall();
+    }
+
+    @Test
+    public void firstKeyFollowsTheLargestStoredKey() throws Exception {
+        IdAllocator allocator = new IdAllocator(pool, BLOCK_SIZE,
+                TestDatabase.app());
+
+        assertEquals(42, allocator.next("Products", "ProductID"));
+        assertEquals(43, allocator.next("Products", "ProductID"));
+        assertEquals(42 + BLOCK_SIZE, TestDatabase.queryLong(pool,
+                "SELECT NEXT_ID FROM " + IdAllocator.SEQUENCE_TABLE
+                + " WHERE TABLE_NAME = 'PRODUCTS'"));
+    }
+
+    @Test
+    public void keysAreUniqueUnderContention() throws Exception {
+        // Two allocators stand for two clients sharing the sequence table.
+        IdAllocator[] allocators = {
+            new IdAllocator(pool, BLOCK_SIZE, TestDatabase.app()),
+            new IdAllocator(pool, BLOCK_SIZE, TestDatabase.app())
+        };
+        Set<Long> keys = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                IdAllocator allocator = allocators[t % allocators.length];
+                Callable<Integer> task = () -> {
+                    start.await();
+                    int duplicates = 0;
+                    for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                        if (!keys.add(allocator.next("Products", 
+                                "ProductID"))) {
+                            duplicates++;
+                        }
+                    }
+                    return duplicates;
+                };
+                results.add(threads.submit(task));
+            }
+            start.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get(30, TimeUnit.SECONDS).intValue());
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertEquals(THREADS * KEYS_PER_THREAD, keys.size());
+        for (long key : keys) {
+            assertTrue("Key " + key + " was already taken", key > 41);
+        }
+        assertTrue(TestDatabase.queryLong(pool, "SELECT NEXT_ID FROM "
+                + IdAllocator.SEQUENCE_TABLE 
+                + " WHERE TABLE_NAME = 'PRODUCTS'")
+                > keys.stream().mapToLong(Long::longValue).max().getAsLong());
+    }
+
+}
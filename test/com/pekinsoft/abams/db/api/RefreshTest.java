@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   RefreshTest.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 9:31:18 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import com.pekinsoft.abams.db.Products;
+import com.pekinsoft.abams.db.pool.ConnectionPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link AbstractDAO#refresh()} applies the rows changed and
+ * deleted since the last load, and keeps the records with unsaved edits.
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class RefreshTest {
+
+    private ConnectionPool pool;
+    private ProductsDAO reader;
+    private ProductsDAO writer;
+
+    @Before
+    public void setUp() throws Exception {
+        pool = TestDatabase.install(TestDatabase.h2Url(null),
+                TestDatabase.CHANGING_PRODUCTS, TestDatabase.TOMBSTONES,
+                "INSERT INTO Products (ProductID, ProductName) VALUES "
+                + "(1, 'One'), (2, 'Two'), (3, 'Three')");
+
+        reader = new ProductsDAO(false, TestDatabase.app());
+        reader.setChangeColumn("LastModified");
+        writer = new ProductsDAO(false, TestDatabase.app());
+        writer.setChangeColumn("LastModified");
+
+        reader.refresh();
+        assertEquals(3, reader.getRecordCount());
+    }
+
+    @After
+    public void tearDown() {
+        reader.close();
+        writer.close();
+        TestDatabase.uninstall();
+    }
+
+    @Test
+    public void refreshAppliesChangedAndDeletedRows() throws Exception {
+        TestDatabase.execute(pool,
+                "UPDATE Products SET ProductName = 'Renamed' "
+                + "WHERE ProductID = 2",
+                "INSERT INTO Products (ProductID, ProductName) "
+                + "VALUES (4, 'Four')");
+        assertTrue(writer.delete(new Products(3L)));
+        assertEquals(1, TestDatabase.queryLong(pool, "SELECT COUNT(*) FROM "
+                + AbstractDAO.TOMBSTONE_TABLE + " WHERE ROW_ID = 3"));
+
+        reader.refresh();
+
+        assertEquals(3, reader.getRecordCount());
+        assertEquals("Renamed", reader.findLoaded(2).getProductName());
+        assertNull(reader.findLoaded(3));
+        assertNotNull(reader.findLoaded(4));
+        assertTrue(reader.getRefreshConflicts().isEmpty());
+    }
+
+    @Test
+    public void refreshKeepsRecordsWithUnsavedEdits() throws Exception {
+        Products edited = reader.findLoaded(2);
+        edited.setProductName("Mine");
+        Products annotated = reader.findLoaded(3);
+        annotated.setDescription("Still wanted");
+
+        TestDatabase.execute(pool, "UPDATE Products SET ProductName = "
+                + "'Theirs' WHERE ProductID = 2");
+        assertTrue(writer.delete(new Products(3L)));
+
+        reader.refresh();
+
+        assertSame(edited, reader.findLoaded(2));
+        assertEquals("Mine", edited.getProductName());
+        assertSame(annotated, reader.findLoaded(3));
+        assertEquals(2, reader.getRefreshConflicts().size());
+        assertTrue(reader.getRefreshConflicts().contains(edited));
+        assertTrue(reader.getRefreshConflicts().contains(annotated));
+    }
+
+    @Test
+    public void fullReloadKeepsRecordsWithUnsavedEdits() throws Exception {
+        reader.setChangeColumn(null);
+        reader.refresh();
+        Products edited = reader.findLoaded(2);
+        edited.setProductName("Mine");
+
+        TestDatabase.execute(pool,
+                "UPDATE Products SET ProductName = 'Theirs' "
+                + "WHERE ProductID = 2",
+                "DELETE FROM Products WHERE ProductID = 1");
+
+        reader.refresh();
+
+        assertNull(reader.findLoaded(1));
+        assertSame(edited, reader.findLoaded(2));
+        assertEquals("Mine", edited.getProductName());
+        assertEquals(2, reader.getRecordCount());
+        assertEquals(1, reader.getRefreshConflicts().size());
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   TestDatabase.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 9:12:40 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import com.pekinsoft.abams.db.pool.ConnectionPool;
+import com.pekinsoft.abams.db.pool.PoolConfig;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jdesktop.application.Application;
+
+/**
+ * {@code TestDatabase} points the data layer at a fresh embedded database for
+ * each test, and puts the shared state of {@link AbstractDAO} back the way it
+ * was when the test is done.
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+final class TestDatabase {
+
+    /** The {@code Products} table, without a change column. */
+    static final String PRODUCTS = "CREATE TABLE Products ("
+            + "ProductID BIGINT NOT NULL PRIMARY KEY, "
+            + "ProductName VARCHAR(100) NOT NULL, "
+            + "Description VARCHAR(255), "
+            + "UnitPrice DECIMAL(19, 4), "
+            + "Dimensions VARCHAR(50), "
+            + "Picture BLOB)";
+
+    /** The {@code Products} table, with {@code LastModified} as its change
+     * column; H2 only. */
+    static final String CHANGING_PRODUCTS = PRODUCTS.substring(0,
+            PRODUCTS.length() - 1) + ", LastModified TIMESTAMP DEFAULT "
+            + "CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP)";
+
+    static final String TOMBSTONES = "CREATE TABLE "
+            + AbstractDAO.TOMBSTONE_TABLE + " ("
+            + "TABLE_NAME VARCHAR(64) NOT NULL, "
+            + "ROW_ID BIGINT NOT NULL, "
+            + "DELETED_AT TIMESTAMP NOT NULL)";
+
+    static final String SEQUENCES = "CREATE TABLE "
+            + IdAllocator.SEQUENCE_TABLE + " ("
+            + "TABLE_NAME VARCHAR(64) NOT NULL PRIMARY KEY, "
+            + "NEXT_ID BIGINT NOT NULL)";
+
+    private static final AtomicInteger NAMES = new AtomicInteger();
+
+    private TestDatabase() {
+        // No instances.
+    }
+
+    /**
+     * Retrieves the application the data access objects log for.
+     */
+    static Application app() {
+        return Application.getInstance(TestApp.class);
+    }
+
+    /**
+     * Retrieves the URL of a new, empty H2 database in memory, which lives
+     * until the JVM exits.
+     *
+     * @param mode the H2 compatibility mode, or {@code null} for none
+     */
+    static String h2Url(String mode) {
+        return "jdbc:h2:mem:abams" + NAMES.incrementAndGet()
+                + ";DB_CLOSE_DELAY=-1" + (mode == null ? "" : ";MODE=" + mode);
+    }
+
+    /**
+     * Retrieves the URL of a new, empty Derby database in memory.
+     */
+    static String derbyUrl() {
+        return "jdbc:derby:memory:abams" + NAMES.incrementAndGet()
+                + ";create=true";
+    }
+
+    /**
+     * Creates a small pool on the given database.
+     */
+    static ConnectionPool pool(String url) {
+        PoolConfig config = new PoolConfig(url, "sa", new char[0]);
+        config.setMaxPoolSize(4);
+        config.setBorrowTimeout(5_000);
+        return new ConnectionPool(config, null);
+    }
+
+    /**
+     * Installs a pool on the given database as the one shared by the data
+     * access objects, with a fresh entity cache and no dialect, key
+     * allocator or replica, and runs the given statements on it.
+     *
+     * @return the installed pool
+     */
+    static ConnectionPool install(String url, String... ddl)
+            throws SQLException {
+        ConnectionPool pool = pool(url);
+        AbstractDAO.setConnectionPool(pool);
+        AbstractDAO.setEntityCache(null);
+        AbstractDAO.setIdAllocator(null);
+        AbstractDAO.setLocalReplica(null);
+        execute(pool, ddl);
+        return pool;
+    }
+
+    /**
+     * Shuts down the installed pool and clears the shared state.
+     */
+    static void uninstall() {
+        AbstractDAO.setConnectionPool(null);
+        AbstractDAO.setEntityCache(null);
+        AbstractDAO.setIdAllocator(null);
+        AbstractDAO.setLocalReplica(null);
+    }
+
+    /**
+     * Runs each of the given statements on its own.
+     */
+    static void execute(ConnectionPool pool, String... sql)
+            throws SQLException {
+        try (Connection conn = pool.getConnection();
+                Statement st = conn.createStatement()) {
+            for (String statement : sql) {
+                st.execute(statement);
+            }
+        }
+    }
+
+    /**
+     * Runs a query for a single number.
+     */
+    static long queryLong(ConnectionPool pool, String sql)
+            throws SQLException {
+        try (Connection conn = pool.getConnection();
+                Statement st = conn.createStatement();
+                ResultSet r = st.executeQuery(sql)) {
+            r.next();
+            return r.getLong(1);
+        }
+    }
+
+    /**
+     * An application that does nothing, so that loggers have somewhere to
+     * write to.
+     */
+    public static class TestApp extends Application {
+
+        @Override
+        protected void startup() {
+            // Nothing to show.
+        }
+
+    }
+
+}
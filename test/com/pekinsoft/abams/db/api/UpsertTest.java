@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   UpsertTest.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 10:08:51 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.api;
+
+import com.pekinsoft.abams.db.Products;
+import com.pekinsoft.abams.db.pool.ConnectionPool;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that saving keyed records upserts them in each {@link SqlDialect}:
+ * records whose rows exist are updated, setting only their changed columns,
+ * and the others are inserted.
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+@RunWith(Parameterized.class)
+public class UpsertTest {
+
+    private static final byte[] PICTURE = {1, 2, 3};
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> dialects() {
+        return Arrays.asList(new Object[][]{
+            {SqlDialect.H2, null},
+            {SqlDialect.MARIADB, "MySQL"},
+            {SqlDialect.DERBY, null},
+            {SqlDialect.GENERIC, null}
+        });
+    }
+
+    private final SqlDialect dialect;
+    private final String mode;
+
+    private ConnectionPool pool;
+    private ProductsDAO dao;
+
+    /**
+     * @param dialect the dialect under test
+     * @param mode the H2 compatibility mode the dialect is run in, if it is
+     *          not identified from the database itself
+     */
+    public UpsertTest(SqlDialect dialect, String mode) {
+        this.dialect = dialect;
+        this.mode = mode;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        pool = TestDatabase.install(dialect == SqlDialect.DERBY 
+                ? TestDatabase.derbyUrl() : TestDatabase.h2Url(mode),
+                TestDatabase.PRODUCTS);
+        try (Connection conn = pool.getConnection();
+                PreparedStatement ps = conn.prepareStatement("INSERT INTO "
+                        + "Products (ProductID, ProductName, Description, "
+                        + "Picture) VALUES (1, 'One', 'Keep', ?)")) {
+            ps.setBytes(1, PICTURE);
+            ps.executeUpdate();
+            if (dialect != SqlDialect.MARIADB 
+                    && dialect != SqlDialect.GENERIC) {
+                assertEquals(dialect, SqlDialect.of(conn));
+            }
+        }
+        AbstractDAO.setDialect(dialect);
+        dao = new ProductsDAO(false, TestDatabase.app());
+    }
+
+    @After
+    public void tearDown() {
+        dao.close();
+        TestDatabase.uninstall();
+    }
+
+    @Test
+    public void saveUpdatesExistingRowsAndInsertsNewOnes() throws Exception {
+        Products existing = new Products(1L);
+        existing.setEdited(false);
+        existing.setProductName("Uno");
+        Products added = new Products(2L, "Two", BigDecimal.TEN);
+
+        ArrayList<Products> records = new ArrayList<>();
+        records.add(existing);
+        records.add(added);
+        assertEquals(2, dao.save(records));
+
+        assertEquals(0, existing.getDirtyFields());
+        assertEquals(0, added.getDirtyFields());
+        try (Connection conn = pool.getConnection();
+                PreparedStatement ps = conn.prepareStatement("SELECT "
+                        + "ProductName, Description, UnitPrice, Picture "
+                        + "FROM Products ORDER BY ProductID");
+                ResultSet r = ps.executeQuery()) {
+            r.next();
+            assertEquals("Uno", r.getString(1));
+            assertEquals("Keep", r.getString(2));
+            assertArrayEquals(PICTURE, r.getBytes(4));
+            r.next();
+            assertEquals("Two", r.getString(1));
+            assertEquals(0, BigDecimal.TEN.compareTo(r.getBigDecimal(3)));
+        }
+    }
+
+    @Test
+    public void savingAgainChangesNothingElse() throws Exception {
+        Products added = new Products(2L, "Two", BigDecimal.ONE);
+        ArrayList<Products> records = new ArrayList<>();
+        records.add(added);
+        assertEquals(1, dao.save(records));
+
+        added.setUnitPrice(BigDecimal.TEN);
+        assertEquals(1, dao.save(records));
+
+        assertEquals(2, TestDatabase.queryLong(pool,
+                "SELECT COUNT(*) FROM Products"));
+        assertEquals(10, TestDatabase.queryLong(pool,
+                "SELECT UnitPrice FROM Products WHERE ProductID = 2"));
+    }
+
+}
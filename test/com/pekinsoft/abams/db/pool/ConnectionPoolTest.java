@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   AbAMS
+ *  Class      :   ConnectionPoolTest.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 18, 2026 @ 9:48:03 PM
+ *  Modified   :   Oct 18, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 18, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.pekinsoft.abams.db.pool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests borrowing from and returning to the {@link ConnectionPool}, borrow
+ * timeouts, leak detection, and the reuse of cached statements, against an
+ * embedded H2 database.
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class ConnectionPoolTest {
+
+    private static final AtomicInteger NAMES = new AtomicInteger();
+
+    private ConnectionPool pool;
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static PoolConfig config(int maxPoolSize) {
+        PoolConfig config = new PoolConfig("jdbc:h2:mem:pool"
+                + NAMES.incrementAndGet() + ";DB_CLOSE_DELAY=-1", "sa",
+                new char[0]);
+        config.setMaxPoolSize(maxPoolSize);
+        config.setBorrowTimeout(200);
+        return config;
+    }
+
+    @Test
+    public void returnedConnectionIsReused() throws Exception {
+        pool = new ConnectionPool(config(2), null);
+
+        Connection first = pool.getConnection();
+        assertEquals(1, pool.getMetrics().getActiveConnections());
+        first.close();
+        assertTrue(first.isClosed());
+        assertEquals(0, pool.getMetrics().getActiveConnections());
+        assertEquals(1, pool.getMetrics().getIdleConnections());
+
+        try (Connection second = pool.getConnection()) {
+            assertNotSame(first, second);
+            assertEquals(1, pool.getMetrics().getCreatedCount());
+        }
+        assertEquals(2, pool.getMetrics().getBorrowCount());
+    }
+
+    @Test
+    public void closedConnectionCannotBeUsed() throws Exception {
+        pool = new ConnectionPool(config(1), null);
+
+        Connection conn = pool.getConnection();
+        conn.close();
+        try {
+            conn.createStatement();
+            fail("A returned connection was usable.");
+        } catch (SQLException expected) {
+            assertEquals("08003", expected.getSQLState());
+        }
+    }
+
+    @Test
+    public void borrowTimesOutWhenPoolIsExhausted() throws Exception {
+        pool = new ConnectionPool(config(1), null);
+
+        try (Connection held = pool.getConnection()) {
+            long start = System.nanoTime();
+            try (Connection extra = pool.getConnection()) {
+                fail("Borrowed more connections than the pool holds.");
+            } catch (SQLTransientConnectionException expected) {
+                long waited = (System.nanoTime() - start) / 1_000_000;
+                assertTrue("Waited only " + waited + "ms", waited >= 150);
+            }
+        }
+        assertEquals(1, pool.getMetrics().getTimeoutCount());
+
+        try (Connection again = pool.getConnection()) {
+            assertEquals(1, pool.getMetrics().getActiveConnections());
+        }
+    }
+
+    @Test
+    public void connectionHeldPastThresholdIsReportedAsLeak()
+            throws Exception {
+        PoolConfig config = config(1);
+        config.setLeakDetectionThreshold(50);
+        config.setHousekeepingInterval(25);
+        pool = new ConnectionPool(config, null);
+
+        try (Connection held = pool.getConnection()) {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (pool.getMetrics().getLeakCount() == 0
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(25);
+            }
+            Thread.sleep(100);
+            assertEquals(1, pool.getMetrics().getLeakCount());
+        }
+
+        try (Connection quick = pool.getConnection()) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        assertEquals(1, pool.getMetrics().getLeakCount());
+    }
+
+    @Test
+    public void cachedStatementIsResetAndTiedToItsConnection()
+            throws Exception {
+        pool = new ConnectionPool(config(1), null);
+        String sql = "SELECT X FROM SYSTEM_RANGE(1, 10)";
+
+        PreparedStatement first;
+        try (Connection conn = pool.getConnection()) {
+            first = ((CachingConnection) conn).prepareCached(sql);
+            assertSame(conn, first.getConnection());
+            first.setMaxRows(3);
+            first.setFetchSize(2);
+            first.close();
+        }
+
+        try (Connection conn = pool.getConnection();
+                PreparedStatement again = ((CachingConnection) conn)
+                        .prepareCached(sql)) {
+            assertSame(conn, again.getConnection());
+            assertEquals(0, again.getMaxRows());
+            assertEquals(1, pool.getMetrics().getStatementCacheHits());
+            try {
+                first.executeQuery();
+                fail("A statement was usable after it was handed back.");
+            } catch (SQLException expected) {
+                // The old handle no longer reaches the cached statement.
+            }
+        }
+    }
+
+}